@@ -0,0 +1,65 @@
+package org.freeplane.core.extension;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link ExtensionContainer#getExtension(Class)} throughput for a node like container
+ * holding the given number of extensions, looking up present and missing extension classes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExtensionContainerBenchmark {
+	static class Extension1 implements IExtension {}
+	static class Extension2 implements IExtension {}
+	static class Extension3 implements IExtension {}
+	static class Extension4 implements IExtension {}
+	static class Extension5 implements IExtension {}
+	static class Extension6 implements IExtension {}
+	static class Extension7 implements IExtension {}
+	static class Extension8 implements IExtension {}
+	static class MissingExtension implements IExtension {}
+
+	private static final IExtension[] EXTENSIONS = { new Extension1(), new Extension2(), new Extension3(),
+	        new Extension4(), new Extension5(), new Extension6(), new Extension7(), new Extension8() };
+
+	@Param({ "1", "4", "8" })
+	public int extensionCount;
+
+	private ExtensionContainer container;
+	private Class<? extends IExtension> lastExtensionClass;
+
+	@Setup
+	public void setup() {
+		container = new ExtensionContainer(new IndexedExtensionMap());
+		for (int i = 0; i < extensionCount; i++) {
+			container.addExtension(EXTENSIONS[i]);
+		}
+		lastExtensionClass = EXTENSIONS[extensionCount - 1].getClass();
+	}
+
+	@Benchmark
+	public IExtension getPresentExtension() {
+		return container.getExtension(lastExtensionClass);
+	}
+
+	@Benchmark
+	public IExtension getMissingExtension() {
+		return container.getExtension(MissingExtension.class);
+	}
+}
@@ -0,0 +1,95 @@
+package org.freeplane.core.io.xml;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.freeplane.core.io.IElementDOMHandler;
+import org.freeplane.core.io.ReadManager;
+import org.freeplane.n3.nanoxml.XMLElement;
+import org.freeplane.n3.nanoxml.XMLException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares loading a synthetic map with the given number of nodes
+ * using the nanoxml based {@link XMLParser} and {@link FastXMLParser}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TreeXmlReaderBenchmark {
+	private static class Node {
+		String text;
+		String id;
+	}
+
+	@Param({ "10000", "200000" })
+	public int nodeCount;
+
+	private String map;
+	private ReadManager readManager;
+
+	@Setup
+	public void setup() {
+		final StringBuilder xml = new StringBuilder();
+		xml.append("<map version=\"freeplane 1.7.0\">\n");
+		appendNode(xml, 0, 1);
+		xml.append("</map>\n");
+		map = xml.toString();
+		readManager = new ReadManager();
+		final IElementDOMHandler nodeHandler = new IElementDOMHandler() {
+			@Override
+			public Object createElement(Object parent, String tag, XMLElement attributes) {
+				return new Node();
+			}
+
+			@Override
+			public void endElement(Object parent, String tag, Object element, XMLElement dom) {
+			}
+		};
+		readManager.addElementHandler("map", nodeHandler);
+		readManager.addElementHandler("node", nodeHandler);
+		readManager.addAttributeHandler("node", "TEXT", (node, value) -> ((Node) node).text = value);
+		readManager.addAttributeHandler("node", "ID", (node, value) -> ((Node) node).id = value);
+	}
+
+	private int appendNode(StringBuilder xml, int number, int depth) {
+		xml.append("<node TEXT=\"node ").append(number).append(" with &lt;special&gt; &amp; &quot;quoted&quot; text\"")
+		    .append(" ID=\"ID_").append(number).append("\" CREATED=\"1577836800000\" MODIFIED=\"1577836800000\">\n")
+		    .append("<font SIZE=\"12\" BOLD=\"true\"/>\n");
+		int nextNumber = number + 1;
+		for (int i = 0; i < 8 && nextNumber < nodeCount && depth < 6; i++) {
+			nextNumber = appendNode(xml, nextNumber, depth + 1);
+		}
+		xml.append("</node>\n");
+		return nextNumber;
+	}
+
+	private void load(boolean fastParserEnabled) throws XMLException {
+		final TreeXmlReader reader = new TreeXmlReader(readManager);
+		reader.setFastParserEnabled(fastParserEnabled);
+		reader.load(new StringReader(map));
+	}
+
+	@Benchmark
+	public void nanoxmlParser() throws XMLException {
+		load(false);
+	}
+
+	@Benchmark
+	public void fastParser() throws XMLException {
+		load(true);
+	}
+}
@@ -0,0 +1,101 @@
+package org.freeplane.core.io.xml;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.output.NullWriter;
+import org.freeplane.core.io.ITreeWriter;
+import org.freeplane.core.io.WriteManager;
+import org.freeplane.n3.nanoxml.XMLElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link TreeXmlWriter} and {@link StreamingTreeXmlWriter}
+ * writing a synthetic tree shaped like a mind map with the given number of nodes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TreeXmlWriterBenchmark {
+	private static class Node {
+		final String id;
+		final String text;
+		final List<Node> children = new ArrayList<>();
+
+		Node(int number) {
+			this.id = "ID_" + number;
+			this.text = "node " + number + " with <special> & \"quoted\" text";
+		}
+	}
+
+	@Param({ "10000", "200000" })
+	public int nodeCount;
+
+	private Node root;
+	private WriteManager writeManager;
+
+	@Setup
+	public void setup() {
+		root = new Node(0);
+		final List<Node> parents = new ArrayList<>();
+		parents.add(root);
+		for (int i = 1; i < nodeCount; i++) {
+			final Node node = new Node(i);
+			parents.get((i - 1) / 8).children.add(node);
+			parents.add(node);
+		}
+		writeManager = new WriteManager();
+		writeManager.addAttributeWriter("node", (writer, userObject, tag) -> {
+			final Node node = (Node) userObject;
+			writer.addAttribute("TEXT", node.text);
+			writer.addAttribute("ID", node.id);
+			writer.addAttribute("CREATED", "1577836800000");
+			writer.addAttribute("MODIFIED", "1577836800000");
+		});
+		writeManager.addElementWriter("node", (writer, element, tag) -> {
+			final Node node = (Node) element;
+			final XMLElement font = new XMLElement("font");
+			font.setAttribute("SIZE", "12");
+			font.setAttribute("BOLD", "true");
+			writer.addElement(node, font);
+			for (Node child : node.children) {
+				writer.addElement(child, "node");
+			}
+		});
+		writeManager.addElementWriter("map", (writer, element, tag) -> writer.addElement(root, "node"));
+	}
+
+	private void write(ITreeWriter treeWriter, Writer writer) throws IOException {
+		treeWriter.addElement(null, new XMLElement("map"));
+		writer.flush();
+	}
+
+	@Benchmark
+	public void treeXmlWriter() throws IOException {
+		final Writer writer = new BufferedWriter(NullWriter.NULL_WRITER);
+		write(new TreeXmlWriter(writeManager, writer, false), writer);
+	}
+
+	@Benchmark
+	public void streamingTreeXmlWriter() throws IOException {
+		final Writer writer = new BufferedWriter(NullWriter.NULL_WRITER);
+		write(new StreamingTreeXmlWriter(writeManager, writer, false), writer);
+	}
+}
@@ -0,0 +1,95 @@
+package org.freeplane.features.nodestyle;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.freeplane.features.nodestyle.NodeStyleModel.HorizontalTextAlignment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Resolves font, colors, shape and text alignment of all nodes of a map with the given number of nodes,
+ * either resolving the style nodes again for each property lookup like before {@link ResolvedNodeStyle} was kept,
+ * or looking the properties up in the kept {@link ResolvedNodeStyle} of each node.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NodeStyleResolutionBenchmark {
+	private static final Font BASE_FONT = new Font("SansSerif", Font.PLAIN, 10);
+
+	@Param({ "10000", "100000" })
+	public int nodeCount;
+
+	private List<List<NodeStyleModel>> nodeStyleModels;
+	private List<ResolvedNodeStyle> resolvedStyles;
+
+	@Setup
+	public void setup() {
+		final NodeStyleModel defaultStyle = new NodeStyleModel();
+		defaultStyle.setFontFamilyName("SansSerif");
+		defaultStyle.setFontSize(10);
+		defaultStyle.setColor(Color.BLACK);
+		defaultStyle.setHorizontalTextAlignment(HorizontalTextAlignment.LEFT);
+		final NodeStyleModel[] levelStyles = new NodeStyleModel[4];
+		for (int level = 0; level < levelStyles.length; level++) {
+			levelStyles[level] = new NodeStyleModel();
+			levelStyles[level].setFontSize(18 - 2 * level);
+			levelStyles[level].setBold(level < 2);
+			levelStyles[level].setBackgroundColor(new Color(0xF0F0F0 - level * 0x101010));
+		}
+		nodeStyleModels = new ArrayList<>(nodeCount);
+		resolvedStyles = new ArrayList<>(nodeCount);
+		for (int i = 0; i < nodeCount; i++) {
+			final NodeStyleModel ownStyle = new NodeStyleModel();
+			if (i % 10 == 0)
+				ownStyle.setItalic(true);
+			final List<NodeStyleModel> styleModels = Arrays.asList(ownStyle, levelStyles[i % levelStyles.length],
+			    defaultStyle);
+			nodeStyleModels.add(styleModels);
+			resolvedStyles.add(new ResolvedNodeStyle(styleModels));
+		}
+	}
+
+	private static void resolve(ResolvedNodeStyle style, Blackhole blackhole) {
+		blackhole.consume(style.getFont(BASE_FONT));
+		blackhole.consume(style.getTextColor());
+		blackhole.consume(style.getBackgroundColor());
+		blackhole.consume(style.getShapeConfiguration());
+		blackhole.consume(style.getHorizontalTextAlignment());
+	}
+
+	@Benchmark
+	public void resolveForEachLookup(Blackhole blackhole) {
+		for (List<NodeStyleModel> styleModels : nodeStyleModels) {
+			blackhole.consume(new ResolvedNodeStyle(styleModels).getFont(BASE_FONT));
+			blackhole.consume(new ResolvedNodeStyle(styleModels).getTextColor());
+			blackhole.consume(new ResolvedNodeStyle(styleModels).getBackgroundColor());
+			blackhole.consume(new ResolvedNodeStyle(styleModels).getShapeConfiguration());
+			blackhole.consume(new ResolvedNodeStyle(styleModels).getHorizontalTextAlignment());
+		}
+	}
+
+	@Benchmark
+	public void resolveOncePerNode(Blackhole blackhole) {
+		for (ResolvedNodeStyle style : resolvedStyles)
+			resolve(style, blackhole);
+	}
+}
@@ -0,0 +1,151 @@
+package org.freeplane.main.headlessmode;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.features.filter.Filter;
+import org.freeplane.features.filter.FilterController;
+import org.freeplane.features.filter.condition.ICondition;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.map.mindmapmode.MMapController;
+import org.freeplane.features.mode.Controller;
+import org.freeplane.features.mode.ModeController;
+import org.freeplane.features.text.TextController;
+import org.freeplane.features.url.mindmapmode.MFileManager;
+import org.freeplane.features.url.mindmapmode.MapLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of processing a batch of synthetic maps by a {@link WorkerControllerPool}
+ * with the given number of workers of a headless application.
+ * Each task loads a map, adds a node, filters the map with a condition checked in parallel, saves and closes the map.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WorkerControllerPoolBenchmark {
+	private static final int MAP_COUNT = 32;
+	private static final int NODE_COUNT = 5000;
+
+	private static class TextEndsWithCondition implements ICondition {
+		private final String suffix;
+
+		TextEndsWithCondition(String suffix) {
+			this.suffix = suffix;
+		}
+
+		@Override
+		public boolean checkNode(NodeModel node) {
+			return TextController.getController().getShortPlainText(node).endsWith(suffix);
+		}
+
+		@Override
+		public boolean canBeCheckedConcurrently() {
+			return true;
+		}
+	}
+
+	@Param({ "1", "2", "4" })
+	public int workerCount;
+
+	private final AtomicInteger savedMapCounter = new AtomicInteger();
+	private FreeplaneHeadlessStarter starter;
+	private Path directory;
+	private File mapFile;
+	private WorkerControllerPool pool;
+
+	@Setup
+	public void setup() throws IOException {
+		if (null == System.getProperty("org.freeplane.core.dir.lib", null)) {
+			System.setProperty("org.freeplane.core.dir.lib", "/lib/");
+		}
+		starter = new FreeplaneHeadlessStarter();
+		final Controller controller = starter.createController();
+		starter.createModeControllers(controller);
+		FilterController.getController(controller).loadDefaultConditions();
+		starter.createFrame();
+		ResourceController.getResourceController().setProperty("filter.parallelEvaluation", true);
+		directory = Files.createTempDirectory("benchmark");
+		final StringBuilder xml = new StringBuilder();
+		xml.append("<map version=\"freeplane 1.7.0\">\n");
+		appendNode(xml, 0, 1);
+		xml.append("</map>\n");
+		mapFile = directory.resolve("source.mm").toFile();
+		Files.write(mapFile.toPath(), xml.toString().getBytes(StandardCharsets.UTF_8));
+		pool = controller.getExtension(WorkerControllerPoolFactory.class).createPool(workerCount);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		pool.close();
+		starter.stop();
+		try (Stream<Path> paths = Files.walk(directory)) {
+			paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	private int appendNode(StringBuilder xml, int number, int depth) {
+		xml.append("<node TEXT=\"node ").append(number).append("\" ID=\"ID_").append(number).append("\">\n");
+		int nextNumber = number + 1;
+		for (int i = 0; i < 8 && nextNumber < NODE_COUNT && depth < 6; i++) {
+			nextNumber = appendNode(xml, nextNumber, depth + 1);
+		}
+		xml.append("</node>\n");
+		return nextNumber;
+	}
+
+	private long processMap() {
+		final ModeController modeController = Controller.getCurrentModeController();
+		final MapModel map = new MapLoader(modeController).load(mapFile).unsetMapLocation().getMap();
+		try {
+			final NodeModel root = map.getRootNode();
+			((MMapController) modeController.getMapController()).addNewNode(root, root.getChildCount(), false);
+			Filter.createFilter(new TextEndsWithCondition("7"), true, false, null).calculateFilterResults(map);
+			final File savedFile = new File(directory.toFile(), "map" + savedMapCounter.incrementAndGet() + ".mm");
+			MFileManager.getController(modeController).save(map, savedFile);
+			return savedFile.length();
+		}
+		finally {
+			map.close();
+		}
+	}
+
+	/** Each operation processes {@value #MAP_COUNT} maps. */
+	@Benchmark
+	public long processMaps() throws InterruptedException, ExecutionException {
+		final List<Future<Long>> results = new ArrayList<>(MAP_COUNT);
+		for (int i = 0; i < MAP_COUNT; i++)
+			results.add(pool.submit(this::processMap));
+		long savedBytes = 0;
+		for (Future<Long> result : results)
+			savedBytes += result.get();
+		return savedBytes;
+	}
+}
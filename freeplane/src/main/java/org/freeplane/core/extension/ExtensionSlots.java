@@ -0,0 +1,24 @@
+package org.freeplane.core.extension;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns each extension class a small number used as key in {@link IndexedExtensionMap}.
+ * Numbers are assigned on first use and never reused.
+ */
+final class ExtensionSlots {
+	private static final AtomicInteger slotCounter = new AtomicInteger();
+	private static final ClassValue<Integer> slots = new ClassValue<Integer>() {
+		@Override
+		protected Integer computeValue(Class<?> type) {
+			return slotCounter.getAndIncrement();
+		}
+	};
+
+	private ExtensionSlots() {
+	}
+
+	static int slotOf(Class<?> extensionClass) {
+		return slots.get(extensionClass);
+	}
+}
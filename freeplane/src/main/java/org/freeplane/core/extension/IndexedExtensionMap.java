@@ -0,0 +1,191 @@
+package org.freeplane.core.extension;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Compact extension map for objects usually having only a few extensions, like nodes.
+ * Keys are looked up by the slot number assigned to each extension class in a small open addressing table,
+ * so that lookups take constant time without allocating objects.
+ * Values are kept and iterated in insertion order.
+ */
+public class IndexedExtensionMap implements Map<Class<? extends IExtension>, IExtension> {
+	private static final int INITIAL_CAPACITY = 4;
+	private static final int MAXIMAL_SIZE = 0xFF - 1;
+
+	private class Values extends AbstractList<IExtension> implements RandomAccess {
+		@Override
+		public IExtension get(int index) {
+			if (index >= size) {
+				throw new IndexOutOfBoundsException(String.valueOf(index));
+			}
+			return values[index];
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+
+	private IExtension[] values;
+	private int[] keySlots;
+	/** Positions in {@link #values} incremented by one, 0 marks empty entries. */
+	private byte[] index;
+	private int size;
+
+	@Override
+	public void clear() {
+		values = null;
+		keySlots = null;
+		index = null;
+		size = 0;
+	}
+
+	@Override
+	public boolean containsKey(final Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public boolean containsValue(final Object value) {
+		for (int i = 0; i < size; i++) {
+			if (values[i].equals(value)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public Set<java.util.Map.Entry<Class<? extends IExtension>, IExtension>> entrySet() {
+		throw new NoSuchMethodError();
+	}
+
+	private int find(final int slot) {
+		final int mask = index.length - 1;
+		for (int i = slot & mask;; i = (i + 1) & mask) {
+			final int entry = index[i] & 0xFF;
+			if (entry == 0) {
+				return -1;
+			}
+			if (keySlots[entry - 1] == slot) {
+				return entry - 1;
+			}
+		}
+	}
+
+	@Override
+	public IExtension get(final Object key) {
+		if (size == 0 || !(key instanceof Class<?>)) {
+			return null;
+		}
+		final int position = find(ExtensionSlots.slotOf((Class<?>) key));
+		return position >= 0 ? values[position] : null;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public Set<Class<? extends IExtension>> keySet() {
+		throw new NoSuchMethodError();
+	}
+
+	@Override
+	public IExtension put(final Class<? extends IExtension> key, final IExtension value) {
+		final int slot = ExtensionSlots.slotOf(key);
+		if (size == 0) {
+			values = new IExtension[INITIAL_CAPACITY];
+			keySlots = new int[INITIAL_CAPACITY];
+			index = new byte[2 * INITIAL_CAPACITY];
+		}
+		else {
+			final int position = find(slot);
+			if (position >= 0) {
+				final IExtension oldValue = values[position];
+				values[position] = value;
+				return oldValue;
+			}
+			if (size == MAXIMAL_SIZE) {
+				throw new IllegalStateException("too many extensions");
+			}
+			if (size == values.length) {
+				values = Arrays.copyOf(values, 2 * size);
+				keySlots = Arrays.copyOf(keySlots, 2 * size);
+			}
+		}
+		values[size] = value;
+		keySlots[size] = slot;
+		size++;
+		if (2 * size > index.length) {
+			index = new byte[2 * index.length];
+			rebuildIndex();
+		}
+		else {
+			addToIndex(size - 1);
+		}
+		return null;
+	}
+
+	private void addToIndex(final int position) {
+		final int mask = index.length - 1;
+		int i = keySlots[position] & mask;
+		while (index[i] != 0) {
+			i = (i + 1) & mask;
+		}
+		index[i] = (byte) (position + 1);
+	}
+
+	private void rebuildIndex() {
+		Arrays.fill(index, (byte) 0);
+		for (int position = 0; position < size; position++) {
+			addToIndex(position);
+		}
+	}
+
+	@Override
+	public void putAll(final Map<? extends Class<? extends IExtension>, ? extends IExtension> source) {
+		for (final Entry<? extends Class<? extends IExtension>, ? extends IExtension> entry : source.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Override
+	public IExtension remove(final Object key) {
+		if (size == 0 || !(key instanceof Class<?>)) {
+			return null;
+		}
+		final int position = find(ExtensionSlots.slotOf((Class<?>) key));
+		if (position == -1) {
+			return null;
+		}
+		final IExtension removed = values[position];
+		size--;
+		if (size == 0) {
+			clear();
+			return removed;
+		}
+		System.arraycopy(values, position + 1, values, position, size - position);
+		System.arraycopy(keySlots, position + 1, keySlots, position, size - position);
+		values[size] = null;
+		rebuildIndex();
+		return removed;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public Collection<IExtension> values() {
+		return new Values();
+	}
+}
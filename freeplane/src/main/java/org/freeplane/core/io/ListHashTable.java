@@ -19,9 +19,9 @@
  */
 package org.freeplane.core.io;
 
+import java.util.ArrayList;
 import java.util.Hashtable;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -49,7 +49,7 @@ public class ListHashTable<K, V> {
 	public void add(final K tag, final V element) {
 		List<V> elementsForTag = table.get(tag);
 		if (elementsForTag == null) {
-			elementsForTag = new LinkedList<V>();
+			elementsForTag = new ArrayList<V>(2);
 			table.put(tag, elementsForTag);
 		}
 		elementsForTag.add(element);
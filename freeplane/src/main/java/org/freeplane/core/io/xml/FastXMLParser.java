@@ -0,0 +1,641 @@
+package org.freeplane.core.io.xml;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.freeplane.n3.nanoxml.NonValidator;
+import org.freeplane.n3.nanoxml.StdXMLReader;
+import org.freeplane.n3.nanoxml.XMLException;
+import org.freeplane.n3.nanoxml.XMLParseException;
+
+/**
+ * Parser for XML written by Freeplane. It reads the whole input into a character array
+ * and scans it directly, calling the same {@link TreeXmlReader} methods as {@link XMLParser}
+ * does in the same order and with the same values.
+ *
+ * Documents containing a document type declaration can define own entities,
+ * they are passed to {@link XMLParser}.
+ */
+class FastXMLParser implements ITreeXmlParser {
+	private static final String SYSTEM_ID = "file:.";
+	private static final int READ_BUFFER_SIZE = 64 * 1024;
+	private static final int NAME_CACHE_SIZE = 256;
+
+	private final Reader reader;
+	private final TreeXmlReader builder;
+	private XMLParser fallbackParser;
+	private char[] text;
+	private int length;
+	private int position;
+	private int lineNr;
+	private int lineCountedUntil;
+	private boolean skipNextElementContent;
+	private final String[] nameCache = new String[NAME_CACHE_SIZE];
+	private String[] attributeNames = new String[16];
+	private String[] attributeValues = new String[16];
+	private final StringBuilder textBuilder = new StringBuilder();
+
+	FastXMLParser(final Reader reader, final TreeXmlReader builder) {
+		this.reader = reader;
+		this.builder = builder;
+	}
+
+	@Override
+	public void notParseNextElementContent() {
+		if (fallbackParser != null) {
+			fallbackParser.notParseNextElementContent();
+		}
+		else {
+			skipNextElementContent = true;
+		}
+	}
+
+	@Override
+	public Object parse() throws XMLException {
+		try {
+			readText();
+			if (containsDocumentTypeDeclaration()) {
+				return parseWithFallbackParser();
+			}
+			lineNr = 1;
+			builder.startBuilding(SYSTEM_ID, lineNr);
+			scanData();
+			return builder.getResult();
+		}
+		catch (final XMLException e) {
+			throw e;
+		}
+		catch (final ArrayIndexOutOfBoundsException e) {
+			throw new XMLParseException(SYSTEM_ID, lineNr(), "Unexpected end of data");
+		}
+		catch (final Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Reads the complete input replacing line breaks by '\n' like {@link java.io.LineNumberReader} does.
+	 */
+	private void readText() throws IOException {
+		char[] buffer = new char[READ_BUFFER_SIZE];
+		int size = 0;
+		for (;;) {
+			if (size == buffer.length) {
+				buffer = Arrays.copyOf(buffer, size * 2);
+			}
+			final int charsRead = reader.read(buffer, size, buffer.length - size);
+			if (charsRead < 0) {
+				break;
+			}
+			size += charsRead;
+		}
+		int normalizedSize = 0;
+		for (int i = 0; i < size; i++) {
+			final char c = buffer[i];
+			if (c == '\r') {
+				buffer[normalizedSize++] = '\n';
+				if (i + 1 < size && buffer[i + 1] == '\n') {
+					i++;
+				}
+			}
+			else {
+				buffer[normalizedSize++] = c;
+			}
+		}
+		text = normalizedSize == buffer.length ? buffer : Arrays.copyOf(buffer, normalizedSize);
+		length = normalizedSize;
+		position = 0;
+	}
+
+	private boolean containsDocumentTypeDeclaration() {
+		final String declaration = "<!DOCTYPE";
+		for (int i = indexOf('<', 0); i >= 0 && i + declaration.length() <= length; i = indexOf('<', i + 1)) {
+			if (startsWith(declaration, i)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private Object parseWithFallbackParser() throws XMLException {
+		fallbackParser = new XMLParser();
+		fallbackParser.setReader(new StdXMLReader(new CharArrayReader(text, 0, length)));
+		fallbackParser.setBuilder(builder);
+		fallbackParser.setValidator(new NonValidator());
+		return fallbackParser.parse();
+	}
+
+	private void scanData() throws Exception {
+		while (position < length) {
+			final char c = text[position++];
+			switch (c) {
+				case '<':
+					scanSomeTag(false, null, Collections.<String, String> emptyMap());
+					break;
+				case ' ':
+				case '\t':
+				case '\n':
+					break;
+				default:
+					throw invalidInput("`" + c + "' (0x" + Integer.toHexString(c) + ')');
+			}
+		}
+	}
+
+	private void scanSomeTag(final boolean allowCDATA, final String defaultNamespace,
+	                         final Map<String, String> namespaces) throws Exception {
+		final char c = text[position];
+		switch (c) {
+			case '?':
+				position++;
+				processPI();
+				break;
+			case '!':
+				position++;
+				processSpecialTag(allowCDATA);
+				break;
+			default:
+				processElement(defaultNamespace, namespaces);
+		}
+	}
+
+	private void processPI() throws Exception {
+		skipWhitespace();
+		final String target = scanIdentifier();
+		skipWhitespace();
+		final int end = indexOf("?>", position);
+		if (end < 0) {
+			throw unexpectedEndOfData();
+		}
+		final int start = position;
+		position = end + 2;
+		if (!target.equalsIgnoreCase("xml")) {
+			builder.newProcessingInstruction(target, new CharArrayReader(text, start, end - start));
+		}
+	}
+
+	private void processSpecialTag(final boolean allowCDATA) throws Exception {
+		final char c = text[position++];
+		switch (c) {
+			case '[':
+				if (!allowCDATA) {
+					throw new XMLParseException(SYSTEM_ID, lineNr(), "No CDATA section is expected here");
+				}
+				processCDATA();
+				return;
+			case '-':
+				skipComment();
+				return;
+			default:
+				throw invalidInput("<!" + c);
+		}
+	}
+
+	private void processCDATA() throws Exception {
+		if (!startsWith("CDATA[", position)) {
+			throw expectedInput("<![[CDATA[");
+		}
+		position += 6;
+		final int end = indexOf("]]>", position);
+		if (end < 0) {
+			throw unexpectedEndOfData();
+		}
+		final int start = position;
+		position = end + 3;
+		builder.addPCData(new CharArrayReader(text, start, end - start), SYSTEM_ID, lineNr());
+	}
+
+	private void skipComment() throws XMLParseException {
+		if (text[position++] != '-') {
+			throw expectedInput("<!--");
+		}
+		int dashesRead = 0;
+		for (;;) {
+			final char c = text[position++];
+			if (c == '-') {
+				dashesRead++;
+			}
+			else if (c == '>' && dashesRead == 2) {
+				return;
+			}
+			else {
+				dashesRead = 0;
+			}
+		}
+	}
+
+	private void processElement(String defaultNamespace, Map<String, String> namespaces) throws Exception {
+		try {
+			final String fullName = scanIdentifier();
+			String name = fullName;
+			String prefix = null;
+			final int colonIndex = name.indexOf(':');
+			if (colonIndex > 0) {
+				prefix = name.substring(0, colonIndex);
+				name = name.substring(colonIndex + 1);
+			}
+			skipWhitespace();
+			final int attributeCount = scanAttributes();
+			final boolean isEmptyElement = text[position++] == '/';
+			boolean namespacesCopied = false;
+			for (int i = 0; i < attributeCount; i++) {
+				final String key = attributeNames[i];
+				if (key.equals("xmlns")) {
+					defaultNamespace = attributeValues[i];
+				}
+				else if (key.startsWith("xmlns:")) {
+					if (!namespacesCopied) {
+						namespaces = new HashMap<>(namespaces);
+						namespacesCopied = true;
+					}
+					namespaces.put(key.substring(6), attributeValues[i]);
+				}
+			}
+			final String nsURI = prefix == null ? defaultNamespace : namespaces.get(prefix);
+			builder.startElement(name, prefix, nsURI, SYSTEM_ID, lineNr());
+			for (int i = 0; i < attributeCount; i++) {
+				final String key = attributeNames[i];
+				if (key.startsWith("xmlns")) {
+					continue;
+				}
+				final String value = attributeValues[i];
+				final int attributeColonIndex = key.indexOf(':');
+				if (attributeColonIndex > 0) {
+					final String attributePrefix = key.substring(0, attributeColonIndex);
+					builder.addAttribute(key.substring(attributeColonIndex + 1), attributePrefix,
+					    namespaces.get(attributePrefix), value, "CDATA");
+				}
+				else {
+					builder.addAttribute(key, null, null, value, "CDATA");
+				}
+			}
+			Arrays.fill(attributeValues, 0, attributeCount, null);
+			builder.elementAttributesProcessed(name, prefix, nsURI);
+			if (isEmptyElement) {
+				if (text[position++] != '>') {
+					throw expectedInput("`>'");
+				}
+				builder.endElement(name, prefix, nsURI);
+				return;
+			}
+			if (skipNextElementContent) {
+				skipNextElementContent = false;
+				processUnparsedElementContent();
+			}
+			else {
+				processElementContent(defaultNamespace, namespaces);
+			}
+			skipWhitespace();
+			final String closingName = scanIdentifier();
+			if (!closingName.equals(fullName)) {
+				throw new XMLParseException(SYSTEM_ID, lineNr(), "Closing tag does not match opening tag: `"
+				        + closingName + "' != `" + name + "'");
+			}
+			skipWhitespace();
+			if (text[position++] != '>') {
+				throw new XMLParseException(SYSTEM_ID, lineNr(), "Closing tag must be empty");
+			}
+			builder.endElement(name, prefix, nsURI);
+		}
+		finally {
+			skipNextElementContent = false;
+		}
+	}
+
+	/**
+	 * Reads the attributes of a start tag up to the closing '/' or '>' character.
+	 * @return the number of attributes
+	 */
+	private int scanAttributes() throws XMLParseException {
+		int attributeCount = 0;
+		for (;;) {
+			final char c = text[position];
+			if (c == '/' || c == '>') {
+				return attributeCount;
+			}
+			final String key = scanIdentifier();
+			skipWhitespace();
+			if (text[position++] != '=') {
+				throw expectedInput("`='");
+			}
+			skipWhitespace();
+			final String value = scanAttributeValue();
+			if (attributeCount == attributeNames.length) {
+				attributeNames = Arrays.copyOf(attributeNames, attributeCount * 2);
+				attributeValues = Arrays.copyOf(attributeValues, attributeCount * 2);
+			}
+			attributeNames[attributeCount] = key;
+			attributeValues[attributeCount] = value;
+			attributeCount++;
+			skipWhitespace();
+		}
+	}
+
+	private String scanAttributeValue() throws XMLParseException {
+		final char delimiter = text[position++];
+		if (delimiter != '\'' && delimiter != '"') {
+			throw expectedInput("delimited string");
+		}
+		final int start = position;
+		for (;;) {
+			final char c = text[position];
+			if (c == delimiter) {
+				position++;
+				return new String(text, start, position - 1 - start);
+			}
+			if (c == '&' || c == '\t' || c == '\n') {
+				break;
+			}
+			position++;
+		}
+		textBuilder.setLength(0);
+		textBuilder.append(text, start, position - start);
+		for (;;) {
+			final char c = text[position++];
+			if (c == delimiter) {
+				return textBuilder.toString();
+			}
+			if (c == '&') {
+				appendEntity();
+			}
+			else if (c == '\t' || c == '\n') {
+				textBuilder.append(' ');
+			}
+			else {
+				textBuilder.append(c);
+			}
+		}
+	}
+
+	private void processElementContent(final String defaultNamespace, final Map<String, String> namespaces)
+	        throws Exception {
+		for (;;) {
+			final int whitespaceStart = position;
+			skipWhitespace();
+			if (text[position] == '<') {
+				position++;
+				if (text[position] == '/') {
+					position++;
+					return;
+				}
+				scanSomeTag(true, defaultNamespace, namespaces);
+			}
+			else {
+				final int pcDataLineNr = lineNr();
+				final String content = scanContent(whitespaceStart);
+				builder.addPCData(new StringReader(content), SYSTEM_ID, pcDataLineNr);
+			}
+		}
+	}
+
+	/**
+	 * Reads character data up to the next tag. Like in {@link XMLParser} tabs in the leading whitespace
+	 * are replaced by spaces and entities are resolved.
+	 */
+	private String scanContent(final int whitespaceStart) throws XMLParseException {
+		textBuilder.setLength(0);
+		for (int i = whitespaceStart; i < position; i++) {
+			final char c = text[i];
+			textBuilder.append(c == '\t' ? ' ' : c);
+		}
+		for (;;) {
+			final int start = position;
+			while (text[position] != '<' && text[position] != '&') {
+				position++;
+			}
+			textBuilder.append(text, start, position - start);
+			if (text[position] == '<') {
+				return textBuilder.toString();
+			}
+			position++;
+			appendEntity();
+		}
+	}
+
+	/**
+	 * Copies the element content up to the matching end tag like {@link XMLParser} does,
+	 * counting nested tags without parsing them.
+	 */
+	private void processUnparsedElementContent() throws XMLParseException {
+		final int start = position;
+		boolean inComment = false;
+		int level = 1;
+		for (;;) {
+			char c = text[position++];
+			if (inComment) {
+				if (c != '-') {
+					continue;
+				}
+				c = text[position++];
+				if (c != '-') {
+					continue;
+				}
+				c = text[position++];
+				if (c != '>') {
+					continue;
+				}
+				inComment = false;
+				continue;
+			}
+			if (c == '<') {
+				c = text[position++];
+				if (c == '/') {
+					level--;
+					if (level == 0) {
+						break;
+					}
+				}
+				else if (c == '!') {
+					final char read1 = text[position++];
+					final char read2 = text[position++];
+					if (read1 != '-' || read2 != '-') {
+						throw invalidInput("<!" + read1 + read2);
+					}
+					inComment = true;
+				}
+				else {
+					level++;
+				}
+			}
+			else if (c == '/') {
+				c = text[position++];
+				if (c == '>') {
+					level--;
+					if (level == 0) {
+						throw invalidInput("/>");
+					}
+				}
+				else if (c == '<') {
+					position--;
+				}
+			}
+		}
+		builder.setElementContent(new String(text, start, position - 2 - start));
+	}
+
+	/**
+	 * Appends the character of the entity starting after the already read '&amp;' character.
+	 */
+	private void appendEntity() throws XMLParseException {
+		final int end = indexOf(';', position);
+		if (end < 0) {
+			throw unexpectedEndOfData();
+		}
+		final int start = position;
+		position = end + 1;
+		if (text[start] == '#') {
+			try {
+				if (text[start + 1] == 'x') {
+					textBuilder.append((char) Integer.parseInt(new String(text, start + 2, end - start - 2), 16));
+				}
+				else {
+					textBuilder.append((char) Integer.parseInt(new String(text, start + 1, end - start - 1), 10));
+				}
+			}
+			catch (final NumberFormatException e) {
+				throw invalidEntity(start, end);
+			}
+			return;
+		}
+		switch (end - start) {
+			case 2:
+				if (text[start + 1] == 't') {
+					if (text[start] == 'l') {
+						textBuilder.append('<');
+						return;
+					}
+					if (text[start] == 'g') {
+						textBuilder.append('>');
+						return;
+					}
+				}
+				break;
+			case 3:
+				if (startsWith("amp", start)) {
+					textBuilder.append('&');
+					return;
+				}
+				break;
+			case 4:
+				if (startsWith("quot", start)) {
+					textBuilder.append('"');
+					return;
+				}
+				if (startsWith("apos", start)) {
+					textBuilder.append('\'');
+					return;
+				}
+				break;
+		}
+		throw invalidEntity(start, end);
+	}
+
+	private void skipWhitespace() {
+		for (;;) {
+			final char c = text[position];
+			if (c != ' ' && c != '\t' && c != '\n') {
+				return;
+			}
+			position++;
+		}
+	}
+
+	private String scanIdentifier() {
+		final int start = position;
+		for (;;) {
+			final char c = text[position];
+			if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == ':'
+			        || c == '-' || c == '.' || c > '~') {
+				position++;
+			}
+			else {
+				return name(start, position);
+			}
+		}
+	}
+
+	/**
+	 * Element and attribute names repeat a lot, so they are shared instead of creating new strings for each tag.
+	 */
+	private String name(final int start, final int end) {
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + text[i];
+		}
+		final int slot = (hash ^ (hash >>> 16)) & (NAME_CACHE_SIZE - 1);
+		final String cachedName = nameCache[slot];
+		final int nameLength = end - start;
+		if (cachedName != null && cachedName.length() == nameLength && startsWith(cachedName, start)) {
+			return cachedName;
+		}
+		final String name = new String(text, start, nameLength);
+		nameCache[slot] = name;
+		return name;
+	}
+
+	private boolean startsWith(final String prefix, final int offset) {
+		final int prefixLength = prefix.length();
+		if (offset + prefixLength > length) {
+			return false;
+		}
+		for (int i = 0; i < prefixLength; i++) {
+			if (text[offset + i] != prefix.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int indexOf(final char c, final int from) {
+		for (int i = from; i < length; i++) {
+			if (text[i] == c) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private int indexOf(final String s, final int from) {
+		final char first = s.charAt(0);
+		for (int i = indexOf(first, from); i >= 0; i = indexOf(first, i + 1)) {
+			if (startsWith(s, i)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private int lineNr() {
+		final int end = Math.min(position, length);
+		for (int i = lineCountedUntil; i < end; i++) {
+			if (text[i] == '\n') {
+				lineNr++;
+			}
+		}
+		lineCountedUntil = Math.max(lineCountedUntil, end);
+		return lineNr;
+	}
+
+	private XMLParseException unexpectedEndOfData() {
+		return new XMLParseException(SYSTEM_ID, lineNr(), "Unexpected end of data");
+	}
+
+	private XMLParseException expectedInput(final String expected) {
+		return new XMLParseException(SYSTEM_ID, lineNr(), "Expected: " + expected);
+	}
+
+	private XMLParseException invalidInput(final String input) {
+		return new XMLParseException(SYSTEM_ID, lineNr(), "Invalid input: " + input);
+	}
+
+	private XMLParseException invalidEntity(final int start, final int end) {
+		return new XMLParseException(SYSTEM_ID, lineNr(), "Invalid entity: `&" + new String(text, start, end - start)
+		        + ";'");
+	}
+}
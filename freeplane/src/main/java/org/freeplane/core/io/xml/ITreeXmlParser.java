@@ -0,0 +1,13 @@
+package org.freeplane.core.io.xml;
+
+import org.freeplane.n3.nanoxml.XMLException;
+
+interface ITreeXmlParser {
+	Object parse() throws XMLException;
+
+	/**
+	 * The content of the current element is passed to {@link TreeXmlReader#setElementContent(String)}
+	 * as unparsed text.
+	 */
+	void notParseNextElementContent();
+}
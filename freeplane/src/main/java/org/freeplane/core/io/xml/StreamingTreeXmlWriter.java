@@ -0,0 +1,362 @@
+package org.freeplane.core.io.xml;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+
+import org.freeplane.core.extension.IExtension;
+import org.freeplane.core.io.IAttributeWriter;
+import org.freeplane.core.io.IElementWriter;
+import org.freeplane.core.io.IExtensionAttributeWriter;
+import org.freeplane.core.io.IExtensionElementWriter;
+import org.freeplane.core.io.ITreeWriter;
+import org.freeplane.core.io.WriteManager;
+import org.freeplane.core.util.LogUtils;
+import org.freeplane.n3.nanoxml.XMLElement;
+
+/**
+ * Writes the same output as {@link TreeXmlWriter} without building an {@link XMLElement} for each written element.
+ *
+ * Attributes of the currently open tag are collected in reusable arrays
+ * and written directly to the underlying writer as soon as the tag is started.
+ * Elements passed by callers which can not be represented as a plain tag
+ * (namespaces, children or content) are written by {@link XMLWriter} exactly as before.
+ */
+public class StreamingTreeXmlWriter implements ITreeWriter {
+	private static final String LINE_SEPARATOR = System.lineSeparator();
+	private static final int INITIAL_ATTRIBUTE_CAPACITY = 16;
+
+	private final WriteManager writeManager;
+	private final Writer writer;
+	private final boolean restrictedCharset;
+	private final HashMap<Object, Object> hints;
+	private final XMLWriter domWriter;
+
+	private String elementName;
+	private XMLElement domElement;
+	private boolean elementStarted = false;
+	private String[] attributeNames;
+	private String[] attributeValues;
+	private int attributeCount;
+
+	public StreamingTreeXmlWriter(final WriteManager writeManager, final Writer writer, boolean restrictedCharset) {
+		super();
+		this.writeManager = writeManager;
+		this.writer = writer;
+		this.restrictedCharset = restrictedCharset;
+		domWriter = new XMLWriter(writer, restrictedCharset);
+		hints = new HashMap<Object, Object>();
+		attributeNames = new String[INITIAL_ATTRIBUTE_CAPACITY];
+		attributeValues = new String[INITIAL_ATTRIBUTE_CAPACITY];
+	}
+
+	public void flush() throws IOException {
+		writer.flush();
+	}
+
+	@Override
+	public void addAttribute(final String key, final double value) {
+		addAttribute(key, Double.toString(value));
+	}
+
+	@Override
+	public void addAttribute(final String key, final int value) {
+		addAttribute(key, Integer.toString(value));
+	}
+
+	@Override
+	public void addAttribute(final String key, final String value) {
+		if (elementStarted) {
+			throw new RuntimeException("elementStarted");
+		}
+		if (domElement != null) {
+			if (null != domElement.getAttribute(key, null)) {
+				warnAboutExistingAttribute(key, value);
+				return;
+			}
+			domElement.setAttribute(key, value);
+			return;
+		}
+		if (key == null) {
+			throw new IllegalArgumentException("fullName must not be null");
+		}
+		for (int i = 0; i < attributeCount; i++) {
+			if (attributeNames[i].equals(key)) {
+				warnAboutExistingAttribute(key, value);
+				return;
+			}
+		}
+		if (value == null) {
+			throw new IllegalArgumentException("value must not be null");
+		}
+		if (attributeCount == attributeNames.length) {
+			attributeNames = Arrays.copyOf(attributeNames, 2 * attributeCount);
+			attributeValues = Arrays.copyOf(attributeValues, 2 * attributeCount);
+		}
+		attributeNames[attributeCount] = key;
+		attributeValues[attributeCount] = value;
+		attributeCount++;
+	}
+
+	private void warnAboutExistingAttribute(final String key, final String value) {
+		LogUtils.warn("attribute \"" + key + "\" already exist with value \"" + value);
+	}
+
+	@Override
+	public void addComment(final String comment) throws IOException {
+		writeIncluded("<!-- ");
+		writeIncluded(comment);
+		writeIncluded(" -->\n");
+	}
+
+	@Override
+	public void addElement(final Object userObject, final String name) throws IOException {
+		final boolean isString = userObject instanceof String;
+		startPendingElement(!isString);
+		openElement(name);
+		writeElement(userObject, name, isString);
+	}
+
+	@Override
+	public void addElement(final Object userObject, final XMLElement element) throws IOException {
+		final boolean isString = userObject instanceof String;
+		startPendingElement(!isString);
+		if (isPlainTag(element)) {
+			openElement(element.getName());
+			final Enumeration<String> attributeNames = element.enumerateAttributeNames();
+			while (attributeNames.hasMoreElements()) {
+				final String key = attributeNames.nextElement();
+				addAttribute(key, element.getAttribute(key, null));
+			}
+		}
+		else {
+			elementName = element.getName();
+			domElement = element;
+			attributeCount = 0;
+			elementStarted = false;
+		}
+		writeElement(userObject, element.getName(), isString);
+	}
+
+	private boolean isPlainTag(final XMLElement element) {
+		final String name = element.getName();
+		if (name == null || !name.equals(element.getFullName()) || element.getNamespace() != null
+		        || element.hasChildren()) {
+			return false;
+		}
+		final String content = element.getContent();
+		if (content != null && content.length() > 0) {
+			return false;
+		}
+		final Enumeration<String> attributeNames = element.enumerateAttributeNames();
+		while (attributeNames.hasMoreElements()) {
+			if (element.getAttributeNamespace(attributeNames.nextElement()) != null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void openElement(final String name) {
+		elementName = name;
+		domElement = null;
+		attributeCount = 0;
+		elementStarted = false;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void writeElement(final Object userObject, final String name, final boolean isString) throws IOException {
+		final List<IAttributeWriter> attributeWriters = writeManager.getAttributeWriters().list(name);
+		if (attributeWriters != null) {
+			for (int i = 0; i < attributeWriters.size(); i++) {
+				attributeWriters.get(i).writeAttributes(this, userObject, name);
+			}
+		}
+		if (userObject instanceof List<?>) {
+			addExtensionAttributes(userObject, (List<IExtension>) userObject);
+		}
+		if (isString) {
+			addElementContent((String) userObject);
+		}
+		else {
+			final List<IElementWriter> elementWriters = writeManager.getElementWriters().list(name);
+			if (elementWriters != null) {
+				for (int i = 0; i < elementWriters.size(); i++) {
+					elementWriters.get(i).writeContent(this, userObject, name);
+				}
+			}
+			if (userObject instanceof List<?>) {
+				addExtensionNodes(userObject, (List<IExtension>) userObject);
+			}
+		}
+		if (elementStarted == false) {
+			writePendingElement(true, true);
+			elementStarted = true;
+		}
+		else {
+			writer.write("</");
+			writer.write(name);
+			writer.write('>');
+			writer.write(LINE_SEPARATOR);
+		}
+	}
+
+	private void startPendingElement(final boolean prettyPrint) throws IOException {
+		if (elementStarted == false && elementName != null) {
+			writePendingElement(prettyPrint, false);
+		}
+	}
+
+	private void writePendingElement(final boolean prettyPrint, final boolean endElement) throws IOException {
+		if (domElement != null) {
+			domWriter.write(domElement, prettyPrint, 0, true, endElement);
+			return;
+		}
+		writer.write('<');
+		writer.write(elementName);
+		for (int i = 0; i < attributeCount; i++) {
+			writer.write(' ');
+			writer.write(attributeNames[i]);
+			writer.write("=\"");
+			writeAttributeValue(attributeValues[i]);
+			writer.write('"');
+		}
+		writer.write(endElement ? "/>" : ">");
+		if (prettyPrint) {
+			writer.write(LINE_SEPARATOR);
+		}
+	}
+
+	@Override
+	public void addElementContent(final String content) throws IOException {
+		if (content.equals("")) {
+			return;
+		}
+		if (elementStarted == false && elementName != null) {
+			writePendingElement(true, false);
+			elementStarted = true;
+		}
+		writeIncluded(content);
+	}
+
+	@Override
+	public void addExtensionAttributes(final Object map, final Collection<IExtension> extensions) {
+		for (final IExtension extension : extensions) {
+			final List<IExtensionAttributeWriter> writers = writeManager.getExtensionAttributeWriters()
+			    .list(extension.getClass());
+			if (writers != null) {
+				for (int i = 0; i < writers.size(); i++) {
+					writers.get(i).writeAttributes(this, map, extension);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void addExtensionNodes(final Object map, final Collection<IExtension> extensions) throws IOException {
+		for (final IExtension extension : extensions) {
+			final List<IExtensionElementWriter> writers = writeManager.getExtensionElementWriters()
+			    .list(extension.getClass());
+			if (writers != null) {
+				for (int i = 0; i < writers.size(); i++) {
+					writers.get(i).writeContent(this, map, extension);
+				}
+			}
+		}
+	}
+
+	@Override
+	public Object getHint(final Object key) {
+		final Object object = hints.get(key);
+		return object == null ? Boolean.FALSE : object;
+	}
+
+	@Override
+	public void setHint(final Object key) {
+		hints.put(key, Boolean.TRUE);
+	}
+
+	@Override
+	public void setHint(final Object key, final Object value) {
+		hints.put(key, value);
+	}
+
+	private void writeIncluded(final String content) throws IOException {
+		if (!restrictedCharset) {
+			writer.write(content);
+			return;
+		}
+		final int length = content.length();
+		int start = 0;
+		for (int i = 0; i < length; i++) {
+			final char c = content.charAt(i);
+			if (c > 0x7E) {
+				writer.write(content, start, i - start);
+				writeCharacterReference(c);
+				start = i + 1;
+			}
+		}
+		writer.write(content, start, length - start);
+	}
+
+	private void writeAttributeValue(final String value) throws IOException {
+		final int length = value.length();
+		int start = 0;
+		for (int i = 0; i < length; i++) {
+			final char c = value.charAt(i);
+			final String replacement;
+			if (c > 0x7E) {
+				if (!restrictedCharset) {
+					continue;
+				}
+				replacement = null;
+			}
+			else {
+				switch (c) {
+					case '<':
+						replacement = "&lt;";
+						break;
+					case '>':
+						replacement = "&gt;";
+						break;
+					case '&':
+						replacement = "&amp;";
+						break;
+					case '\'':
+						replacement = "&apos;";
+						break;
+					case '"':
+						replacement = "&quot;";
+						break;
+					case 0x0A:
+						replacement = "&#xa;";
+						break;
+					default:
+						if (c >= ' ') {
+							continue;
+						}
+						replacement = null;
+				}
+			}
+			writer.write(value, start, i - start);
+			if (replacement != null) {
+				writer.write(replacement);
+			}
+			else {
+				writeCharacterReference(c);
+			}
+			start = i + 1;
+		}
+		writer.write(value, start, length - start);
+	}
+
+	private void writeCharacterReference(final char c) throws IOException {
+		writer.write("&#x");
+		writer.write(Integer.toString(c, 16));
+		writer.write(';');
+	}
+}
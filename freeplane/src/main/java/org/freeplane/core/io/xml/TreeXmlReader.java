@@ -90,7 +90,8 @@ public class TreeXmlReader implements IXMLBuilder {
 	final private LinkedList<IElementHandler> nodeCreatorStack = new LinkedList<IElementHandler>();
 	private Object parentElement;
 	final private ReadManager parseManager;
-	private XMLParser parser;
+	private ITreeXmlParser parser;
+	private boolean fastParserEnabled;
 	private XMLElement saveAsXmlUntil;
 	private String tag;
 	private StdXMLBuilder xmlBuilder;
@@ -246,14 +247,28 @@ public class TreeXmlReader implements IXMLBuilder {
 	 * @see freeplane.persistence.Reader#load()
 	 */
 	public void load(final Reader reader) throws XMLException {
-		parser = new XMLParser();
-		final IXMLReader nanoxmlReader = new StdXMLReader(reader);
-		parser.setReader(nanoxmlReader);
-		parser.setBuilder(this);
-		parser.setValidator(new NonValidator());
+		if (fastParserEnabled) {
+			parser = new FastXMLParser(reader, this);
+		}
+		else {
+			final XMLParser xmlParser = new XMLParser();
+			final IXMLReader nanoxmlReader = new StdXMLReader(reader);
+			xmlParser.setReader(nanoxmlReader);
+			xmlParser.setBuilder(this);
+			xmlParser.setValidator(new NonValidator());
+			parser = xmlParser;
+		}
 		parser.parse();
 	}
 
+	/**
+	 * Reads the input using {@link FastXMLParser} which reads the complete input into memory
+	 * before parsing it.
+	 */
+	public void setFastParserEnabled(final boolean fastParserEnabled) {
+		this.fastParserEnabled = fastParserEnabled;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see
@@ -27,7 +27,7 @@ import org.freeplane.n3.nanoxml.IXMLReader;
 import org.freeplane.n3.nanoxml.StdXMLParser;
 import org.freeplane.n3.nanoxml.XMLParseException;
 
-class XMLParser extends StdXMLParser implements IXMLParser {
+class XMLParser extends StdXMLParser implements IXMLParser, ITreeXmlParser {
 	private boolean skipNextElementContent = false;
 
 	public XMLParser() {
@@ -35,7 +35,8 @@ class XMLParser extends StdXMLParser implements IXMLParser {
 		setResolver(new LocalEntityResolver());
 	}
 
-	void notParseNextElementContent() {
+	@Override
+	public void notParseNextElementContent() {
 		skipNextElementContent = true;
 	}
 
@@ -31,6 +31,7 @@ import java.util.ListIterator;
  */
 public class CompoundActor implements IActor {
 	final private LinkedList<IActor> actors;
+	private long estimatedSize;
 
 	public CompoundActor() {
 		this(new LinkedList<IActor>());
@@ -39,6 +40,9 @@ public class CompoundActor implements IActor {
 	@SuppressWarnings("unchecked")
 	public CompoundActor(final LinkedList<? extends IActor> actors) {
 		this.actors = (LinkedList<IActor>) actors;
+		for (final IActor actor : actors) {
+			estimatedSize += actor.estimatedSize();
+		}
 	}
 
 	public void act() {
@@ -47,8 +51,25 @@ public class CompoundActor implements IActor {
 		}
 	}
 
-	public void add(final IActor firstActor) {
-		actors.add(firstActor);
+	public void add(final IActor actor) {
+		if (!actors.isEmpty()) {
+			final IActor previous = actors.getLast();
+			final IActor coalesced = actor.coalesce(previous);
+			if (coalesced != null) {
+				actors.removeLast();
+				estimatedSize -= previous.estimatedSize();
+				actors.add(coalesced);
+				estimatedSize += coalesced.estimatedSize();
+				return;
+			}
+		}
+		actors.add(actor);
+		estimatedSize += actor.estimatedSize();
+	}
+
+	@Override
+	public long estimatedSize() {
+		return estimatedSize;
 	}
 
 	public String getDescription() {
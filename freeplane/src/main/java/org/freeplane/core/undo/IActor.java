@@ -20,6 +20,8 @@
 package org.freeplane.core.undo;
 
 public interface IActor {
+	long DEFAULT_ESTIMATED_SIZE = 256;
+
 	void act();
 
 	String getDescription();
@@ -29,4 +31,27 @@ public interface IActor {
 	default boolean isReadonly() {
 		return false;
 	}
+
+	/**
+	 * Rough number of bytes kept alive by this actor, used for the undo memory budget.
+	 */
+	default long estimatedSize() {
+		return DEFAULT_ESTIMATED_SIZE;
+	}
+
+	/**
+	 * Returns a single actor equivalent to the given previous actor followed by this one,
+	 * or null if both changes can not be coalesced.
+	 */
+	default IActor coalesce(IActor previous) {
+		return null;
+	}
+
+	static long estimatedSizeOf(Object value) {
+		if (value == null)
+			return 0;
+		if (value instanceof CharSequence)
+			return 40 + 2 * ((CharSequence) value).length();
+		return DEFAULT_ESTIMATED_SIZE;
+	}
 }
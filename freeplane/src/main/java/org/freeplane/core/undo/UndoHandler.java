@@ -28,6 +28,7 @@ import java.util.ListIterator;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
+import org.freeplane.core.resources.ResourceController;
 import org.freeplane.core.util.LogUtils;
 import org.freeplane.features.map.IMapSelection;
 import org.freeplane.features.map.MapModel;
@@ -54,12 +55,11 @@ public class UndoHandler implements IUndoHandler {
 	private static class ActorList extends LinkedList<CompoundActor> {
 		private static final long serialVersionUID = 1L;
 		int commitDelay = COMMIT_DELAY;
+		long estimatedSize = 0;
 	}
 
-	/**
-	 *
-	 */
-	private static final int MAX_ENTRIES = 100;
+	public static final String MEMORY_BUDGET_PROPERTY = "undo_memory_budget";
+	private static final int DEFAULT_MEMORY_BUDGET_MB = 64;
 	private static final long TIME_TO_BEGIN_NEW_ACTION = 100;
 	private boolean actionFrameStarted;
 	private ListIterator<CompoundActor> actorIterator;
@@ -112,6 +112,7 @@ public class UndoHandler implements IUndoHandler {
 			else {
 				if (actorList.size() > 0) {
 					actorList.clear();
+					actorList.estimatedSize = 0;
 					actorIterator = actorList.listIterator();
 				}
 				return;
@@ -120,8 +121,11 @@ public class UndoHandler implements IUndoHandler {
 		if ((actorList.size() > 0)
 		        && (actionFrameStarted || currentTime - timeOfLastAdd < UndoHandler.TIME_TO_BEGIN_NEW_ACTION)) {
 			CompoundActor compoundActor = (CompoundActor) actorIterator.previous();
+			final long sizeBefore = compoundActor.estimatedSize();
 			compoundActor.add(actor);
+			actorList.estimatedSize += compoundActor.estimatedSize() - sizeBefore;
 			actorIterator.next();
+			removeEntriesExceedingMemoryBudget();
 		}
 		else {
 			CompoundActor compoundActor = new CompoundActor();
@@ -133,17 +137,43 @@ public class UndoHandler implements IUndoHandler {
 			}
 			compoundActor.add(actor);
 			actorIterator.add(compoundActor);
-			final int maxEntries = UndoHandler.MAX_ENTRIES;
-			while (actorList.size() > maxEntries) {
-				actorList.removeFirst();
-				actorIterator = actorList.listIterator(actorList.size());
-			}
+			actorList.estimatedSize += compoundActor.estimatedSize();
+			removeEntriesExceedingMemoryBudget();
 		}
 		startActionFrame();
 		timeOfLastAdd = currentTime;
 		fireStateChanged();
 	}
 
+	/**
+	 * Drops the oldest undo entries while the estimated memory they keep alive exceeds the budget.
+	 * The latest entry is always kept, and entries of open transactions are never dropped
+	 * because they are needed for rollback.
+	 */
+	private void removeEntriesExceedingMemoryBudget() {
+		if (!transactionList.isEmpty() || actorList.size() <= 1) {
+			return;
+		}
+		final long memoryBudget = getMemoryBudget();
+		if (actorList.estimatedSize <= memoryBudget) {
+			return;
+		}
+		while (actorList.size() > 1 && actorList.estimatedSize > memoryBudget) {
+			actorList.estimatedSize -= actorList.removeFirst().estimatedSize();
+		}
+		actorIterator = actorList.listIterator(actorList.size());
+	}
+
+	private long getMemoryBudget() {
+		final int budgetInMegabytes = ResourceController.getResourceController().getIntProperty(MEMORY_BUDGET_PROPERTY,
+		    DEFAULT_MEMORY_BUDGET_MB);
+		return budgetInMegabytes * 1024L * 1024L;
+	}
+
+	long getEstimatedSize() {
+		return actorList.estimatedSize;
+	}
+
 	private void fireStateChanged() {
 		for (final ChangeListener listener : listeners) {
 			listener.stateChanged(event);
@@ -245,7 +275,7 @@ public class UndoHandler implements IUndoHandler {
 		if (canRedo()) {
 			final IActor redoActor = actorIterator.next();
 			isUndoActionRunning = true;
-			redoActor.act();
+			map.changeExclusively(redoActor::act);
 			isUndoActionRunning = false;
 			fireStateChanged();
 		}
@@ -253,7 +283,7 @@ public class UndoHandler implements IUndoHandler {
 
 	public void resetRedo() {
 		while (canRedo()) {
-			actorIterator.next();
+			actorList.estimatedSize -= actorIterator.next().estimatedSize();
 			actorIterator.remove();
 		}
 		fireStateChanged();
@@ -262,10 +292,12 @@ public class UndoHandler implements IUndoHandler {
 	public void rollback() {
 		try {
 			isUndoActionRunning = true;
-			while (actorIterator.hasPrevious()) {
-				final IActor actor = actorIterator.previous();
-				actor.undo();
-			}
+			map.changeExclusively(() -> {
+				while (actorIterator.hasPrevious()) {
+					final IActor actor = actorIterator.previous();
+					actor.undo();
+				}
+			});
 		}
 		finally {
 			isUndoActionRunning = false;
@@ -316,7 +348,7 @@ public class UndoHandler implements IUndoHandler {
 			final IActor actor = actorIterator.previous();
 			try {
 				isUndoActionRunning = true;
-				actor.undo();
+				map.changeExclusively(actor::undo);
 			}
 			finally {
 				isUndoActionRunning = false;
@@ -101,7 +101,7 @@ public class FileUtils {
 		return props;
 	}
 
-	private static String slurp(final Reader reader) throws IOException {
+	public static String slurp(final Reader reader) throws IOException {
 		/* read data into a string */
 		final StringBuilder builder = new StringBuilder();
 		final char[] buf = new char[1024];
@@ -66,6 +66,16 @@ public class AttributeExistsCondition extends ASelectableCondition {
 		return false;
 	}
 
+	@Override
+	public boolean canBeCheckedConcurrently() {
+		return true;
+	}
+
+	@Override
+	public boolean dependsOnNodeContentOnly() {
+		return true;
+	}
+
 	@Override
 	protected String createDescription() {
 		final String simpleCondition = TextUtils.getText(ConditionFactory.FILTER_EXIST);
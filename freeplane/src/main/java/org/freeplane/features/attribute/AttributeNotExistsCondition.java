@@ -64,6 +64,16 @@ public class AttributeNotExistsCondition extends ASelectableCondition {
 		return true;
 	}
 
+	@Override
+	public boolean canBeCheckedConcurrently() {
+		return true;
+	}
+
+	@Override
+	public boolean dependsOnNodeContentOnly() {
+		return true;
+	}
+
 	@Override
 	protected String createDescription() {
 		final String simpleCondition = TextUtils.getText(ConditionFactory.FILTER_DOES_NOT_EXIST);
@@ -5,6 +5,7 @@ import org.freeplane.features.map.NodeModel;
 import org.freeplane.features.mode.Controller;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.util.List;
 
@@ -15,6 +16,27 @@ class BranchXmlWriter{
 		this.branches = branches;
 	}
 
+	/**
+	 * Creates the XML text from a consistent state of the map, the map can be changed on other threads meanwhile.
+	 */
+	String toXml(MapWriter.Mode mode) {
+		return branches.get(0).getMap().readConsistently(() -> {
+			final StringWriter writer = new StringWriter();
+			writeXml(writer, mode);
+			return writer.toString();
+		});
+	}
+
+	/**
+	 * Writes the XML text from a consistent state of the map, the map can be changed on other threads meanwhile.
+	 */
+	void writeXmlConsistently(Writer writer, MapWriter.Mode mode) {
+		branches.get(0).getMap().readConsistently(() -> {
+			writeXml(writer, mode);
+			return null;
+		});
+	}
+
 	void writeXml(Writer writer, MapWriter.Mode mode) {
 		try {
 		    writer.append("<!DOCTYPE mindmap [\n" + 
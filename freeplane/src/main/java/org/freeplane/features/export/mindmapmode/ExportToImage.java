@@ -25,6 +25,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
@@ -74,12 +75,13 @@ public class ExportToImage implements IExportEngine {
 	}
 
 	public void export(MapModel map, final Dimension slideSize, NodeModel placedNode, NodePosition placedNodePosition, File toFile) {
-		RenderedImage image = null;
 		try {
-			image = placedNode != null ? new ImageCreator(getImageResolutionDPI()).createBufferedImage(map, slideSize, placedNode, placedNodePosition) : new ImageCreator(getImageResolutionDPI()).createBufferedImage(map);
-			if (image != null) {
-				exportToImage(image, toFile);
-			}
+			final ImageCreator imageCreator = new ImageCreator(getImageResolutionDPI());
+			final Consumer<RenderedImage> imageExporter = image -> exportToImage(image, toFile);
+			if (placedNode != null)
+				imageCreator.processImage(map, slideSize, placedNode, placedNodePosition, imageExporter);
+			else
+				imageCreator.processImage(map, imageExporter);
 		}
 		catch (final OutOfMemoryError ex) {
 			UITools.errorMessage(TextUtils.getText("out_of_memory"));
@@ -102,10 +104,13 @@ public class ExportToImage implements IExportEngine {
 				try ( final FileOutputStream outFile = new FileOutputStream(chosenFile);
 		              final ImageOutputStream stream = ImageIO.createImageOutputStream(outFile);
 				){
-					writer.setOutput(ImageIO.createImageOutputStream(outFile));
+					writer.setOutput(stream);
 					writer.write(metadata, new IIOImage(image, null, metadata), writeParam);
 					break;
 				}
+				finally {
+					writer.dispose();
+				}
 			}
 		}
 		catch (final IOException e1) {
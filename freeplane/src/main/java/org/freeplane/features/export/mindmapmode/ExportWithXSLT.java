@@ -165,9 +165,7 @@ public class ExportWithXSLT implements IExportEngine {
 	}
 
 	private String getMapXml(List<NodeModel> nodes, final Mode mode) throws IOException {
-		final StringWriter writer = new StringWriter();
-		new BranchXmlWriter(nodes).writeXml(writer, mode);
-		return writer.getBuffer().toString();
+		return new BranchXmlWriter(nodes).toXml(mode);
 	}
 
 	String getProperty(final String key) {
@@ -21,6 +21,7 @@ package org.freeplane.features.export.mindmapmode;
 
 import java.awt.Dimension;
 import java.awt.image.RenderedImage;
+import java.util.function.Consumer;
 
 import org.freeplane.features.map.IMapSelection.NodePosition;
 import org.freeplane.features.map.MapModel;
@@ -54,6 +55,22 @@ class ImageCreator{
         return controller.getMapViewManager().createImage(slideSize, placedNode, placedNodePosition, imageResolutionInDpi);
 	}
 
+	public void processImage(MapModel map, Consumer<RenderedImage> imageProcessor) {
+		final Controller controller = Controller.getCurrentController();
+		if(map.equals(controller.getMap())) {
+			controller.getMapViewManager().processImage(imageResolutionInDpi, imageProcessor);
+		}
+	}
+
+	public void processImage(MapModel map, final Dimension slideSize, NodeModel placedNode, NodePosition placedNodePosition,
+	                         Consumer<RenderedImage> imageProcessor) {
+		final Controller controller = Controller.getCurrentController();
+		if(map.equals(controller.getMap())) {
+			controller.getMapViewManager().processImage(slideSize, placedNode, placedNodePosition, imageResolutionInDpi,
+			    imageProcessor);
+		}
+	}
+
 	public int getImageResolutionDPI() {
 	    return imageResolutionInDpi;
     }
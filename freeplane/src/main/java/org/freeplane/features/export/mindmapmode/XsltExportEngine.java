@@ -8,10 +8,10 @@ import org.freeplane.features.map.NodeModel;
 import javax.xml.transform.Result;
 import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.security.Permission;
 import java.security.Policy;
 import java.security.ProtectionDomain;
@@ -75,17 +75,20 @@ public class XsltExportEngine implements IExportEngine {
 	}
 	
 	final private File xsltFile;
+
+	private static class XmlBuffer extends ByteArrayOutputStream {
+		InputStream toInputStream() {
+			return new ByteArrayInputStream(buf, 0, count);
+		}
+	}
 	
 	public void export(List<NodeModel> branches, File toFile) {
-		final Source xsltSource = new StreamSource(xsltFile);
-		final Source xmlSource = getMapXml(branches);
 		final XsltExportPolicy xsltExportPolicy = new XsltExportPolicy();
 		Policy.setPolicy(xsltExportPolicy);
         try (OutputStream outputStream = new FileOutputStream(toFile)){
         	final Result result = new StreamResult(outputStream);
-        	final TransformerFactory transFact = TransformerFactory.newInstance();
-        	final Transformer trans = transFact.newTransformer(xsltSource);
-        	trans.transform(xmlSource, result);
+        	final Transformer trans = XsltTemplates.INSTANCE.get(xsltFile).newTransformer();
+        	trans.transform(getMapXml(branches), result);
         }
         catch (final Exception e) {
         	UITools.errorMessage(TextUtils.getText("export_failed"));
@@ -96,10 +99,15 @@ public class XsltExportEngine implements IExportEngine {
         }
 	}
 
-	private StreamSource getMapXml(final List<NodeModel> branches) {
-		final StringWriter writer = new StringWriter();
-		new BranchXmlWriter(branches).writeXml(writer, Mode.EXPORT);
-		final StringReader stringReader = new StringReader(writer.getBuffer().toString());
-		return new StreamSource(stringReader);
+	/**
+	 * The map XML is written once under the read lock of the map into a UTF-8 encoded buffer
+	 * and parsed by the transformer afterwards, so that slow stylesheets do not block changes of the map.
+	 */
+	private Source getMapXml(final List<NodeModel> branches) throws IOException {
+		final XmlBuffer buffer = new XmlBuffer();
+		try (Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8)) {
+			new BranchXmlWriter(branches).writeXmlConsistently(writer, Mode.EXPORT);
+		}
+		return new StreamSource(buffer.toInputStream());
 	}
 }
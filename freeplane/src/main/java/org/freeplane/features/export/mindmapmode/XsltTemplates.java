@@ -0,0 +1,50 @@
+package org.freeplane.features.export.mindmapmode;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+
+/**
+ * Compiled XSLT stylesheets shared by all exports.
+ *
+ * A stylesheet is compiled again only after its file was modified,
+ * changes of stylesheets imported or included by it are not detected.
+ */
+class XsltTemplates {
+	static final XsltTemplates INSTANCE = new XsltTemplates();
+
+	private static class CompiledStylesheet {
+		final long lastModified;
+		final long length;
+		final Templates templates;
+
+		CompiledStylesheet(long lastModified, long length, Templates templates) {
+			this.lastModified = lastModified;
+			this.length = length;
+			this.templates = templates;
+		}
+
+		boolean isCompiledFrom(File xsltFile) {
+			return lastModified == xsltFile.lastModified() && length == xsltFile.length();
+		}
+	}
+
+	private final Map<File, CompiledStylesheet> stylesheets = new ConcurrentHashMap<>();
+
+	Templates get(File xsltFile) throws TransformerConfigurationException {
+		final File key = xsltFile.getAbsoluteFile();
+		final CompiledStylesheet cachedStylesheet = stylesheets.get(key);
+		if (cachedStylesheet != null && cachedStylesheet.isCompiledFrom(key))
+			return cachedStylesheet.templates;
+		final long lastModified = key.lastModified();
+		final long length = key.length();
+		final Templates templates = TransformerFactory.newInstance().newTemplates(new StreamSource(key));
+		stylesheets.put(key, new CompiledStylesheet(lastModified, length, templates));
+		return templates;
+	}
+}
@@ -0,0 +1,50 @@
+package org.freeplane.features.filter;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.freeplane.core.extension.IExtension;
+import org.freeplane.features.filter.condition.ICondition;
+import org.freeplane.features.map.NodeModel;
+
+/**
+ * Map extension remembering the results of the last filter condition check for each node
+ * together with the nodes changed since then, so that reapplying the same condition
+ * needs to check only changed and new nodes.
+ */
+class ConditionResultCache implements IExtension {
+	private final ICondition condition;
+	private final Map<NodeModel, Boolean> results;
+	private final Set<NodeModel> changedNodes;
+
+	ConditionResultCache(ICondition condition) {
+		this.condition = condition;
+		this.results = new WeakHashMap<>();
+		this.changedNodes = Collections.newSetFromMap(new WeakHashMap<NodeModel, Boolean>());
+	}
+
+	boolean isCacheFor(ICondition condition) {
+		return this.condition.equals(condition);
+	}
+
+	Boolean getResult(NodeModel node) {
+		if (changedNodes.contains(node))
+			return null;
+		return results.get(node);
+	}
+
+	void putResult(NodeModel node, boolean result) {
+		results.put(node, result);
+	}
+
+	void nodeChanged(NodeModel node) {
+		if (results.containsKey(node))
+			changedNodes.add(node);
+	}
+
+	void clearChangedNodes() {
+		changedNodes.clear();
+	}
+}
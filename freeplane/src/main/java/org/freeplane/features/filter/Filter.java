@@ -19,13 +19,21 @@
  */
 package org.freeplane.features.filter;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.WeakHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
 
 import javax.swing.Icon;
 
 import org.freeplane.core.extension.IExtension;
 import org.freeplane.core.resources.ResourceController;
 import org.freeplane.features.filter.condition.ICondition;
+import org.freeplane.features.filter.condition.IIndexedCondition;
 import org.freeplane.features.filter.hidden.NodeVisibility;
 import org.freeplane.features.filter.hidden.NodeVisibilityConfiguration;
 import org.freeplane.features.map.MapModel;
@@ -36,6 +44,46 @@ import org.freeplane.features.mode.Controller;
  * @author Dimitry Polivaev
  */
 public class Filter implements IExtension {
+	static final String INCREMENTAL_EVALUATION_PROPERTY = "filter.incrementalEvaluation";
+	static final String PARALLEL_EVALUATION_PROPERTY = "filter.parallelEvaluation";
+	static final int PARALLEL_EVALUATION_THRESHOLD = 2000;
+	private static final int PARALLEL_EVALUATION_CHUNK_SIZE = 256;
+
+	@SuppressWarnings("serial")
+	private static class ConditionCheck extends RecursiveAction {
+		private final Controller controller;
+		private final Predicate<NodeModel> condition;
+		private final List<NodeModel> nodes;
+		private final boolean[] results;
+		private final int from;
+		private final int to;
+
+		ConditionCheck(Controller controller, Predicate<NodeModel> condition, List<NodeModel> nodes, boolean[] results,
+		               int from, int to) {
+			this.controller = controller;
+			this.condition = condition;
+			this.nodes = nodes;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= PARALLEL_EVALUATION_CHUNK_SIZE) {
+				// conditions resolve the controller of the thread checking the nodes
+				Controller.runWithCurrentThreadController(controller, () -> {
+					for (int i = from; i < to; i++)
+						results[i] = condition.test(nodes.get(i));
+				});
+			}
+			else {
+				final int middle = (from + to) >>> 1;
+				invokeAll(new ConditionCheck(controller, condition, nodes, results, from, middle),
+				    new ConditionCheck(controller, condition, nodes, results, middle, to));
+			}
+		}
+	}
     
     public static Filter createTransparentFilter() {
 		final ResourceController resourceController = ResourceController.getResourceController();
@@ -108,20 +156,108 @@ public class Filter implements IExtension {
 		final NodeModel root = map.getRootNode();
 		resetFilter(root);
 		checkNode(root);
-		if (filterChildren(root, false, false)) {
+		final Predicate<NodeModel> conditionResults = checkCondition(root, false, getConditionResultCache(map));
+		if (filterChildren(root, false, false, conditionResults)) {
 			addFilterResult(root, FilterInfo.FILTER_SHOW_AS_ANCESTOR);
 		}
 	}
 
 	public void calculateFilterResults(final NodeModel root) {
 	    this.accessor = new FilterInfoAccessor();
-	    applyFilter(root, false, false, false);
+	    applyFilter(root, false, false, false, checkCondition(root, true, null));
+	}
+
+	private ConditionResultCache getConditionResultCache(final MapModel map) {
+		if (condition == null || ! condition.dependsOnNodeContentOnly()
+		        || ! ResourceController.getResourceController().getBooleanProperty(INCREMENTAL_EVALUATION_PROPERTY)) {
+			map.removeExtension(ConditionResultCache.class);
+			return null;
+		}
+		ConditionResultCache cache = map.getExtension(ConditionResultCache.class);
+		if (cache == null || ! cache.isCacheFor(condition)) {
+			cache = new ConditionResultCache(condition);
+			map.putExtension(cache);
+		}
+		return cache;
+	}
+
+	/**
+	 * Checks the condition for the subtree before the filter results are propagated.
+	 * Results cached for unchanged nodes are reused,
+	 * and large subtrees are split across all cores if the condition allows concurrent checks.
+	 * The checked nodes are collected from a consistent state of the map also if the filter is not applied
+	 * on the event dispatch thread, the map is only locked while they are collected.
+	 */
+	private Predicate<NodeModel> checkCondition(final NodeModel root, final boolean includesRoot,
+	                                            final ConditionResultCache cache) {
+		if (condition == null) {
+			return node -> true;
+		}
+		final Predicate<NodeModel> candidates = condition instanceof IIndexedCondition
+		        ? ((IIndexedCondition) condition).createCandidateTest(root.getMap()) : null;
+		final Predicate<NodeModel> check = candidates == null ? condition::checkNode
+		        : node -> candidates.test(node) && condition.checkNode(node);
+		if (cache == null && ! canCheckConcurrently()) {
+			return check;
+		}
+		final Map<NodeModel, Boolean> results = new IdentityHashMap<>();
+		final List<NodeModel> uncheckedNodes = new ArrayList<>();
+		root.getMap().readConsistently(() -> {
+			final List<NodeModel> nodes = new ArrayList<>();
+			if (includesRoot) {
+				nodes.add(root);
+			}
+			addDescendants(root, nodes);
+			for (final NodeModel node : nodes) {
+				final Boolean cachedResult = cache != null ? cache.getResult(node) : null;
+				if (cachedResult != null)
+					results.put(node, cachedResult);
+				else
+					uncheckedNodes.add(node);
+			}
+			return null;
+		});
+		final boolean[] checkedResults = checkNodes(uncheckedNodes, check);
+		for (int i = 0; i < checkedResults.length; i++) {
+			final NodeModel node = uncheckedNodes.get(i);
+			results.put(node, checkedResults[i]);
+			if (cache != null)
+				cache.putResult(node, checkedResults[i]);
+		}
+		if (cache != null)
+			cache.clearChangedNodes();
+		return results::get;
+	}
+
+	private boolean canCheckConcurrently() {
+		return condition.canBeCheckedConcurrently()
+		        && ResourceController.getResourceController().getBooleanProperty(PARALLEL_EVALUATION_PROPERTY);
+	}
+
+	private void addDescendants(final NodeModel node, final List<NodeModel> nodes) {
+		for (final NodeModel child : node.getChildren()) {
+			nodes.add(child);
+			addDescendants(child, nodes);
+		}
+	}
+
+	private boolean[] checkNodes(final List<NodeModel> nodes, final Predicate<NodeModel> check) {
+		final boolean[] results = new boolean[nodes.size()];
+		if (nodes.size() >= PARALLEL_EVALUATION_THRESHOLD && canCheckConcurrently()) {
+			ForkJoinPool.commonPool().invoke(new ConditionCheck(Controller.getCurrentController(), check, nodes, results, 0,
+			    nodes.size()));
+		}
+		else {
+			for (int i = 0; i < results.length; i++)
+				results[i] = check.test(nodes.get(i));
+		}
+		return results;
 	}
 
 	private boolean applyFilter(final NodeModel node,
 	                            final boolean hasMatchingAncestor, final boolean hasHiddenAncestor,
-	                            boolean hasMatchingDescendant) {
-		final boolean conditionSatisfied =  (condition == null || condition.checkNode(node));
+	                            boolean hasMatchingDescendant, final Predicate<NodeModel> conditionResults) {
+		final boolean conditionSatisfied = conditionResults.test(node);
 		final boolean matchesCombinedFilter;
 		if(appliesToVisibleNodesOnly()) {
 		    FilterInfo filterInfo = baseFilter.getFilterInfo(node);
@@ -148,7 +284,7 @@ public class Filter implements IExtension {
 		boolean childrenHaveMatchingAncestor = hasMatchingAncestor || matchesCombinedFilter && ! node.isRoot();
         if (filterChildren(node, childrenHaveMatchingAncestor, 
 		        !matchesCombinedFilter
-		        || hasHiddenAncestor)) {
+		        || hasHiddenAncestor, conditionResults)) {
 		    addFilterResult(node, FilterInfo.FILTER_SHOW_AS_ANCESTOR);
 			hasMatchingDescendant = true;
 		}
@@ -185,11 +321,12 @@ public class Filter implements IExtension {
 	}
 
 	private boolean filterChildren(final NodeModel node,
-	                               final boolean hasMatchingAncestor, final boolean hasHiddenAncestor) {
+	                               final boolean hasMatchingAncestor, final boolean hasHiddenAncestor,
+	                               final Predicate<NodeModel> conditionResults) {
 		boolean hasMatchingDescendant = false;
 		for (final NodeModel child : node.getChildren()) {
 			hasMatchingDescendant = applyFilter(child, hasMatchingAncestor, hasHiddenAncestor,
-			    hasMatchingDescendant);
+			    hasMatchingDescendant, conditionResults);
 		}
 		return hasMatchingDescendant;
 	}
@@ -39,6 +39,7 @@ import java.io.Writer;
 import java.security.AccessControlException;
 import java.util.Collection;
 import java.util.Vector;
+import java.util.function.Predicate;
 
 import javax.swing.BorderFactory;
 import javax.swing.ButtonModel;
@@ -77,16 +78,21 @@ import org.freeplane.features.filter.condition.ConditionFactory;
 import org.freeplane.features.filter.condition.ConditionSnapshotFactory;
 import org.freeplane.features.filter.condition.DefaultConditionRenderer;
 import org.freeplane.features.filter.condition.ICondition;
+import org.freeplane.features.filter.condition.IIndexedCondition;
 import org.freeplane.features.filter.condition.NoFilteringCondition;
 import org.freeplane.features.filter.condition.SelectedViewCondition;
 import org.freeplane.features.highlight.HighlightController;
 import org.freeplane.features.highlight.NodeHighlighter;
 import org.freeplane.features.map.CloneOfSelectedViewCondition;
+import org.freeplane.features.map.IMapChangeListener;
 import org.freeplane.features.map.IMapSelection;
+import org.freeplane.features.map.INodeChangeListener;
 import org.freeplane.features.map.MapChangeEvent;
+import org.freeplane.features.map.MapController;
 import org.freeplane.features.map.MapController.Direction;
 import org.freeplane.features.map.MapModel;
 import org.freeplane.features.map.MapNavigationUtils;
+import org.freeplane.features.map.NodeChangeEvent;
 import org.freeplane.features.map.NodeModel;
 import org.freeplane.features.mode.Controller;
 import org.freeplane.features.ui.IMapViewChangeListener;
@@ -454,6 +460,30 @@ public class FilterController implements IExtension, IMapViewChangeListener {
             }
         }
     }
+    /**
+     * Reports changed nodes to the condition results cached for incremental filter evaluation.
+     * Each map controller registers itself when it is created.
+     */
+    public void trackNodeChanges(MapController mapController) {
+        mapController.addNodeChangeListener(new INodeChangeListener() {
+            @Override
+            public void nodeChanged(NodeChangeEvent event) {
+                final NodeModel node = event.getNode();
+                final ConditionResultCache cache = node.getMap().getExtension(ConditionResultCache.class);
+                if (cache != null)
+                    cache.nodeChanged(node);
+            }
+        });
+        mapController.addMapChangeListener(new IMapChangeListener() {
+            @Override
+            public void mapChanged(MapChangeEvent event) {
+                final MapModel map = event.getMap();
+                if (map != null && event.getProperty() != Filter.class)
+                    map.removeExtension(ConditionResultCache.class);
+            }
+        });
+    }
+
     private void refreshMap(Object source, MapModel map) {
         Controller.getCurrentModeController().getMapController().fireMapChanged(new MapChangeEvent(source, map, Filter.class, null, this, false));
     }
@@ -809,6 +839,8 @@ public class FilterController implements IExtension, IMapViewChangeListener {
 
 	NodeModel findNext(final NodeModel from, final NodeModel end, final Direction direction,
 	                   final ASelectableCondition condition, Filter filter) {
+		final Predicate<NodeModel> candidates = condition instanceof IIndexedCondition
+		        ? ((IIndexedCondition) condition).createCandidateTest(from.getMap()) : null;
 		NodeModel next = from;
 		for (;;) {
 			do {
@@ -829,7 +861,7 @@ public class FilterController implements IExtension, IMapViewChangeListener {
 			if (next == from) {
 				break;
 			}
-			if (condition == null || condition.checkNode(next)) {
+			if (condition == null || (candidates == null || candidates.test(next)) && condition.checkNode(next)) {
 				return next;
 			}
 		}
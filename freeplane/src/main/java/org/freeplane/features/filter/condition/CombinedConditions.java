@@ -55,5 +55,32 @@ abstract class CombinedConditions extends ASelectableCondition implements ICombi
     }
 
     protected abstract ASelectableCondition[] getConditions();
+
+    @Override
+    public boolean canBeCheckedConcurrently() {
+        for(ASelectableCondition condition : getConditions()) {
+            if(! condition.canBeCheckedConcurrently())
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean dependsOnNodeContentOnly() {
+        for(ASelectableCondition condition : getConditions()) {
+            if(! condition.dependsOnNodeContentOnly())
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean dependsOnNodeContentAndPositionOnly() {
+        for(ASelectableCondition condition : getConditions()) {
+            if(! condition.dependsOnNodeContentAndPositionOnly())
+                return false;
+        }
+        return true;
+    }
     
 }
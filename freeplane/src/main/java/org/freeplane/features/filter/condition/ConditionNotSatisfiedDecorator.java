@@ -64,6 +64,21 @@ public class ConditionNotSatisfiedDecorator extends ASelectableCondition impleme
 		return !originalCondition.checkNode(node);
 	}
 
+	@Override
+	public boolean canBeCheckedConcurrently() {
+		return originalCondition.canBeCheckedConcurrently();
+	}
+
+	@Override
+	public boolean dependsOnNodeContentOnly() {
+		return originalCondition.dependsOnNodeContentOnly();
+	}
+
+	@Override
+	public boolean dependsOnNodeContentAndPositionOnly() {
+		return originalCondition.dependsOnNodeContentAndPositionOnly();
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see
@@ -23,4 +23,22 @@ import org.freeplane.features.map.NodeModel;
 
 public interface ICondition {
 	boolean checkNode(NodeModel node);
+
+	/** Returns true if {@link #checkNode(NodeModel)} has no side effects and may be called from several threads at once. */
+	default boolean canBeCheckedConcurrently() {
+		return false;
+	}
+
+	/** Returns true if the result of {@link #checkNode(NodeModel)} only changes when the checked node itself is changed. */
+	default boolean dependsOnNodeContentOnly() {
+		return false;
+	}
+
+	/**
+	 * Returns true if the result of {@link #checkNode(NodeModel)} only changes when the checked node itself is changed
+	 * or when nodes are inserted, moved or deleted.
+	 */
+	default boolean dependsOnNodeContentAndPositionOnly() {
+		return dependsOnNodeContentOnly();
+	}
 }
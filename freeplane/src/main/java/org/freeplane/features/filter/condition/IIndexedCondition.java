@@ -0,0 +1,12 @@
+package org.freeplane.features.filter.condition;
+
+import java.util.function.Predicate;
+
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+
+/** Condition which can use an index to skip nodes before they are checked. */
+public interface IIndexedCondition extends ICondition {
+	/** Returns a test rejecting only nodes which can not satisfy the condition, or null if no index is available. */
+	Predicate<NodeModel> createCandidateTest(MapModel map);
+}
@@ -74,6 +74,11 @@ public class IconContainedCondition extends ASelectableCondition {
 		        || IconContainedCondition.isStateIconContained(node, iconName);
 	}
 
+	@Override
+	public boolean dependsOnNodeContentOnly() {
+		return true;
+	}
+
 	private String getIconName() {
 		return iconName;
 	}
@@ -34,11 +34,9 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -397,32 +395,11 @@ public class LinkController extends SelectionController implements IExtension {
 	}
 
 	private Collection<NodeLinkModel> getLinksTo(final NodeModel target) {
-		if (target.hasID() == false) {
-			return Collections.emptySet();
-		}
 		final MapLinks links = target.getMap().getExtension(MapLinks.class);
 		if (links == null) {
 			return Collections.emptySet();
 		}
-
-		ArrayList<NodeLinkModel> clonedLinks = null;
-		for(NodeModel targetClone : target.subtreeClones()){
-			final Set<NodeLinkModel> set = links.get(targetClone.createID());
-			if (set == null) {
-				continue;
-			}
-			if(target.subtreeClones().size() == 1)
-				return set;
-			if (clonedLinks == null)
-				clonedLinks = new ArrayList<NodeLinkModel>(10);
-			for(NodeLinkModel sharedLink : set){
-				final Collection<NodeLinkModel> linkClones = sharedLink.clones();
-				for(NodeLinkModel linkClone : linkClones)
-					if(target.equals(linkClone.getTarget()))
-						clonedLinks.add(linkClone);
-			}
-		}
-		return clonedLinks != null  ? clonedLinks : Collections.<NodeLinkModel>emptySet();
+		return links.getLinksTo(target);
 	}
 
 	/**
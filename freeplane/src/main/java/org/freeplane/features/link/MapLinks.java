@@ -19,21 +19,36 @@
  */
 package org.freeplane.features.link;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.freeplane.core.extension.IExtension;
+import org.freeplane.features.map.Clones;
 import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
 
 /**
+ * Links of a map indexed by their target node IDs.
+ *
+ * Read only views of the link sets and the links to each target node including
+ * the links to its clones are cached, so that repeated lookups e.g. while painting
+ * do not allocate. The links to target nodes are cached until the links or the node tree change.
+ * The caches are filled by concurrent readers, the links themselves are only changed by the thread modifying the map.
+ *
  * @author Dimitry Polivaev
  */
 public class MapLinks implements IExtension {
 	final private HashMap<String, Set<NodeLinkModel>> links = new HashMap<String, Set<NodeLinkModel>>();
+	final private ConcurrentHashMap<String, Set<NodeLinkModel>> unmodifiableLinks = new ConcurrentHashMap<String, Set<NodeLinkModel>>();
+	final private ConcurrentHashMap<NodeModel, Collection<NodeLinkModel>> linksToTargets = new ConcurrentHashMap<NodeModel, Collection<NodeLinkModel>>();
 
 	public boolean add(final NodeLinkModel link) {
+		linksToTargets.clear();
 		final String targetID = link.getTargetID();
 		Set<NodeLinkModel> set = links.get(targetID);
 		if (set == null) {
@@ -57,11 +72,53 @@ public class MapLinks implements IExtension {
 		if (targetID == null) {
 			return null;
 		}
-		final Set<NodeLinkModel> set = links.get(targetID);
-		return set == null ? null : Collections.unmodifiableSet(set);
+		return unmodifiableLinks.computeIfAbsent(targetID, id -> {
+			final Set<NodeLinkModel> set = links.get(id);
+			return set != null ? Collections.unmodifiableSet(set) : null;
+		});
+	}
+
+	/**
+	 * Returns the links to the given node, links to its clones are returned as clones of the links
+	 * targeting the given node. The returned collection is read only and shared by subsequent calls
+	 * until the links or the node tree change.
+	 */
+	public Collection<NodeLinkModel> getLinksTo(final NodeModel target) {
+		if (target.hasID() == false) {
+			return Collections.emptySet();
+		}
+		return linksToTargets.computeIfAbsent(target, this::findLinksTo);
+	}
+
+	private Collection<NodeLinkModel> findLinksTo(final NodeModel target) {
+		final Clones targetClones = target.subtreeClones();
+		ArrayList<NodeLinkModel> clonedLinks = null;
+		for(NodeModel targetClone : targetClones){
+			final Set<NodeLinkModel> set = get(targetClone.createID());
+			if (set == null) {
+				continue;
+			}
+			if(targetClones.size() == 1)
+				return set;
+			if (clonedLinks == null)
+				clonedLinks = new ArrayList<NodeLinkModel>(10);
+			for(NodeLinkModel sharedLink : set){
+				final Collection<NodeLinkModel> linkClones = sharedLink.clones();
+				for(NodeLinkModel linkClone : linkClones)
+					if(target.equals(linkClone.getTarget()))
+						clonedLinks.add(linkClone);
+			}
+		}
+		return clonedLinks != null  ? Collections.unmodifiableList(clonedLinks) : Collections.<NodeLinkModel>emptySet();
+	}
+
+	/** Drops the cached links to target nodes after nodes or their clones were inserted or removed. */
+	public void nodeTreeChanged() {
+		linksToTargets.clear();
 	}
 
 	public boolean remove(final NodeLinkModel link) {
+		linksToTargets.clear();
 		final String targetID = link.getTargetID();
 		final Set<NodeLinkModel> set = links.get(targetID);
 		if (set == null) {
@@ -70,6 +127,7 @@ public class MapLinks implements IExtension {
 		if (set.remove(link)) {
 			if (set.isEmpty()) {
 				links.remove(targetID);
+				unmodifiableLinks.remove(targetID);
 			}
 			return true;
 		}
@@ -77,6 +135,8 @@ public class MapLinks implements IExtension {
 	}
 
 	public void set(final String targetID, final Set<NodeLinkModel> set) {
+		linksToTargets.clear();
+		unmodifiableLinks.remove(targetID);
 		links.put(targetID, set);
 	}
 
@@ -266,10 +266,12 @@ public class MLinkController extends LinkController {
 
 		@Override
 		public void onNodeDeleted(NodeDeletionEvent nodeDeletionEvent) {
+			nodeTreeChanged(nodeDeletionEvent.node.getMap());
 		}
 
 		@Override
 		public void onNodeInserted(final NodeModel parent, final NodeModel model, final int newIndex) {
+			nodeTreeChanged(model.getMap());
 			Controller.getCurrentController().getViewController().invokeLater(new Runnable() {
 				@Override
 				public void run() {
@@ -298,6 +300,13 @@ public class MLinkController extends LinkController {
 			}
 		}
 
+		private void nodeTreeChanged(final MapModel map) {
+			final MapLinks links = map.getExtension(MapLinks.class);
+			if (links != null) {
+				links.nodeTreeChanged();
+			}
+		}
+
 		private void insertMapLinks(final MapLinks links, final NodeModel model) {
 			final List<NodeModel> children = model.getChildren();
 			for (final NodeModel child : children) {
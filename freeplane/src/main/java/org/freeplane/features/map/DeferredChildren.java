@@ -0,0 +1,108 @@
+package org.freeplane.features.map;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.freeplane.features.mode.Controller;
+import org.freeplane.features.ui.ViewController;
+
+/**
+ * Child list of a folded node whose child nodes were not parsed when the map was loaded.
+ * The child nodes are created from the kept XML text on first access from the event dispatch thread,
+ * because the map reader parsing them is used by that thread only.
+ * Readers on other threads see no child nodes until they are loaded,
+ * traversals which can do without them use {@link NodeModel#getLoadedChildren()} on any thread.
+ */
+class DeferredChildren extends AbstractList<NodeModel> implements RandomAccess {
+	interface Loader {
+		List<NodeModel> load(MapModel map, List<String> childElements);
+	}
+
+	static final Object LOAD_LOCK = new Object();
+	private final NodeModel parent;
+	private final Loader loader;
+	private volatile List<String> childElements;
+	private volatile List<NodeModel> children;
+
+	DeferredChildren(NodeModel parent, List<String> childElements, Loader loader) {
+		this.parent = parent;
+		this.childElements = childElements;
+		this.loader = loader;
+	}
+
+	static boolean isPending(List<NodeModel> children) {
+		return children instanceof DeferredChildren && ((DeferredChildren) children).isPending();
+	}
+
+	static List<String> getPendingChildElements(NodeModel node) {
+		final List<NodeModel> children = node.getChildrenInternal();
+		return children instanceof DeferredChildren ? ((DeferredChildren) children).childElements : null;
+	}
+
+	boolean isPending() {
+		return childElements != null;
+	}
+
+	static boolean mayLoadOnCurrentThread() {
+		final Controller controller = Controller.getCurrentController();
+		final ViewController viewController = controller != null ? controller.getViewController() : null;
+		return viewController == null || viewController.isDispatchThread();
+	}
+
+	void load() {
+		synchronized (LOAD_LOCK) {
+			final List<String> elements = childElements;
+			if (elements == null)
+				return;
+			childElements = null;
+			try {
+				final List<NodeModel> loadedChildren = loader.load(parent.getMap(), elements);
+				for (NodeModel child : loadedChildren)
+					child.setParent(parent);
+				children = loadedChildren;
+			}
+			catch (RuntimeException e) {
+				childElements = elements;
+				throw e;
+			}
+		}
+	}
+
+	private List<NodeModel> children(boolean isChanged) {
+		List<NodeModel> loadedChildren = children;
+		if (loadedChildren == null && (isChanged || mayLoadOnCurrentThread())) {
+			load();
+			loadedChildren = children;
+		}
+		return loadedChildren != null ? loadedChildren : Collections.<NodeModel> emptyList();
+	}
+
+	@Override
+	public NodeModel get(int index) {
+		return children(false).get(index);
+	}
+
+	@Override
+	public int size() {
+		return children(false).size();
+	}
+
+	@Override
+	public void add(int index, NodeModel element) {
+		children(true).add(index, element);
+		modCount++;
+	}
+
+	@Override
+	public NodeModel set(int index, NodeModel element) {
+		return children(true).set(index, element);
+	}
+
+	@Override
+	public NodeModel remove(int index) {
+		modCount++;
+		return children(true).remove(index);
+	}
+}
@@ -0,0 +1,94 @@
+package org.freeplane.features.map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.freeplane.core.extension.IExtension;
+
+/**
+ * Map extension finding the not yet loaded child lists which may contain a node with given ID.
+ * Only hash codes of the IDs are kept, so a lookup can load a branch not containing the node.
+ */
+class DeferredSubtrees implements IExtension {
+	private static class Segment {
+		final int[] idHashes;
+		final DeferredChildren[] owners;
+
+		Segment(int[] idHashes, DeferredChildren[] owners) {
+			this.idHashes = idHashes;
+			this.owners = owners;
+		}
+	}
+
+	private final List<Segment> segments = new ArrayList<>();
+
+	static void register(MapModel map, List<DeferredChildren> owners, List<int[]> descendantIdHashes) {
+		int idCount = 0;
+		for (int[] hashes : descendantIdHashes)
+			idCount += hashes.length;
+		final long[] entries = new long[idCount];
+		int entryIndex = 0;
+		for (int ownerIndex = 0; ownerIndex < owners.size(); ownerIndex++) {
+			for (int hash : descendantIdHashes.get(ownerIndex))
+				entries[entryIndex++] = ((long) hash << 32) | ownerIndex;
+		}
+		Arrays.sort(entries);
+		final int[] idHashes = new int[idCount];
+		final DeferredChildren[] entryOwners = new DeferredChildren[idCount];
+		for (int i = 0; i < idCount; i++) {
+			idHashes[i] = (int) (entries[i] >> 32);
+			entryOwners[i] = owners.get((int) entries[i]);
+		}
+		DeferredSubtrees deferredSubtrees = map.getExtension(DeferredSubtrees.class);
+		if (deferredSubtrees == null) {
+			deferredSubtrees = new DeferredSubtrees();
+			map.addExtension(deferredSubtrees);
+		}
+		deferredSubtrees.segments.add(new Segment(idHashes, entryOwners));
+	}
+
+	/**
+	 * Loads pending child lists possibly containing a node with given id.
+	 * Nothing is loaded on threads which may not load child nodes.
+	 * @return true if any child list was loaded
+	 */
+	boolean loadNodesWithId(String id) {
+		if (!DeferredChildren.mayLoadOnCurrentThread())
+			return false;
+		return visitPendingOwners(id, true);
+	}
+
+	/**
+	 * Returns true if a pending child list may contain a node with given id,
+	 * so that the id is not given to another node.
+	 */
+	boolean isReserved(String id) {
+		return visitPendingOwners(id, false);
+	}
+
+	private boolean visitPendingOwners(String id, boolean loadsOwners) {
+		final int hash = id.hashCode();
+		boolean found = false;
+		synchronized (DeferredChildren.LOAD_LOCK) {
+			for (int segmentIndex = 0; segmentIndex < segments.size(); segmentIndex++) {
+				final Segment segment = segments.get(segmentIndex);
+				int index = Arrays.binarySearch(segment.idHashes, hash);
+				if (index < 0)
+					continue;
+				while (index > 0 && segment.idHashes[index - 1] == hash)
+					index--;
+				for (; index < segment.idHashes.length && segment.idHashes[index] == hash; index++) {
+					final DeferredChildren owner = segment.owners[index];
+					if (owner.isPending()) {
+						if (!loadsOwners)
+							return true;
+						owner.load();
+						found = true;
+					}
+				}
+			}
+		}
+		return found;
+	}
+}
@@ -0,0 +1,269 @@
+package org.freeplane.features.map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fast first pass over the XML text of a map finding the child nodes of folded nodes.
+ * It only tokenizes the tags and records the text ranges of the child node elements,
+ * so that they can be cut from the document and parsed later when they are needed.
+ *
+ * Subtrees containing connectors or reminders are kept because they have effects outside of their branch,
+ * and maps containing clones are not split at all.
+ */
+class FoldedSubtreeScanner {
+	static final String DEFERRED_SUBTREE_TAG = "deferred_subtree";
+	static final String INDEX_ATTRIBUTE = "INDEX";
+	private static final String[] MARKERS_PREVENTING_DEFERRED_LOADING = { "<arrowlink", "TimeManagementReminder" };
+	private static final String[] CLONE_ATTRIBUTES = { " TREE_ID=", " CONTENT_ID=", " REFERENCE_ID=" };
+
+	static class FoldedSubtree {
+		final List<String> childElements;
+		final int[] descendantIdHashes;
+		DeferredChildren deferredChildren;
+
+		FoldedSubtree(List<String> childElements, int[] descendantIdHashes) {
+			this.childElements = childElements;
+			this.descendantIdHashes = descendantIdHashes;
+		}
+	}
+
+	private static class Element {
+		final int start;
+		final boolean isNode;
+		final int idCountAtStart;
+		final int subtreeCountAtStart;
+		final boolean defersChildNodes;
+		List<int[]> childNodeRanges;
+
+		Element(int start, boolean isNode, boolean defersChildNodes, int idCountAtStart, int subtreeCountAtStart) {
+			this.start = start;
+			this.isNode = isNode;
+			this.defersChildNodes = defersChildNodes;
+			this.idCountAtStart = idCountAtStart;
+			this.subtreeCountAtStart = subtreeCountAtStart;
+		}
+	}
+
+	private final String xml;
+	private final List<FoldedSubtree> foldedSubtrees = new ArrayList<>();
+	private final List<List<int[]>> deferredRanges = new ArrayList<>();
+	private final ArrayList<Element> elements = new ArrayList<>();
+	private int[] markerPositions;
+	private int[] idHashes = new int[1024];
+	private int idCount = 0;
+	private String tagName;
+	private String idAttribute;
+	private boolean isFolded;
+
+	FoldedSubtreeScanner(String xml) {
+		this.xml = xml;
+	}
+
+	List<FoldedSubtree> getFoldedSubtrees() {
+		return foldedSubtrees;
+	}
+
+	/**
+	 * Returns the map text where child nodes of folded nodes are replaced by placeholder elements
+	 * referring to the index of the corresponding {@link FoldedSubtree}.
+	 * Returns the unchanged text if nothing can be deferred or the text can not be tokenized.
+	 */
+	String scan() {
+		for (String cloneAttribute : CLONE_ATTRIBUTES) {
+			if (xml.contains(cloneAttribute))
+				return xml;
+		}
+		markerPositions = findMarkerPositions();
+		try {
+			if (!tokenize()) {
+				foldedSubtrees.clear();
+				return xml;
+			}
+		}
+		catch (IndexOutOfBoundsException e) {
+			foldedSubtrees.clear();
+			return xml;
+		}
+		if (foldedSubtrees.isEmpty())
+			return xml;
+		return createDocumentWithPlaceholders();
+	}
+
+	private boolean tokenize() {
+		int position = 0;
+		for (;;) {
+			final int tagStart = xml.indexOf('<', position);
+			if (tagStart < 0)
+				return elements.isEmpty();
+			if (xml.startsWith("<!--", tagStart))
+				position = skipTo("-->", tagStart + 4);
+			else if (xml.startsWith("<![CDATA[", tagStart))
+				position = skipTo("]]>", tagStart + 9);
+			else if (xml.startsWith("<?", tagStart))
+				position = skipTo("?>", tagStart + 2);
+			else if (xml.startsWith("<!", tagStart))
+				position = skipTo(">", tagStart + 2);
+			else if (xml.startsWith("</", tagStart)) {
+				position = skipTo(">", tagStart + 2);
+				if (position < 0 || elements.isEmpty())
+					return false;
+				endElement(position);
+			}
+			else
+				position = startElement(tagStart);
+			if (position < 0)
+				return false;
+		}
+	}
+
+	private int skipTo(String delimiter, int from) {
+		final int delimiterStart = xml.indexOf(delimiter, from);
+		return delimiterStart < 0 ? -1 : delimiterStart + delimiter.length();
+	}
+
+	private int startElement(int tagStart) {
+		final int tagEnd = readStartTag(tagStart + 1);
+		if (tagEnd < 0)
+			return -1;
+		final boolean isEmptyElement = xml.charAt(tagEnd - 2) == '/';
+		final boolean isNode = NodeBuilder.XML_NODE.equals(tagName);
+		final Element parent = elements.isEmpty() ? null : elements.get(elements.size() - 1);
+		if (isNode && idAttribute != null)
+			addIdHash(idAttribute.hashCode());
+		final boolean defersChildNodes = isNode && isFolded && idAttribute != null && !isEmptyElement
+		        && parent != null && parent.isNode;
+		if (isEmptyElement) {
+			if (isNode)
+				nodeElementEnded(parent, tagStart, tagEnd);
+		}
+		else
+			elements.add(new Element(tagStart, isNode, defersChildNodes, idCount, foldedSubtrees.size()));
+		return tagEnd;
+	}
+
+	private int readStartTag(int position) {
+		final int nameStart = position;
+		while (!isTagNameEnd(xml.charAt(position)))
+			position++;
+		tagName = xml.substring(nameStart, position);
+		idAttribute = null;
+		isFolded = false;
+		for (;;) {
+			final char c = xml.charAt(position);
+			if (c == '>')
+				return position + 1;
+			if (c == '/' || Character.isWhitespace(c)) {
+				position++;
+				continue;
+			}
+			final int nameEnd = xml.indexOf('=', position);
+			if (nameEnd < 0)
+				return -1;
+			final String attributeName = xml.substring(position, nameEnd).trim();
+			int valueStart = nameEnd + 1;
+			while (Character.isWhitespace(xml.charAt(valueStart)))
+				valueStart++;
+			final char quote = xml.charAt(valueStart);
+			if (quote != '"' && quote != '\'')
+				return -1;
+			final int valueEnd = xml.indexOf(quote, valueStart + 1);
+			if (valueEnd < 0)
+				return -1;
+			if (attributeName.equals("ID"))
+				idAttribute = xml.substring(valueStart + 1, valueEnd);
+			else if (attributeName.equals("FOLDED"))
+				isFolded = xml.startsWith("true", valueStart + 1) && valueEnd == valueStart + 5;
+			position = valueEnd + 1;
+		}
+	}
+
+	private static boolean isTagNameEnd(char c) {
+		return c == '>' || c == '/' || Character.isWhitespace(c);
+	}
+
+	private void endElement(int tagEnd) {
+		final Element element = elements.remove(elements.size() - 1);
+		if (element.defersChildNodes && element.childNodeRanges != null) {
+			if (canBeDeferred(element.childNodeRanges))
+				deferChildNodes(element);
+		}
+		if (element.isNode) {
+			final Element parent = elements.isEmpty() ? null : elements.get(elements.size() - 1);
+			nodeElementEnded(parent, element.start, tagEnd);
+		}
+	}
+
+	private void nodeElementEnded(Element parent, int elementStart, int elementEnd) {
+		if (parent == null || !parent.defersChildNodes)
+			return;
+		if (parent.childNodeRanges == null) {
+			parent.childNodeRanges = new ArrayList<>();
+		}
+		parent.childNodeRanges.add(new int[] { elementStart, elementEnd });
+	}
+
+	private int[] findMarkerPositions() {
+		int[] positions = new int[16];
+		int count = 0;
+		for (String marker : MARKERS_PREVENTING_DEFERRED_LOADING) {
+			for (int position = xml.indexOf(marker); position >= 0; position = xml.indexOf(marker, position + 1)) {
+				if (count == positions.length)
+					positions = Arrays.copyOf(positions, count * 2);
+				positions[count++] = position;
+			}
+		}
+		positions = Arrays.copyOf(positions, count);
+		Arrays.sort(positions);
+		return positions;
+	}
+
+	private boolean canBeDeferred(List<int[]> ranges) {
+		for (int[] range : ranges) {
+			final int searchResult = Arrays.binarySearch(markerPositions, range[0]);
+			final int firstMarkerIndex = searchResult >= 0 ? searchResult : -searchResult - 1;
+			if (firstMarkerIndex < markerPositions.length && markerPositions[firstMarkerIndex] < range[1])
+				return false;
+		}
+		return true;
+	}
+
+	private void deferChildNodes(Element element) {
+		if (foldedSubtrees.size() > element.subtreeCountAtStart) {
+			foldedSubtrees.subList(element.subtreeCountAtStart, foldedSubtrees.size()).clear();
+			deferredRanges.subList(element.subtreeCountAtStart, deferredRanges.size()).clear();
+		}
+		final List<String> childElements = new ArrayList<>(element.childNodeRanges.size());
+		for (int[] range : element.childNodeRanges)
+			childElements.add(xml.substring(range[0], range[1]));
+		final int[] descendantIdHashes = Arrays.copyOfRange(idHashes, element.idCountAtStart, idCount);
+		Arrays.sort(descendantIdHashes);
+		foldedSubtrees.add(new FoldedSubtree(childElements, descendantIdHashes));
+		deferredRanges.add(element.childNodeRanges);
+	}
+
+	private void addIdHash(int hash) {
+		if (idCount == idHashes.length)
+			idHashes = Arrays.copyOf(idHashes, idCount * 2);
+		idHashes[idCount++] = hash;
+	}
+
+	private String createDocumentWithPlaceholders() {
+		final StringBuilder document = new StringBuilder(xml.length());
+		int position = 0;
+		for (int index = 0; index < deferredRanges.size(); index++) {
+			final List<int[]> ranges = deferredRanges.get(index);
+			for (int[] range : ranges) {
+				document.append(xml, position, range[0]);
+				if (range == ranges.get(0)) {
+					document.append('<').append(DEFERRED_SUBTREE_TAG).append(' ').append(INDEX_ATTRIBUTE).append("=\"")
+					    .append(index).append("\"/>");
+				}
+				position = range[1];
+			}
+		}
+		document.append(xml, position, xml.length());
+		return document.toString();
+	}
+}
@@ -0,0 +1,100 @@
+package org.freeplane.features.map;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+import org.freeplane.core.util.LogUtils;
+
+/**
+ * Lets other threads read a map consistently while it is changed on the event dispatch thread.
+ *
+ * Readers hold a read lock which blocks changes until they are done, so they should only copy or serialize
+ * the state they need and process the copy after the lock is released.
+ * Readers on other threads than the event dispatch thread do not load deferred child nodes.
+ * A reader may only change the map while no other thread reads it, its read lock is then converted to the write lock
+ * for the time of the change. Otherwise the change fails, because waiting for the other readers could deadlock.
+ * Actions registered before the next change run on the changing thread while it holds the lock, before the map is changed.
+ * An action replaces the pending action registered with the same key.
+ */
+class MapAccessLock {
+	private final StampedLock lock = new StampedLock();
+	private final ThreadLocal<Long> readStamp = new ThreadLocal<>();
+	private volatile Thread writer;
+	private Map<Object, Runnable> actionsBeforeNextChange = new LinkedHashMap<>();
+
+	<T> T readConsistently(Supplier<T> reader) {
+		if (writer == Thread.currentThread() || readStamp.get() != null) {
+			return reader.get();
+		}
+		readStamp.set(lock.readLock());
+		try {
+			return reader.get();
+		}
+		finally {
+			// a change made by the reader replaces the stamp
+			lock.unlockRead(readStamp.get());
+			readStamp.remove();
+		}
+	}
+
+	boolean isReadByCurrentThread() {
+		return readStamp.get() != null;
+	}
+
+	void changeExclusively(Runnable change) {
+		final Thread currentThread = Thread.currentThread();
+		if (writer == currentThread) {
+			change.run();
+			return;
+		}
+		final Long stampOfReader = readStamp.get();
+		final long stamp;
+		if (stampOfReader != null) {
+			stamp = lock.tryConvertToWriteLock(stampOfReader);
+			if (stamp == 0L)
+				throw new IllegalStateException("map can not be changed by a reader while other threads read it");
+		}
+		else
+			stamp = lock.writeLock();
+		writer = currentThread;
+		try {
+			runActionsBeforeChange();
+			change.run();
+		}
+		finally {
+			writer = null;
+			if (stampOfReader != null)
+				readStamp.set(lock.tryConvertToReadLock(stamp));
+			else
+				lock.unlockWrite(stamp);
+		}
+	}
+
+	synchronized void beforeNextChange(Object key, Runnable action) {
+		actionsBeforeNextChange.put(key, action);
+	}
+
+	synchronized void cancelBeforeNextChange(Object key, Runnable action) {
+		actionsBeforeNextChange.remove(key, action);
+	}
+
+	private void runActionsBeforeChange() {
+		final Map<Object, Runnable> actions;
+		synchronized (this) {
+			if (actionsBeforeNextChange.isEmpty())
+				return;
+			actions = actionsBeforeNextChange;
+			actionsBeforeNextChange = new LinkedHashMap<>();
+		}
+		for (Runnable action : actions.values()) {
+			try {
+				action.run();
+			}
+			catch (RuntimeException e) {
+				LogUtils.severe(e);
+			}
+		}
+	}
+}
@@ -346,6 +346,13 @@ implements IExtension, NodeChangeAnnouncer{
 		writeManager.addExtensionElementWriter(UnknownElements.class, unknownElementWriter);
 		mapChangeListeners = new LinkedList<IMapChangeListener>();
 		nodeChangeListeners = new LinkedList<INodeChangeListener>();
+		final SubtreeTextCache.ChangeListener subtreeTextCacheUpdater = new SubtreeTextCache.ChangeListener();
+		addMapChangeListener(subtreeTextCacheUpdater);
+		addNodeChangeListener(subtreeTextCacheUpdater);
+		addMapLifeCycleListener(subtreeTextCacheUpdater);
+		final FilterController filterController = FilterController.getController(modeController.getController());
+		if (filterController != null)
+			filterController.trackNodeChanges(this);
 		actionEnablerOnChange = new ActionEnablerOnChange(modeController);
 		actionSelectorOnChange = new ActionSelectorOnChange(modeController);
 		addNodeSelectionListener(actionEnablerOnChange);
@@ -442,6 +449,7 @@ implements IExtension, NodeChangeAnnouncer{
 
 	protected void setFoldingState(final NodeModel node, final boolean folded) {
 		node.setFolded(folded);
+		SubtreeTextCache.forget(node);
 	}
 
 	public boolean showNextChild(final NodeModel node) {
@@ -770,11 +778,13 @@ implements IExtension, NodeChangeAnnouncer{
 	}
 
 	public void insertNodeIntoWithoutUndo(final NodeModel newNode, final NodeModel parent, final int index) {
-		if(parent.getParentNode() != null){
-			newNode.setLeft(parent.isLeft());
-		}
-		parent.insert(newNode, index);
-		fireNodeInserted(parent, newNode, index);
+		parent.getMap().changeExclusively(() -> {
+			if(parent.getParentNode() != null){
+				newNode.setLeft(parent.isLeft());
+			}
+			parent.insert(newNode, index);
+			fireNodeInserted(parent, newNode, index);
+		});
 	}
 
 	 public boolean isFolded(final NodeModel node) {
@@ -27,6 +27,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import org.freeplane.core.extension.ExtensionContainer;
 import org.freeplane.core.extension.IExtension;
@@ -52,9 +54,11 @@ public class MapModel {
 	private NodeModel root;
 	private URL url;
 	private NodeChangeAnnouncer nodeChangeAnnouncer;
+	private final MapAccessLock accessLock = new MapAccessLock();
 
 	public MapModel(IconRegistry iconRegistry, NodeChangeAnnouncer nodeChangeAnnouncer) {
-		extensionContainer = new ExtensionContainer(new HashMap<Class<? extends IExtension>, IExtension>());
+		// extensions are looked up by readers running concurrently with changes
+		extensionContainer = new ExtensionContainer(new ConcurrentHashMap<Class<? extends IExtension>, IExtension>());
 		this.root = null;
 		listeners = new LinkedList<IMapChangeListener>();
 		nodes = new HashMap<String, NodeModel>();
@@ -110,7 +114,8 @@ public class MapModel {
 	}
 
 	public String generateNodeID(final String proposedID) {
-		if (proposedID != null && !"".equals(proposedID) && getNodeForID(proposedID) == null) {
+		if (proposedID != null && !"".equals(proposedID) && getNodeForID(proposedID) == null
+		        && !isReservedForPendingNodes(proposedID)) {
 			return proposedID;
 		}
 		String returnValue;
@@ -121,10 +126,21 @@ public class MapModel {
 			 * XML/DTD.
 			 */
 			returnValue = prefix + Integer.toString(ran.nextInt(UNDEFINED_NODE_ID));
-		} while (nodes.containsKey(returnValue));
+		} while (containsNodeID(returnValue) || isReservedForPendingNodes(returnValue));
 		return returnValue;
 	}
 
+	private boolean isReservedForPendingNodes(final String nodeID) {
+		final DeferredSubtrees deferredSubtrees = getExtension(DeferredSubtrees.class);
+		return deferredSubtrees != null && deferredSubtrees.isReserved(nodeID);
+	}
+
+	private boolean containsNodeID(final String nodeID) {
+		synchronized (nodes) {
+			return nodes.containsKey(nodeID);
+		}
+	}
+
 	public <T extends IExtension> T getExtension(final Class<T> clazz) {
 		return extensionContainer.getExtension(clazz);
 	}
@@ -149,7 +165,15 @@ public class MapModel {
 	 * @return
 	 */
 	public NodeModel getNodeForID(final String nodeID) {
-		final NodeModel node = nodes.get(nodeID);
+		final NodeModel node;
+		synchronized (nodes) {
+			node = nodes.get(nodeID);
+		}
+		if (node == null && nodeID != null) {
+			final DeferredSubtrees deferredSubtrees = getExtension(DeferredSubtrees.class);
+			if (deferredSubtrees != null && deferredSubtrees.loadNodesWithId(nodeID))
+				return getNodeForID(nodeID);
+		}
 		return node;
 	}
 
@@ -192,7 +216,10 @@ public class MapModel {
 	 * @param nodeModel
 	 */
 	void registryID(final String value, final NodeModel nodeModel) {
-		final NodeModel old = nodes.put(value, nodeModel);
+		final NodeModel old;
+		synchronized (nodes) {
+			old = nodes.put(value, nodeModel);
+		}
 		if (null != old && nodeModel != old) {
 			throw new RuntimeException("id " + value + " already registered");
 		}
@@ -203,11 +230,23 @@ public class MapModel {
 	 * @return
 	 */
 	public String registryNode(final NodeModel nodeModel) {
-		final String id = generateNodeID(nodeModel.getID());
-		registryID(id, nodeModel);
+		String id = generateNodeID(nodeModel.getID());
+		while (!registryFreeID(id, nodeModel))
+			id = generateNodeID(null);
 		return id;
 	}
 
+	/** Registers the id unless another thread has registered it for another node since it was generated. */
+	private boolean registryFreeID(final String id, final NodeModel nodeModel) {
+		synchronized (nodes) {
+			final NodeModel registeredNode = nodes.get(id);
+			if (registeredNode != null && registeredNode != nodeModel)
+				return false;
+			nodes.put(id, nodeModel);
+			return true;
+		}
+	}
+
 	public void registryNodeRecursive(final NodeModel nodeModel) {
 		registryNodeRecursive(nodeModel, 0);
 	}
@@ -281,11 +320,54 @@ public class MapModel {
 		}
 		final String id = node.getID();
 		if (id != null) {
-			nodes.put(id, null);
+			synchronized (nodes) {
+				nodes.put(id, null);
+			}
 		}
 	}
 
 
+	/**
+	 * Reads the map consistently from any thread while it can be changed on the event dispatch thread.
+	 * Changes wait until the reader is done, so it should only copy the state it needs and must not change the map.
+	 */
+	public <T> T readConsistently(final Supplier<T> reader) {
+		return accessLock.readConsistently(reader);
+	}
+
+	/**
+	 * Performs a change of the map which is not visible to {@link #readConsistently(Supplier)} until it is complete.
+	 * Undoable changes, undo and redo, and the insertion, deletion and move of nodes without undo run here,
+	 * other changes of the map are only made on the event dispatch thread and are not seen consistently by other threads.
+	 * A thread reading the map can change it only while no other thread reads it.
+	 */
+	public void changeExclusively(final Runnable change) {
+		accessLock.changeExclusively(change);
+	}
+
+	/**
+	 * Returns true inside of {@link #readConsistently(Supplier)} called by the current thread.
+	 */
+	public boolean isReadByCurrentThread() {
+		return accessLock.isReadByCurrentThread();
+	}
+
+	/**
+	 * Runs the action once before the next change performed by {@link #changeExclusively(Runnable)},
+	 * e.g. to take a snapshot of nodes which is only needed if they are going to change.
+	 * The action replaces the pending action registered with the same key.
+	 */
+	public void beforeNextChange(final Object key, final Runnable action) {
+		accessLock.beforeNextChange(key, action);
+	}
+
+	/**
+	 * Removes the action if it is still pending for the key.
+	 */
+	public void cancelBeforeNextChange(final Object key, final Runnable action) {
+		accessLock.cancelBeforeNextChange(key, action);
+	}
+
 	public NodeChangeAnnouncer getNodeChangeAnnouncer() {
 		return nodeChangeAnnouncer;
 	}
@@ -21,13 +21,19 @@ package org.freeplane.features.map;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.freeplane.core.io.IElementDOMHandler;
 import org.freeplane.core.io.ReadManager;
 import org.freeplane.core.io.UnknownElements;
 import org.freeplane.core.io.xml.TreeXmlReader;
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.core.util.FileUtils;
+import org.freeplane.features.map.FoldedSubtreeScanner.FoldedSubtree;
 import org.freeplane.features.map.MapWriter.Hint;
 import org.freeplane.features.map.MapWriter.Mode;
 import org.freeplane.n3.nanoxml.XMLElement;
@@ -57,6 +63,8 @@ public class MapReader implements IElementDOMHandler {
 		public NodeModel create(final Reader pReader) throws XMLException {
 			final NodeTreeCreator oldNodeTreeCreator = nodeTreeCreator;
 			final TreeXmlReader reader = new TreeXmlReader(readManager);
+			reader.setFastParserEnabled(ResourceController.getResourceController().getBooleanProperty(
+			    LOAD_WITH_FAST_PARSER_PROPERTY));
 			try {
 				nodeTreeCreator = this;
 				reader.load(createdMap, pReader);
@@ -137,6 +145,31 @@ public class MapReader implements IElementDOMHandler {
 		}
 	}
 
+	private class DeferredSubtreeHandler implements IElementDOMHandler {
+		@Override
+		public Object createElement(final Object parent, final String tag, final XMLElement attributes) {
+			return parent instanceof NodeModel ? parent : null;
+		}
+
+		@Override
+		public void endElement(final Object parent, final String tag, final Object element, final XMLElement dom) {
+			@SuppressWarnings("unchecked")
+			final List<FoldedSubtree> foldedSubtrees = (List<FoldedSubtree>) nodeTreeCreator.getHint(DEFERRED_SUBTREES_HINT);
+			final String index = dom.getAttribute(FoldedSubtreeScanner.INDEX_ATTRIBUTE, null);
+			if (foldedSubtrees == null || index == null)
+				return;
+			final NodeModel node = (NodeModel) parent;
+			final FoldedSubtree foldedSubtree = foldedSubtrees.get(Integer.parseInt(index));
+			final DeferredChildren children = new DeferredChildren(node, foldedSubtree.childElements,
+			    MapReader.this::loadDeferredChildren);
+			node.setChildrenInternal(children);
+			foldedSubtree.deferredChildren = children;
+		}
+	}
+
+	public static final String LOAD_FOLDED_SUBTREES_LAZILY_PROPERTY = "load_folded_subtrees_lazily";
+	public static final String LOAD_WITH_FAST_PARSER_PROPERTY = "load_with_fast_parser";
+	private static final String DEFERRED_SUBTREES_HINT = "deferred_subtrees";
 	private final NodeBuilder nodeBuilder;
 	final private ReadManager readManager;
 	private NodeTreeCreator nodeTreeCreator;
@@ -149,6 +182,7 @@ public class MapReader implements IElementDOMHandler {
 		this.readManager = readManager;
 		nodeBuilder = new NodeBuilder(this);
 		nodeBuilder.registerBy(readManager);
+		readManager.addElementHandler(FoldedSubtreeScanner.DEFERRED_SUBTREE_TAG, new DeferredSubtreeHandler());
 	}
 
 	@Override
@@ -160,8 +194,57 @@ public class MapReader implements IElementDOMHandler {
 	        throws IOException, XMLException {
 		final Map<Object, Object> hints = new HashMap<Object, Object>(1);
 		hints.put(Hint.MODE, mode);
+		if (Mode.FILE.equals(mode) && loadsFoldedSubtreesLazily())
+			return createNodeTreeDeferringFoldedSubtrees(map, FileUtils.slurp(pReader), hints);
 		return createNodeTreeFromXml(map, pReader, hints);
 	}
+
+	private boolean loadsFoldedSubtreesLazily() {
+		return ResourceController.getResourceController().getBooleanProperty(LOAD_FOLDED_SUBTREES_LAZILY_PROPERTY)
+		        && NodeBuilder.isFoldingLoadedFromFile();
+	}
+
+	/**
+	 * Creates the node tree without the child nodes of folded nodes.
+	 * They are kept as XML text and parsed on first access.
+	 */
+	private NodeModel createNodeTreeDeferringFoldedSubtrees(final MapModel map, final String xml,
+	                                                       final Map<Object, Object> hints)
+	        throws IOException, XMLException {
+		final FoldedSubtreeScanner scanner = new FoldedSubtreeScanner(xml);
+		final String xmlWithoutFoldedSubtrees = scanner.scan();
+		final List<FoldedSubtree> foldedSubtrees = scanner.getFoldedSubtrees();
+		if (foldedSubtrees.isEmpty())
+			return createNodeTreeFromXml(map, new StringReader(xml), hints);
+		hints.put(DEFERRED_SUBTREES_HINT, foldedSubtrees);
+		final NodeModel topNode = createNodeTreeFromXml(map, new StringReader(xmlWithoutFoldedSubtrees), hints);
+		final List<DeferredChildren> deferredChildren = new ArrayList<>(foldedSubtrees.size());
+		final List<int[]> descendantIdHashes = new ArrayList<>(foldedSubtrees.size());
+		for (FoldedSubtree foldedSubtree : foldedSubtrees) {
+			if (foldedSubtree.deferredChildren != null) {
+				deferredChildren.add(foldedSubtree.deferredChildren);
+				descendantIdHashes.add(foldedSubtree.descendantIdHashes);
+			}
+		}
+		DeferredSubtrees.register(map, deferredChildren, descendantIdHashes);
+		return topNode;
+	}
+
+	private List<NodeModel> loadDeferredChildren(final MapModel map, final List<String> childElements) {
+		final List<NodeModel> children = new ArrayList<>(childElements.size());
+		for (String childElement : childElements) {
+			final Map<Object, Object> hints = new HashMap<Object, Object>();
+			hints.put(Hint.MODE, Mode.FILE);
+			hints.put(NodeBuilder.FOLDING_LOADED, Boolean.TRUE);
+			try {
+				children.add(createNodeTreeDeferringFoldedSubtrees(map, childElement, hints));
+			}
+			catch (IOException | XMLException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		return children;
+	}
 	public NodeModel createNodeTreeFromXml(final MapModel map, final Reader pReader, final Map<Object, Object> hints)
 	        throws IOException, XMLException {
 		final NodeTreeCreator oldNodeTreeCreator = nodeTreeCreator;
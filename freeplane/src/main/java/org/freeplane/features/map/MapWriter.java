@@ -28,6 +28,7 @@ import org.freeplane.core.io.IAttributeWriter;
 import org.freeplane.core.io.IElementWriter;
 import org.freeplane.core.io.ITreeWriter;
 import org.freeplane.core.io.WriteManager;
+import org.freeplane.core.io.xml.StreamingTreeXmlWriter;
 import org.freeplane.core.io.xml.TreeXmlWriter;
 import org.freeplane.core.resources.ResourceController;
 import org.freeplane.core.util.FreeplaneVersion;
@@ -56,6 +57,8 @@ public class MapWriter implements IElementWriter, IAttributeWriter {
 		CLIPBOARD, FILE, EXPORT, STYLE
 	};
 
+	public static final String RESOURCES_SAVE_WITH_STREAMING_WRITER = "save_with_streaming_writer";
+
 	private NodeWriter currentNodeWriter;
 	final private MapController mapController;
 	private boolean saveInvisible;
@@ -88,18 +91,29 @@ public class MapWriter implements IElementWriter, IAttributeWriter {
 		writeNode(writer, rootNode, saveInvisible, true);
 	}
 
-	public void writeMapAsXml(final MapModel map, final Writer fileout, final Mode mode, final boolean saveInvisible,
+	/**
+	 * Writers of maps and nodes are synchronized because the node writer registered by them is shared,
+	 * so that maps can be serialized on other threads than the event dispatch thread.
+	 */
+	public synchronized void writeMapAsXml(final MapModel map, final Writer fileout, final Mode mode, final boolean saveInvisible,
 	                          final boolean forceFormat) throws IOException {
-		final TreeXmlWriter xmlWriter = createTreeWriter(fileout);
+		final SubtreeTextCache.Recording recording = Mode.FILE.equals(mode) && saveInvisible
+		        ? SubtreeTextCache.startRecording(map, fileout) : null;
+		final ITreeWriter xmlWriter = createTreeWriter(recording != null ? recording : fileout);
 		xmlWriter.setHint(Hint.MODE, mode);
 		if (forceFormat) {
 			xmlWriter.setHint(WriterHint.FORCE_FORMATTING);
 		}
+		if (recording != null) {
+			xmlWriter.setHint(SubtreeTextCache.Recording.class, recording);
+		}
 		final XMLElement xmlMap = new XMLElement("map");
 		setSaveInvisible(saveInvisible);
 		xmlWriter.addElement(map, xmlMap);
-		xmlWriter.flush();
 		fileout.close();
+		if (recording != null) {
+			recording.finish();
+		}
 	}
 
 	private void writeNode(final ITreeWriter xmlWriter, final NodeModel node, final boolean writeInvisible,
@@ -130,20 +144,28 @@ public class MapWriter implements IElementWriter, IAttributeWriter {
 		}
 	}
 
-	public void writeNodeAsXml(final Writer writer, final NodeModel node, final Mode mode,
+	public synchronized void writeNodeAsXml(final Writer writer, final NodeModel node, final Mode mode,
 	                           final boolean writeInvisible, final boolean writeChildren, boolean forceFormat) throws IOException {
-		final TreeXmlWriter xmlWriter = createTreeWriter(writer);
+		final ITreeWriter xmlWriter = createTreeWriter(writer);
 		xmlWriter.setHint(Hint.MODE, mode);
 		if (forceFormat) {
 			xmlWriter.setHint(WriterHint.FORCE_FORMATTING);
 		}
 		writeNode(xmlWriter, node, writeInvisible, writeChildren);
-		xmlWriter.flush();
+		writer.flush();
 	}
 
-	TreeXmlWriter createTreeWriter(final Writer writer) {
-		return new TreeXmlWriter(writeManager, writer, //
-			ResourceController.getResourceController().getBooleanProperty("useAsciiCharset"));
+	/**
+	 * Both writers write directly to the given writer without own buffering,
+	 * so flushing the writer after the last element is sufficient.
+	 */
+	ITreeWriter createTreeWriter(final Writer writer) {
+		final ResourceController resourceController = ResourceController.getResourceController();
+		final boolean restrictedCharset = resourceController.getBooleanProperty("useAsciiCharset");
+		if (resourceController.getBooleanProperty(RESOURCES_SAVE_WITH_STREAMING_WRITER)) {
+			return new StreamingTreeXmlWriter(writeManager, writer, restrictedCharset);
+		}
+		return new TreeXmlWriter(writeManager, writer, restrictedCharset);
 	}
 }
 
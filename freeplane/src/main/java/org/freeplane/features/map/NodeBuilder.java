@@ -172,11 +172,7 @@ public class NodeBuilder implements IElementDOMHandler {
 				final Object mode = mapReader.getCurrentNodeTreeCreator().getHint(Hint.MODE);
 
 				if (mode.equals(Mode.FILE)) {
-					final String loadFolding = ResourceController.getResourceController().getProperty(
-					    NodeBuilder.RESOURCES_LOAD_FOLDING);
-					if (loadFolding.equals(NodeBuilder.RESOURCES_ALWAYS_FOLD_ALL_AFTER_LOAD)
-					        || loadFolding.equals(NodeBuilder.RESOURCES_ALWAYS_UNFOLD_ALL_AFTER_LOAD)
-					        || loadFolding.equals(NodeBuilder.RESOURCES_ALWAYS_SHOW_LESS_THAN_N_NODES_AFTER_LOAD)) {
+					if (!isFoldingLoadedFromFile()) {
 						return;
 					}
 					mapReader.getCurrentNodeTreeCreator().setHint(FOLDING_LOADED, Boolean.TRUE);
@@ -257,6 +253,14 @@ public class NodeBuilder implements IElementDOMHandler {
 		reader.addAttributeHandler(NodeBuilder.XML_NODE, "CONTENT_ID", contentReferenceHandler);
 	}
 
+	static boolean isFoldingLoadedFromFile() {
+		final String loadFolding = ResourceController.getResourceController().getProperty(
+		    NodeBuilder.RESOURCES_LOAD_FOLDING);
+		return !(loadFolding.equals(NodeBuilder.RESOURCES_ALWAYS_FOLD_ALL_AFTER_LOAD)
+		        || loadFolding.equals(NodeBuilder.RESOURCES_ALWAYS_UNFOLD_ALL_AFTER_LOAD)
+		        || loadFolding.equals(NodeBuilder.RESOURCES_ALWAYS_SHOW_LESS_THAN_N_NODES_AFTER_LOAD));
+	}
+
 	/**
 	 */
 	public void registerBy(final ReadManager reader) {
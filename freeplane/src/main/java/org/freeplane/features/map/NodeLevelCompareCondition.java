@@ -60,6 +60,11 @@ class NodeLevelCompareCondition extends CompareConditionAdapter {
 		return succeed == (compareTo(level) == comparationResult);
 	}
 
+	@Override
+	public boolean dependsOnNodeContentAndPositionOnly() {
+		return true;
+	}
+
 	@SuppressWarnings("unused")
 	private boolean checkLevel(final long level) {
 		return succeed == (compareTo(level) == comparationResult);
@@ -162,6 +162,27 @@ public class NodeModel{
 	    this.children = chidren;
     }
 
+	/**
+	 * Returns the child nodes without loading children of folded nodes which were not loaded yet.
+	 * Traversals which do not need every node of the map use it instead of {@link #getChildren()}.
+	 */
+	public List<NodeModel> getLoadedChildren() {
+		return DeferredChildren.isPending(children) ? Collections.<NodeModel> emptyList() : children;
+	}
+
+	/**
+	 * Returns the length of the XML text kept for child nodes which were not loaded yet.
+	 */
+	public long getPendingChildrenTextLength() {
+		final List<String> childElements = DeferredChildren.getPendingChildElements(this);
+		long length = 0;
+		if (childElements != null) {
+			for (String childElement : childElements)
+				length += childElement.length();
+		}
+		return length;
+	}
+
 	public Enumeration<NodeModel> children() {
 		final Iterator<NodeModel> i = getChildrenInternal().iterator();
 		return new Enumeration<NodeModel>() {
@@ -181,7 +202,10 @@ public class NodeModel{
 		return getExtensionContainer().containsExtension(clazz);
 	}
 
-	public String createID() {
+	/**
+	 * Synchronized because also map writers running off the event dispatch thread create missing ids.
+	 */
+	public synchronized String createID() {
 		if (id == null) {
 			id = getMap().registryNode(this);
 		}
@@ -331,7 +355,7 @@ public class NodeModel{
 	}
 
 	public boolean hasChildren() {
-		return getChildCount() != 0;
+		return DeferredChildren.isPending(getChildrenInternal()) || getChildCount() != 0;
 	}
 
 	public boolean hasID() {
@@ -492,7 +516,7 @@ public class NodeModel{
 	public void setLeft(final boolean isLeft) {
 		position = isLeft ? NodeModel.LEFT_POSITION : NodeModel.RIGHT_POSITION;
 		if (!isRoot()) {
-			for (final NodeModel child : children) {
+			for (final NodeModel child : getLoadedChildren()) {
 				if (child.position != position) {
 					child.setLeft(isLeft);
 				}
@@ -504,7 +528,7 @@ public class NodeModel{
 	 */
 	public void setMap(final MapModel map) {
 		this.map = map;
-		for (final NodeModel child : children) {
+		for (final NodeModel child : getLoadedChildren()) {
 			child.setMap(map);
 		}
 	}
@@ -520,7 +544,7 @@ public class NodeModel{
 
 	void attach() {
 		attachClones();
-	    for(NodeModel child : children)
+	    for(NodeModel child : getLoadedChildren())
 	    	child.attach();
     }
 
@@ -531,7 +555,7 @@ public class NodeModel{
 
 	private void detach() {
 		detachClones();
-	    for(NodeModel child : children)
+	    for(NodeModel child : getLoadedChildren())
 	    	child.detach();
     }
 
@@ -21,6 +21,7 @@ package org.freeplane.features.map;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.freeplane.core.io.IAttributeWriter;
@@ -37,7 +38,6 @@ import org.freeplane.features.link.LinkBuilder;
 import org.freeplane.features.map.MapWriter.Hint;
 import org.freeplane.features.map.MapWriter.Mode;
 import org.freeplane.features.map.MapWriter.WriterHint;
-import org.freeplane.n3.nanoxml.XMLElement;
 
 public class NodeWriter implements IElementWriter, IAttributeWriter {
 	private boolean mayWriteChildren;
@@ -45,7 +45,6 @@ public class NodeWriter implements IElementWriter, IAttributeWriter {
 	final private boolean shouldWriteChildren;
 	private final boolean writeFolded;
 	final private boolean writeInvisible;
-	private XMLElement xmlNode;
 	final private String nodeTag;
 
 	public static boolean shouldWriteSharedContent(ITreeWriter writer){
@@ -74,10 +73,15 @@ public class NodeWriter implements IElementWriter, IAttributeWriter {
 	}
 
 	private void saveChildren(final ITreeWriter writer, final NodeModel node) throws IOException {
+		final SubtreeTextCache.Recording recording = recording(writer);
 		for (final NodeModel child: node.getChildren()) {
 		if (writeInvisible || child.isVisible(FilterController.getFilter(node.getMap()))) {
+				if (recording != null && recording.copySavedText(writer, child))
+					continue;
 				writer.setHint(WriterHint.ALREADY_WRITTEN, isAlreadyWritten(child));
 				writer.addElement(child, nodeTag);
+				if (recording != null)
+					recording.nodeWritten(child);
 			}
 			else {
 				saveChildren(writer, child);
@@ -100,8 +104,9 @@ public class NodeWriter implements IElementWriter, IAttributeWriter {
 	}
 
 	private void writeAttributesGenerateContent(final ITreeWriter writer, final NodeModel node) {
-		/** fc, 12.6.2005: XML must not contain any zero characters. */
-		xmlNode = new XMLElement();
+		final SubtreeTextCache.Recording recording = recording(writer);
+		if (recording != null)
+			recording.nodeStarted(node);
 		EncryptionModel encryptionModel = EncryptionModel.getModel(node);
 		mayWriteChildren = true;
 		final Object mode = mode(writer);
@@ -191,15 +196,28 @@ public class NodeWriter implements IElementWriter, IAttributeWriter {
 		linkBuilder.writeContent(writer, node);
 		if(isNodeContentWrittenFirstTime || Mode.EXPORT.equals(mode(writer))){
 			writer.addExtensionNodes(node, node.getSharedExtensions().values());
-			for (int i = 0; i < xmlNode.getChildrenCount(); i++) {
-				writer.addElement(null, xmlNode.getChildAtIndex(i));
-			}
 		}
-		if (mayWriteChildren && shouldWriteChildren && node.getChildren().size()>0) {
-			saveChildren(writer, node);
+		if (mayWriteChildren && shouldWriteChildren) {
+			final List<String> pendingChildElements = canCopyPendingChildren(writer) ? DeferredChildren.getPendingChildElements(node) : null;
+			if (pendingChildElements != null) {
+				for (final String childElement : pendingChildElements)
+					writer.addElementContent(childElement);
+			}
+			else if (node.getChildren().size()>0) {
+				saveChildren(writer, node);
+			}
 		}
 	}
 
+	private boolean canCopyPendingChildren(final ITreeWriter writer) {
+		return writeInvisible && writeFolded && Mode.FILE.equals(mode(writer));
+	}
+
+	private SubtreeTextCache.Recording recording(final ITreeWriter writer) {
+		final Object recording = writer.getHint(SubtreeTextCache.Recording.class);
+		return recording instanceof SubtreeTextCache.Recording ? (SubtreeTextCache.Recording) recording : null;
+	}
+
 	private Object mode(final ITreeWriter writer) {
 	    return writer.getHint(Hint.MODE);
     }
@@ -15,6 +15,16 @@ public class RootCondition extends ASelectableCondition {
 		return node.isRoot();
 	}
 
+	@Override
+	public boolean canBeCheckedConcurrently() {
+		return true;
+	}
+
+	@Override
+	public boolean dependsOnNodeContentAndPositionOnly() {
+		return true;
+	}
+
 	public static ASelectableCondition load(XMLElement element) {
 	    return new RootCondition();
     }
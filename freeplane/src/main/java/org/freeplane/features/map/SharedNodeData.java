@@ -20,7 +20,7 @@
 package org.freeplane.features.map;
 
 import org.freeplane.core.extension.ExtensionContainer;
-import org.freeplane.core.extension.SmallExtensionMap;
+import org.freeplane.core.extension.IndexedExtensionMap;
 import org.freeplane.core.util.HtmlUtils;
 import org.freeplane.core.util.XmlUtils;
 
@@ -36,7 +36,7 @@ public class SharedNodeData {
 	private boolean folded;
 
 	public SharedNodeData() {
-		extensionContainer = new ExtensionContainer(new SmallExtensionMap());
+		extensionContainer = new ExtensionContainer(new IndexedExtensionMap());
 		icons = new NodeIconSetModel();
 		folded = false;
 	}
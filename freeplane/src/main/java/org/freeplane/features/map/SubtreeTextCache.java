@@ -0,0 +1,258 @@
+package org.freeplane.features.map;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.freeplane.core.extension.IExtension;
+import org.freeplane.core.io.ITreeWriter;
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.features.link.NodeLinks;
+
+/**
+ * Keeps the text written for node subtrees by the last save of a map,
+ * so that the next save copies the text of unchanged subtrees instead of writing them again.
+ *
+ * Changed, inserted, moved and deleted nodes are forgotten together with all their ancestors.
+ * Subtrees containing clones, encrypted nodes or links are not kept because their text depends on other nodes.
+ * Saves running while the map is changed are not kept.
+ * The cache is added to a map when the map is created, so that saves never add it concurrently.
+ */
+class SubtreeTextCache implements IExtension {
+	static final String SAVE_INCREMENTALLY_PROPERTY = "save_incrementally";
+
+	private static class Range {
+		final int start;
+		final int end;
+
+		Range(int start, int end) {
+			this.start = start;
+			this.end = end;
+		}
+	}
+
+	static class ChangeListener implements IMapChangeListener, INodeChangeListener, IMapLifeCycleListener {
+		@Override
+		public void onCreate(MapModel map) {
+			if (map.getExtension(SubtreeTextCache.class) == null)
+				map.addExtension(new SubtreeTextCache());
+		}
+
+		@Override
+		public void nodeChanged(NodeChangeEvent event) {
+			forget(event.getNode());
+		}
+
+		@Override
+		public void mapChanged(MapChangeEvent event) {
+			final MapModel map = event.getMap();
+			final SubtreeTextCache cache = map != null ? map.getExtension(SubtreeTextCache.class) : null;
+			if (cache != null)
+				cache.forgetAll();
+		}
+
+		@Override
+		public void onNodeInserted(NodeModel parent, NodeModel child, int newIndex) {
+			forget(child);
+			forgetClonesIn(child);
+		}
+
+		@Override
+		public void onPreNodeDelete(NodeDeletionEvent nodeDeletionEvent) {
+			forget(nodeDeletionEvent.parent);
+		}
+
+		@Override
+		public void onPreNodeMoved(NodeMoveEvent nodeMoveEvent) {
+			forget(nodeMoveEvent.oldParent);
+		}
+
+		@Override
+		public void onNodeMoved(NodeMoveEvent nodeMoveEvent) {
+			forget(nodeMoveEvent.child);
+		}
+
+		private void forgetClonesIn(NodeModel node) {
+			if (node.allClones().size() > 1) {
+				for (NodeModel clone : node.allClones())
+					forget(clone);
+			}
+			if (DeferredChildren.isPending(node.getChildrenInternal()))
+				return;
+			for (NodeModel child : node.getChildren())
+				forgetClonesIn(child);
+		}
+	}
+
+	/**
+	 * Writer passed to the tree writer of a save.
+	 * It collects the written text and the ranges of written subtrees for the next save.
+	 */
+	class Recording extends Writer {
+		private final Writer out;
+		private final StringBuilder text;
+		private final Map<NodeModel, Range> writtenRanges;
+		private final int changeCountAtStart;
+		private final boolean copiesSavedText;
+		private final String settings;
+		private int[] subtreeStarts;
+		private int depth;
+
+		private Recording(Writer out, String settings) {
+			this.out = out;
+			this.settings = settings;
+			this.text = new StringBuilder(savedText.length() + 1024);
+			this.writtenRanges = new HashMap<>(savedRanges.size() * 2);
+			this.changeCountAtStart = changeCount;
+			this.copiesSavedText = settings.equals(savedSettings);
+			this.subtreeStarts = new int[64];
+			this.depth = 0;
+		}
+
+		void nodeStarted(NodeModel node) {
+			if (depth == subtreeStarts.length) {
+				final int[] starts = new int[2 * depth];
+				System.arraycopy(subtreeStarts, 0, starts, 0, depth);
+				subtreeStarts = starts;
+			}
+			subtreeStarts[depth++] = text.length();
+		}
+
+		void nodeWritten(NodeModel node) {
+			final int start = subtreeStarts[--depth];
+			if (isSelfContained(node))
+				writtenRanges.put(node, new Range(start, text.length()));
+		}
+
+		private boolean isSelfContained(NodeModel node) {
+			if (node.allClones().size() > 1 || EncryptionModel.getModel(node) != null
+			        || node.getExtension(NodeLinks.class) != null)
+				return false;
+			if (DeferredChildren.isPending(node.getChildrenInternal()))
+				return true;
+			for (NodeModel child : node.getChildren()) {
+				if (!writtenRanges.containsKey(child))
+					return false;
+			}
+			return true;
+		}
+
+		boolean copySavedText(ITreeWriter writer, NodeModel node) throws IOException {
+			if (!copiesSavedText)
+				return false;
+			final String subtreeText;
+			final int savedStart;
+			synchronized (SubtreeTextCache.this) {
+				final Range range = savedRanges.get(node);
+				if (range == null || changeCount != changeCountAtStart)
+					return false;
+				savedStart = range.start;
+				subtreeText = savedText.substring(range.start, range.end);
+			}
+			writer.addElementContent(subtreeText);
+			final int shift = text.length() - subtreeText.length() - savedStart;
+			synchronized (SubtreeTextCache.this) {
+				if (changeCount == changeCountAtStart)
+					copySavedRanges(node, shift);
+			}
+			return true;
+		}
+
+		private void copySavedRanges(NodeModel node, int shift) {
+			final Range range = savedRanges.get(node);
+			if (range == null)
+				return;
+			writtenRanges.put(node, new Range(range.start + shift, range.end + shift));
+			if (DeferredChildren.isPending(node.getChildrenInternal()))
+				return;
+			for (NodeModel child : node.getChildren())
+				copySavedRanges(child, shift);
+		}
+
+		void finish() {
+			synchronized (SubtreeTextCache.this) {
+				if (changeCount == changeCountAtStart) {
+					savedText = text.toString();
+					savedRanges = writtenRanges;
+					savedSettings = settings;
+				}
+				else
+					forgetAll();
+			}
+		}
+
+		@Override
+		public void write(int c) throws IOException {
+			text.append((char) c);
+			out.write(c);
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			text.append(cbuf, off, len);
+			out.write(cbuf, off, len);
+		}
+
+		@Override
+		public void write(String str, int off, int len) throws IOException {
+			text.append(str, off, off + len);
+			out.write(str, off, len);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			out.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			out.close();
+		}
+	}
+
+	private String savedText = "";
+	private Map<NodeModel, Range> savedRanges = new HashMap<>();
+	private String savedSettings = "";
+	private int changeCount = 0;
+
+	/**
+	 * Returns null if incremental saving is disabled or the map has no cache.
+	 */
+	static Recording startRecording(MapModel map, Writer out) {
+		final SubtreeTextCache cache = map.getExtension(SubtreeTextCache.class);
+		if (cache == null)
+			return null;
+		final ResourceController resourceController = ResourceController.getResourceController();
+		if (!resourceController.getBooleanProperty(SAVE_INCREMENTALLY_PROPERTY)
+		        || !resourceController.getBooleanProperty(MapWriter.RESOURCES_SAVE_WITH_STREAMING_WRITER)) {
+			cache.forgetAll();
+			return null;
+		}
+		final String settings = resourceController.getProperty(NodeBuilder.RESOURCES_SAVE_FOLDING) + ' '
+		        + resourceController.getBooleanProperty(NodeBuilder.RESOURCES_SAVE_MODIFICATION_TIMES) + ' '
+		        + resourceController.getBooleanProperty("useAsciiCharset");
+		synchronized (cache) {
+			return cache.new Recording(out, settings);
+		}
+	}
+
+	static void forget(NodeModel node) {
+		final MapModel map = node.getMap();
+		final SubtreeTextCache cache = map != null ? map.getExtension(SubtreeTextCache.class) : null;
+		if (cache != null)
+			cache.forgetSubtreesContaining(node);
+	}
+
+	private synchronized void forgetSubtreesContaining(NodeModel node) {
+		changeCount++;
+		for (NodeModel ancestor = node; ancestor != null; ancestor = ancestor.getParentNode())
+			savedRanges.remove(ancestor);
+	}
+
+	private synchronized void forgetAll() {
+		changeCount++;
+		savedText = "";
+		savedRanges = new HashMap<>();
+	}
+}
@@ -31,6 +31,7 @@ import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -47,6 +48,7 @@ import org.freeplane.features.clipboard.ClipboardController;
 import org.freeplane.features.filter.FilterController;
 import org.freeplane.features.link.NodeLinks;
 import org.freeplane.features.map.IMapSelection;
+import org.freeplane.features.map.MapModel;
 import org.freeplane.features.map.MapWriter.Mode;
 import org.freeplane.features.map.NodeModel;
 import org.freeplane.features.mode.Controller;
@@ -59,6 +61,7 @@ import org.freeplane.features.text.TextController;
  */
 public class MapClipboardController implements IExtension, ClipboardController {
 	public static final String NODESEPARATOR = "<nodeseparator>";
+	private Transferable lastClipboardContents;
 
 	public static MapClipboardController getController() {
 		return Controller.getCurrentModeController().getExtension(MapClipboardController.class);
@@ -74,8 +77,20 @@ public class MapClipboardController implements IExtension, ClipboardController {
 		createActions();
 	}
 
+	/**
+	 * Puts the contents on the clipboard. Contents of copied nodes which are not created yet
+	 * are created before the nodes change, as long as the contents stay on the clipboard.
+	 */
 	public void setClipboardContents(Transferable transferable) {
 	    ClipboardAccessor.getInstance().setClipboardContents(transferable);
+	    final Transferable previousClipboardContents = lastClipboardContents;
+	    lastClipboardContents = transferable;
+	    if (previousClipboardContents instanceof MindMapNodesSelection) {
+	        ((MindMapNodesSelection) previousClipboardContents).cancelContentCreation();
+	    }
+	    if (transferable instanceof MindMapNodesSelection) {
+	        ((MindMapNodesSelection) transferable).createContentsBeforeNextChange();
+	    }
 	}
 
 	private void collectColors(final NodeModel node, final HashSet<Color> colors) {
@@ -88,15 +103,18 @@ public class MapClipboardController implements IExtension, ClipboardController {
 		}
 	}
 
+	/**
+	 * Writes the selected nodes as XML. Plain text, RTF and HTML of the nodes are created
+	 * only when they are requested from the returned selection,
+	 * or before the nodes change if the selection is put on the clipboard by {@link #setClipboardContents(Transferable)}.
+	 */
 	public MindMapNodesSelection copy(final Collection<NodeModel> selectedNodes, final boolean copyInvisible) {
 		try {
-			final String forNodesFlavor = createForNodesFlavor(selectedNodes, copyInvisible);
-			final String plainText = getAsPlainText(selectedNodes);
-			return new MindMapNodesSelection(forNodesFlavor, plainText, getAsRTF(selectedNodes),
-			    getAsHTML(selectedNodes));
-		}
-		catch (final UnsupportedFlavorException ex) {
-			LogUtils.severe(ex);
+			final List<String> nodeContents = writeNodesAsXml(selectedNodes, copyInvisible);
+			final List<NodeModel> copiedNodes = new ArrayList<NodeModel>(selectedNodes);
+			final MapModel map = copiedNodes.isEmpty() ? null : copiedNodes.get(0).getMap();
+			return new MindMapNodesSelection(map, nodeContents, () -> getAsPlainText(copiedNodes),
+			    () -> getAsRTF(copiedNodes), () -> getAsHTML(copiedNodes));
 		}
 		catch (final IOException ex) {
 			LogUtils.severe(ex);
@@ -109,15 +127,30 @@ public class MapClipboardController implements IExtension, ClipboardController {
 	}
 
 	public Transferable copy(final NodeModel node, final boolean saveInvisible) {
-		final StringWriter stringWriter = new StringWriter();
+		String nodeContent = "";
 		try {
-			Controller.getCurrentModeController().getMapController().getMapWriter().writeNodeAsXml(stringWriter, node, Mode.CLIPBOARD,
-			    saveInvisible, true, false);
+			nodeContent = writeNodeAsXml(node, saveInvisible);
 		}
 		catch (final IOException e) {
 			LogUtils.severe(e);
 		}
-		return new MindMapNodesSelection(stringWriter.toString());
+		return new MindMapNodesSelection(nodeContent);
+	}
+
+	private String writeNodeAsXml(final NodeModel node, final boolean saveInvisible) throws IOException {
+		final StringWriter stringWriter = new StringWriter();
+		Controller.getCurrentModeController().getMapController().getMapWriter().writeNodeAsXml(stringWriter, node, Mode.CLIPBOARD,
+		    saveInvisible, true, false);
+		return stringWriter.toString();
+	}
+
+	private List<String> writeNodesAsXml(final Collection<NodeModel> selectedNodes, final boolean copyInvisible)
+	        throws IOException {
+		final List<String> nodeContents = new ArrayList<String>(selectedNodes.size());
+		for (final NodeModel node : selectedNodes) {
+			nodeContents.add(writeNodeAsXml(node, copyInvisible));
+		}
+		return nodeContents;
 	}
 
 	public Transferable copySingle(final Collection<NodeModel> source) {
@@ -146,18 +179,7 @@ public class MapClipboardController implements IExtension, ClipboardController {
 
 	public String createForNodesFlavor(final Collection<NodeModel> selectedNodes, final boolean copyInvisible)
 	        throws UnsupportedFlavorException, IOException {
-		String forNodesFlavor = "";
-		boolean firstLoop = true;
-		for (final NodeModel tmpNode : selectedNodes) {
-			if (firstLoop) {
-				firstLoop = false;
-			}
-			else {
-				forNodesFlavor += "<nodeseparator>";
-			}
-			forNodesFlavor += copy(tmpNode, copyInvisible).getTransferData(MindMapNodesSelection.mindMapNodesFlavor);
-		}
-		return forNodesFlavor;
+		return String.join(NODESEPARATOR, writeNodesAsXml(selectedNodes, copyInvisible));
 	}
 
 	public String getAsHTML(final Collection<NodeModel> selectedNodes) {
@@ -428,7 +450,7 @@ public class MapClipboardController implements IExtension, ClipboardController {
 		if (selection != null) {
 			final Transferable copy = copy(selection);
 			if (copy != null) {
-				ClipboardAccessor.getInstance().setClipboardContents(copy);
+				setClipboardContents(copy);
 			}
 		}
 	}
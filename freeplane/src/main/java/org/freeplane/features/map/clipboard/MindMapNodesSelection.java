@@ -26,8 +26,12 @@ import java.awt.datatransfer.Transferable;
 import java.awt.datatransfer.UnsupportedFlavorException;
 import java.io.ByteArrayInputStream;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
 
 import org.freeplane.core.util.LogUtils;
+import org.freeplane.features.map.MapModel;
 import org.freeplane.features.map.NodeModel;
 
 public class MindMapNodesSelection implements Transferable, ClipboardOwner {
@@ -52,20 +56,54 @@ public class MindMapNodesSelection implements Transferable, ClipboardOwner {
 			LogUtils.severe(e);
 		}
 	}
-	final private String htmlContent;
-	final private String nodesContent;
-	final private String rtfContent;
-	final private String stringContent;
+	/**
+	 * Content of a flavor created on first request.
+	 */
+	private static class FlavorContent {
+		private Supplier<String> contentSupplier;
+		private String content;
+
+		FlavorContent(final Supplier<String> contentSupplier) {
+			this.contentSupplier = contentSupplier;
+		}
+
+		FlavorContent(final String content) {
+			this.content = content;
+		}
+
+		synchronized String get() {
+			if (contentSupplier != null) {
+				content = contentSupplier.get();
+				contentSupplier = null;
+			}
+			return content;
+		}
+
+		synchronized boolean isAvailable() {
+			return contentSupplier != null || content != null;
+		}
+	}
+
+	final private FlavorContent htmlContent;
+	final private FlavorContent nodesContent;
+	final private List<String> nodeContents;
+	final private MapModel map;
+	final private FlavorContent rtfContent;
+	final private FlavorContent stringContent;
 	private String dropActionContent;
 	private Collection<NodeModel> nodes;
+	private Collection<NodeModel> cutNodes;
 	private boolean selectionContainsSingleNodes;
+	private final Runnable contentCreation = this::createContents;
 
 	public MindMapNodesSelection(final String nodesContent, final String stringContent, final String rtfContent,
 	                             final String htmlContent) {
-		this.nodesContent = nodesContent;
-		this.rtfContent = rtfContent;
-		this.stringContent = stringContent;
-		this.htmlContent = htmlContent;
+		this.nodesContent = new FlavorContent(nodesContent);
+		this.nodeContents = null;
+		this.map = null;
+		this.rtfContent = new FlavorContent(rtfContent);
+		this.stringContent = new FlavorContent(stringContent);
+		this.htmlContent = new FlavorContent(htmlContent);
 		this.dropActionContent = null;
 	}
 
@@ -73,22 +111,92 @@ public class MindMapNodesSelection implements Transferable, ClipboardOwner {
 	    this(nodesContent, null, null, null);
     }
 
+	public MindMapNodesSelection(final List<String> nodeContents, final Supplier<String> stringContent,
+	                             final Supplier<String> rtfContent, final Supplier<String> htmlContent) {
+		this(null, nodeContents, stringContent, rtfContent, htmlContent);
+	}
+
+	/**
+	 * Creates a selection from the XML of each node copied from the given map.
+	 * Plain text, RTF and HTML contents are created by the suppliers when they are requested for the first time,
+	 * while the map is read consistently, so they can be requested from any thread.
+	 */
+	public MindMapNodesSelection(final MapModel map, final List<String> nodeContents, final Supplier<String> stringContent,
+	                             final Supplier<String> rtfContent, final Supplier<String> htmlContent) {
+		this.map = map;
+		this.nodeContents = Collections.unmodifiableList(nodeContents);
+		this.nodesContent = new FlavorContent(() -> String.join(MapClipboardController.NODESEPARATOR, nodeContents));
+		this.rtfContent = new FlavorContent(rtfContent);
+		this.stringContent = new FlavorContent(stringContent);
+		this.htmlContent = new FlavorContent(htmlContent);
+		this.dropActionContent = null;
+	}
+
+	/**
+	 * Returns XML of each copied node, so that nodes copied in this application are pasted
+	 * without joining and splitting their XML, or null if the selection was created from joined XML.
+	 */
+	public List<String> getNodeContents() {
+		return nodeContents;
+	}
+
+	/**
+	 * Creates all contents which are not created yet,
+	 * e.g. before the copied nodes are deleted.
+	 */
+	public void createContents() {
+		read(nodesContent);
+		read(stringContent);
+		read(rtfContent);
+		read(htmlContent);
+	}
+
+	/**
+	 * Creates the contents which are not created yet before the next change of the map the nodes were copied from,
+	 * so that contents requested later still show the nodes as they were copied.
+	 * It replaces the creation pending for another selection copied from the same map.
+	 */
+	public void createContentsBeforeNextChange() {
+		if (map != null) {
+			map.beforeNextChange(MindMapNodesSelection.class, contentCreation);
+		}
+	}
+
+	/**
+	 * Cancels the creation pending before the next change, e.g. after the selection was replaced on the clipboard.
+	 */
+	public void cancelContentCreation() {
+		if (map != null) {
+			map.cancelBeforeNextChange(MindMapNodesSelection.class, contentCreation);
+		}
+	}
+
+	/** The map is locked before the content, in the same order as by the changes creating the contents. */
+	private String read(final FlavorContent content) {
+		return map != null ? map.readConsistently(content::get) : content.get();
+	}
+
 	public Object getTransferData(final DataFlavor flavor) throws UnsupportedFlavorException {
 		if (flavor.equals(DataFlavor.stringFlavor)) {
-			return stringContent;
+			return read(stringContent);
 		}
 		if (flavor.equals(MindMapNodesSelection.mindMapNodesFlavor)) {
-			return nodesContent;
+			return read(nodesContent);
 		}
 		if (flavor.equals(MindMapNodesSelection.dropActionFlavor)) {
 			return dropActionContent;
 		}
 		if (flavor.equals(MindMapNodesSelection.rtfFlavor)) {
-			final byte[] byteArray = rtfContent.getBytes();
-			return new ByteArrayInputStream(byteArray);
+			final String rtf = read(rtfContent);
+			if (rtf != null) {
+				final byte[] byteArray = rtf.getBytes();
+				return new ByteArrayInputStream(byteArray);
+			}
 		}
-		if (flavor.equals(MindMapNodesSelection.htmlFlavor) && htmlContent != null) {
-			return htmlContent;
+		if (flavor.equals(MindMapNodesSelection.htmlFlavor)) {
+			final String html = read(htmlContent);
+			if (html != null)
+				return html;
 		}
 		if (containsObjectsFor(flavor)) {
 			return nodes;
@@ -109,19 +217,19 @@ public class MindMapNodesSelection implements Transferable, ClipboardOwner {
 	}
 
 	public boolean isDataFlavorSupported(final DataFlavor flavor) {
-		if (flavor.equals(DataFlavor.stringFlavor) && stringContent != null) {
+		if (flavor.equals(DataFlavor.stringFlavor) && stringContent.isAvailable()) {
 			return true;
 		}
-		if (flavor.equals(MindMapNodesSelection.mindMapNodesFlavor) && nodesContent != null) {
+		if (flavor.equals(MindMapNodesSelection.mindMapNodesFlavor) && nodesContent.isAvailable()) {
 			return true;
 		}
-		if (flavor.equals(MindMapNodesSelection.rtfFlavor) && rtfContent != null) {
+		if (flavor.equals(MindMapNodesSelection.rtfFlavor) && rtfContent.isAvailable()) {
 			return true;
 		}
 		if (flavor.equals(MindMapNodesSelection.dropActionFlavor) && dropActionContent != null) {
 			return true;
 		}
-		if (flavor.equals(MindMapNodesSelection.htmlFlavor) && htmlContent != null) {
+		if (flavor.equals(MindMapNodesSelection.htmlFlavor) && htmlContent.isAvailable()) {
 			return true;
 		}
 		if (containsObjectsFor(flavor)) {
@@ -141,4 +249,16 @@ public class MindMapNodesSelection implements Transferable, ClipboardOwner {
 	    nodes = collection;
 	    this.selectionContainsSingleNodes = selectionContainsSingleNodes;
     }
+
+	/**
+	 * Returns the nodes removed from their map by cut, so that they can be pasted themselves
+	 * as long as they are not inserted again, or null if the nodes were copied.
+	 */
+	public Collection<NodeModel> getCutNodes() {
+		return cutNodes;
+	}
+
+	public void setCutNodes(Collection<NodeModel> cutNodes) {
+		this.cutNodes = cutNodes;
+	}
 }
@@ -112,6 +112,7 @@ public class MMapController extends MapController {
 	public static final int NEW_SIBLING_BEFORE = 4;
 	public static final int NEW_SIBLING_BEHIND = 3;
 	public static final String RESOURCES_CONVERT_TO_CURRENT_VERSION = "convert_to_current_version";
+	private static final long ESTIMATED_NODE_SIZE = 1024;
 
 	public MMapController(ModeController modeController) {
 		super(modeController);
@@ -489,12 +490,18 @@ public class MMapController extends MapController {
 
 	private void deleteSingleNode(final NodeModel parentNode, final int index) {
 		final NodeModel node = parentNode.getChildAt(index);
+		final long estimatedSize = estimatedSubtreeSize(node);
 		final IActor actor = new IActor() {
         	@Override
 			public void act() {
         		deleteWithoutUndo(parentNode, index);
         	}
 
+        	@Override
+			public long estimatedSize() {
+        		return estimatedSize;
+        	}
+
         	@Override
 			public String getDescription() {
         		return "delete";
@@ -508,14 +515,26 @@ public class MMapController extends MapController {
 		Controller.getCurrentModeController().execute(actor, parentNode.getMap());
     }
 
+	private static long estimatedSubtreeSize(final NodeModel node) {
+		// child nodes not loaded yet are kept as XML text, counting it does not load them
+		long size = ESTIMATED_NODE_SIZE + IActor.estimatedSizeOf(node.getUserObject())
+		        + 2 * node.getPendingChildrenTextLength();
+		for (final NodeModel child : node.getLoadedChildren()) {
+			size += estimatedSubtreeSize(child);
+		}
+		return size;
+	}
+
 	private void deleteWithoutUndo(final NodeModel parent, final int index) {
-	    final NodeModel child = parent.getChildAt(index);
-	    final NodeDeletionEvent nodeDeletionEvent = new NodeDeletionEvent(parent, child, index);
-		firePreNodeDelete(nodeDeletionEvent);
 		final MapModel map = parent.getMap();
-		setSaved(map, false);
-		parent.remove(index);
-		fireNodeDeleted(nodeDeletionEvent);
+		map.changeExclusively(() -> {
+			final NodeModel child = parent.getChildAt(index);
+			final NodeDeletionEvent nodeDeletionEvent = new NodeDeletionEvent(parent, child, index);
+			firePreNodeDelete(nodeDeletionEvent);
+			setSaved(map, false);
+			parent.remove(index);
+			fireNodeDeleted(nodeDeletionEvent);
+		});
     }
 
 	public MModeController getMModeController() {
@@ -807,20 +826,22 @@ public class MMapController extends MapController {
 	 */
 	private int moveNodeToWithoutUndo(final NodeModel child, final NodeModel newParent, int newIndex,
 	                          final boolean isLeft, final boolean changeSide) {
-		final NodeModel oldParent = child.getParentNode();
-		final int oldIndex = oldParent.getIndex(child);
-		final boolean oldSideLeft = child.isLeft();
-		final boolean newSideLeft = changeSide ? isLeft : oldSideLeft;
-		final NodeMoveEvent nodeMoveEvent = new NodeMoveEvent(oldParent, oldIndex, oldSideLeft, newParent, child, newIndex, newSideLeft);
-		firePreNodeMoved(nodeMoveEvent);
-		oldParent.remove(oldParent.getIndex(child));
-		if (changeSide) {
-			child.setParent(newParent);
-			child.setLeft(isLeft);
-		}
-		newParent.insert(child, newIndex);
-		fireNodeMoved(nodeMoveEvent);
-		setSaved(newParent.getMap(), false);
+		newParent.getMap().changeExclusively(() -> {
+			final NodeModel oldParent = child.getParentNode();
+			final int oldIndex = oldParent.getIndex(child);
+			final boolean oldSideLeft = child.isLeft();
+			final boolean newSideLeft = changeSide ? isLeft : oldSideLeft;
+			final NodeMoveEvent nodeMoveEvent = new NodeMoveEvent(oldParent, oldIndex, oldSideLeft, newParent, child, newIndex, newSideLeft);
+			firePreNodeMoved(nodeMoveEvent);
+			oldParent.remove(oldParent.getIndex(child));
+			if (changeSide) {
+				child.setParent(newParent);
+				child.setLeft(isLeft);
+			}
+			newParent.insert(child, newIndex);
+			fireNodeMoved(nodeMoveEvent);
+			setSaved(newParent.getMap(), false);
+		});
 		return newIndex;
 	}
 
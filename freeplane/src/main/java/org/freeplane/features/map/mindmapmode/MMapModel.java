@@ -141,9 +141,11 @@ public class MMapModel extends MapModel {
 		    "single_backup_directory");
 		final String singleBackupDirectory = ResourceController.getResourceController()
 		    .getProperty("single_backup_directory_path");
+		final boolean saveInBackground = ResourceController.getResourceController().getBooleanProperty(
+		    "automatic_save_in_background");
 		final Timer timer = SysUtils.createTimer("TimerForAutomaticSaving");
 		timer.schedule(new DoAutomaticSave(this, numberOfTempFiles, filesShouldBeDeletedAfterShutdown,
-		    useSingleBackupDirectory, singleBackupDirectory), delay, delay);
+		    useSingleBackupDirectory, singleBackupDirectory, saveInBackground), delay, delay);
 		this.timerForAutomaticSaving = timer;
 	}
 
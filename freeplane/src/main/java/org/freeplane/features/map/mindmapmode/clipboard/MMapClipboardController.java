@@ -31,6 +31,7 @@ import java.io.StringWriter;
 import java.io.Writer;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
@@ -161,29 +162,54 @@ public class MMapClipboardController extends MapClipboardController implements M
 	}
 
 	private class MindMapNodesFlavorHandler implements IDataFlavorHandler {
-		private final String textFromClipboard;
+		private final List<String> nodeContents;
 
-		public MindMapNodesFlavorHandler(final String textFromClipboard) {
-			this.textFromClipboard = textFromClipboard;
+		public MindMapNodesFlavorHandler(final List<String> nodeContents) {
+			this.nodeContents = nodeContents;
 		}
 
 		@Override
 		public void paste(Transferable t, final NodeModel target, final boolean asSibling, final boolean isLeft, int dropAction) {
-			if (textFromClipboard != null) {
-				paste(textFromClipboard, target, asSibling, isLeft);
+			if (t instanceof MindMapNodesSelection && pasteCutNodes((MindMapNodesSelection) t, target, asSibling, isLeft)) {
+				return;
+			}
+			if (nodeContents != null) {
+				paste(nodeContents, target, asSibling, isLeft);
+			}
+		}
+
+		/**
+		 * Inserts nodes cut in this application themselves, so that their XML does not need to be read.
+		 * Copies are created from the XML if any of the nodes was inserted again, e.g. by undo or a previous paste.
+		 */
+		private boolean pasteCutNodes(final MindMapNodesSelection selection, final NodeModel target, final boolean asSibling,
+		                              final boolean isLeft) {
+			final Collection<NodeModel> cutNodes = selection.getCutNodes();
+			if (cutNodes == null) {
+				return false;
+			}
+			for (final NodeModel node : cutNodes) {
+				if (node.getParentNode() != null || node.getMap() != target.getMap() || node.containsExtension(FreeNode.class)) {
+					return false;
+				}
+			}
+			final MMapController mapController = (MMapController) Controller.getCurrentModeController().getMapController();
+			for (final NodeModel node : cutNodes) {
+				final boolean wasLeft = node.isLeft();
+				mapController.insertNode(node, target, asSibling, isLeft, wasLeft != isLeft);
 			}
+			return true;
 		}
 
-		private void paste(final String text, final NodeModel target, final boolean asSibling, final boolean isLeft) {
-			final String[] textLines = text.split(MapClipboardController.NODESEPARATOR);
+		private void paste(final List<String> textLines, final NodeModel target, final boolean asSibling, final boolean isLeft) {
 			final MMapController mapController = (MMapController) Controller.getCurrentModeController().getMapController();
 			final MapReader mapReader = mapController.getMapReader();
 			synchronized(mapReader) {
 				final NodeTreeCreator nodeTreeCreator = mapReader.nodeTreeCreator(target.getMap());
 				nodeTreeCreator.setHint(Hint.MODE, Mode.CLIPBOARD);
-				for (int i = 0; i < textLines.length; ++i) {
+				for (final String textLine : textLines) {
 					try {
-						final NodeModel newModel = nodeTreeCreator.create(new StringReader(textLines[i]));
+						final NodeModel newModel = nodeTreeCreator.create(new StringReader(textLine));
 						newModel.removeExtension(FreeNode.class);
 						final boolean wasLeft = newModel.isLeft();
 						mapController.insertNode(newModel, target, asSibling, isLeft, wasLeft != isLeft);
@@ -551,7 +577,12 @@ public class MMapClipboardController extends MapClipboardController implements M
 	}
 
 	private Transferable cut(final List<NodeModel> collection) {
-		final MindMapNodesSelection transferable = copy(new SummaryGroupEdgeListAdder(collection).addSummaryEdgeNodes(), true);
+		final List<NodeModel> copiedNodes = new SummaryGroupEdgeListAdder(collection).addSummaryEdgeNodes();
+		final MindMapNodesSelection transferable = copy(copiedNodes, true);
+		transferable.createContents();
+		if (copiedNodes.size() == collection.size()) {
+			transferable.setCutNodes(new ArrayList<NodeModel>(collection));
+		}
 		((MMapController) Controller.getCurrentModeController().getMapController()).deleteNodes(collection);
 		setClipboardContents(transferable);
 		return transferable;
@@ -560,8 +591,7 @@ public class MMapClipboardController extends MapClipboardController implements M
 	private IDataFlavorHandler getFlavorHandler(final Transferable t) {
 		if (t.isDataFlavorSupported(MindMapNodesSelection.mindMapNodesFlavor)) {
 			try {
-				final String textFromClipboard = t.getTransferData(MindMapNodesSelection.mindMapNodesFlavor).toString();
-				return new MindMapNodesFlavorHandler(textFromClipboard);
+				return new MindMapNodesFlavorHandler(getNodeContents(t));
 			}
 			catch (final UnsupportedFlavorException e) {
 			}
@@ -632,6 +662,16 @@ public class MMapClipboardController extends MapClipboardController implements M
 		return null;
 	}
 
+	private List<String> getNodeContents(final Transferable t) throws UnsupportedFlavorException, IOException {
+		if (t instanceof MindMapNodesSelection) {
+			final List<String> nodeContents = ((MindMapNodesSelection) t).getNodeContents();
+			if (nodeContents != null)
+				return nodeContents;
+		}
+		final String textFromClipboard = t.getTransferData(MindMapNodesSelection.mindMapNodesFlavor).toString();
+		return Arrays.asList(textFromClipboard.split(MapClipboardController.NODESEPARATOR));
+	}
+
 	private boolean shouldIgnoreFileListFlavor(final List<File> fileList) {
 		if(fileList == null || fileList.isEmpty())
 			return true;
@@ -655,8 +695,7 @@ public class MMapClipboardController extends MapClipboardController implements M
 		}
 		if (t.isDataFlavorSupported(MindMapNodesSelection.mindMapNodesFlavor)) {
 			try {
-				final String textFromClipboard = t.getTransferData(MindMapNodesSelection.mindMapNodesFlavor).toString();
-				handlerList.add(new MindMapNodesFlavorHandler(textFromClipboard));
+				handlerList.add(new MindMapNodesFlavorHandler(getNodeContents(t)));
 			}
 			catch (final UnsupportedFlavorException e) {
 			}
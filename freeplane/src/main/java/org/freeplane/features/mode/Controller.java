@@ -267,6 +267,36 @@ public class Controller extends AController implements FreeplaneActions, IMapLif
 		currentController = controller;
 	}
 
+	/**
+	 * Binds the controller to the current thread, so that {@link #getCurrentController()} called from this thread
+	 * returns it instead of the global controller. Passing null removes the binding.
+	 *
+	 * @return the controller previously bound to the current thread or null
+	 */
+	public static Controller setCurrentThreadController(final Controller controller){
+		final Controller previousController = threadController.get();
+		if(controller != null)
+			threadController.set(controller);
+		else
+			threadController.remove();
+		return previousController;
+	}
+
+	/**
+	 * Runs the task with the controller bound to the current thread and restores the previous binding afterwards.
+	 * Tasks executed by helper threads, e.g. of the common fork join pool, use it to resolve the controller of the thread
+	 * which handed them over.
+	 */
+	public static void runWithCurrentThreadController(final Controller controller, final Runnable task){
+		final Controller previousController = setCurrentThreadController(controller);
+		try {
+			task.run();
+		}
+		finally {
+			setCurrentThreadController(previousController);
+		}
+	}
+
 	public static ModeController getCurrentModeController() {
 	    return getCurrentController().getModeController();
     }
@@ -40,6 +40,7 @@ import org.freeplane.features.mode.Controller;
 import org.freeplane.features.mode.ModeController;
 import org.freeplane.features.note.NoteController;
 import org.freeplane.features.note.mindmapmode.MNoteController;
+import org.freeplane.features.ui.ViewController;
 import org.freeplane.features.url.UrlManager;
 import org.freeplane.features.url.mindmapmode.MFileManager;
 
@@ -153,14 +154,21 @@ public class MModeController extends ModeController {
         }
     }
 
+	/**
+	 * Performs the change on the event dispatch thread while it holds the write lock of the map.
+	 * Other threads reading the map can not change it, because the event dispatch thread would wait for their read lock.
+	 */
 	@Override
 	public void execute(final IActor actor, final MapModel map) {
 		if(actor.isReadonly() || canEdit(map)) {
+			final ViewController viewController = Controller.getCurrentController().getViewController();
+			if (map.isReadByCurrentThread() && !viewController.isDispatchThread())
+				throw new IllegalStateException("map can not be changed by a thread reading it");
 			try {
-				Controller.getCurrentController().getViewController().invokeAndWait(() -> {
+				viewController.invokeAndWait(() -> map.changeExclusively(() -> {
 					addUndoableActor(actor, map);
 					actor.act();
-				});
+				}));
 			} catch (InvocationTargetException | InterruptedException e) {
 				throw new RuntimeException(e);
 			}
@@ -21,8 +21,11 @@ package org.freeplane.features.nodestyle;
 
 import java.awt.Color;
 import java.awt.Font;
-import java.awt.font.TextAttribute;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.freeplane.core.extension.IExtension;
 import org.freeplane.core.io.ReadManager;
@@ -74,6 +77,8 @@ public class NodeStyleController implements IExtension {
 	final private ExclusivePropertyChain<ShapeConfigurationModel, NodeModel> shapeHandlers;
 	final private ExclusivePropertyChain<Color, NodeModel> textColorHandlers;
 	final private ExclusivePropertyChain<HorizontalTextAlignment, NodeModel> horizontalTextAlignmentHandlers;
+	final private Map<Collection<IStyle>, ResolvedNodeStyle> resolvedStyles = new WeakHashMap<Collection<IStyle>, ResolvedNodeStyle>();
+	private static volatile Font defaultFont;
 	public static final String NODE_NUMBERING = "NodeNumbering";
 	
 	private static final Quantity<LengthUnits> DEFAULT_MINIMUM_WIDTH = new Quantity<LengthUnits>(0, LengthUnits.cm);
@@ -97,8 +102,7 @@ public class NodeStyleController implements IExtension {
 		});
 		addFontGetter(IPropertyHandler.STYLE, new IPropertyHandler<Font, NodeModel>() {
 			public Font getProperty(final NodeModel node, final Font currentValue) {
-				final Font defaultFont = getStyleFont(currentValue, node.getMap(), LogicalStyleController.getController(modeController).getStyles(node));
-				return defaultFont;
+				return getResolvedStyle(node).getFont(currentValue);
 			}
 		});
 		addColorGetter(IPropertyHandler.DEFAULT, new IPropertyHandler<Color, NodeModel>() {
@@ -108,21 +112,17 @@ public class NodeStyleController implements IExtension {
 		});
 		addColorGetter(IPropertyHandler.STYLE, new IPropertyHandler<Color, NodeModel>() {
 			public Color getProperty(final NodeModel node, final Color currentValue) {
-				return getStyleTextColor(node.getMap(), LogicalStyleController.getController(modeController).getStyles(node));
+				return getResolvedStyle(node).getTextColor();
 			}
 		});
 		addBackgroundColorGetter(IPropertyHandler.STYLE, new IPropertyHandler<Color, NodeModel>() {
 			public Color getProperty(final NodeModel node, final Color currentValue) {
-				return getStyleBackgroundColor(node.getMap(), LogicalStyleController.getController(modeController).getStyles(node));
+				return getResolvedStyle(node).getBackgroundColor();
 			}
 		});
 		addShapeGetter(IPropertyHandler.STYLE, new IPropertyHandler<ShapeConfigurationModel, NodeModel>() {
 			public ShapeConfigurationModel getProperty(final NodeModel node, final ShapeConfigurationModel currentValue) {
-				final MapModel map = node.getMap();
-				final LogicalStyleController styleController = LogicalStyleController.getController(modeController);
-				final Collection<IStyle> style = styleController.getStyles(node);
-				final ShapeConfigurationModel returnedShape = getStyleShape(map, style);
-				return returnedShape;
+				return getResolvedStyle(node).getShapeConfiguration();
 			}
 		});
 		addShapeGetter(IPropertyHandler.DEFAULT, new IPropertyHandler<ShapeConfigurationModel, NodeModel>() {
@@ -139,7 +139,7 @@ public class NodeStyleController implements IExtension {
 		
 		addTextAlignGetter(IPropertyHandler.STYLE, new IPropertyHandler<HorizontalTextAlignment, NodeModel>() {
 			public HorizontalTextAlignment getProperty(final NodeModel node, final HorizontalTextAlignment currentValue) {
-				return getHorizontalTextAlignment(node.getMap(), LogicalStyleController.getController(modeController).getStyles(node));
+				return getResolvedStyle(node).getHorizontalTextAlignment();
 			}
 		});
 		
@@ -175,34 +175,48 @@ public class NodeStyleController implements IExtension {
 		return shapeHandlers.addGetter(key, getter);
 	}
 
-	public Color getBackgroundColor(final NodeModel node) {
-		return backgroundColorHandlers.getProperty(node);
-	}
-
-	public Color getColor(final NodeModel node) {
-		return textColorHandlers.getProperty(node);
+	private ResolvedNodeStyle getResolvedStyle(final NodeModel node) {
+		final LogicalStyleController logicalStyleController = LogicalStyleController.getController(modeController);
+		final Collection<IStyle> styles = logicalStyleController.getStyles(node);
+		if (!logicalStyleController.areStylesCached(node, styles))
+			return resolveStyle(node, styles);
+		synchronized (resolvedStyles) {
+			final ResolvedNodeStyle resolvedStyle = resolvedStyles.get(styles);
+			if (resolvedStyle != null)
+				return resolvedStyle;
+		}
+		final ResolvedNodeStyle resolvedStyle = resolveStyle(node, styles);
+		synchronized (resolvedStyles) {
+			resolvedStyles.put(styles, resolvedStyle);
+		}
+		return resolvedStyle;
 	}
 
-	private Color getStyleBackgroundColor(final MapModel map, final Collection<IStyle> styleKeys) {
-		final MapStyleModel model = MapStyleModel.getExtension(map);
-		for(IStyle styleKey : styleKeys){
+	private ResolvedNodeStyle resolveStyle(final NodeModel node, final Collection<IStyle> styles) {
+		final MapStyleModel model = MapStyleModel.getExtension(node.getMap());
+		final List<NodeStyleModel> styleModels = new ArrayList<NodeStyleModel>(styles.size());
+		for(IStyle styleKey : styles){
 			final NodeModel styleNode = model.getStyleNode(styleKey);
 			if (styleNode == null) {
 				continue;
 			}
 			final NodeStyleModel styleModel = NodeStyleModel.getModel(styleNode);
-			if (styleModel == null) {
-				continue;
+			if (styleModel != null) {
+				styleModels.add(styleModel);
 			}
-			final Color styleColor =styleModel.getBackgroundColor();
-			if (styleColor == null) {
-				continue;
-			}
-			return styleColor;
 		}
-		return null;
+		return new ResolvedNodeStyle(styleModels);
+	}
+
+	public Color getBackgroundColor(final NodeModel node) {
+		return backgroundColorHandlers.getProperty(node);
+	}
+
+	public Color getColor(final NodeModel node) {
+		return textColorHandlers.getProperty(node);
 	}
 
+
 	private Quantity<LengthUnits> getMaxNodeWidth(final MapModel map, final Collection<IStyle> styleKeys) {
 		final MapStyleModel model = MapStyleModel.getExtension(map);
 		for(IStyle styleKey : styleKeys){
@@ -369,7 +383,13 @@ public class NodeStyleController implements IExtension {
 		final int fontSize = NodeStyleController.getDefaultFontSize();
 		final int fontStyle = NodeStyleController.getDefaultFontStyle();
 		final String fontFamily = NodeStyleController.getDefaultFontFamilyName();
-		return new Font(fontFamily, fontStyle, fontSize);
+		final Font font = defaultFont;
+		if (font != null && font.getSize() == fontSize && font.getStyle() == fontStyle
+		        && font.getName().equals(fontFamily))
+			return font;
+		final Font newFont = ResolvedNodeStyle.intern(new Font(fontFamily, fontStyle, fontSize));
+		defaultFont = newFont;
+		return newFont;
 	}
 
 	/**
@@ -392,126 +412,14 @@ public class NodeStyleController implements IExtension {
 		return getFont(styleNode);
 	}
 
-	private Font getStyleFont(final Font baseFont, final MapModel map, final Collection<IStyle> collection) {
-		final MapStyleModel model = MapStyleModel.getExtension(map);
-		Boolean bold = null;
-		Boolean strikedThrough = null;
-        Boolean italic = null;
-        String fontFamilyName = null;
-        Integer fontSize = null;
-		for(IStyle styleKey : collection){
-			final NodeModel styleNode = model.getStyleNode(styleKey);
-			if (styleNode == null) {
-				continue;
-			}
-			final NodeStyleModel styleModel = NodeStyleModel.getModel(styleNode);
-			if (styleModel == null) {
-				continue;
-			}
-			if (bold == null) bold = styleModel.isBold();
-			if (strikedThrough == null) strikedThrough = styleModel.isStrikedThrough();
-			if (italic == null) italic = styleModel.isItalic();
-			if (fontFamilyName == null) fontFamilyName = styleModel.getFontFamilyName();
-			if (fontSize == null) fontSize = styleModel.getFontSize();
-			if(bold != null && italic != null && fontFamilyName != null && fontSize != null && strikedThrough == null) break;
-		}
-		return createFont(baseFont, fontFamilyName, fontSize, bold, italic, strikedThrough);
-	}
 
 	public HorizontalTextAlignment getHorizontalTextAlignment(final NodeModel node) {
 		return horizontalTextAlignmentHandlers.getProperty(node);
 	}
 
-	private Font createFont(final Font baseFont, String family, Integer size, Boolean bold, Boolean italic, Boolean strikedThrough) {
-		if (family == null && size == null && bold == null && italic == null) {
-			return baseFont;
-		}
-		if (family == null) {
-			family = baseFont.getFamily();
-		}
-		if (size == null) {
-			size = baseFont.getSize();
-		}
-		if (bold == null) {
-			bold = baseFont.isBold();
-		}
-		if (italic == null) {
-			italic = baseFont.isItalic();
-		}
-		int style = 0;
-		if (bold) {
-			style += Font.BOLD;
-		}
-		if (italic) {
-			style += Font.ITALIC;
-		}
-		final Font font = new Font(family, style, size);
-		if(strikedThrough == TextAttribute.STRIKETHROUGH_ON) {
-			return FontUtils.strikeThrough(font);
-		}
-		else
-			return font;
-	}
 
-	private ShapeConfigurationModel getStyleShape(final MapModel map, final Collection<IStyle> style) {
-		final MapStyleModel model = MapStyleModel.getExtension(map);
-		for(IStyle styleKey : style){
-			final NodeModel styleNode = model.getStyleNode(styleKey);
-			if (styleNode == null) {
-				continue;
-			}
-			final NodeStyleModel styleModel = NodeStyleModel.getModel(styleNode);
-			if (styleModel == null) {
-				continue;
-			}
-			final ShapeConfigurationModel shapeConfiguration = styleModel.getShapeConfiguration();
-			if (shapeConfiguration.getShape() == null) {
-				continue;
-			}
-			return shapeConfiguration;
-		}
-		return null;
-	}
 
-	private Color getStyleTextColor(final MapModel map, final Collection<IStyle> collection) {
-		final MapStyleModel model = MapStyleModel.getExtension(map);
-		for(IStyle styleKey : collection){
-			final NodeModel styleNode = model.getStyleNode(styleKey);
-			if (styleNode == null) {
-				continue;
-			}
-			final NodeStyleModel styleModel = NodeStyleModel.getModel(styleNode);
-			if (styleModel == null) {
-				continue;
-			}
-			final Color styleColor = styleModel == null ? null : styleModel.getColor();
-			if (styleColor == null) {
-				continue;
-			}
-			return styleColor;
-		}
-		return null;
-	}
 
-	private HorizontalTextAlignment getHorizontalTextAlignment(final MapModel map, final Collection<IStyle> style) {
-		final MapStyleModel model = MapStyleModel.getExtension(map);
-		for(IStyle styleKey : style){
-			final NodeModel styleNode = model.getStyleNode(styleKey);
-			if (styleNode == null) {
-				continue;
-			}
-			final NodeStyleModel styleModel = NodeStyleModel.getModel(styleNode);
-			if (styleModel == null) {
-				continue;
-			}
-			final HorizontalTextAlignment textAlignment = styleModel.getHorizontalTextAlignment();
-			if (textAlignment == null) {
-				continue;
-			}
-			return textAlignment;
-		}
-		return null;
-	}
 	public Font getFont(final NodeModel node) {
 		final Font font = fontHandlers.getProperty(node, null);
 		return font;
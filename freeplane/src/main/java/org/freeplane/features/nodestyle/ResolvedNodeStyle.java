@@ -0,0 +1,163 @@
+package org.freeplane.features.nodestyle;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.font.TextAttribute;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.freeplane.features.nodestyle.NodeStyleModel.HorizontalTextAlignment;
+
+/**
+ * Node style properties defined by the style nodes of the styles applied to a node.
+ *
+ * Each property is looked up once when it is first requested.
+ * Fonts and colors are interned, so that nodes having the same style properties share their instances.
+ * {@link NodeStyleController} keeps an instance for each style collection returned by
+ * {@link org.freeplane.features.styles.LogicalStyleController#getStyles}, which stays the same until the styles of the node change.
+ */
+class ResolvedNodeStyle {
+	private static final Object NOT_RESOLVED = new Object();
+	private static final Map<Object, WeakReference<Object>> internedValues = new WeakHashMap<>();
+
+	@SuppressWarnings("unchecked")
+	static <T> T intern(T value) {
+		if (value == null)
+			return null;
+		synchronized (internedValues) {
+			final WeakReference<Object> reference = internedValues.get(value);
+			final Object internedValue = reference != null ? reference.get() : null;
+			if (internedValue != null)
+				return (T) internedValue;
+			internedValues.put(value, new WeakReference<Object>(value));
+			return value;
+		}
+	}
+
+	private final List<NodeStyleModel> styleModels;
+	private Font baseFont;
+	private Font font;
+	private Object textColor = NOT_RESOLVED;
+	private Object backgroundColor = NOT_RESOLVED;
+	private Object shapeConfiguration = NOT_RESOLVED;
+	private Object horizontalTextAlignment = NOT_RESOLVED;
+
+	/**
+	 * @param styleModels the node style models of the style nodes in the order of the styles applied to the node
+	 */
+	ResolvedNodeStyle(List<NodeStyleModel> styleModels) {
+		this.styleModels = styleModels;
+	}
+
+	synchronized Font getFont(final Font baseFont) {
+		if (font == null || !baseFont.equals(this.baseFont)) {
+			this.baseFont = baseFont;
+			this.font = intern(resolveFont(baseFont));
+		}
+		return font;
+	}
+
+	private Font resolveFont(final Font baseFont) {
+		Boolean bold = null;
+		Boolean strikedThrough = null;
+		Boolean italic = null;
+		String fontFamilyName = null;
+		Integer fontSize = null;
+		for (NodeStyleModel styleModel : styleModels) {
+			if (bold == null) bold = styleModel.isBold();
+			if (strikedThrough == null) strikedThrough = styleModel.isStrikedThrough();
+			if (italic == null) italic = styleModel.isItalic();
+			if (fontFamilyName == null) fontFamilyName = styleModel.getFontFamilyName();
+			if (fontSize == null) fontSize = styleModel.getFontSize();
+			if(bold != null && italic != null && fontFamilyName != null && fontSize != null && strikedThrough == null) break;
+		}
+		return createFont(baseFont, fontFamilyName, fontSize, bold, italic, strikedThrough);
+	}
+
+	private Font createFont(final Font baseFont, String family, Integer size, Boolean bold, Boolean italic, Boolean strikedThrough) {
+		if (family == null && size == null && bold == null && italic == null) {
+			return baseFont;
+		}
+		if (family == null) {
+			family = baseFont.getFamily();
+		}
+		if (size == null) {
+			size = baseFont.getSize();
+		}
+		if (bold == null) {
+			bold = baseFont.isBold();
+		}
+		if (italic == null) {
+			italic = baseFont.isItalic();
+		}
+		int style = 0;
+		if (bold) {
+			style += Font.BOLD;
+		}
+		if (italic) {
+			style += Font.ITALIC;
+		}
+		final Font font = new Font(family, style, size);
+		if(strikedThrough == TextAttribute.STRIKETHROUGH_ON) {
+			return FontUtils.strikeThrough(font);
+		}
+		else
+			return font;
+	}
+
+	synchronized Color getTextColor() {
+		if (textColor == NOT_RESOLVED) {
+			Color color = null;
+			for (NodeStyleModel styleModel : styleModels) {
+				color = styleModel.getColor();
+				if (color != null)
+					break;
+			}
+			textColor = intern(color);
+		}
+		return (Color) textColor;
+	}
+
+	synchronized Color getBackgroundColor() {
+		if (backgroundColor == NOT_RESOLVED) {
+			Color color = null;
+			for (NodeStyleModel styleModel : styleModels) {
+				color = styleModel.getBackgroundColor();
+				if (color != null)
+					break;
+			}
+			backgroundColor = intern(color);
+		}
+		return (Color) backgroundColor;
+	}
+
+	synchronized ShapeConfigurationModel getShapeConfiguration() {
+		if (shapeConfiguration == NOT_RESOLVED) {
+			ShapeConfigurationModel shape = null;
+			for (NodeStyleModel styleModel : styleModels) {
+				final ShapeConfigurationModel styleShape = styleModel.getShapeConfiguration();
+				if (styleShape.getShape() != null) {
+					shape = styleShape;
+					break;
+				}
+			}
+			shapeConfiguration = shape;
+		}
+		return (ShapeConfigurationModel) shapeConfiguration;
+	}
+
+	synchronized HorizontalTextAlignment getHorizontalTextAlignment() {
+		if (horizontalTextAlignment == NOT_RESOLVED) {
+			HorizontalTextAlignment alignment = null;
+			for (NodeStyleModel styleModel : styleModels) {
+				alignment = styleModel.getHorizontalTextAlignment();
+				if (alignment != null)
+					break;
+			}
+			horizontalTextAlignment = alignment;
+		}
+		return (HorizontalTextAlignment) horizontalTextAlignment;
+	}
+}
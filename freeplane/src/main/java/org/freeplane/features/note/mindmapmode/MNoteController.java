@@ -31,6 +31,7 @@ import java.awt.event.FocusEvent;
 import java.awt.event.FocusListener;
 import java.awt.event.KeyEvent;
 import java.net.URI;
+import java.util.Objects;
 
 import javax.swing.BorderFactory;
 import javax.swing.InputMap;
@@ -253,40 +254,67 @@ public class MNoteController extends NoteController {
 		if (oldText == newText || null != oldText && oldText.equals(newText)) {
 			return;
 		}
-		final IActor actor = new IActor() {
-			@Override
-			public void act() {
-				setText(newText);
-			}
+		final IActor actor = new NoteTextChangeActor(node, oldText, newText);
+		Controller.getCurrentModeController().execute(actor, node.getMap());
+	}
 
-			@Override
-			public String getDescription() {
-				return "setNoteText";
-			}
+	private class NoteTextChangeActor implements IActor {
+		private final NodeModel node;
+		private final String oldText;
+		private final String newText;
 
-			private void setText(final String text) {
-				final boolean enabled = !(text == null || text.equals(""));
-				if (enabled) {
-					final NoteModel note = NoteModel.createNote(node);
-					note.setHtml(text);
-					node.addExtension(note);
-				}
-				else {
-					if (null != node.getExtension(NoteModel.class)) {
-						node.removeExtension(NoteModel.class);
-					}
+		NoteTextChangeActor(NodeModel node, String oldText, String newText) {
+			this.node = node;
+			this.oldText = oldText;
+			this.newText = newText;
+		}
+
+		@Override
+		public void act() {
+			setText(newText);
+		}
+
+		@Override
+		public String getDescription() {
+			return "setNoteText";
+		}
+
+		private void setText(final String text) {
+			final boolean enabled = !(text == null || text.equals(""));
+			if (enabled) {
+				final NoteModel note = NoteModel.createNote(node);
+				note.setHtml(text);
+				node.addExtension(note);
+			}
+			else {
+				if (null != node.getExtension(NoteModel.class)) {
+					node.removeExtension(NoteModel.class);
 				}
-				Controller.getCurrentModeController().getMapController().nodeChanged(node, NodeModel.NOTE_TEXT, oldText, text);
-				if(noteManager != null)
-					noteManager.updateEditor();
 			}
+			Controller.getCurrentModeController().getMapController().nodeChanged(node, NodeModel.NOTE_TEXT, oldText, text);
+			if(noteManager != null)
+				noteManager.updateEditor();
+		}
 
-			@Override
-			public void undo() {
-				setText(oldText);
-			}
-		};
-		Controller.getCurrentModeController().execute(actor, node.getMap());
+		@Override
+		public void undo() {
+			setText(oldText);
+		}
+
+		@Override
+		public long estimatedSize() {
+			return IActor.DEFAULT_ESTIMATED_SIZE + IActor.estimatedSizeOf(oldText) + IActor.estimatedSizeOf(newText);
+		}
+
+		@Override
+		public IActor coalesce(IActor previous) {
+			if (!(previous instanceof NoteTextChangeActor))
+				return null;
+			final NoteTextChangeActor previousChange = (NoteTextChangeActor) previous;
+			if (previousChange.node != node || !Objects.equals(previousChange.newText, oldText))
+				return null;
+			return new NoteTextChangeActor(node, previousChange.oldText, newText);
+		}
 	}
 
 	private boolean shouldUseSplitPane() {
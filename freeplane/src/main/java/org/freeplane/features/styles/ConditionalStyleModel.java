@@ -17,6 +17,10 @@ import org.freeplane.features.map.NodeModel;
 import org.freeplane.n3.nanoxml.XMLElement;
 
 public class ConditionalStyleModel implements IExtension, Iterable<ConditionalStyleModel.Item>{
+	private static void modified() {
+		ResolvedStyleCache.stylesChanged();
+	}
+
 	public static class Item{
 		private ASelectableCondition condition;
 		private IStyle style;
@@ -36,24 +40,28 @@ public class ConditionalStyleModel implements IExtension, Iterable<ConditionalSt
 
 		public void setCondition(ASelectableCondition condition) {
 	        this.condition = condition;
+	        modified();
         }
 		public ASelectableCondition getCondition() {
 	        return condition;
         }
 		public void setStyle(IStyle style) {
 	        this.style = style;
+	        modified();
         }
 		public IStyle getStyle() {
 	        return style;
         }
 		public void setActive(boolean isActive) {
 	        this.isActive = isActive;
+	        modified();
         }
 		public boolean isActive() {
 	        return isActive;
         }
 		public void setLast(boolean isLast) {
 	        this.isLast = isLast;
+	        modified();
         }
 		public boolean isLast() {
 	        return isLast;
@@ -139,6 +147,7 @@ public class ConditionalStyleModel implements IExtension, Iterable<ConditionalSt
 	
 	void addCondition(boolean isActive, ASelectableCondition condition, IStyle style, boolean isLast){
 		styles.add(new Item(isActive, condition, style, isLast));
+		modified();
 		if(table == null){
 			return;
 		}
@@ -148,6 +157,7 @@ public class ConditionalStyleModel implements IExtension, Iterable<ConditionalSt
 	
 	void insertCondition(int index, boolean isActive, ASelectableCondition condition, IStyle style, boolean isLast){
 		styles.add(index, new Item(isActive, condition, style, isLast));
+		modified();
 		if(table == null){
 			return;
 		}
@@ -156,6 +166,7 @@ public class ConditionalStyleModel implements IExtension, Iterable<ConditionalSt
 	
 	Item removeCondition(int index){
 		final Item item = styles.remove(index);
+		modified();
 		if(table == null){
 			return item;
 		}
@@ -168,6 +179,7 @@ public class ConditionalStyleModel implements IExtension, Iterable<ConditionalSt
 		final Item item2 = styles.get(index2);
 		styles.set(index1, item2);
 		styles.set(index2, item1);
+		modified();
 		if(table == null){
 			return;
 		}
@@ -191,6 +203,7 @@ public class ConditionalStyleModel implements IExtension, Iterable<ConditionalSt
 	
 	void clear(){
 		styles.clear();
+		modified();
 	}
 
 	public Iterator<Item> iterator() {
@@ -302,4 +315,12 @@ public class ConditionalStyleModel implements IExtension, Iterable<ConditionalSt
 		}
 		return false;
 	}
+
+	boolean dependsOnNodeContentOnly() {
+		return ! dependOnCondition(condition -> condition != null && ! condition.dependsOnNodeContentOnly());
+	}
+
+	boolean dependsOnNodeContentAndPositionOnly() {
+		return ! dependOnCondition(condition -> condition != null && ! condition.dependsOnNodeContentAndPositionOnly());
+	}
 }
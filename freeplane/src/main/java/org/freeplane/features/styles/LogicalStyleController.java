@@ -20,8 +20,9 @@
 package org.freeplane.features.styles;
 
 import java.awt.Component;
-import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -39,6 +40,7 @@ import org.freeplane.core.util.HtmlUtils;
 import org.freeplane.core.util.TextUtils;
 import org.freeplane.features.filter.condition.ASelectableCondition;
 import org.freeplane.features.map.IMapChangeListener;
+import org.freeplane.features.map.IMapLifeCycleListener;
 import org.freeplane.features.map.INodeChangeListener;
 import org.freeplane.features.map.ITooltipProvider;
 import org.freeplane.features.map.MapChangeEvent;
@@ -64,8 +66,6 @@ public class LogicalStyleController implements IExtension {
 // 	final private ModeController modeController;
 
 	private static final int STYLE_TOOLTIP = 0;
-	private WeakReference<NodeModel> cachedNode;
-	private Collection<IStyle>  cachedStyle;
 	final private CombinedPropertyChain<Collection<IStyle>, NodeModel> styleHandlers;
 
 	public LogicalStyleController(ModeController modeController) {
@@ -98,7 +98,7 @@ public class LogicalStyleController implements IExtension {
 			public String getTooltip(ModeController modeController, NodeModel node, Component view) {
 				if(!ResourceController.getResourceController().getBooleanProperty("show_styles_in_tooltip"))
 					return null;
-				final Collection<IStyle> styles = getStyles(node);
+				final Collection<IStyle> styles = new ArrayList<IStyle>(getStyles(node));
 				if(styles.size() > 0)
 					styles.remove(styles.iterator().next());
 				final String label = TextUtils.getText("node_styles");
@@ -143,46 +143,77 @@ public class LogicalStyleController implements IExtension {
 			if(conditionalStyleModel == null)
 				return;
 			Collection<IStyle> styles = conditionalStyleModel.getStyles(node);
-			cachedNode = null;
 			addAll(node, styleModel, currentValue, styles);
     }
 
 	private void registerChangeListener() {
 		ModeController modeController = Controller.getCurrentModeController();
 		final MapController mapController = modeController.getMapController();
+		mapController.addMapLifeCycleListener(new IMapLifeCycleListener() {
+			@Override
+			public void onCreate(MapModel map) {
+				ResolvedStyleCache.install(map);
+			}
+		});
 		mapController.addMapChangeListener(new IMapChangeListener() {
 			public void onPreNodeMoved(NodeMoveEvent nodeMoveEvent) {
-				clearCache();
+				structureChanged(nodeMoveEvent.child);
 			}
 
 			public void onPreNodeDelete(NodeDeletionEvent nodeDeletionEvent) {
-				clearCache();
+				structureChanged(nodeDeletionEvent.node);
 			}
 
 			public void onNodeMoved(NodeMoveEvent nodeMoveEvent) {
-				clearCache();
+				structureChanged(nodeMoveEvent.child);
 			}
 
 			public void onNodeInserted(NodeModel parent, NodeModel child, int newIndex) {
-				clearCache();
+				structureChanged(child);
 			}
 
 			public void onNodeDeleted(NodeDeletionEvent nodeDeletionEvent) {
-				clearCache();
+				final ResolvedStyleCache cache = resolvedStyleCache(nodeDeletionEvent.node.getMap());
+				if (cache != null)
+					cache.nodeDeleted(nodeDeletionEvent.node);
 			}
 
 			public void mapChanged(MapChangeEvent event) {
-				clearCache();
+				final ResolvedStyleCache cache = resolvedStyleCache(event.getMap());
+				if (cache != null)
+					cache.clear();
 			}
 		});
 		mapController.addNodeChangeListener(new INodeChangeListener() {
 			public void nodeChanged(NodeChangeEvent event) {
-				clearCache();
+				final NodeModel node = event.getNode();
+				final ResolvedStyleCache cache = resolvedStyleCache(node.getMap());
+				if (cache == null)
+					return;
+				if (node.isRoot())
+					cache.clear();
+				else
+					cache.nodeChanged(node);
 			}
 		});
 
     }
 
+	private void structureChanged(NodeModel node) {
+		final ResolvedStyleCache cache = resolvedStyleCache(node.getMap());
+		if (cache != null)
+			cache.structureChanged();
+	}
+
+	/** Returns the cache of the changed map, outdating styles of all maps if style nodes are changed. */
+	private ResolvedStyleCache resolvedStyleCache(MapModel changedMap) {
+		if (changedMap == null)
+			return null;
+		if (changedMap instanceof StyleMapModel)
+			ResolvedStyleCache.stylesChanged();
+		return changedMap.getExtension(ResolvedStyleCache.class);
+	}
+
 	private void createBuilder() {
 		ModeController modeController = Controller.getCurrentModeController();
 		final MapController mapController = modeController.getMapController();
@@ -298,15 +329,65 @@ public class LogicalStyleController implements IExtension {
 		}
 		return MapStyleModel.DEFAULT_STYLE;
 	}
+	/**
+	 * Returns the unmodifiable collection of styles applied to the node.
+	 */
 	public Collection<IStyle>  getStyles(final NodeModel node) {
-		if(cachedNode != null && node.equals(cachedNode.get())){
-			return cachedStyle;
+		final MapModel map = node.getMap();
+		final ResolvedStyleCache cache = map != null ? map.getExtension(ResolvedStyleCache.class) : null;
+		if (cache == null)
+			return resolveStyles(node);
+		final Collection<IStyle> cachedStyles = cache.getStyles(node);
+		if (cachedStyles != null)
+			return cachedStyles;
+		final int changeGeneration = cache.getChangeGeneration();
+		final Collection<IStyle> styles = resolveStyles(node);
+		cache.putStyles(node, styles, dependencyOf(node, styles), changeGeneration);
+		return styles;
+	}
+
+	/**
+	 * Returns true if the given styles of the node, as returned by {@link #getStyles(NodeModel)},
+	 * are kept until the node or its position changes, so that results derived from them can be kept as well.
+	 */
+	public boolean areStylesCached(final NodeModel node, final Collection<IStyle> styles) {
+		final MapModel map = node.getMap();
+		final ResolvedStyleCache cache = map != null ? map.getExtension(ResolvedStyleCache.class) : null;
+		return cache != null && cache.holds(node, styles);
+	}
+
+	private Collection<IStyle> resolveStyles(final NodeModel node) {
+		return Collections.unmodifiableCollection(styleHandlers.getProperty(node, new LinkedHashSet<IStyle>()));
+	}
+
+	private ResolvedStyleCache.Dependency dependencyOf(final NodeModel node, final Collection<IStyle> styles) {
+		final MapStyleModel styleModel = MapStyleModel.getExtension(node.getMap());
+		if (styleModel == null)
+			return ResolvedStyleCache.Dependency.OTHER;
+		ResolvedStyleCache.Dependency dependency = dependencyOf(styleModel.getConditionalStyleModel());
+		final NodeModel rootNode = node.getMap().getRootNode();
+		if (rootNode != null && rootNode.containsExtension(AutomaticLayout.class))
+			dependency = max(dependency, ResolvedStyleCache.Dependency.NODE_POSITION);
+		for (IStyle style : styles) {
+			if (dependency == ResolvedStyleCache.Dependency.OTHER)
+				break;
+			final NodeModel styleNode = styleModel.getStyleNode(style);
+			if (styleNode != null)
+				dependency = max(dependency, dependencyOf(styleNode.getExtension(ConditionalStyleModel.class)));
 		}
-		cachedStyle = null;
-		cachedNode = null;
-		cachedStyle = styleHandlers.getProperty(node, new LinkedHashSet<IStyle>());
-		cachedNode = new WeakReference<NodeModel>(node);
-		return cachedStyle;
+		return dependency;
+	}
+
+	private ResolvedStyleCache.Dependency dependencyOf(final ConditionalStyleModel conditionalStyleModel) {
+		if (conditionalStyleModel == null || conditionalStyleModel.dependsOnNodeContentOnly())
+			return ResolvedStyleCache.Dependency.NODE_CONTENT;
+		if (conditionalStyleModel.dependsOnNodeContentAndPositionOnly())
+			return ResolvedStyleCache.Dependency.NODE_POSITION;
+		return ResolvedStyleCache.Dependency.OTHER;
+	}
+
+	private static ResolvedStyleCache.Dependency max(ResolvedStyleCache.Dependency first, ResolvedStyleCache.Dependency second) {
+		return first.compareTo(second) >= 0 ? first : second;
 	}
 
 	public void moveConditionalStyleDown(final ConditionalStyleModel conditionalStyleModel, int index) {
@@ -331,11 +412,6 @@ public class LogicalStyleController implements IExtension {
 	    return conditionalStyleModel.removeCondition(index);
     }
 
-	private void clearCache() {
-	    cachedStyle = null;
-	    cachedNode = null;
-    }
-
 	public IPropertyHandler<Collection<IStyle>, NodeModel> addStyleGetter(
 		final Integer key,
 		final IPropertyHandler<Collection<IStyle>, NodeModel> getter) {
@@ -363,7 +439,6 @@ public class LogicalStyleController implements IExtension {
 	public Collection<IStyle>  getConditionalMapStyles(final NodeModel node) {
 		final MapStyleModel styleModel = MapStyleModel.getExtension(node.getMap());
 		Collection<IStyle> condStyles = styleModel.getConditionalStyleModel().getStyles(node);
-		clearCache();
 		return getResursively(node, condStyles);
 	}
 
@@ -377,7 +452,6 @@ public class LogicalStyleController implements IExtension {
 		final ConditionalStyleModel conditionalStyleModel = node.getExtension(ConditionalStyleModel.class);
 		if(conditionalStyleModel != null) {
 			Collection<IStyle> styles = conditionalStyleModel.getStyles(node);
-			clearCache();
 			condStyles.addAll(styles);
 		}
 		final Collection<IStyle> all = getResursively(node, condStyles);
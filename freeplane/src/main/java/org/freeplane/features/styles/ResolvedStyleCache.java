@@ -0,0 +1,111 @@
+package org.freeplane.features.styles;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.freeplane.core.extension.IExtension;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+
+/**
+ * Map extension remembering the styles resolved for each node by {@link LogicalStyleController#getStyles(NodeModel)}.
+ *
+ * Styles depending on the node content only are kept until the node changes.
+ * Styles depending on the node position in the tree are kept until nodes are inserted, moved or deleted.
+ * Styles depending on anything else, like other nodes, scripts or time, are not kept.
+ * Map changes, changes of conditional styles and changes of style nodes drop all entries.
+ * The cache is added to a map when the map is created, so that readers never add it concurrently.
+ */
+class ResolvedStyleCache implements IExtension {
+	enum Dependency {
+		NODE_CONTENT, NODE_POSITION, OTHER
+	}
+
+	private static class Entry {
+		final Collection<IStyle> styles;
+		final boolean dependsOnPosition;
+		final int structureGeneration;
+
+		Entry(Collection<IStyle> styles, boolean dependsOnPosition, int structureGeneration) {
+			this.styles = styles;
+			this.dependsOnPosition = dependsOnPosition;
+			this.structureGeneration = structureGeneration;
+		}
+	}
+
+	private static final AtomicInteger styleGeneration = new AtomicInteger();
+
+	/** Outdates the styles resolved in all maps. */
+	static void stylesChanged() {
+		styleGeneration.incrementAndGet();
+	}
+
+	private final Map<NodeModel, Entry> entries = new WeakHashMap<>();
+	private int structureGeneration = 0;
+	private int changeGeneration = 0;
+	private int resolvedStyleGeneration = styleGeneration.get();
+
+	static void install(MapModel map) {
+		if (map.getExtension(ResolvedStyleCache.class) == null)
+			map.addExtension(new ResolvedStyleCache());
+	}
+
+	synchronized Collection<IStyle> getStyles(NodeModel node) {
+		final int currentStyleGeneration = styleGeneration.get();
+		if (resolvedStyleGeneration != currentStyleGeneration) {
+			clear();
+			resolvedStyleGeneration = currentStyleGeneration;
+			return null;
+		}
+		final Entry entry = entries.get(node);
+		if (entry == null)
+			return null;
+		if (entry.dependsOnPosition && entry.structureGeneration != structureGeneration) {
+			entries.remove(node);
+			return null;
+		}
+		return entry.styles;
+	}
+
+	synchronized boolean holds(NodeModel node, Collection<IStyle> styles) {
+		final Entry entry = entries.get(node);
+		return entry != null && entry.styles == styles;
+	}
+
+	/** Returns a stamp for {@link #putStyles}, taken before the styles are resolved. */
+	synchronized int getChangeGeneration() {
+		return changeGeneration;
+	}
+
+	synchronized void putStyles(NodeModel node, Collection<IStyle> styles, Dependency dependency,
+	                            int changeGenerationBeforeResolution) {
+		if (dependency == Dependency.OTHER || changeGeneration != changeGenerationBeforeResolution
+		        || resolvedStyleGeneration != styleGeneration.get())
+			return;
+		entries.put(node, new Entry(styles, dependency == Dependency.NODE_POSITION, structureGeneration));
+	}
+
+	synchronized void nodeChanged(NodeModel node) {
+		changeGeneration++;
+		entries.remove(node);
+		for (NodeModel clone : node.allClones())
+			entries.remove(clone);
+	}
+
+	synchronized void structureChanged() {
+		changeGeneration++;
+		structureGeneration++;
+	}
+
+	synchronized void nodeDeleted(NodeModel node) {
+		structureChanged();
+		entries.remove(node);
+	}
+
+	synchronized void clear() {
+		changeGeneration++;
+		entries.clear();
+	}
+}
@@ -19,15 +19,19 @@
  */
 package org.freeplane.features.text;
 
+import java.util.function.Predicate;
+
 import org.freeplane.core.util.TextUtils;
 import org.freeplane.features.filter.StringMatchingStrategy;
 import org.freeplane.features.filter.condition.ASelectableCondition;
 import org.freeplane.features.filter.condition.ConditionFactory;
+import org.freeplane.features.filter.condition.IIndexedCondition;
 import org.freeplane.features.filter.condition.StringConditionAdapter;
+import org.freeplane.features.map.MapModel;
 import org.freeplane.features.map.NodeModel;
 import org.freeplane.n3.nanoxml.XMLElement;
 
-public class NodeContainsCondition extends StringConditionAdapter implements NodeItemRelation {
+public class NodeContainsCondition extends StringConditionAdapter implements NodeItemRelation, IIndexedCondition {
 	static final String IGNORE_CASE_NAME = "node_contains_condition";
 	static final String MATCH_CASE_NAME = "match_case_node_contains_condition";
     public static final String VALUE = "VALUE";
@@ -65,6 +69,17 @@ public class NodeContainsCondition extends StringConditionAdapter implements Nod
 		return checkText(content);
 	}
 
+	@Override
+	public boolean canBeCheckedConcurrently() {
+		return ! matchApproximately && NodeTextConditionController.isUntransformedItem(nodeItem);
+	}
+
+	@Override
+	public boolean dependsOnNodeContentOnly() {
+		// transformed texts, e.g. formula results, depend on other nodes
+		return NodeTextConditionController.isUntransformedItem(nodeItem);
+	}
+
 	private boolean checkText(Object content[]) {
 		for(Object o : content){
 			if(checkText(o))
@@ -77,6 +92,12 @@ public class NodeContainsCondition extends StringConditionAdapter implements Nod
 		return o != null && stringMatchingStrategy.matches(normalizedValue(), normalize(o), true);
 	}
 
+	@Override
+	public Predicate<NodeModel> createCandidateTest(MapModel map) {
+		final NodeTextIndex index = NodeTextIndex.getIndex(map);
+		return index == null ? null : index.createCandidateTest(nodeItem, normalizedValue(), matchApproximately);
+	}
+
 	@Override
 	protected String createDescription() {
 		final String nodeCondition = TextUtils.getText(nodeItem);
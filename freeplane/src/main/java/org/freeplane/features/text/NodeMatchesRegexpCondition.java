@@ -63,6 +63,17 @@ public class NodeMatchesRegexpCondition extends ASelectableCondition implements
 		return content != null && checkText(content);
 	}
 
+	@Override
+	public boolean canBeCheckedConcurrently() {
+		return NodeTextConditionController.isUntransformedItem(nodeItem);
+	}
+
+	@Override
+	public boolean dependsOnNodeContentOnly() {
+		// transformed texts, e.g. formula results, depend on other nodes
+		return NodeTextConditionController.isUntransformedItem(nodeItem);
+	}
+
 	private boolean checkText(Object content[]) {
 		for(Object o : content){
 			if(o != null && checkText(o.toString()))
@@ -81,6 +81,12 @@ public class NodeTextCompareCondition extends CompareConditionAdapter implements
 		return content != null && checkContents(content);
 	}
 
+	@Override
+	public boolean dependsOnNodeContentOnly() {
+		// transformed texts, e.g. formula results, depend on other nodes
+		return NodeTextConditionController.isUntransformedItem(nodeItem);
+	}
+
 	private boolean checkContents(Object content[]) {
 		for(Object o : content){
 			if(o != null && checkContent(o))
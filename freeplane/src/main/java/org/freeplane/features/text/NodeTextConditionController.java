@@ -176,6 +176,11 @@ class NodeTextConditionController implements IElementaryConditionController {
 		return null;
 	}
 
+	/** Node details and notes are compared as stored, without running content transformers like formulas. */
+	static boolean isUntransformedItem(Object nodeItem) {
+		return nodeItem.equals(TextController.FILTER_DETAILS) || nodeItem.equals(TextController.FILTER_NOTE);
+	}
+
 	public static Object[] getItemsForComparison(Object nodeItem, final NodeModel node) {
 		if (nodeItem.equals(TextController.FILTER_ANYTEXT)) {
 			return new Object[] { 
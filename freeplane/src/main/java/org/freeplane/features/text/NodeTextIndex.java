@@ -0,0 +1,377 @@
+package org.freeplane.features.text;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.freeplane.core.extension.IExtension;
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.features.filter.Filter;
+import org.freeplane.features.filter.StringMatchingStrategy;
+import org.freeplane.features.map.IMapChangeListener;
+import org.freeplane.features.map.IMapLifeCycleListener;
+import org.freeplane.features.map.INodeChangeListener;
+import org.freeplane.features.map.MapChangeEvent;
+import org.freeplane.features.map.MapController;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeChangeEvent;
+import org.freeplane.features.map.NodeDeletionEvent;
+import org.freeplane.features.map.NodeModel;
+
+/**
+ * Per map inverted index from trigrams of folded node texts, details and notes to the nodes containing them.
+ *
+ * Texts are folded to lower case without diacritics, so that one index serves all search modes.
+ * The index only preselects candidate nodes, the conditions still check each candidate.
+ * Child nodes of folded nodes which are not loaded yet are not indexed, they are always candidates.
+ * It is built on the first search and updated from node change events before the next one.
+ * The index is added to a map when the map is created, so that searches never add it concurrently.
+ */
+public class NodeTextIndex implements IExtension {
+	public static final String USE_TEXT_INDEX_PROPERTY = "filter.useTextIndex";
+	private static final String[] ITEMS = { TextController.FILTER_NODE, TextController.FILTER_DETAILS,
+	        TextController.FILTER_NOTE };
+	private static final int NO_ENTRY = -1;
+
+	private static class Entry {
+		final long characterMask;
+		final boolean containsWildcardOrExpansion;
+
+		Entry(long characterMask, boolean containsWildcardOrExpansion) {
+			this.characterMask = characterMask;
+			this.containsWildcardOrExpansion = containsWildcardOrExpansion;
+		}
+	}
+
+	private static class Postings {
+		private int[] entries = new int[4];
+		private int size = 0;
+
+		void add(int entry) {
+			if (size == entries.length)
+				entries = Arrays.copyOf(entries, 2 * size);
+			entries[size++] = entry;
+		}
+	}
+
+	private static class FoldedText {
+		final String text;
+		final boolean isExpanded;
+
+		FoldedText(String text, boolean isExpanded) {
+			this.text = text;
+			this.isExpanded = isExpanded;
+		}
+	}
+
+	public static void trackChanges(MapController mapController) {
+		mapController.addMapLifeCycleListener(new IMapLifeCycleListener() {
+			@Override
+			public void onCreate(MapModel map) {
+				if (map.getExtension(NodeTextIndex.class) == null)
+					map.addExtension(new NodeTextIndex(map));
+			}
+		});
+		mapController.addNodeChangeListener(new INodeChangeListener() {
+			@Override
+			public void nodeChanged(NodeChangeEvent event) {
+				final NodeModel node = event.getNode();
+				final NodeTextIndex index = node.getMap().getExtension(NodeTextIndex.class);
+				if (index != null)
+					index.nodeChanged(node);
+			}
+		});
+		mapController.addMapChangeListener(new IMapChangeListener() {
+			@Override
+			public void mapChanged(MapChangeEvent event) {
+				final MapModel map = event.getMap();
+				final NodeTextIndex index = map != null ? map.getExtension(NodeTextIndex.class) : null;
+				if (index != null && event.getProperty() != Filter.class)
+					index.forgetAll();
+			}
+
+			@Override
+			public void onNodeInserted(NodeModel parent, NodeModel child, int newIndex) {
+				final NodeTextIndex index = child.getMap().getExtension(NodeTextIndex.class);
+				if (index != null)
+					index.subtreeInserted(child);
+			}
+
+			@Override
+			public void onNodeDeleted(NodeDeletionEvent nodeDeletionEvent) {
+				final NodeModel node = nodeDeletionEvent.node;
+				final NodeTextIndex index = node.getMap().getExtension(NodeTextIndex.class);
+				if (index != null)
+					index.subtreeDeleted(node);
+			}
+		});
+	}
+
+	/** Returns the index of the given map, or null if searching with text index is disabled or the map has no index. */
+	public static NodeTextIndex getIndex(MapModel map) {
+		if (!ResourceController.getResourceController().getBooleanProperty(USE_TEXT_INDEX_PROPERTY))
+			return null;
+		return map.getExtension(NodeTextIndex.class);
+	}
+
+	private final MapModel map;
+	private final ArrayList<Entry> entries;
+	private final Map<NodeModel, int[]> entriesByNode;
+	private final Map<Long, Postings> postings;
+	private final Set<NodeModel> changedNodes;
+	private int deadEntryCount;
+	private boolean isBuilt;
+	private String lastSearch;
+	private Predicate<NodeModel> lastCandidateTest;
+
+	NodeTextIndex(MapModel map) {
+		this.map = map;
+		entries = new ArrayList<>();
+		entriesByNode = new HashMap<>();
+		postings = new HashMap<>();
+		changedNodes = new HashSet<>();
+		isBuilt = false;
+	}
+
+	private void forgetAll() {
+		isBuilt = false;
+		lastCandidateTest = null;
+	}
+
+	void nodeChanged(NodeModel node) {
+		if (isBuilt) {
+			changedNodes.add(node);
+			lastCandidateTest = null;
+		}
+	}
+
+	void subtreeInserted(NodeModel node) {
+		if (isBuilt) {
+			changedNodes.add(node);
+			lastCandidateTest = null;
+			for (NodeModel child : node.getLoadedChildren())
+				subtreeInserted(child);
+		}
+	}
+
+	void subtreeDeleted(NodeModel node) {
+		if (isBuilt) {
+			removeEntries(node);
+			changedNodes.remove(node);
+			lastCandidateTest = null;
+			for (NodeModel child : node.getLoadedChildren())
+				subtreeDeleted(child);
+		}
+	}
+
+	/**
+	 * Returns a test rejecting nodes whose given item can not contain the given search term.
+	 * The test accepts all nodes if the search term is too fuzzy to exclude any node.
+	 * It stays valid until the map is changed.
+	 *
+	 * @param nodeItem one of the text items used by {@link NodeTextConditionController#getItemsForComparison}
+	 * @param normalizedSearchTerm the search term as normalized by the condition
+	 * @param matchApproximately whether the search uses {@link StringMatchingStrategy#DEFAULT_APPROXIMATE_STRING_MATCHING_STRATEGY}
+	 */
+	public Predicate<NodeModel> createCandidateTest(String nodeItem, String normalizedSearchTerm,
+	                                                boolean matchApproximately) {
+		final String search = nodeItem + '\n' + matchApproximately + '\n' + normalizedSearchTerm;
+		if (lastCandidateTest == null || !search.equals(lastSearch)) {
+			lastCandidateTest = buildCandidateTest(nodeItem, normalizedSearchTerm, matchApproximately);
+			lastSearch = search;
+		}
+		return lastCandidateTest;
+	}
+
+	private Predicate<NodeModel> buildCandidateTest(String nodeItem, String normalizedSearchTerm,
+	                                                boolean matchApproximately) {
+		final boolean[] searchedItems = searchedItems(nodeItem);
+		if (searchedItems == null)
+			return node -> true;
+		final FoldedText foldedSearchTerm = fold(normalizedSearchTerm);
+		final String searchTerm = foldedSearchTerm.text;
+		if (searchTerm.isEmpty() || matchApproximately && foldedSearchTerm.isExpanded)
+			return node -> true;
+		final int maximumEditCount = matchApproximately
+		        ? (int) Math.floor((1 - StringMatchingStrategy.APPROXIMATE_MATCHING_MINPROB) * normalizedSearchTerm.length())
+		        : 0;
+		final Set<Long> trigrams = trigrams(searchTerm);
+		// an edit or transposition changes at most 4 trigrams and at most 1 character of the search term
+		final int requiredTrigramCount = trigrams.size() - 4 * maximumEditCount;
+		final int[] characterBits = distinctCharacterBits(searchTerm);
+		final int requiredCharacterCount = characterBits.length - maximumEditCount;
+		if (requiredTrigramCount <= 0 && requiredCharacterCount <= 0)
+			return node -> true;
+		update();
+		final int[] trigramCounts;
+		if (requiredTrigramCount > 0) {
+			trigramCounts = new int[entries.size()];
+			for (Long trigram : trigrams) {
+				final Postings trigramPostings = postings.get(trigram);
+				if (trigramPostings != null) {
+					for (int i = 0; i < trigramPostings.size; i++)
+						trigramCounts[trigramPostings.entries[i]]++;
+				}
+			}
+		}
+		else
+			trigramCounts = null;
+		return node -> {
+			final int[] nodeEntries = entriesByNode.get(node);
+			if (nodeEntries == null)
+				return true;
+			for (int item = 0; item < ITEMS.length; item++) {
+				final int entryIndex = nodeEntries[item];
+				if (!searchedItems[item] || entryIndex == NO_ENTRY)
+					continue;
+				final Entry entry = entries.get(entryIndex);
+				if (matchApproximately && entry.containsWildcardOrExpansion)
+					return true;
+				if (trigramCounts != null) {
+					if (trigramCounts[entryIndex] >= requiredTrigramCount)
+						return true;
+				}
+				else if (countContainedCharacters(entry.characterMask, characterBits) >= requiredCharacterCount)
+					return true;
+			}
+			return false;
+		};
+	}
+
+	private boolean[] searchedItems(String nodeItem) {
+		if (nodeItem.equals(TextController.FILTER_ANYTEXT))
+			return new boolean[] { true, true, true };
+		final boolean[] searchedItems = new boolean[ITEMS.length];
+		for (int item = 0; item < ITEMS.length; item++) {
+			if (ITEMS[item].equals(nodeItem)) {
+				searchedItems[item] = true;
+				return searchedItems;
+			}
+		}
+		return null;
+	}
+
+	private void update() {
+		if (!isBuilt || deadEntryCount > entries.size() / 2) {
+			entries.clear();
+			entriesByNode.clear();
+			postings.clear();
+			changedNodes.clear();
+			deadEntryCount = 0;
+			addSubtree(map.getRootNode());
+			isBuilt = true;
+		}
+		else if (!changedNodes.isEmpty()) {
+			for (NodeModel node : changedNodes) {
+				removeEntries(node);
+				addEntries(node);
+			}
+			changedNodes.clear();
+		}
+	}
+
+	private void addSubtree(NodeModel node) {
+		addEntries(node);
+		for (NodeModel child : node.getLoadedChildren())
+			addSubtree(child);
+	}
+
+	private void removeEntries(NodeModel node) {
+		final int[] nodeEntries = entriesByNode.remove(node);
+		if (nodeEntries != null) {
+			for (int entryIndex : nodeEntries) {
+				if (entryIndex != NO_ENTRY) {
+					entries.set(entryIndex, null);
+					deadEntryCount++;
+				}
+			}
+		}
+	}
+
+	private void addEntries(NodeModel node) {
+		final int[] nodeEntries = new int[ITEMS.length];
+		for (int item = 0; item < ITEMS.length; item++) {
+			final Object[] content = NodeTextConditionController.getItemsForComparison(ITEMS[item], node);
+			nodeEntries[item] = content[0] == null ? NO_ENTRY : addEntry(content[0].toString());
+		}
+		entriesByNode.put(node, nodeEntries);
+	}
+
+	private int addEntry(String text) {
+		final int entryIndex = entries.size();
+		final FoldedText foldedText = fold(text);
+		final String folded = foldedText.text;
+		long characterMask = 0;
+		for (int i = 0; i < folded.length(); i++)
+			characterMask |= 1L << (folded.charAt(i) & 63);
+		entries.add(new Entry(characterMask, foldedText.isExpanded || folded.indexOf('-') >= 0));
+		for (Long trigram : trigrams(folded))
+			postings.computeIfAbsent(trigram, x -> new Postings()).add(entryIndex);
+		return entryIndex;
+	}
+
+	private static Set<Long> trigrams(String text) {
+		final Set<Long> trigrams = new HashSet<>();
+		for (int i = 2; i < text.length(); i++)
+			trigrams.add(((long) text.charAt(i - 2) << 32) | ((long) text.charAt(i - 1) << 16) | text.charAt(i));
+		return trigrams;
+	}
+
+	private static int[] distinctCharacterBits(String text) {
+		return text.chars().distinct().map(c -> c & 63).toArray();
+	}
+
+	private static int countContainedCharacters(long characterMask, int[] characterBits) {
+		int count = 0;
+		for (int bit : characterBits) {
+			if ((characterMask & (1L << bit)) != 0)
+				count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Maps each character to at most one lower case character without diacritics, dropping combining marks.
+	 * Characters decomposing into several base characters are kept decomposed and reported as expanded,
+	 * because an edit of such a character changes several folded characters.
+	 */
+	private static FoldedText fold(String text) {
+		final StringBuilder folded = new StringBuilder(text.length());
+		boolean isExpanded = false;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c < 0x80) {
+				folded.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+				continue;
+			}
+			c = Character.toLowerCase(c);
+			if (c == 'ς')
+				c = 'σ';
+			else if (c == 'ı')
+				c = 'i';
+			if (isCombiningMark(c))
+				continue;
+			final String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+			int baseCharacterCount = 0;
+			for (int j = 0; j < decomposed.length(); j++) {
+				final char d = Character.toLowerCase(decomposed.charAt(j));
+				if (!isCombiningMark(d)) {
+					folded.append(d);
+					baseCharacterCount++;
+				}
+			}
+			isExpanded = isExpanded || baseCharacterCount > 1;
+		}
+		return new FoldedText(folded.toString(), isExpanded);
+	}
+
+	private static boolean isCombiningMark(char c) {
+		final int type = Character.getType(c);
+		return type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK;
+	}
+}
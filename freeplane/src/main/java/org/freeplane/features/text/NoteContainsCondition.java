@@ -19,17 +19,21 @@
  */
 package org.freeplane.features.text;
 
+import java.util.function.Predicate;
+
 import org.freeplane.core.util.HtmlUtils;
 import org.freeplane.core.util.TextUtils;
 import org.freeplane.features.filter.StringMatchingStrategy;
 import org.freeplane.features.filter.condition.ASelectableCondition;
 import org.freeplane.features.filter.condition.ConditionFactory;
+import org.freeplane.features.filter.condition.IIndexedCondition;
 import org.freeplane.features.filter.condition.StringConditionAdapter;
+import org.freeplane.features.map.MapModel;
 import org.freeplane.features.map.NodeModel;
 import org.freeplane.features.note.NoteModel;
 import org.freeplane.n3.nanoxml.XMLElement;
 
-public class NoteContainsCondition extends StringConditionAdapter {
+public class NoteContainsCondition extends StringConditionAdapter implements IIndexedCondition {
     static final String IGNORE_CASE_NAME = "note_contains_condition";
 	static final String MATCH_CASE_NAME = "match_case_note_contains_condition";
 	static final String VALUE = "VALUE";
@@ -64,6 +68,22 @@ public class NoteContainsCondition extends StringConditionAdapter {
 		return stringMatchingStrategy.matches(normalizedValue(), normalize(text), true);
 	}
 
+	@Override
+	public Predicate<NodeModel> createCandidateTest(MapModel map) {
+		final NodeTextIndex index = NodeTextIndex.getIndex(map);
+		return index == null ? null : index.createCandidateTest(TextController.FILTER_NOTE, normalizedValue(), matchApproximately);
+	}
+
+	@Override
+	public boolean canBeCheckedConcurrently() {
+		return ! matchApproximately;
+	}
+
+	@Override
+	public boolean dependsOnNodeContentOnly() {
+		return true;
+	}
+
 	@Override
 	protected String createDescription() {
 		return createDescription(true);
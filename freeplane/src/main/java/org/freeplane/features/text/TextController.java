@@ -111,6 +111,7 @@ public class TextController implements IExtension {
 		addTextTransformer(new FormatContentTransformer(this, 50));
 		registerDetailsTooltip();
 		registerNodeTextTooltip();
+		NodeTextIndex.trackChanges(mapController);
 	}
 
 	public void addTextTransformer(IContentTransformer textTransformer) {
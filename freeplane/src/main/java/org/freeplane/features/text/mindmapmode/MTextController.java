@@ -517,31 +517,58 @@ public class MTextController extends TextController {
 		if (oldText.equals(newObject)) {
 			return;
 		}
-		final IActor actor = new IActor() {
-			@Override
-			public void act() {
-				if (!oldText.equals(newObject)) {
-					node.setUserObject(newObject);
-					Controller.getCurrentModeController().getMapController().nodeChanged(node, NodeModel.NODE_TEXT,
-					    oldText, newObject);
-				}
-			}
+		final IActor actor = new NodeObjectChangeActor(node, oldText, newObject);
+		Controller.getCurrentModeController().execute(actor, node.getMap());
+	}
 
-			@Override
-			public String getDescription() {
-				return "setNodeText";
+	private static class NodeObjectChangeActor implements IActor {
+		private final NodeModel node;
+		private final Object oldText;
+		private final Object newObject;
+
+		NodeObjectChangeActor(NodeModel node, Object oldText, Object newObject) {
+			this.node = node;
+			this.oldText = oldText;
+			this.newObject = newObject;
+		}
+
+		@Override
+		public void act() {
+			if (!oldText.equals(newObject)) {
+				node.setUserObject(newObject);
+				Controller.getCurrentModeController().getMapController().nodeChanged(node, NodeModel.NODE_TEXT,
+				    oldText, newObject);
 			}
+		}
 
-			@Override
-			public void undo() {
-				if (!oldText.equals(newObject)) {
-					node.setUserObject(oldText);
-					Controller.getCurrentModeController().getMapController().nodeChanged(node, NodeModel.NODE_TEXT,
-					    newObject, oldText);
-				}
+		@Override
+		public String getDescription() {
+			return "setNodeText";
+		}
+
+		@Override
+		public void undo() {
+			if (!oldText.equals(newObject)) {
+				node.setUserObject(oldText);
+				Controller.getCurrentModeController().getMapController().nodeChanged(node, NodeModel.NODE_TEXT,
+				    newObject, oldText);
 			}
-		};
-		Controller.getCurrentModeController().execute(actor, node.getMap());
+		}
+
+		@Override
+		public long estimatedSize() {
+			return IActor.DEFAULT_ESTIMATED_SIZE + IActor.estimatedSizeOf(oldText) + IActor.estimatedSizeOf(newObject);
+		}
+
+		@Override
+		public IActor coalesce(IActor previous) {
+			if (!(previous instanceof NodeObjectChangeActor))
+				return null;
+			final NodeObjectChangeActor previousChange = (NodeObjectChangeActor) previous;
+			if (previousChange.node != node || !previousChange.newObject.equals(oldText))
+				return null;
+			return new NodeObjectChangeActor(node, previousChange.oldText, newObject);
+		}
 	}
 
 	public void splitNode(final NodeModel node, final int caretPosition, final String newText) {
@@ -29,6 +29,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import javax.swing.JComboBox;
 import javax.swing.JComponent;
@@ -74,6 +75,16 @@ public interface IMapViewManager {
 
 	public RenderedImage createImage(final Dimension slideSize, NodeModel placedNode, NodePosition placedNodePosition, int imageResolutionInDpi);
 
+	/**
+	 * Passes an image of the current map to the image processor. The image renders its pixels in strips when they are requested,
+	 * so that image writers requesting the pixels row by row can write images which do not fit into the memory.
+	 * The image can only be used inside of the image processor.
+	 */
+	public void processImage(int dpi, Consumer<RenderedImage> imageProcessor);
+
+	public void processImage(final Dimension slideSize, NodeModel placedNode, NodePosition placedNodePosition, int imageResolutionInDpi,
+	                         Consumer<RenderedImage> imageProcessor);
+
 	public Color getBackgroundColor(NodeModel node);
 
 	public Component getComponent(NodeModel node);
@@ -19,18 +19,30 @@
  */
 package org.freeplane.features.url.mindmapmode;
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.TimerTask;
 
 import org.freeplane.core.resources.ResourceController;
 import org.freeplane.core.util.LogUtils;
 import org.freeplane.core.util.TextUtils;
 import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.MapWriter.Mode;
 import org.freeplane.features.map.mindmapmode.MMapModel;
 import org.freeplane.features.mode.Controller;
 import org.freeplane.features.mode.ModeController;
 import org.freeplane.features.mode.mindmapmode.MModeController;
+import org.freeplane.features.ui.ViewController;
 import org.freeplane.features.url.UrlManager;
 
 public class DoAutomaticSave extends TimerTask {
@@ -41,16 +53,19 @@ public class DoAutomaticSave extends TimerTask {
 	 * automatic saving is performed until the value changes again.
 	 */
 	private int changeState;
+	private static final int NOT_SAVED = Integer.MIN_VALUE;
 	final private boolean filesShouldBeDeletedAfterShutdown;
 	final private MapModel model;
 	final private int numberOfFiles;
 	private final File singleBackupDirectory;
+	private final boolean saveInBackground;
 	static final String BACKUP_DIR = ".backup";
 
 	public DoAutomaticSave(final MapModel model, final int numberOfTempFiles,
 	                       final boolean filesShouldBeDeletedAfterShutdown, boolean useSingleBackupDirectory,
-	                       final String singleBackupDirectory) {
+	                       final String singleBackupDirectory, boolean saveInBackground) {
 		this.model = model;
+		this.saveInBackground = saveInBackground;
 		numberOfFiles = ((numberOfTempFiles > 0) ? numberOfTempFiles : 1);
 		this.filesShouldBeDeletedAfterShutdown = filesShouldBeDeletedAfterShutdown;
 		this.singleBackupDirectory = useSingleBackupDirectory ? new File(singleBackupDirectory) : null;
@@ -68,6 +83,10 @@ public class DoAutomaticSave extends TimerTask {
 			/* map was recently saved. */
 			return;
 		}
+		if (saveInBackground) {
+			saveSnapshotInBackground();
+			return;
+		}
 		try {
 			cancel();
 			Controller.getCurrentController().getViewController().invokeAndWait(new Runnable() {
@@ -80,20 +99,8 @@ public class DoAutomaticSave extends TimerTask {
 						if(!(currentModeController instanceof MModeController))
 							return;
 						MModeController modeController = ((MModeController) currentModeController);
-						final File pathToStore;
-						final URL url = model.getURL();
-						final File file = new File(url != null ? url.getFile() //
-						        : model.getTitle() + UrlManager.FREEPLANE_FILE_EXTENSION);
-						if (url == null) {
-							pathToStore = new File(ResourceController.getResourceController()
-							    .getFreeplaneUserDirectory(), BACKUP_DIR);
-						}
-						else if (singleBackupDirectory != null) {
-							pathToStore = singleBackupDirectory;
-						}
-						else {
-							pathToStore = new File(file.getParent(), BACKUP_DIR);
-						}
+						final File file = getMapFile();
+						final File pathToStore = getPathToStore(file);
 						pathToStore.mkdirs();
 						final File tempFile = MFileManager.renameBackupFiles(pathToStore, file, numberOfFiles,
 						    AUTOSAVE_EXTENSION);
@@ -120,4 +127,105 @@ public class DoAutomaticSave extends TimerTask {
 			LogUtils.severe(e);
 		}
 	}
+
+	private File getMapFile() {
+		final URL url = model.getURL();
+		return new File(url != null ? url.getFile() //
+		        : model.getTitle() + UrlManager.FREEPLANE_FILE_EXTENSION);
+	}
+
+	private File getPathToStore(final File file) {
+		if (model.getURL() == null) {
+			return new File(ResourceController.getResourceController().getFreeplaneUserDirectory(), BACKUP_DIR);
+		}
+		else if (singleBackupDirectory != null) {
+			return singleBackupDirectory;
+		}
+		else {
+			return new File(file.getParent(), BACKUP_DIR);
+		}
+	}
+
+	/**
+	 * Serializes a consistent state of the map into memory and writes it to the automatic save file on the timer thread.
+	 * Changes of the map wait until it is serialized, the event dispatch thread is only used to report the result.
+	 * The timer is not cancelled because a fixed delay task is never run again before it has finished.
+	 */
+	private void saveSnapshotInBackground() {
+		final Controller controller = Controller.getCurrentController();
+		final ViewController viewController = controller.getViewController();
+		final ModeController modeController = controller.getModeController();
+		final File file = getMapFile();
+		if (!(modeController instanceof MModeController) || !file.canWrite()) {
+			return;
+		}
+		final StringWriter snapshot = new StringWriter();
+		try {
+			model.readConsistently(() -> {
+				try {
+					modeController.getMapController().getMapWriter().writeMapAsXml(model, snapshot, Mode.FILE, true,
+					    false);
+					return null;
+				}
+				catch (final IOException e) {
+					throw new RuntimeException(e);
+				}
+			});
+		}
+		catch (final RuntimeException e) {
+			LogUtils.severe("Error in automatic MapModel.save(): ", e);
+			changeState = NOT_SAVED;
+			return;
+		}
+		final File pathToStore = getPathToStore(file);
+		pathToStore.mkdirs();
+		final File tempFile = MFileManager.renameBackupFiles(pathToStore, file, numberOfFiles, AUTOSAVE_EXTENSION);
+		if (tempFile == null) {
+			return;
+		}
+		if (filesShouldBeDeletedAfterShutdown) {
+			tempFile.deleteOnExit();
+		}
+		final String message;
+		if (writeAtomically(snapshot.toString(), pathToStore, tempFile)) {
+			message = TextUtils.format("automatically_save_message", tempFile);
+		}
+		else {
+			message = TextUtils.format("save_failed", tempFile.getName());
+		}
+		viewController.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				viewController.out(message);
+			}
+		});
+	}
+
+	private boolean writeAtomically(final String content, final File directory, final File target) {
+		File writtenFile = null;
+		try {
+			writtenFile = File.createTempFile(AUTOSAVE_EXTENSION, ".tmp", directory);
+			try (final FileOutputStream out = new FileOutputStream(writtenFile)) {
+				final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+				writer.write(content);
+				writer.flush();
+				out.getFD().sync();
+			}
+			try {
+				Files.move(writtenFile.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE,
+				    StandardCopyOption.REPLACE_EXISTING);
+			}
+			catch (final AtomicMoveNotSupportedException e) {
+				Files.move(writtenFile.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			return true;
+		}
+		catch (final IOException e) {
+			LogUtils.warn("Error in automatic MapModel.save(): ", e);
+			if (writtenFile != null) {
+				writtenFile.delete();
+			}
+			return false;
+		}
+	}
 }
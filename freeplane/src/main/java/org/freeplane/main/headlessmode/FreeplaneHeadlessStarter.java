@@ -41,12 +41,14 @@ import org.freeplane.features.text.TextController;
 import org.freeplane.features.time.TimeController;
 import org.freeplane.main.application.ApplicationResourceController;
 import org.freeplane.main.application.FreeplaneStarter;
+import org.freeplane.main.mindmapmode.stylemode.ExtensionInstaller;
 import org.freeplane.view.swing.features.nodehistory.NodeHistory;
 
 public class FreeplaneHeadlessStarter implements FreeplaneStarter {
 
 	private ApplicationResourceController applicationResourceController;
 	private HeadlessUIController viewController;
+	private ExtensionInstaller extensionInstaller;
 // // 	private Controller controller;
 	/** allows to disable loadLastMap(s) if there already is a second instance running. */
 	public FreeplaneHeadlessStarter() {
@@ -66,27 +68,8 @@ public class FreeplaneHeadlessStarter implements FreeplaneStarter {
 			applicationResourceController.init();
 			LogInitializer.createLogger();
 			ApplicationResourceController.showSysInfo();
-			final HeadlessMapViewController mapViewController = new HeadlessMapViewController();
-			controller.setMapViewManager(mapViewController);
-			viewController = new HeadlessUIController(controller, mapViewController, "");
-			controller.setViewController(viewController);
-			controller.addExtension(HighlightController.class, new HighlightController());
-			FilterController.install();
-			FormatController.install(new FormatController());
-	        final ScannerController scannerController = new ScannerController();
-	        ScannerController.install(scannerController);
-	        scannerController.addParsersForStandardFormats();
-			ModelessAttributeController.install();
-			TextController.install();
-			TimeController.install();
-			LinkController.install();
-			IconController.installConditionControllers();
-			HelpController.install();
-			FilterController.getCurrentFilterController().getConditionFactory().addConditionController(70,
-			    new LogicalStyleFilterController());
-			MapController.install();
-
-			NodeHistory.install(controller);
+			viewController = installControllerExtensions(controller);
+			controller.addExtension(WorkerControllerPoolFactory.class, new WorkerControllerPoolFactory(this));
 			return controller;
 		}
 		catch (final Exception e) {
@@ -95,6 +78,57 @@ public class FreeplaneHeadlessStarter implements FreeplaneStarter {
 		}
 	}
 
+	private HeadlessUIController installControllerExtensions(Controller controller) {
+		final HeadlessMapViewController mapViewController = new HeadlessMapViewController();
+		controller.setMapViewManager(mapViewController);
+		final HeadlessUIController viewController = new HeadlessUIController(controller, mapViewController, "");
+		controller.setViewController(viewController);
+		controller.addExtension(HighlightController.class, new HighlightController());
+		FilterController.install();
+		FormatController.install(new FormatController());
+        final ScannerController scannerController = new ScannerController();
+        ScannerController.install(scannerController);
+        scannerController.addParsersForStandardFormats();
+		ModelessAttributeController.install();
+		TextController.install();
+		TimeController.install();
+		LinkController.install();
+		IconController.installConditionControllers();
+		HelpController.install();
+		FilterController.getCurrentFilterController().getConditionFactory().addConditionController(70,
+		    new LogicalStyleFilterController());
+		MapController.install();
+
+		NodeHistory.install(controller);
+		return viewController;
+	}
+
+	/**
+	 * Creates a controller with its own mode controller, map view manager and main thread sharing
+	 * the resource controller of the application. Its main thread is bound to it, so that
+	 * {@link Controller#getCurrentController()} returns it for all tasks executed by the main thread.
+	 */
+	Controller createWorkerController() {
+		final Controller controller = new Controller(applicationResourceController);
+		final Controller previousController = Controller.setCurrentThreadController(controller);
+		try {
+			installControllerExtensions(controller);
+			createModeControllers(controller);
+			if(extensionInstaller != null)
+				extensionInstaller.installExtensions(controller);
+			controller.selectModeForBuild(controller.getModeController(MModeController.MODENAME));
+			controller.fireStartupFinished();
+			return controller;
+		}
+		finally {
+			Controller.setCurrentThreadController(previousController);
+		}
+	}
+
+	public void setExtensionInstaller(ExtensionInstaller extensionInstaller) {
+		this.extensionInstaller = extensionInstaller;
+	}
+
 	@Override
 	public void createModeControllers(final Controller controller) {
 		HeadlessMModeControllerFactory.createModeController();
@@ -71,17 +71,8 @@ import org.freeplane.view.swing.ui.UserInputListenerFactory;
  * @author Dimitry Polivaev 24.11.2008
  */
 public class HeadlessMModeControllerFactory {
-	private static HeadlessMModeControllerFactory instance;
-
 	public static MModeController createModeController() {
-		return HeadlessMModeControllerFactory.getInstance().createModeControllerImpl();
-	}
-
-	private static HeadlessMModeControllerFactory getInstance() {
-		if (instance == null) {
-			instance = new HeadlessMModeControllerFactory();
-		}
-		return instance;
+		return new HeadlessMModeControllerFactory().createModeControllerImpl();
 	}
 
 	// // 	private Controller controller;
@@ -34,6 +34,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import javax.swing.*;
 
@@ -147,6 +148,17 @@ public class HeadlessMapViewController implements IMapViewManager {
 		throw new RuntimeException("Method not implemented");
 	}
 
+	@Override
+	public void processImage(int dpi, Consumer<RenderedImage> imageProcessor) {
+		throw new RuntimeException("Method not implemented");
+	}
+
+	@Override
+	public void processImage(final Dimension slideSize, NodeModel placedNode, NodePosition placedNodePosition, int dpi,
+	                         Consumer<RenderedImage> imageProcessor) {
+		throw new RuntimeException("Method not implemented");
+	}
+
 	@Override
 	public Color getBackgroundColor(NodeModel node) {
 		throw new RuntimeException("Method not implemented");
@@ -46,18 +46,25 @@ import org.freeplane.features.ui.IMapViewManager;
  * 24.12.2012
  */
 public class HeadlessUIController extends FrameController {
-	final private static AtomicLong workingThreadId = new AtomicLong();
-	final private static ExecutorService executorService = Executors.newSingleThreadExecutor(new ThreadFactory() {
-		@Override
-		public Thread newThread(Runnable r) {
-			final Thread thread = Executors.defaultThreadFactory().newThread(r);
-			workingThreadId.set(thread.getId());
-			return thread;
-		}
-	});
+	final private AtomicLong workingThreadId = new AtomicLong();
+	final private ExecutorService executorService;
 
-	public HeadlessUIController(Controller controller, IMapViewManager mapViewManager, String propertyKeyPrefix) {
+	public HeadlessUIController(final Controller controller, IMapViewManager mapViewManager, String propertyKeyPrefix) {
 		super(controller, mapViewManager, propertyKeyPrefix);
+		executorService = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable r) {
+				final Thread thread = Executors.defaultThreadFactory().newThread(new Runnable() {
+					@Override
+					public void run() {
+						Controller.setCurrentThreadController(controller);
+						r.run();
+					}
+				});
+				workingThreadId.set(thread.getId());
+				return thread;
+			}
+		});
 	}
 
 	public Rectangle getFrameSize() {
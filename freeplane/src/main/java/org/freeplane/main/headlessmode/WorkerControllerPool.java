@@ -0,0 +1,95 @@
+package org.freeplane.main.headlessmode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Headless workers executing tasks in parallel.
+ *
+ * Each worker has its own controller and mode controller and executes its tasks on the main thread of its controller,
+ * so that maps loaded by a task belong to the worker executing it and are never shared with other workers.
+ * A submitted task is given to the worker with the least pending tasks.
+ */
+public class WorkerControllerPool implements AutoCloseable {
+	private static class Worker {
+		private final ExecutorService executorService;
+		private final AtomicInteger pendingTasks = new AtomicInteger();
+
+		Worker(ExecutorService executorService) {
+			this.executorService = executorService;
+		}
+
+		<T> Future<T> submit(final Callable<T> task) {
+			pendingTasks.incrementAndGet();
+			try {
+				return executorService.submit(() -> {
+					try {
+						return task.call();
+					}
+					finally {
+						pendingTasks.decrementAndGet();
+					}
+				});
+			}
+			catch (RuntimeException e) {
+				pendingTasks.decrementAndGet();
+				throw e;
+			}
+		}
+	}
+
+	private final List<Worker> workers;
+
+	/**
+	 * @param mainThreadFactory creates the worker controllers and returns executor services of their main threads
+	 */
+	WorkerControllerPool(int workerCount, Supplier<ExecutorService> mainThreadFactory) {
+		if (workerCount <= 0)
+			throw new IllegalArgumentException("Worker count must be positive, got " + workerCount);
+		workers = new ArrayList<>(workerCount);
+		for (int i = 0; i < workerCount; i++)
+			workers.add(new Worker(mainThreadFactory.get()));
+	}
+
+	public int getWorkerCount() {
+		return workers.size();
+	}
+
+	public <T> Future<T> submit(Callable<T> task) {
+		return leastBusyWorker().submit(task);
+	}
+
+	private Worker leastBusyWorker() {
+		Worker leastBusyWorker = workers.get(0);
+		int leastPendingTasks = leastBusyWorker.pendingTasks.get();
+		for (int i = 1; i < workers.size() && leastPendingTasks > 0; i++) {
+			final Worker worker = workers.get(i);
+			final int pendingTasks = worker.pendingTasks.get();
+			if (pendingTasks < leastPendingTasks) {
+				leastBusyWorker = worker;
+				leastPendingTasks = pendingTasks;
+			}
+		}
+		return leastBusyWorker;
+	}
+
+	/** Waits until all submitted tasks complete and stops the worker threads. */
+	@Override
+	public void close() {
+		for (Worker worker : workers)
+			worker.executorService.shutdown();
+		try {
+			for (Worker worker : workers)
+				worker.executorService.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
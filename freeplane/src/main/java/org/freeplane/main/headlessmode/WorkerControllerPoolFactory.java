@@ -0,0 +1,18 @@
+package org.freeplane.main.headlessmode;
+
+import org.freeplane.core.extension.IExtension;
+
+/**
+ * Creates pools of headless workers, installed as extension of the controller of a headless application.
+ */
+public class WorkerControllerPoolFactory implements IExtension {
+	private final FreeplaneHeadlessStarter starter;
+
+	WorkerControllerPoolFactory(FreeplaneHeadlessStarter starter) {
+		this.starter = starter;
+	}
+
+	public WorkerControllerPool createPool(int workerCount) {
+		return new WorkerControllerPool(workerCount, () -> starter.createWorkerController().getMainThreadExecutorService());
+	}
+}
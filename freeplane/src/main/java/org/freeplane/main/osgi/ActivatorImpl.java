@@ -272,6 +272,8 @@ class ActivatorImpl implements BundleActivator {
 	private void installControllerExtensions(final BundleContext context, final Controller controller) {
 		final ExtensionInstaller osgiExtentionInstaller = new OsgiExtentionInstaller(context);
 		SModeControllerFactory.getInstance().setExtensionInstaller(osgiExtentionInstaller);
+		if(starter instanceof FreeplaneHeadlessStarter)
+			((FreeplaneHeadlessStarter) starter).setExtensionInstaller(osgiExtentionInstaller);
 		osgiExtentionInstaller.installExtensions(controller);
 	}
 	
@@ -20,10 +20,8 @@
 package org.freeplane.view.swing.features.time.mindmapmode;
 
 import java.util.Date;
-import java.util.Timer;
 
 import org.freeplane.core.extension.IExtension;
-import org.freeplane.core.util.SysUtils;
 import org.freeplane.features.map.IMapChangeListener;
 import org.freeplane.features.map.MapChangeEvent;
 import org.freeplane.features.map.NodeDeletionEvent;
@@ -46,9 +44,10 @@ public class ReminderExtension implements IExtension, IMapChangeListener {
 	private long remindUserAt = 0;
 	private PeriodUnit periodUnit;
 	private int period;
-	private Timer timer;
+	private ReminderScheduler scheduler;
 	private String script;
 	private TimerBlinkTask task;
+	private boolean timerSuspended;
 
 	public ReminderExtension(final NodeModel node) {
 		this.node = node;
@@ -99,21 +98,27 @@ public class ReminderExtension implements IExtension, IMapChangeListener {
     	this.script = script;
     }
 
-	public void scheduleTimer(final TimerBlinkTask task, final Date date) {
-		if (timer == null) {
-			timer = SysUtils.createTimer(getClass().getSimpleName());
-		}
-		timer.schedule(task, date, BLINKING_PERIOD);
+	public void scheduleTimer(final ReminderScheduler scheduler, final TimerBlinkTask task, final Date date) {
+		this.scheduler = scheduler;
+		scheduler.schedule(this, task, date.getTime(), BLINKING_PERIOD);
 		this.task = task;
 	}
 
 	public void deactivateTimer() {
-		if (timer == null) {
+		if (scheduler == null) {
 			return;
 		}
-		timer.cancel();
-		timer = null;
+		scheduler.cancel(this);
+		scheduler = null;
 		task = null;
+		timerSuspended = false;
+	}
+
+	/**
+	 * @return true if the node is part of its map, i.e. it was neither deleted nor cut
+	 */
+	public boolean isNodeAttached() {
+		return node.isRoot() || node.isDescendantOf(node.getMap().getRootNode());
 	}
 
 	private void displayStateIcon(final NodeModel parent, final ClockState state) {
@@ -135,6 +140,10 @@ public class ReminderExtension implements IExtension, IMapChangeListener {
 	@Override
 	public void onNodeInserted(final NodeModel parent, final NodeModel child, final int newIndex) {
 		displayStateIcon(parent, ClockState.CLOCK_VISIBLE);
+		if (timerSuspended && isAncestorNode(child)) {
+			timerSuspended = false;
+			scheduler.schedule(this, task, remindUserAt, BLINKING_PERIOD);
+		}
 	}
 
 	@Override
@@ -158,6 +167,11 @@ public class ReminderExtension implements IExtension, IMapChangeListener {
 
 	@Override
 	public void onNodeDeleted(NodeDeletionEvent nodeDeletionEvent) {
+		// the timer of a deleted or cut node is resumed when the node is inserted again, e.g. by undo
+		if (scheduler != null && !timerSuspended && isAncestorNode(nodeDeletionEvent.node)) {
+			timerSuspended = true;
+			scheduler.cancel(this);
+		}
 	}
 
 	public void displayState(final ClockState stateAdded, final NodeModel pNode,
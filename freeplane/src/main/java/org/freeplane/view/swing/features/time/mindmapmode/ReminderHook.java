@@ -44,6 +44,7 @@ import org.freeplane.features.icon.IconController;
 import org.freeplane.features.icon.IconStore;
 import org.freeplane.features.icon.UIIcon;
 import org.freeplane.features.icon.factory.IconStoreFactory;
+import org.freeplane.features.map.IMapLifeCycleListener;
 import org.freeplane.features.map.INodeChangeListener;
 import org.freeplane.features.map.INodeSelectionListener;
 import org.freeplane.features.map.ITooltipProvider;
@@ -123,6 +124,7 @@ public class ReminderHook extends PersistentNodeHook implements IExtension {
 	static final String SCRIPT = "SCRIPT";
 	private static final Integer REMINDER_TOOLTIP = 12;
 	private ModeController modeController;
+	private final ReminderScheduler scheduler = new ReminderScheduler();
 
 	/**
 	 *
@@ -137,6 +139,7 @@ public class ReminderHook extends PersistentNodeHook implements IExtension {
 		registerAction(new AllMapsNodeListAction());
 		registerTooltipProvider();
 		registerStateIconProvider();
+		registerMapLifeCycleListener();
 
 		FilterController.getCurrentFilterController().getConditionFactory().addConditionController(90,
 			new ReminderConditionController());
@@ -197,6 +200,19 @@ public class ReminderHook extends PersistentNodeHook implements IExtension {
 		}
 		return flagIcon;
 	}
+	private void registerMapLifeCycleListener() {
+		modeController.getMapController().addMapLifeCycleListener(new IMapLifeCycleListener() {
+			@Override
+			public void onRemove(MapModel map) {
+				scheduler.removeIf(reminder -> reminder.getNode().getMap() == map);
+			}
+		});
+	}
+
+	public ReminderScheduler getScheduler() {
+		return scheduler;
+	}
+
 	private void registerTooltipProvider() {
 		modeController.addToolTipProvider(REMINDER_TOOLTIP, new ITooltipProvider() {
 			@Override
@@ -289,6 +305,7 @@ public class ReminderHook extends PersistentNodeHook implements IExtension {
 	public void remove(final NodeModel node, final IExtension extension) {
 		final ReminderExtension reminderExtension = (ReminderExtension) extension;
 		reminderExtension.deactivateTimer();
+		scheduler.remove(reminderExtension);
 		reminderExtension.displayState(null, reminderExtension.getNode(), true);
 		final MapController mapController = modeController.getMapController();
 		mapController.removeMapChangeListener(reminderExtension);
@@ -326,7 +343,7 @@ public class ReminderHook extends PersistentNodeHook implements IExtension {
 
 	private void scheduleTimer(final ReminderExtension model, final TimerBlinkTask task) {
 		final Date date = new Date(model.getRemindUserAt());
-		model.scheduleTimer(task, date);
+		model.scheduleTimer(scheduler, task, date);
 	}
 
 	ModeController getModeController() {
@@ -0,0 +1,220 @@
+package org.freeplane.view.swing.features.time.mindmapmode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.freeplane.core.util.LogUtils;
+
+/**
+ * Executes the tasks of the reminders of all maps on a single thread.
+ *
+ * Scheduled reminders are kept in a binary heap ordered by their next execution time.
+ * Each heap entry knows its position, so that scheduling, rescheduling and cancelling a reminder take logarithmic time.
+ * Reminders stay registered after their task is cancelled until they are removed,
+ * so that reminder lists are built from the registered reminders instead of traversing all nodes of all maps.
+ */
+public class ReminderScheduler {
+	private static final int NOT_SCHEDULED = -1;
+
+	private static class ScheduledReminder {
+		final ReminderExtension reminder;
+		Runnable task;
+		long executionTime;
+		long period;
+		int heapIndex = NOT_SCHEDULED;
+
+		ScheduledReminder(ReminderExtension reminder) {
+			this.reminder = reminder;
+		}
+
+		boolean isScheduled() {
+			return heapIndex != NOT_SCHEDULED;
+		}
+	}
+
+	private final Map<ReminderExtension, ScheduledReminder> reminders = new IdentityHashMap<>();
+	private ScheduledReminder[] heap = new ScheduledReminder[16];
+	private int size = 0;
+	private Thread thread;
+
+	/**
+	 * Registers the reminder and executes its task at the given time and then repeatedly after each period,
+	 * a previously scheduled task of the reminder is replaced.
+	 */
+	synchronized void schedule(ReminderExtension reminder, Runnable task, long executionTime, long period) {
+		final ScheduledReminder scheduledReminder = reminders.computeIfAbsent(reminder, ScheduledReminder::new);
+		scheduledReminder.task = task;
+		scheduledReminder.executionTime = executionTime;
+		scheduledReminder.period = period;
+		if (scheduledReminder.isScheduled())
+			reorder(scheduledReminder.heapIndex);
+		else
+			insert(scheduledReminder);
+		startThread();
+		notifyAll();
+	}
+
+	/** Cancels the task of the reminder which stays registered. */
+	synchronized void cancel(ReminderExtension reminder) {
+		final ScheduledReminder scheduledReminder = reminders.get(reminder);
+		if (scheduledReminder != null)
+			cancel(scheduledReminder);
+	}
+
+	synchronized void remove(ReminderExtension reminder) {
+		final ScheduledReminder scheduledReminder = reminders.remove(reminder);
+		if (scheduledReminder != null)
+			cancel(scheduledReminder);
+	}
+
+	synchronized void removeIf(Predicate<ReminderExtension> condition) {
+		for (final Iterator<ScheduledReminder> iterator = reminders.values().iterator(); iterator.hasNext();) {
+			final ScheduledReminder scheduledReminder = iterator.next();
+			if (condition.test(scheduledReminder.reminder)) {
+				iterator.remove();
+				cancel(scheduledReminder);
+			}
+		}
+	}
+
+	/** @return registered reminders accepted by the filter ordered by their reminder time */
+	public synchronized List<ReminderExtension> getReminders(Predicate<ReminderExtension> filter) {
+		final List<ReminderExtension> acceptedReminders = new ArrayList<>();
+		for (ReminderExtension reminder : reminders.keySet()) {
+			if (filter.test(reminder))
+				acceptedReminders.add(reminder);
+		}
+		acceptedReminders.sort(Comparator.comparingLong(ReminderExtension::getRemindUserAt));
+		return acceptedReminders;
+	}
+
+	private void cancel(ScheduledReminder scheduledReminder) {
+		if (scheduledReminder.isScheduled())
+			removeFromHeap(scheduledReminder);
+		scheduledReminder.task = null;
+	}
+
+	private void startThread() {
+		if (thread != null)
+			return;
+		thread = new Thread(this::executeTasks, getClass().getSimpleName());
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private void executeTasks() {
+		try {
+			for (;;) {
+				final Runnable task = waitForNextTask();
+				try {
+					task.run();
+				}
+				catch (RuntimeException e) {
+					LogUtils.severe(e);
+				}
+			}
+		}
+		catch (InterruptedException e) {
+		}
+		finally {
+			onThreadTerminated();
+		}
+	}
+
+	/**
+	 * A task failing with an error terminates the thread, a new thread executes the remaining tasks.
+	 */
+	private synchronized void onThreadTerminated() {
+		thread = null;
+		if (size > 0)
+			startThread();
+	}
+
+	private synchronized Runnable waitForNextTask() throws InterruptedException {
+		for (;;) {
+			if (size == 0) {
+				wait();
+				continue;
+			}
+			final ScheduledReminder next = heap[0];
+			final long currentTime = System.currentTimeMillis();
+			if (next.executionTime > currentTime) {
+				wait(next.executionTime - currentTime);
+				continue;
+			}
+			final Runnable task = next.task;
+			if (next.period > 0) {
+				next.executionTime = currentTime + next.period;
+				siftDown(0);
+			}
+			else
+				cancel(next);
+			return task;
+		}
+	}
+
+	private void insert(ScheduledReminder scheduledReminder) {
+		if (size == heap.length)
+			heap = Arrays.copyOf(heap, 2 * size);
+		place(scheduledReminder, size++);
+		siftUp(scheduledReminder.heapIndex);
+	}
+
+	private void removeFromHeap(ScheduledReminder scheduledReminder) {
+		final int index = scheduledReminder.heapIndex;
+		scheduledReminder.heapIndex = NOT_SCHEDULED;
+		final ScheduledReminder last = heap[--size];
+		heap[size] = null;
+		if (index < size) {
+			place(last, index);
+			reorder(index);
+		}
+	}
+
+	private void reorder(int index) {
+		final ScheduledReminder scheduledReminder = heap[index];
+		siftUp(index);
+		siftDown(scheduledReminder.heapIndex);
+	}
+
+	private void siftUp(int index) {
+		final ScheduledReminder scheduledReminder = heap[index];
+		while (index > 0) {
+			final int parentIndex = (index - 1) >>> 1;
+			final ScheduledReminder parent = heap[parentIndex];
+			if (parent.executionTime <= scheduledReminder.executionTime)
+				break;
+			place(parent, index);
+			index = parentIndex;
+		}
+		place(scheduledReminder, index);
+	}
+
+	private void siftDown(int index) {
+		final ScheduledReminder scheduledReminder = heap[index];
+		for (;;) {
+			int childIndex = 2 * index + 1;
+			if (childIndex >= size)
+				break;
+			if (childIndex + 1 < size && heap[childIndex + 1].executionTime < heap[childIndex].executionTime)
+				childIndex++;
+			final ScheduledReminder child = heap[childIndex];
+			if (child.executionTime >= scheduledReminder.executionTime)
+				break;
+			place(child, index);
+			index = childIndex;
+		}
+		place(scheduledReminder, index);
+	}
+
+	private void place(ScheduledReminder scheduledReminder, int index) {
+		heap[index] = scheduledReminder;
+		scheduledReminder.heapIndex = index;
+	}
+}
@@ -19,8 +19,6 @@
  */
 package org.freeplane.view.swing.features.time.mindmapmode;
 
-import java.util.TimerTask;
-
 import javax.swing.SwingUtilities;
 
 import org.freeplane.core.resources.ResourceController;
@@ -30,7 +28,7 @@ import org.freeplane.core.resources.ResourceController;
  * @author Dimitry Polivaev
  * Feb 20, 2009
  */
-class TimerBlinkTask extends TimerTask {
+class TimerBlinkTask implements Runnable {
 	private final ReminderHook reminderController;
 	/**
 	 *
@@ -45,7 +43,6 @@ class TimerBlinkTask extends TimerTask {
 	 */
 	public TimerBlinkTask(final ReminderHook reminderController, final ReminderExtension reminderExtension,
 	                      final boolean stateAdded, boolean reminderTimeInTheFuture) {
-		super();
 		this.reminderController = reminderController;
 		this.reminderExtension = reminderExtension;
 		this.stateAdded = stateAdded;
@@ -59,6 +56,8 @@ class TimerBlinkTask extends TimerTask {
 
 			@Override
 			public void run() {
+				if(! reminderExtension.isNodeAttached())
+					return;
 				if(reminderTimeInTheFuture && reminderExtension.containsScript()){
 					reminderTimeInTheFuture = false;
 					reminderController.runScript(reminderExtension);
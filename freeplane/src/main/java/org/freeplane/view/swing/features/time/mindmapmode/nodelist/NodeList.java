@@ -34,6 +34,8 @@ import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.EventListener;
 import java.util.HashSet;
@@ -700,19 +702,20 @@ class NodeList {
 	}
 
 	private void fillTableModel(final DefaultTableModel model, NodeFilter nodeFilter) {
+		for (final MapModel map : getSearchedMaps()) {
+			final NodeModel node = map.getRootNode();
+			fillModel(model, node, nodeFilter);
+		}
+	}
+
+	protected Collection<MapModel> getSearchedMaps() {
 		if (searchInAllMaps == false) {
 			final MapModel map = Controller.getCurrentController().getMap();
-			if(map != null) {
-				final NodeModel node = map.getRootNode();
-				fillModel(model, node, nodeFilter);
-			}
+			return map != null ? Collections.singletonList(map) : Collections.<MapModel>emptyList();
 		}
 		else {
 			final Map<String, MapModel> maps = Controller.getCurrentController().getMapViewManager().getMaps(MModeController.MODENAME);
-			for (final MapModel map : maps.values()) {
-				final NodeModel node = map.getRootNode();
-				fillModel(model, node, nodeFilter);
-			}
+			return maps.values();
 		}
 	}
 
@@ -3,6 +3,10 @@ package org.freeplane.view.swing.features.time.mindmapmode.nodelist;
 import java.awt.Component;
 import java.awt.Container;
 import java.awt.event.ActionEvent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
 
 import javax.swing.AbstractAction;
 import javax.swing.JButton;
@@ -11,6 +15,7 @@ import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 
 import org.freeplane.core.util.TextUtils;
+import org.freeplane.features.map.MapModel;
 import org.freeplane.features.map.NodeModel;
 import org.freeplane.features.mode.Controller;
 import org.freeplane.view.swing.features.time.mindmapmode.ReminderExtension;
@@ -22,6 +27,22 @@ public class NodeListWithReminders extends NodeList{
 		super(windowTitle, searchInAllMaps, windowPreferenceStorageProperty);
 	}
 
+	/**
+	 * Shows the nodes of the searched maps having reminders accepted by the filter, deleted or cut nodes are skipped.
+	 * The reminders are taken from the reminder scheduler instead of traversing all nodes.
+	 */
+	public void startup(Predicate<ReminderExtension> reminderFilter) {
+		final ReminderHook reminderHook = Controller.getCurrentModeController().getExtension(ReminderHook.class);
+		final Collection<MapModel> maps = getSearchedMaps();
+		final List<NodeModel> nodes = new ArrayList<>();
+		for (ReminderExtension reminder : reminderHook.getScheduler().getReminders(
+		    reminder -> maps.contains(reminder.getNode().getMap()) && reminder.isNodeAttached() && reminderFilter.test(reminder))) {
+			for (NodeModel node : reminder.getNode().allClones())
+				nodes.add(node);
+		}
+		startup(nodes);
+	}
+
 	@Override
 	protected void createSpecificButtons(final Container container) {
 		final AbstractAction runAllAction = new AbstractAction(TextUtils
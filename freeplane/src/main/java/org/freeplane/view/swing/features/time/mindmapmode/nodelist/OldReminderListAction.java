@@ -12,7 +12,7 @@ public class OldReminderListAction extends AFreeplaneAction {
 	/**
 	 *
 	 */
-	private final NodeList timeList;
+	private final NodeListWithReminders timeList;
 
 	public OldReminderListAction() {
 		super("OldReminderListAction");
@@ -23,6 +23,6 @@ public class OldReminderListAction extends AFreeplaneAction {
 	@Override
 	public void actionPerformed(final ActionEvent e) {
 		long currentTimeMillis = System.currentTimeMillis();
-		timeList.startup((node, reminder) -> reminder != null && reminder.getRemindUserAt() <= currentTimeMillis);
+		timeList.startup(reminder -> reminder.getRemindUserAt() <= currentTimeMillis);
 	}
 }
\ No newline at end of file
@@ -12,7 +12,7 @@ public class ReminderListAction extends AFreeplaneAction {
 	/**
 	 *
 	 */
-	private final NodeList timeList;
+	private final NodeListWithReminders timeList;
 
 	public ReminderListAction() {
 		super("ReminderListAction");
@@ -22,6 +22,6 @@ public class ReminderListAction extends AFreeplaneAction {
 
 	@Override
 	public void actionPerformed(final ActionEvent e) {
-		timeList.startup((node, reminder) -> reminder != null);
+		timeList.startup(reminder -> true);
 	}
 }
\ No newline at end of file
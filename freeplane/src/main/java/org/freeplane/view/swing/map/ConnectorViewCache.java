@@ -0,0 +1,96 @@
+package org.freeplane.view.swing.map;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Vector;
+
+import org.freeplane.view.swing.map.link.ILinkView;
+
+/**
+ * Connector views of a map view kept between repaints.
+ *
+ * The views are collected for an area around the visible part of the map and indexed by a grid
+ * of their painted bounds, so that a repaint only paints the connectors intersecting its clip.
+ * The cache is used as long as the map view layout, the connectors, the connector display settings
+ * and, if connectors are only shown for selected nodes, the selection stay the same.
+ */
+class ConnectorViewCache {
+	private static final int CELL_SIZE = 256;
+
+	private final Vector<ILinkView> views;
+	private final Rectangle collectedArea;
+	private final String showConnectors;
+	private final boolean hideSingleEndConnectors;
+	private final Color background;
+	private final Map<Long, BitSet> cells;
+	private final BitSet viewsWithoutBounds;
+
+	ConnectorViewCache(Vector<ILinkView> views, Rectangle collectedArea, String showConnectors,
+	                   boolean hideSingleEndConnectors, Color background) {
+		this.views = views;
+		this.collectedArea = collectedArea;
+		this.showConnectors = showConnectors;
+		this.hideSingleEndConnectors = hideSingleEndConnectors;
+		this.background = background;
+		this.cells = new HashMap<>();
+		this.viewsWithoutBounds = new BitSet();
+		for (int i = 0; i < views.size(); i++) {
+			final Rectangle bounds = views.get(i).getPaintedBounds();
+			if (bounds == null || bounds.isEmpty()) {
+				viewsWithoutBounds.set(i);
+				continue;
+			}
+			for (int cellX = cell(bounds.x); cellX <= cell(bounds.x + bounds.width); cellX++) {
+				for (int cellY = cell(bounds.y); cellY <= cell(bounds.y + bounds.height); cellY++)
+					cells.computeIfAbsent(key(cellX, cellY), key -> new BitSet()).set(i);
+			}
+		}
+	}
+
+	private static int cell(int coordinate) {
+		return Math.floorDiv(coordinate, CELL_SIZE);
+	}
+
+	private static long key(int cellX, int cellY) {
+		return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+	}
+
+	boolean canPaint(Rectangle requiredArea, String showConnectors, boolean hideSingleEndConnectors, Color background) {
+		return collectedArea.contains(requiredArea) && this.showConnectors == showConnectors
+		        && this.hideSingleEndConnectors == hideSingleEndConnectors && Objects.equals(this.background, background);
+	}
+
+	/** Paints the views intersecting the clip in the order they were collected. */
+	void paint(Graphics2D graphics) {
+		final Rectangle clip = graphics.getClipBounds();
+		if (clip == null) {
+			for (ILinkView view : views)
+				view.paint(graphics);
+			return;
+		}
+		final BitSet paintedViews = (BitSet) viewsWithoutBounds.clone();
+		for (int cellX = cell(clip.x); cellX <= cell(clip.x + clip.width); cellX++) {
+			for (int cellY = cell(clip.y); cellY <= cell(clip.y + clip.height); cellY++) {
+				final BitSet cellViews = cells.get(key(cellX, cellY));
+				if (cellViews != null)
+					paintedViews.or(cellViews);
+			}
+		}
+		final List<ILinkView> intersectingViews = new ArrayList<>(paintedViews.cardinality());
+		for (int i = paintedViews.nextSetBit(0); i >= 0; i = paintedViews.nextSetBit(i + 1)) {
+			final ILinkView view = views.get(i);
+			final Rectangle bounds = view.getPaintedBounds();
+			if (bounds == null || bounds.isEmpty() || bounds.intersects(clip))
+				intersectingViews.add(view);
+		}
+		for (ILinkView view : intersectingViews)
+			view.paint(graphics);
+	}
+}
@@ -67,6 +67,8 @@ import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JViewport;
 import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 
 import org.freeplane.core.extension.Configurable;
 import org.freeplane.core.extension.HighlightedElements;
@@ -554,6 +556,7 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 	private static final String SHOW_ICONS_PROPERTY = "show_icons";
 	private static final String OUTLINE_VIEW_FITS_WINDOW_WIDTH = "outline_view_fits_window_width";
 	private static final String OUTLINE_HGAP_PROPERTY = "outline_hgap";
+	private static final String VIRTUALIZE_NODE_VIEWS_PROPERTY = "virtualize_node_views";
 
 	static private final PropertyChangeListener repaintOnClientPropertyChangeListener = new PropertyChangeListener() {
 		@Override
@@ -569,6 +572,8 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 	static Color standardSelectRectangleColor;
 	/** Used to identify a right click onto a link curve. */
 	private Vector<ILinkView> arrowLinkViews;
+	private ConnectorViewCache connectorViewCache;
+	private final NodeViewPlaceholders nodeViewPlaceholders = new NodeViewPlaceholders();
 	private Color background = null;
 	private JComponent backgroundComponent;
 	private Rectangle boundingRectangle = null;
@@ -600,8 +605,11 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 	private static Color spotlightBackgroundColor;
 	private static int outlineHGap;
 	private static boolean outlineViewFitsWindowWidth;
+	private static boolean virtualizeNodeViews;
+	private static final int MAXIMAL_PLACEHOLDER_REALIZATION_PASSES = 4;
 
 	final private ComponentAdapter viewportSizeChangeListener;
+	final private ChangeListener viewportPositionChangeListener;
 	private final INodeChangeListener connectorChangeListener;
 	public static final String SPOTLIGHT_ENABLED = "spotlight";
 
@@ -627,6 +635,7 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 			showIcons = resourceController.getBooleanProperty(SHOW_ICONS_PROPERTY);
 			outlineHGap = resourceController.getLengthProperty(OUTLINE_HGAP_PROPERTY);
 			outlineViewFitsWindowWidth = resourceController.getBooleanProperty(OUTLINE_VIEW_FITS_WINDOW_WIDTH);
+			virtualizeNodeViews = resourceController.getBooleanProperty(VIRTUALIZE_NODE_VIEWS_PROPERTY);
 
 			createPropertyChangeListener();
 	}
@@ -676,12 +685,20 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 		final String fitToViewportAsString = MapStyle.getController(modeController).getPropertySetDefault(model,
 		    MapStyle.FIT_TO_VIEWPORT);
 		fitToViewport = Boolean.parseBoolean(fitToViewportAsString);
+		viewportPositionChangeListener = new ChangeListener() {
+			@Override
+			public void stateChanged(ChangeEvent e) {
+				realizeVisiblePlaceholders();
+			}
+		};
 		connectorChangeListener = new INodeChangeListener() {
 			@Override
 			public void nodeChanged(final NodeChangeEvent event) {
 				if(NodeLinks.CONNECTOR.equals(event.getProperty()) &&
-						event.getNode().getMap().equals(getModel()))
+						event.getNode().getMap().equals(getModel())) {
+					connectorViewCache = null;
 					repaint();
+				}
 			}
 		};
 		addPropertyChangeListener(SPOTLIGHT_ENABLED, repaintOnClientPropertyChangeListener);
@@ -724,12 +741,16 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 	    super.addNotify();
 	    modeController.getMapController().addUINodeChangeListener(connectorChangeListener);
 	    getParent().addComponentListener(viewportSizeChangeListener);
+	    if(getParent() instanceof JViewport)
+	    	((JViewport) getParent()).addChangeListener(viewportPositionChangeListener);
     }
 
 	@Override
     public void removeNotify() {
 		modeController.getMapController().removeNodeChangeListener(connectorChangeListener);
 		getParent().removeComponentListener(viewportSizeChangeListener);
+		if(getParent() instanceof JViewport)
+			((JViewport) getParent()).removeChangeListener(viewportPositionChangeListener);
 	    super.removeNotify();
     }
 
@@ -805,6 +826,14 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 					}
 					return;
 				}
+				if(propertyName.equals(VIRTUALIZE_NODE_VIEWS_PROPERTY)) {
+					virtualizeNodeViews = ResourceController.getResourceController().getBooleanProperty(VIRTUALIZE_NODE_VIEWS_PROPERTY);
+					if (!virtualizeNodeViews && mapView.nodeViewPlaceholders.realizeAll()) {
+						mapView.revalidate();
+						mapView.repaint();
+					}
+					return;
+				}
 			}
 		};
 		ResourceController.getResourceController().addPropertyChangeListener(MapView.propertyChangeListener);
@@ -817,8 +846,10 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 	}
 
 	private void onSelectionChange(final NodeView node) {
-		if(SHOW_CONNECTORS_FOR_SELECTION == showConnectors)
+		if(SHOW_CONNECTORS_FOR_SELECTION == showConnectors) {
+			connectorViewCache = null;
 			repaint(getVisibleRect());
+		}
 		else
 			node.repaintSelected();
 	}
@@ -1243,6 +1274,30 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 		return isPrinting;
 	}
 
+	boolean createsPlaceholders() {
+		return virtualizeNodeViews && ! isPrinting;
+	}
+
+	void addPlaceholder(NodeView view) {
+		nodeViewPlaceholders.add(view);
+	}
+
+	void removePlaceholder(NodeView view) {
+		nodeViewPlaceholders.remove(view);
+	}
+
+	/**
+	 * Realizes placeholders in the visible part of the map extended by half of the viewport size in each direction,
+	 * so that they are usually realized before they are scrolled into view.
+	 */
+	private boolean realizeVisiblePlaceholders() {
+		if (nodeViewPlaceholders.isEmpty() || !(getParent() instanceof JViewport))
+			return false;
+		final Rectangle viewRect = ((JViewport) getParent()).getViewRect();
+		viewRect.grow(viewRect.width / 2, viewRect.height / 2);
+		return nodeViewPlaceholders.realize(this, viewRect);
+	}
+
 	public boolean isSelected(final NodeView n) {
 		if(isPrinting || (! selectedsValid &&
 				(selection.selectedNode == null || ! SwingUtilities.isDescendingFrom(selection.selectedNode, this)  || ! selection.selectedNode.getContent().isVisible())))
@@ -1400,7 +1455,8 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
     	final MainView mainView = node.getMainView();
     	if(mainView == null)
     		return;
-		mainView.updateIcons(node);
+    	if(! node.isPlaceholder())
+    		mainView.updateIcons(node);
     	for(int i = 0; i < node.getComponentCount(); i++){
     		final Component component = node.getComponent(i);
     		if(component instanceof NodeView)
@@ -1760,15 +1816,44 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 	}
 
 	private void paintConnectors(final Graphics2D graphics) {
-		arrowLinkViews = new Vector<ILinkView>();
 		final Object renderingHint = getModeController().getController().getMapViewManager().setEdgesRenderingHint(
 		    graphics);
-		if(hasNodeLinks())
-			paintConnectors(rootView, graphics, new HashSet<ConnectorModel>());
+		final Color background = getBackground();
+		if (!isPrinting && connectorViewCache != null
+		        && connectorViewCache.canPaint(connectorArea(1), showConnectors, hideSingleEndConnectors, background)) {
+			final Font font = graphics.getFont();
+			try {
+				connectorViewCache.paint(graphics);
+			}
+			finally {
+				graphics.setFont(font);
+			}
+		}
+		else {
+			arrowLinkViews = new Vector<ILinkView>();
+			// connectors are collected for a larger area than required, so that they can be reused while scrolling
+			final Rectangle collectedArea = isPrinting ? null : connectorArea(2);
+			if(hasNodeLinks())
+				paintConnectors(rootView, graphics, new HashSet<ConnectorModel>(), collectedArea);
+			connectorViewCache = isPrinting ? null
+			        : new ConnectorViewCache(arrowLinkViews, collectedArea, showConnectors, hideSingleEndConnectors, background);
+		}
 		graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, renderingHint);
 	}
 
-	private void paintConnectors(final NodeView source, final Graphics2D graphics, final HashSet<ConnectorModel> alreadyPaintedConnectors) {
+	/** Returns the visible rectangle extended by the given number of its widths and heights in each direction. */
+	private Rectangle connectorArea(final int margins) {
+		final JViewport vp = (JViewport) getParent();
+		final Rectangle viewRect = vp.getViewRect();
+		viewRect.x -= margins * viewRect.width;
+		viewRect.y -= margins * viewRect.height;
+		viewRect.width *= 2 * margins + 1;
+		viewRect.height *= 2 * margins + 1;
+		return viewRect;
+	}
+
+	private void paintConnectors(final NodeView source, final Graphics2D graphics, final HashSet<ConnectorModel> alreadyPaintedConnectors,
+	                             final Rectangle collectedArea) {
 		final NodeModel node = source.getModel();
 		final Collection<? extends NodeLinkModel> outLinks = getLinksFrom(node);
 		paintConnectors(outLinks, graphics, alreadyPaintedConnectors);
@@ -1785,17 +1870,11 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 				if(!child.isHierarchyVisible())
 					continue;
 				final Rectangle bounds = SwingUtilities.convertRectangle(source, child.getBounds(), this);
-				final JViewport vp = (JViewport) getParent();
-				final Rectangle viewRect = vp.getViewRect();
-				viewRect.x -= viewRect.width;
-				viewRect.y -= viewRect.height;
-				viewRect.width *= 3;
-				viewRect.height *= 3;
-				if (!viewRect.intersects(bounds)) {
+				if (!collectedArea.intersects(bounds)) {
 					continue;
 				}
 			}
-			paintConnectors(child, graphics, alreadyPaintedConnectors);
+			paintConnectors(child, graphics, alreadyPaintedConnectors, collectedArea);
 		}
 	}
 
@@ -1879,6 +1958,11 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 	public void preparePrinting() {
 		isPrinting = true;
 		if (!isPreparedForPrinting) {
+			if (nodeViewPlaceholders.realizeAll()) {
+				synchronized (getTreeLock()) {
+					validateTree();
+				}
+			}
 			if (zoom == 1f) {
 				getRoot().updateAll();
 				synchronized (getTreeLock()) {
@@ -2204,9 +2288,22 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 			validateSelecteds();
 			getRoot().validateTree();
 			super.validateTree();
+			for (int pass = 0; realizeVisiblePlaceholders(); pass++) {
+				if (pass == MAXIMAL_PLACEHOLDER_REALIZATION_PASSES) {
+					revalidate();
+					break;
+				}
+				super.validateTree();
+			}
 		}
 	}
 
+	@Override
+	public void doLayout() {
+		super.doLayout();
+		connectorViewCache = null;
+	}
+
 	@Override
 	public void onPreNodeMoved(final NodeMoveEvent nodeMoveEvent) {
 	}
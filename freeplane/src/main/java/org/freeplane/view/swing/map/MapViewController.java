@@ -45,6 +45,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Vector;
+import java.util.function.Consumer;
 
 import javax.swing.DefaultComboBoxModel;
 import javax.swing.FocusManager;
@@ -393,6 +394,11 @@ public class MapViewController implements IMapViewManager , IMapViewChangeListen
 		}
 
 		view.preparePrinting();
+		return createImage(dpi, getSlideBounds(view, slideSize, placedNodeView, placedNodePosition));
+	}
+
+	private Rectangle getSlideBounds(final MapView view, final Dimension slideSize, final NodeView placedNodeView,
+	                                 NodePosition placedNodePosition) {
 		final JComponent content = placedNodeView.getContent();
 		Point contentLocation = new Point();
 		UITools.convertPointToAncestor(content, contentLocation, view);
@@ -406,7 +412,61 @@ public class MapViewController implements IMapViewManager , IMapViewChangeListen
 		if(placedNodePosition == NodePosition.EAST){
 			printedGraphicsBounds.x -= distanceToMargin;
 		}
-		return createImage(dpi, printedGraphicsBounds);
+		return printedGraphicsBounds;
+	}
+
+	@Override
+	public void processImage(int dpi, Consumer<RenderedImage> imageProcessor) {
+		final MapView view = getMapView();
+		if (view == null) {
+			return;
+		}
+		view.preparePrinting();
+		try {
+			imageProcessor.accept(createStripRenderedImage(dpi, view, view.getInnerBounds()));
+		}
+		finally {
+			view.endPrinting();
+		}
+	}
+
+	@Override
+	public void processImage(final Dimension slideSize, NodeModel placedNode, NodePosition placedNodePosition, int dpi,
+	                         Consumer<RenderedImage> imageProcessor) {
+		final MapView view = getMapView();
+		if (view == null) {
+			return;
+		}
+		final NodeView placedNodeView = view.getNodeView(placedNode);
+		if (placedNodeView == null) {
+			processImage(dpi, imageProcessor);
+			return;
+		}
+		view.preparePrinting();
+		try {
+			imageProcessor.accept(createStripRenderedImage(dpi, view,
+			    getSlideBounds(view, slideSize, placedNodeView, placedNodePosition)));
+		}
+		finally {
+			view.endPrinting();
+		}
+	}
+
+	private RenderedImage createStripRenderedImage(int dpi, final MapView view, final Rectangle printedArea) {
+		final double scaleFactor = (double) dpi / (double) (UITools.FONT_SCALE_FACTOR * 72);
+		final int imageWidth = (int) Math.ceil(printedArea.width * scaleFactor);
+		final int imageHeight = (int) Math.ceil(printedArea.height * scaleFactor);
+		return new StripRenderedImage(imageWidth, imageHeight, getPrintedBackground(view), g -> {
+			g.scale(scaleFactor, scaleFactor);
+			g.translate(-printedArea.x, -printedArea.y);
+			g.setRenderingHint(GraphicsHints.CACHE_ICONS, Boolean.TRUE);
+			view.print(g);
+		});
+	}
+
+	private Color getPrintedBackground(final MapView view) {
+		final Color background = view.getBackground();
+		return background != null ? background : SystemColor.window;
 	}
 
 	public RenderedImage createImage(int dpi, final Rectangle printedArea) {
@@ -425,12 +485,7 @@ public class MapViewController implements IMapViewManager , IMapViewChangeListen
 
 		final BufferedImage myImage = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_RGB);
 		final Graphics2D g = (Graphics2D) myImage.getGraphics();
-		Color background = view.getBackground();
-        if(background == null) {
-            background = SystemColor.window;
-        }
-
-		g.setBackground(background);
+		g.setBackground(getPrintedBackground(view));
 		g.clearRect(0, 0, imageWidth, imageHeight);
 		g.scale(scaleFactor, scaleFactor);
 		g.translate(-innerBounds.x, -innerBounds.y);
@@ -22,8 +22,11 @@ package org.freeplane.view.swing.map;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Insets;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
@@ -48,6 +51,7 @@ import javax.swing.SwingUtilities;
 import org.freeplane.core.resources.ResourceController;
 import org.freeplane.core.ui.IUserInputListenerFactory;
 import org.freeplane.core.ui.components.UITools;
+import org.freeplane.core.util.HtmlUtils;
 import org.freeplane.core.util.LogUtils;
 import org.freeplane.core.util.ObjectRule;
 import org.freeplane.features.DashVariant;
@@ -134,6 +138,9 @@ public class NodeView extends JComponent implements INodeView {
 	private int topOverlap;
 	private int bottomOverlap;
 	private boolean isFolded;
+	private boolean isPlaceholder;
+	private boolean layoutInputsChanged = true;
+	private NodeViewLayoutSummary layoutSummary;
 	private DashVariant edgeDash = DashVariant.DEFAULT;
 
 	public static final int DETAIL_VIEWER_POSITION = 2;
@@ -149,6 +156,10 @@ public class NodeView extends JComponent implements INodeView {
 		return isFolded;
 	}
 
+	boolean isPlaceholder() {
+		return isPlaceholder;
+	}
+
 	void addDragListener(final DragGestureListener dgl) {
 		if (dgl == null) {
 			return;
@@ -908,6 +919,10 @@ public class NodeView extends JComponent implements INodeView {
 		if (mainView == null) {
 			return;
 		}
+		if (isPlaceholder) {
+			updatePlaceholder();
+			return;
+		}
 		if (property.equals(NodeModel.NODE_ICON) || property.equals(HierarchicalIcons.ICONS)) {
 			mainView.updateIcons(this);
 			revalidate();
@@ -1011,7 +1026,7 @@ public class NodeView extends JComponent implements INodeView {
 				if (components[i] instanceof NodeView) {
 					final NodeView view = (NodeView) components[i];
 					final MainView childMainView = view.getMainView();
-					if(childMainView != null){
+					if(childMainView != null && ! view.isPlaceholder()){
 						childMainView.updateText(view.getModel());
 						view.numberingChanged(0);
 					}
@@ -1217,7 +1232,10 @@ public class NodeView extends JComponent implements INodeView {
 		for (final ListIterator<NodeView> e = getChildrenViews().listIterator(); e.hasNext();) {
 			e.next().remove();
 		}
-		getMap().getModeController().onViewRemoved(this);
+		if (isPlaceholder)
+			getMap().removePlaceholder(this);
+		else
+			getMap().getModeController().onViewRemoved(this);
 		removeFromMap();
 		if (attributeView != null) {
 			attributeView.viewRemoved();
@@ -1393,6 +1411,11 @@ public class NodeView extends JComponent implements INodeView {
 	}
 
 	public void update() {
+		requestLayout();
+		if (isPlaceholder) {
+			updatePlaceholder();
+			return;
+		}
 		invalidate();
 		updateShape();
 		updateEdge();
@@ -1442,6 +1465,50 @@ public class NodeView extends JComponent implements INodeView {
 		repaint();
 	}
 
+	/**
+	 * Turns this view into a placeholder whose main view only takes the estimated size of the node content.
+	 */
+	void updatePlaceholder() {
+		isPlaceholder = true;
+		requestLayout();
+		invalidate();
+		updateShape();
+		updateEdge();
+		if (!isContentVisible()) {
+			mainView.setVisible(false);
+			return;
+		}
+		mainView.setVisible(true);
+		mainView.updateFont(this);
+		mainView.setPreferredSize(estimateMainViewSize());
+		revalidate();
+	}
+
+	private Dimension estimateMainViewSize() {
+		final NodeStyleController nsc = NodeStyleController.getController(map.getModeController());
+		final int minNodeWidth = map.getZoomed(nsc.getMinWidth(getModel()).toBaseUnits());
+		final int maxNodeWidth = Math.max(map.getLayoutSpecificMaxNodeWidth(), map.getZoomed(nsc.getMaxWidth(getModel()).toBaseUnits()));
+		final String text = getModel().getText();
+		final int textLength = HtmlUtils.isHtml(text) ? HtmlUtils.htmlToPlain(text).length() : text.length();
+		final FontMetrics fontMetrics = mainView.getFontMetrics(mainView.getFont());
+		final float zoom = map.getZoom();
+		final int textWidth = (int) (fontMetrics.charWidth('x') * zoom * textLength);
+		final int lineCount = maxNodeWidth > 0 ? 1 + textWidth / maxNodeWidth : 1;
+		final Insets insets = mainView.getInsets();
+		final int width = Math.max(minNodeWidth, Math.min(textWidth, maxNodeWidth > 0 ? maxNodeWidth : textWidth));
+		final int height = (int) (fontMetrics.getHeight() * zoom) * lineCount;
+		return new Dimension(width + insets.left + insets.right, height + insets.top + insets.bottom);
+	}
+
+	/**
+	 * Creates the content of a placeholder view.
+	 */
+	void realizePlaceholder() {
+		isPlaceholder = false;
+		mainView.setPreferredSize(null);
+		update();
+	}
+
 	public boolean isShortened() {
 	    final ModeController modeController = getMap().getModeController();
 		final TextController textController = TextController.getController(modeController);
@@ -1656,6 +1723,58 @@ public class NodeView extends JComponent implements INodeView {
 		this.topOverlap = topOverlap;
 	}
 
+	/**
+	 * @return true if neither this node nor its content nor any child branch summary changed since the last layout
+	 */
+	boolean isLayoutUpToDate() {
+		return !layoutInputsChanged && layoutSummary != null && getContent().isValid()
+		        // hidden nodes use the child distance of their visible ancestors
+		        && getChildDistanceContainer() == this;
+	}
+
+	/**
+	 * Marks the parent view for layout if the summary of this branch changed.
+	 */
+	void layoutCompleted() {
+		layoutInputsChanged = false;
+		final NodeViewLayoutSummary newLayoutSummary = new NodeViewLayoutSummary(this);
+		if (!newLayoutSummary.equals(layoutSummary)) {
+			layoutSummary = newLayoutSummary;
+			final NodeView parentView = getParentView();
+			if (parentView != null)
+				parentView.requestLayout();
+		}
+	}
+
+	/**
+	 * Makes the next layout recompute this view even if no child branch summary changed.
+	 */
+	void requestLayout() {
+		layoutInputsChanged = true;
+	}
+
+	void resetLayoutSummary() {
+		layoutSummary = null;
+	}
+
+	@Override
+	protected void addImpl(Component comp, Object constraints, int index) {
+		requestLayout();
+		super.addImpl(comp, constraints, index);
+	}
+
+	@Override
+	public void remove(int index) {
+		requestLayout();
+		super.remove(index);
+	}
+
+	@Override
+	public void removeAll() {
+		requestLayout();
+		super.removeAll();
+	}
+
 	int getBottomOverlap() {
 		return bottomOverlap;
 	}
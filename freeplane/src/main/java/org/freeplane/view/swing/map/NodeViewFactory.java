@@ -172,11 +172,23 @@ class NodeViewFactory {
 	private void updateNewView(final NodeView newView) {
 		newView.getModel().addViewer(newView);
 		newView.setLayout(SelectableLayout.getInstance());
-		newView.update();
-        fireNodeViewCreated(newView);
+		final MapView map = newView.getMap();
+		if(! newView.isRoot() && map.createsPlaceholders()) {
+			newView.updatePlaceholder();
+			map.addPlaceholder(newView);
+		}
+		else {
+			newView.update();
+			fireNodeViewCreated(newView);
+		}
         newView.addChildViews();
 	}
 
+	void realizePlaceholder(final NodeView view) {
+		view.realizePlaceholder();
+		fireNodeViewCreated(view);
+	}
+
 	private static final IMouseListener DETAILS_MOUSE_LISTENER = new DetailsViewMouseListener();
 	private static final IMouseListener NOTE_MOUSE_LISTENER = new NoteViewMouseListener();
 
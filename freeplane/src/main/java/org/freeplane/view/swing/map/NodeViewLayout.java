@@ -39,8 +39,13 @@ public class NodeViewLayout implements INodeViewLayout{
     public void layoutContainer(final Container c) {
         NodeView view = (NodeView) c;
  		if(view.getContent() != null){
+        	// the constructor validates the child views, which mark this view for layout if their summaries changed,
+        	// so it must be called before checking whether the layout is up to date
         	final VerticalNodeViewLayoutStrategy layoutData = new VerticalNodeViewLayoutStrategy(view);
+        	if(view.isLayoutUpToDate())
+        		return;
         	layoutData.calculateLayoutData();
+        	view.layoutCompleted();
         }
     }
 
@@ -0,0 +1,77 @@
+package org.freeplane.view.swing.map;
+
+import javax.swing.JComponent;
+
+/**
+ * Geometry and layout relevant properties of a laid out node view branch used by the layout of its parent view.
+ *
+ * As long as the summary of a branch does not change, the parent does not need to lay out its child views again,
+ * so that a change of a deep node only recomputes the layout along its path to the root
+ * and stops at the first branch whose summary stays the same.
+ */
+final class NodeViewLayoutSummary {
+	private final int width;
+	private final int height;
+	private final int contentX;
+	private final int contentY;
+	private final int contentWidth;
+	private final int contentHeight;
+	private final boolean contentVisible;
+	private final int topOverlap;
+	private final int bottomOverlap;
+	private final int shift;
+	private final int hGap;
+	private final int cloudHeight;
+	private final boolean isLeft;
+	private final boolean isFree;
+	private final boolean isSummary;
+	private final boolean isFirstGroupNode;
+
+	NodeViewLayoutSummary(NodeView view) {
+		width = view.getWidth();
+		height = view.getHeight();
+		final JComponent content = view.getContent();
+		contentX = content.getX();
+		contentY = content.getY();
+		contentWidth = content.getWidth();
+		contentHeight = content.getHeight();
+		contentVisible = view.isContentVisible();
+		topOverlap = view.getTopOverlap();
+		bottomOverlap = view.getBottomOverlap();
+		shift = view.getShift();
+		hGap = view.getHGap();
+		cloudHeight = CloudHeightCalculator.INSTANCE.getAdditionalCloudHeigth(view);
+		isLeft = view.isLeft();
+		isFree = view.isFree();
+		isSummary = view.isSummary();
+		isFirstGroupNode = view.isFirstGroupNode();
+	}
+
+	@Override
+	public int hashCode() {
+		int result = width;
+		result = 31 * result + height;
+		result = 31 * result + contentX;
+		result = 31 * result + contentY;
+		result = 31 * result + contentWidth;
+		result = 31 * result + contentHeight;
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		final NodeViewLayoutSummary other = (NodeViewLayoutSummary) obj;
+		return width == other.width && height == other.height
+		        && contentX == other.contentX && contentY == other.contentY
+		        && contentWidth == other.contentWidth && contentHeight == other.contentHeight
+		        && contentVisible == other.contentVisible
+		        && topOverlap == other.topOverlap && bottomOverlap == other.bottomOverlap
+		        && shift == other.shift && hGap == other.hGap && cloudHeight == other.cloudHeight
+		        && isLeft == other.isLeft && isFree == other.isFree
+		        && isSummary == other.isSummary && isFirstGroupNode == other.isFirstGroupNode;
+	}
+}
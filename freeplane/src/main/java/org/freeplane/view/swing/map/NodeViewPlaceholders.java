@@ -0,0 +1,75 @@
+package org.freeplane.view.swing.map;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.freeplane.core.ui.components.UITools;
+
+/**
+ * Node views of a map view created as placeholders.
+ *
+ * A placeholder only holds the estimated geometry of its node content, so that large unfolded branches
+ * can be laid out without rendering texts, icons, attributes, details and notes of all their nodes.
+ * Placeholders are realized when their main view intersects the area around the visible part of the map
+ * or when they get selected.
+ */
+class NodeViewPlaceholders {
+	private final Set<NodeView> placeholders = new LinkedHashSet<>();
+
+	void add(NodeView view) {
+		placeholders.add(view);
+	}
+
+	void remove(NodeView view) {
+		placeholders.remove(view);
+	}
+
+	boolean isEmpty() {
+		return placeholders.isEmpty();
+	}
+
+	/** @return true if any placeholder was realized */
+	boolean realize(MapView map, Rectangle area) {
+		if (placeholders.isEmpty())
+			return false;
+		final List<NodeView> realizedViews = new ArrayList<>();
+		for (final Iterator<NodeView> iterator = placeholders.iterator(); iterator.hasNext();) {
+			final NodeView view = iterator.next();
+			if (view.isSelected() || intersects(map, view, area)) {
+				iterator.remove();
+				realizedViews.add(view);
+			}
+		}
+		realize(realizedViews);
+		return !realizedViews.isEmpty();
+	}
+
+	/** @return true if any placeholder was realized */
+	boolean realizeAll() {
+		if (placeholders.isEmpty())
+			return false;
+		final List<NodeView> realizedViews = new ArrayList<>(placeholders);
+		placeholders.clear();
+		realize(realizedViews);
+		return true;
+	}
+
+	private void realize(final List<NodeView> views) {
+		final NodeViewFactory nodeViewFactory = NodeViewFactory.getInstance();
+		for (NodeView view : views)
+			nodeViewFactory.realizePlaceholder(view);
+	}
+
+	private static boolean intersects(MapView map, NodeView view, Rectangle area) {
+		final MainView mainView = view.getMainView();
+		if (mainView == null || mainView.getWidth() == 0 && mainView.getHeight() == 0)
+			return false;
+		final Rectangle bounds = new Rectangle(0, 0, mainView.getWidth(), mainView.getHeight());
+		UITools.convertRectangleToAncestor(mainView, bounds, map);
+		return bounds.intersects(area);
+	}
+}
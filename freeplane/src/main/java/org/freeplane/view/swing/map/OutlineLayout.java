@@ -45,6 +45,7 @@ public class OutlineLayout implements INodeViewLayout {
         
         if(content == null)
         	return;
+        view.resetLayoutSummary();
         content.setVisible(view.isContentVisible());
 		final int x = view.getSpaceAround();
 		final int y = x;
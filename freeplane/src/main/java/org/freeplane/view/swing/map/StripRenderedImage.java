@@ -0,0 +1,187 @@
+package org.freeplane.view.swing.map;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import java.util.Vector;
+import java.util.function.Consumer;
+
+/**
+ * Image rendered in horizontal strips when its pixels are requested.
+ *
+ * Only the last rendered strip is kept in a reused buffer, so that image writers requesting the pixels
+ * row by row like the PNG writer need memory for one strip instead of the whole image.
+ * The painter paints the whole image, each strip clips it to its own rows.
+ */
+class StripRenderedImage implements RenderedImage {
+	private static final int MAXIMAL_STRIP_PIXEL_COUNT = 1 << 22;
+
+	private final int width;
+	private final int height;
+	private final int stripHeight;
+	private final Color background;
+	private final Consumer<Graphics2D> painter;
+	private final BufferedImage strip;
+	private int renderedStripIndex;
+
+	StripRenderedImage(int width, int height, Color background, Consumer<Graphics2D> painter) {
+		this(width, height, Math.max(1, MAXIMAL_STRIP_PIXEL_COUNT / Math.max(1, width)), background, painter);
+	}
+
+	StripRenderedImage(int width, int height, int stripHeight, Color background, Consumer<Graphics2D> painter) {
+		this.width = width;
+		this.height = height;
+		this.stripHeight = Math.max(1, Math.min(stripHeight, height));
+		this.background = background;
+		this.painter = painter;
+		this.strip = new BufferedImage(width, this.stripHeight, BufferedImage.TYPE_INT_RGB);
+		this.renderedStripIndex = -1;
+	}
+
+	private Raster renderStrip(int stripIndex) {
+		if (renderedStripIndex != stripIndex) {
+			final int stripY = stripIndex * stripHeight;
+			final Graphics2D g = strip.createGraphics();
+			try {
+				g.setBackground(background);
+				g.clearRect(0, 0, width, stripHeight);
+				g.translate(0, -stripY);
+				g.clipRect(0, stripY, width, stripHeight);
+				painter.accept(g);
+			}
+			finally {
+				g.dispose();
+			}
+			renderedStripIndex = stripIndex;
+		}
+		return strip.getRaster();
+	}
+
+	@Override
+	public Vector<RenderedImage> getSources() {
+		return null;
+	}
+
+	@Override
+	public Object getProperty(String name) {
+		return Image.UndefinedProperty;
+	}
+
+	@Override
+	public String[] getPropertyNames() {
+		return null;
+	}
+
+	@Override
+	public ColorModel getColorModel() {
+		return strip.getColorModel();
+	}
+
+	@Override
+	public SampleModel getSampleModel() {
+		return strip.getSampleModel();
+	}
+
+	@Override
+	public int getWidth() {
+		return width;
+	}
+
+	@Override
+	public int getHeight() {
+		return height;
+	}
+
+	@Override
+	public int getMinX() {
+		return 0;
+	}
+
+	@Override
+	public int getMinY() {
+		return 0;
+	}
+
+	@Override
+	public int getNumXTiles() {
+		return 1;
+	}
+
+	@Override
+	public int getNumYTiles() {
+		return (height + stripHeight - 1) / stripHeight;
+	}
+
+	@Override
+	public int getMinTileX() {
+		return 0;
+	}
+
+	@Override
+	public int getMinTileY() {
+		return 0;
+	}
+
+	@Override
+	public int getTileWidth() {
+		return width;
+	}
+
+	@Override
+	public int getTileHeight() {
+		return stripHeight;
+	}
+
+	@Override
+	public int getTileGridXOffset() {
+		return 0;
+	}
+
+	@Override
+	public int getTileGridYOffset() {
+		return 0;
+	}
+
+	@Override
+	public Raster getTile(int tileX, int tileY) {
+		return getData(new Rectangle(0, tileY * stripHeight, width, stripHeight));
+	}
+
+	@Override
+	public Raster getData() {
+		return getData(new Rectangle(0, 0, width, height));
+	}
+
+	@Override
+	public Raster getData(Rectangle rect) {
+		final Rectangle area = rect.intersection(new Rectangle(0, 0, width, height));
+		if (area.isEmpty())
+			throw new IllegalArgumentException("Rectangle " + rect + " is outside of the image");
+		return copyData(strip.getRaster().createCompatibleWritableRaster(area.x, area.y, area.width, area.height));
+	}
+
+	@Override
+	public WritableRaster copyData(WritableRaster raster) {
+		final WritableRaster target = raster != null ? raster
+		        : strip.getRaster().createCompatibleWritableRaster(0, 0, width, height);
+		final Rectangle area = target.getBounds().intersection(new Rectangle(0, 0, width, height));
+		if (area.isEmpty())
+			return target;
+		final int lastStripIndex = (area.y + area.height - 1) / stripHeight;
+		for (int stripIndex = area.y / stripHeight; stripIndex <= lastStripIndex; stripIndex++) {
+			final int stripY = stripIndex * stripHeight;
+			final Rectangle copiedArea = area.intersection(new Rectangle(0, stripY, width, stripHeight));
+			final Raster stripRaster = renderStrip(stripIndex);
+			target.setRect(stripRaster.createChild(copiedArea.x, copiedArea.y - stripY, copiedArea.width,
+			    copiedArea.height, copiedArea.x, copiedArea.y, null));
+		}
+		return target;
+	}
+}
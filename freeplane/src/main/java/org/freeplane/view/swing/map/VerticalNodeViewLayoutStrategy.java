@@ -45,6 +45,7 @@ class VerticalNodeViewLayoutStrategy {
 	private final int[] yCoordinates;
 	private final boolean[] isChildFreeNode;
 	private SummaryLevels viewLevels;
+	private Dimension contentSize;
 	private int left;
 	private int childContentHeight;
 	private int top;
@@ -93,6 +94,7 @@ class VerticalNodeViewLayoutStrategy {
 		final NodeModel node = view.getModel();
 		Filter filter = view.getMap().getFilter();
 		viewLevels = view.isFolded() ? SummaryLevels.ignoringChildNodes(node, filter) : SummaryLevels.of(node, filter);
+		contentSize = ContentSizeCalculator.INSTANCE.calculateContentSize(view);
 		for(boolean isLeft : viewLevels.sides)
 			calculateLayoutData(isLeft);
 		applyLayoutToChildComponents();
@@ -107,7 +109,6 @@ class VerticalNodeViewLayoutStrategy {
 
 	private void calculateLayoutY(final boolean isLeft) {
 		final int minimalDistanceBetweenChildren = view.getChildDistanceContainer().getMinimalDistanceBetweenChildren();
-		final Dimension contentSize = ContentSizeCalculator.INSTANCE.calculateContentSize(view);
 		int childContentHeightSum = 0;
 		int top = 0;
 		int level = viewLevels.highestSummaryLevel + 1;
@@ -257,7 +258,6 @@ class VerticalNodeViewLayoutStrategy {
 	}
 
 	private void calculateLayoutX(final boolean isLeft) {
-		final Dimension contentSize = ContentSizeCalculator.INSTANCE.calculateContentSize(view);
 		int level = viewLevels.highestSummaryLevel + 1;
 		final int summaryBaseX[] = new int[level];
 		for (int i = 0; i < childViewCount; i++) {
@@ -360,8 +360,6 @@ class VerticalNodeViewLayoutStrategy {
 			contentY -= minY;
 			baseY -= minY;
 		}
-		final Dimension contentSize = ContentSizeCalculator.INSTANCE
-				.calculateContentSize(view);
 		int width = contentX + contentSize.width + spaceAround;
 		int height = contentY + contentSize.height + cloudHeight / 2
 				+ spaceAround;
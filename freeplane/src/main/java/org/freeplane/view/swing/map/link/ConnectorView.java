@@ -59,6 +59,7 @@ public class ConnectorView extends AConnectorView{
 	private Rectangle sourceTextRectangle;
 	private Rectangle middleTextRectangle;
 	private Rectangle targetTextRectangle;
+	private Rectangle paintedBounds;
 	final private Color textColor;
 	final private Color color;
 	final private BasicStroke stroke;
@@ -336,6 +337,23 @@ public class ConnectorView extends AConnectorView{
 			drawLabels(g, startPoint, startPoint2, endPoint2, endPoint);
 		}
 		g.setColor(oldColor);
+		paintedBounds = calculatePaintedBounds(startPoint, startPoint2, endPoint2, endPoint);
+	}
+
+	private Rectangle calculatePaintedBounds(Point... points) {
+		final Rectangle bounds = arrowLinkCurve != null ? arrowLinkCurve.getBounds() : new Rectangle(0, 0, -1, -1);
+		for (Point point : points) {
+			if (point != null)
+				bounds.add(point);
+		}
+		increaseBounds(bounds, sourceTextRectangle);
+		increaseBounds(bounds, middleTextRectangle);
+		increaseBounds(bounds, targetTextRectangle);
+		final NodeView nodeView = isSourceVisible() ? source : target;
+		final int margin = (int) Math.ceil(getZoom() * 15 + stroke.getLineWidth())
+		        + nodeView.getZoomedFoldingSymbolHalfWidth();
+		bounds.grow(margin, margin);
+		return bounds;
 	}
 
 	private void normalizeLength(int normalLength, Point startInclination) {
@@ -493,6 +511,10 @@ public class ConnectorView extends AConnectorView{
 		increaseBounds(innerBounds, targetTextRectangle);
 	}
 
+	public Rectangle getPaintedBounds() {
+		return paintedBounds;
+	}
+
 	private void increaseBounds(Rectangle innerBounds, Rectangle rect) {
 	    if (rect != null)
                 innerBounds.add(rect);
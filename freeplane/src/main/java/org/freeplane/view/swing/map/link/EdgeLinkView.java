@@ -92,6 +92,10 @@ public class EdgeLinkView extends AConnectorView {
 		//edge link does not increase inner bounds 
 	}
 
+	public Rectangle getPaintedBounds() {
+		return null;
+	}
+
 	public void paint(final Graphics graphics) {
 		edgeView.paint((Graphics2D) graphics);
 		if(Shape.EDGE_LIKE.equals(connectorModel.getShape())){
@@ -50,4 +50,10 @@ public interface ILinkView {
 	public abstract void paint(final Graphics graphics);
 
 	public abstract void increaseBounds(final Rectangle innerBounds);
+
+	/**
+	 * Returns the area covered by the last call of {@link #paint(Graphics)},
+	 * or null if it is not known and the view has to be painted on every repaint.
+	 */
+	public abstract Rectangle getPaintedBounds();
 }
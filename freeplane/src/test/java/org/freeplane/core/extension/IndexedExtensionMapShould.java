@@ -0,0 +1,73 @@
+package org.freeplane.core.extension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class IndexedExtensionMapShould {
+	private static class FirstExtension implements IExtension {}
+	private static class SecondExtension implements IExtension {}
+	private static class ThirdExtension implements IExtension {}
+	private static class FourthExtension implements IExtension {}
+	private static class FifthExtension implements IExtension {}
+	private static class SixthExtension implements IExtension {}
+
+	private final IndexedExtensionMap map = new IndexedExtensionMap();
+
+	@Test
+	public void findExtensionsByClass() {
+		final FirstExtension first = new FirstExtension();
+		final SecondExtension second = new SecondExtension();
+		map.put(FirstExtension.class, first);
+		map.put(SecondExtension.class, second);
+
+		assertThat(map.get(FirstExtension.class)).isSameAs(first);
+		assertThat(map.get(SecondExtension.class)).isSameAs(second);
+		assertThat(map.get(ThirdExtension.class)).isNull();
+		assertThat(map.containsKey(SecondExtension.class)).isTrue();
+		assertThat(map.containsKey(ThirdExtension.class)).isFalse();
+	}
+
+	@Test
+	public void replaceExtensionOfSameClass() {
+		final FirstExtension first = new FirstExtension();
+		final FirstExtension replacement = new FirstExtension();
+		map.put(FirstExtension.class, first);
+
+		assertThat(map.put(FirstExtension.class, replacement)).isSameAs(first);
+		assertThat(map.get(FirstExtension.class)).isSameAs(replacement);
+		assertThat(map.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void keepInsertionOrderWhenGrowing() {
+		final IExtension[] extensions = { new SixthExtension(), new FirstExtension(), new FifthExtension(),
+		        new SecondExtension(), new FourthExtension(), new ThirdExtension() };
+		for (IExtension extension : extensions)
+			map.put(extension.getClass(), extension);
+
+		assertThat(map.values()).containsExactly(extensions);
+		for (IExtension extension : extensions)
+			assertThat(map.get(extension.getClass())).isSameAs(extension);
+	}
+
+	@Test
+	public void removeExtensions() {
+		final FirstExtension first = new FirstExtension();
+		final SecondExtension second = new SecondExtension();
+		final ThirdExtension third = new ThirdExtension();
+		map.put(FirstExtension.class, first);
+		map.put(SecondExtension.class, second);
+		map.put(ThirdExtension.class, third);
+
+		assertThat(map.remove(SecondExtension.class)).isSameAs(second);
+		assertThat(map.remove(SecondExtension.class)).isNull();
+
+		assertThat(map.values()).containsExactly(first, third);
+		assertThat(map.get(ThirdExtension.class)).isSameAs(third);
+		map.remove(FirstExtension.class);
+		map.remove(ThirdExtension.class);
+		assertThat(map.isEmpty()).isTrue();
+		assertThat(map.get(FirstExtension.class)).isNull();
+	}
+}
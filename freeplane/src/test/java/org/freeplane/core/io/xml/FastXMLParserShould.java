@@ -0,0 +1,129 @@
+package org.freeplane.core.io.xml;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+
+import org.freeplane.core.io.IElementContentHandler;
+import org.freeplane.core.io.IElementDOMHandler;
+import org.freeplane.core.io.ReadManager;
+import org.freeplane.n3.nanoxml.XMLElement;
+import org.freeplane.n3.nanoxml.XMLParseException;
+import org.junit.Test;
+
+public class FastXMLParserShould {
+	private static final String MAP = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n"
+	        + "<!-- comment with <node> -->\r\n"
+	        + "<map version=\"freeplane 1.7.0\">\r\n"
+	        + "<node TEXT=\"root &amp; &lt;tag&gt; &#x41;&#66; &quot;q&quot; &apos;a&apos;\" ID='ID_1'>\n"
+	        + "\t<font NAME=\"SansSerif\" SIZE=\"12\"/>\n"
+	        + "\t<node TEXT=\"line&#10;break\r\nand\ttab\" ID=\"ID_2\">\n"
+	        + "\t\t<richcontent TYPE=\"NOTE\"><html><!-- </richcontent> --><body><p>a/b &amp; <br/></p></body></html></richcontent>\n"
+	        + "\t\t<attribute NAME=\"n\" VALUE=\"v\"/>\n"
+	        + "\t\t<text>\t some &lt;text&gt;<!-- hidden -->more\ttext </text>\n"
+	        + "\t\t<data><![CDATA[<raw> & data]]></data>\n"
+	        + "\t\t<x:extension xmlns:x=\"urn:x\" x:key=\"value\"><x:inner/></x:extension>\n"
+	        + "\t</node>\n"
+	        + "\t<node TEXT=\"\" ID=\"ID_3\"></node>\n"
+	        + "</node>\n"
+	        + "</map>\n";
+
+	private final List<String> events = new ArrayList<>();
+
+	private final IElementDOMHandler domHandler = new IElementDOMHandler() {
+		@Override
+		public Object createElement(Object parent, String tag, XMLElement attributes) {
+			return tag;
+		}
+
+		@Override
+		public void endElement(Object parent, String tag, Object element, XMLElement dom) {
+			events.add("end " + describe(dom));
+		}
+	};
+
+	private final IElementContentHandler contentHandler = new IElementContentHandler() {
+		@Override
+		public Object createElement(Object parent, String tag, XMLElement attributes) {
+			return tag;
+		}
+
+		@Override
+		public void endElement(Object parent, String tag, Object node, XMLElement attributes, String content) {
+			events.add("content " + tag + ": " + content);
+		}
+	};
+
+	private static String describe(XMLElement element) {
+		final StringBuilder description = new StringBuilder();
+		description.append('<').append(element.getFullName()).append(' ').append(element.getNamespace());
+		final Enumeration<String> attributeNames = element.enumerateAttributeNames();
+		while (attributeNames.hasMoreElements()) {
+			final String name = attributeNames.nextElement();
+			description.append(' ').append(name).append("='").append(element.getAttribute(name)).append('\'');
+		}
+		description.append('>').append(element.getContent());
+		for (int i = 0; i < element.getChildrenCount(); i++) {
+			description.append(describe(element.getChildAtIndex(i)));
+		}
+		return description.append("</>").toString();
+	}
+
+	private List<String> load(String xml, boolean fastParserEnabled) throws Exception {
+		events.clear();
+		final ReadManager readManager = new ReadManager();
+		readManager.addElementHandler("map", domHandler);
+		readManager.addElementHandler("node", domHandler);
+		readManager.addElementHandler("richcontent", contentHandler);
+		readManager.addAttributeHandler("node", "TEXT", (node, value) -> events.add("TEXT=" + value));
+		final TreeXmlReader reader = new TreeXmlReader(readManager);
+		reader.setFastParserEnabled(fastParserEnabled);
+		reader.load(new StringReader(xml));
+		return new ArrayList<>(events);
+	}
+
+	@Test
+	public void produceSameResultsAsNanoxmlParser() throws Exception {
+		final List<String> nanoxmlResults = load(MAP, false);
+
+		final List<String> results = load(MAP, true);
+
+		assertThat(results).isEqualTo(nanoxmlResults);
+	}
+
+	@Test
+	public void resolveEntitiesAndNormalizeWhitespaceInAttributes() throws Exception {
+		final List<String> results = load(MAP, true);
+
+		assertThat(results).startsWith("TEXT=root & <tag> AB \"q\" 'a'", "TEXT=line\nbreak and tab");
+	}
+
+	@Test
+	public void passUnparsedContentToContentHandlers() throws Exception {
+		final List<String> results = load(MAP, true);
+
+		assertThat(results).contains(
+		    "content richcontent: <html><!-- </richcontent> --><body><p>a/b &amp; <br/></p></body></html>");
+	}
+
+	@Test(expected = XMLParseException.class)
+	public void rejectUnknownEntities() throws Exception {
+		load("<map><node TEXT=\"&unknown;\"/></map>", true);
+	}
+
+	@Test(expected = XMLParseException.class)
+	public void rejectMismatchedClosingTags() throws Exception {
+		load("<map><node></map></node>", true);
+	}
+
+	@Test
+	public void supportEntitiesDeclaredInDocumentTypeDeclaration() throws Exception {
+		final List<String> results = load("<!DOCTYPE map [<!ENTITY e \"entity\">]><map><node TEXT=\"&e;\"/></map>",
+		    true);
+
+		assertThat(results).startsWith("TEXT=entity");
+	}
+}
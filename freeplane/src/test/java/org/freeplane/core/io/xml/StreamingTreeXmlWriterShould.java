@@ -0,0 +1,129 @@
+package org.freeplane.core.io.xml;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import org.freeplane.core.extension.IExtension;
+import org.freeplane.core.io.ITreeWriter;
+import org.freeplane.core.io.WriteManager;
+import org.freeplane.n3.nanoxml.XMLElement;
+import org.junit.Test;
+
+public class StreamingTreeXmlWriterShould {
+	private static class Extension implements IExtension {
+		final String value;
+
+		Extension(String value) {
+			this.value = value;
+		}
+	}
+
+	private static class Node {
+		final String text;
+		final List<Node> children;
+
+		Node(String text, Node... children) {
+			this.text = text;
+			this.children = Arrays.asList(children);
+		}
+	}
+
+	private interface TreeWriterAction {
+		void write(ITreeWriter writer) throws IOException;
+	}
+
+	private final WriteManager writeManager = new WriteManager();
+
+	private String writeWithTreeXmlWriter(boolean restrictedCharset, TreeWriterAction action) throws IOException {
+		final StringWriter stringWriter = new StringWriter();
+		final TreeXmlWriter writer = new TreeXmlWriter(writeManager, stringWriter, restrictedCharset);
+		action.write(writer);
+		writer.flush();
+		return stringWriter.toString();
+	}
+
+	private String writeWithStreamingWriter(boolean restrictedCharset, TreeWriterAction action) throws IOException {
+		final StringWriter stringWriter = new StringWriter();
+		final StreamingTreeXmlWriter writer = new StreamingTreeXmlWriter(writeManager, stringWriter, restrictedCharset);
+		action.write(writer);
+		writer.flush();
+		return stringWriter.toString();
+	}
+
+	private void assertSameOutput(TreeWriterAction action) throws IOException {
+		final String expected = writeWithTreeXmlWriter(false, action);
+		assertThat(expected).isNotEmpty();
+		assertThat(writeWithStreamingWriter(false, action)).isEqualTo(expected);
+		final String expectedRestricted = writeWithTreeXmlWriter(true, action);
+		assertThat(writeWithStreamingWriter(true, action)).isEqualTo(expectedRestricted);
+	}
+
+	private void registerNodeWriters() {
+		writeManager.addAttributeWriter("node", (writer, userObject, tag) -> {
+			final Node node = (Node) userObject;
+			writer.addAttribute("TEXT", node.text);
+			writer.addAttribute("ID", node.text.length());
+			writer.addAttribute("TEXT", "duplicate is ignored");
+		});
+		writeManager.addElementWriter("node", (writer, element, tag) -> {
+			final Node node = (Node) element;
+			final XMLElement icon = new XMLElement("icon");
+			icon.setAttribute("BUILTIN", "button_ok");
+			writer.addElement(node, icon);
+			if (node.text.startsWith("rich")) {
+				final XMLElement richContent = new XMLElement("richcontent");
+				richContent.setAttribute("TYPE", "NOTE");
+				writer.addElement("\n<html>ä &amp; " + node.text + "</html>\n", richContent);
+			}
+			for (Node child : node.children) {
+				writer.addElement(child, "node");
+			}
+		});
+		writeManager.addAttributeWriter("icon", (writer, userObject, tag) -> writer.addAttribute("SIZE", 1.5));
+	}
+
+	@Test
+	public void writeNestedElementsLikeTreeXmlWriter() throws Exception {
+		registerNodeWriters();
+		final Node root = new Node("root", new Node("child <1> & \"2\" 'x'"), new Node("richü\n\t\r",
+		    new Node("leaf €")));
+		assertSameOutput(writer -> writer.addElement(root, new XMLElement("map")));
+	}
+
+	@Test
+	public void writeCommentsAndContentLikeTreeXmlWriter() throws Exception {
+		writeManager.addElementWriter("map", (writer, element, tag) -> {
+			writer.addElementContent("<!--comment ä-->\n");
+			writer.addComment("written comment");
+			writer.addElement("", "empty");
+			writer.addElement("text", "content");
+			writer.addElement(null, "leaf");
+		});
+		assertSameOutput(writer -> writer.addElement(null, "map"));
+	}
+
+	@Test
+	public void writeExtensionAttributesAndElementsLikeTreeXmlWriter() throws Exception {
+		writeManager.addExtensionAttributeWriter(Extension.class, (writer, userObject, extension) ->
+		    writer.addAttribute("EXTENSION", ((Extension) extension).value));
+		writeManager.addExtensionElementWriter(Extension.class, (writer, userObject, extension) ->
+		    writer.addElement(((Extension) extension).value, "extension"));
+		final List<IExtension> extensions = Arrays.<IExtension> asList(new Extension("a"), new Extension("b"));
+		assertSameOutput(writer -> writer.addElement(extensions, "map"));
+	}
+
+	@Test
+	public void writeElementsWithNamespacesAndChildrenLikeTreeXmlWriter() throws Exception {
+		final XMLElement element = new XMLElement("fp:element", "http://freeplane.org");
+		element.setAttribute("xl:attribute", "http://freeplane.org/other", "value");
+		final XMLElement child = new XMLElement("child");
+		child.setContent("child content");
+		element.addChild(child);
+		writeManager.addAttributeWriter("element", (writer, userObject, tag) -> writer.addAttribute("ADDED", "true"));
+		assertSameOutput(writer -> writer.addElement(null, element));
+	}
+}
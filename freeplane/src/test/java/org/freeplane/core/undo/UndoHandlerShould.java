@@ -0,0 +1,125 @@
+package org.freeplane.core.undo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.mode.MockControllerRule;
+import org.freeplane.features.ui.ViewController;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class UndoHandlerShould {
+	private static final long MEGABYTE = 1024L * 1024L;
+
+	private static class ValueChangeActor implements IActor {
+		private final List<String> values;
+		private final String oldValue;
+		private final String newValue;
+		private final long size;
+
+		ValueChangeActor(List<String> values, String oldValue, String newValue, long size) {
+			this.values = values;
+			this.oldValue = oldValue;
+			this.newValue = newValue;
+			this.size = size;
+		}
+
+		@Override
+		public void act() {
+			values.add(newValue);
+		}
+
+		@Override
+		public void undo() {
+			values.add(oldValue);
+		}
+
+		@Override
+		public String getDescription() {
+			return "change";
+		}
+
+		@Override
+		public long estimatedSize() {
+			return size;
+		}
+
+		@Override
+		public IActor coalesce(IActor previous) {
+			if (!(previous instanceof ValueChangeActor))
+				return null;
+			final ValueChangeActor previousChange = (ValueChangeActor) previous;
+			if (previousChange.values != values || !previousChange.newValue.equals(oldValue))
+				return null;
+			return new ValueChangeActor(values, previousChange.oldValue, newValue, size);
+		}
+	}
+
+	private UndoHandler undoHandler;
+	private final List<String> values = new ArrayList<>();
+	@Rule
+	public final MockControllerRule controllerRule = new MockControllerRule();
+
+	@Before
+	public void setup() {
+		when(controllerRule.getController().getViewController()).thenReturn(mock(ViewController.class));
+		when(controllerRule.getResourceController().getIntProperty(eq(UndoHandler.MEMORY_BUDGET_PROPERTY), anyInt()))
+		    .thenReturn(1);
+		undoHandler = new UndoHandler(new MapModel(null, null));
+	}
+
+	private void addSeparateAction(IActor actor) {
+		undoHandler.forceNewTransaction();
+		undoHandler.addActor(actor);
+	}
+
+	@Test
+	public void dropOldestEntriesExceedingMemoryBudget() {
+		for (int i = 0; i < 3; i++)
+			addSeparateAction(new ValueChangeActor(values, "v" + i, "v" + (i + 1), 400 * 1024));
+
+		assertThat(undoHandler.getEstimatedSize()).isLessThanOrEqualTo(MEGABYTE);
+		undoHandler.undo();
+		undoHandler.undo();
+		assertThat(undoHandler.canUndo()).isFalse();
+		assertThat(values).containsExactly("v2", "v1");
+	}
+
+	@Test
+	public void keepLatestEntryEvenIfItExceedsMemoryBudget() {
+		addSeparateAction(new ValueChangeActor(values, "v0", "v1", 2 * MEGABYTE));
+		assertThat(undoHandler.canUndo()).isTrue();
+	}
+
+	@Test
+	public void coalesceRepeatedChangesWithinOneAction() {
+		undoHandler.startTransaction();
+		undoHandler.addActor(new ValueChangeActor(values, "v0", "v1", 100));
+		undoHandler.addActor(new ValueChangeActor(values, "v1", "v2", 100));
+		undoHandler.addActor(new ValueChangeActor(values, "v2", "v3", 100));
+		undoHandler.commit();
+
+		assertThat(undoHandler.getEstimatedSize()).isEqualTo(100);
+		undoHandler.undo();
+		assertThat(values).containsExactly("v0");
+		undoHandler.redo();
+		assertThat(values).containsExactly("v0", "v3");
+	}
+
+	@Test
+	public void releaseMemoryOfDiscardedRedoEntries() {
+		addSeparateAction(new ValueChangeActor(values, "v0", "v1", 100));
+		addSeparateAction(new ValueChangeActor(values, "v1", "v2", 200));
+		undoHandler.undo();
+		addSeparateAction(new ValueChangeActor(values, "v1", "v3", 300));
+		assertThat(undoHandler.getEstimatedSize()).isEqualTo(400);
+	}
+}
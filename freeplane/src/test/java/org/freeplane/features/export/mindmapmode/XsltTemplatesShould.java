@@ -0,0 +1,64 @@
+package org.freeplane.features.export.mindmapmode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class XsltTemplatesShould {
+	private final XsltTemplates xsltTemplates = new XsltTemplates();
+	private File xsltFile;
+
+	@Before
+	public void createStylesheet() throws IOException {
+		xsltFile = File.createTempFile("export", ".xsl");
+		xsltFile.deleteOnExit();
+		writeStylesheet("first");
+	}
+
+	private void writeStylesheet(String text) throws IOException {
+		final String stylesheet = "<xsl:stylesheet version=\"1.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">"
+		        + "<xsl:output method=\"text\"/>"
+		        + "<xsl:template match=\"/\">" + text + "</xsl:template>"
+		        + "</xsl:stylesheet>";
+		Files.write(xsltFile.toPath(), stylesheet.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String transform(Templates templates) throws Exception {
+		final StringWriter writer = new StringWriter();
+		templates.newTransformer().transform(new StreamSource(new StringReader("<map/>")), new StreamResult(writer));
+		return writer.toString();
+	}
+
+	@Test
+	public void reuseCompiledStylesheet() throws Exception {
+		final Templates templates = xsltTemplates.get(xsltFile);
+
+		assertThat(xsltTemplates.get(xsltFile)).isSameAs(templates);
+		assertThat(transform(templates)).isEqualTo("first");
+	}
+
+	@Test
+	public void compileStylesheetAgainAfterModification() throws Exception {
+		final Templates templates = xsltTemplates.get(xsltFile);
+		final long lastModified = xsltFile.lastModified();
+		writeStylesheet("second");
+		xsltFile.setLastModified(lastModified + 2000);
+
+		final Templates modifiedTemplates = xsltTemplates.get(xsltFile);
+
+		assertThat(modifiedTemplates).isNotSameAs(templates);
+		assertThat(transform(modifiedTemplates)).isEqualTo("second");
+	}
+}
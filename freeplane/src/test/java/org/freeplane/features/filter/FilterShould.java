@@ -0,0 +1,133 @@
+package org.freeplane.features.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.features.filter.condition.ICondition;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.mode.Controller;
+import org.freeplane.features.mode.MockControllerRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class FilterShould {
+	private static class TextEndsWithCondition implements ICondition {
+		private final String suffix;
+		private final boolean concurrent;
+		private final boolean nodeContentOnly;
+		final AtomicInteger checkedNodeCounter = new AtomicInteger();
+		final Set<Controller> controllers = ConcurrentHashMap.newKeySet();
+
+		TextEndsWithCondition(String suffix, boolean concurrent, boolean nodeContentOnly) {
+			this.suffix = suffix;
+			this.concurrent = concurrent;
+			this.nodeContentOnly = nodeContentOnly;
+		}
+
+		@Override
+		public boolean checkNode(NodeModel node) {
+			checkedNodeCounter.incrementAndGet();
+			controllers.add(Controller.getCurrentController());
+			return node.getText().endsWith(suffix);
+		}
+
+		@Override
+		public boolean canBeCheckedConcurrently() {
+			return concurrent;
+		}
+
+		@Override
+		public boolean dependsOnNodeContentOnly() {
+			return nodeContentOnly;
+		}
+	}
+
+	@Rule
+	public final MockControllerRule controllerRule = new MockControllerRule();
+	private final ResourceController resourceController = controllerRule.getResourceController();
+	private final MapModel map = new MapModel(null, null);
+	private final List<NodeModel> nodes = new ArrayList<>();
+
+	@Before
+	public void setup() {
+		when(resourceController.getBooleanProperty(Filter.PARALLEL_EVALUATION_PROPERTY)).thenReturn(true);
+		when(resourceController.getBooleanProperty(Filter.INCREMENTAL_EVALUATION_PROPERTY)).thenReturn(true);
+		final NodeModel root = new NodeModel("root", map);
+		map.setRoot(root);
+		nodes.add(root);
+		for (int i = 1; i < 3 * Filter.PARALLEL_EVALUATION_THRESHOLD; i++) {
+			final NodeModel node = new NodeModel("node " + i, map);
+			nodes.get((i - 1) / 4).insert(node);
+			nodes.add(node);
+		}
+	}
+
+	private List<NodeModel> visibleNodes(Filter filter) {
+		final List<NodeModel> visibleNodes = new ArrayList<>();
+		for (NodeModel node : nodes) {
+			if (filter.isVisible(node))
+				visibleNodes.add(node);
+		}
+		return visibleNodes;
+	}
+
+	private List<NodeModel> visibleNodesAfterCalculation(ICondition condition) {
+		final Filter filter = Filter.createFilter(condition, true, false, null);
+		filter.calculateFilterResults(map);
+		return visibleNodes(filter);
+	}
+
+	@Test
+	public void calculateSameResultsConcurrently() {
+		final List<NodeModel> sequentialResults = visibleNodesAfterCalculation(
+		    new TextEndsWithCondition("7", false, false));
+		final TextEndsWithCondition concurrentCondition = new TextEndsWithCondition("7", true, false);
+		final List<NodeModel> concurrentResults = visibleNodesAfterCalculation(concurrentCondition);
+		assertThat(concurrentResults).containsExactlyElementsOf(sequentialResults);
+		assertThat(concurrentCondition.checkedNodeCounter.get()).isEqualTo(nodes.size());
+	}
+
+	@Test
+	public void checkNodesConcurrentlyWithControllerOfCallingThread() {
+		final TextEndsWithCondition concurrentCondition = new TextEndsWithCondition("7", true, false);
+
+		visibleNodesAfterCalculation(concurrentCondition);
+
+		assertThat(concurrentCondition.controllers).containsOnly(controllerRule.getController());
+	}
+
+	@Test
+	public void checkOnlyChangedNodesWhenConditionIsReapplied() {
+		final TextEndsWithCondition condition = new TextEndsWithCondition("7", false, true);
+		visibleNodesAfterCalculation(condition);
+		final NodeModel changedNode = nodes.get(100);
+		changedNode.setText("changed 7");
+		map.getExtension(ConditionResultCache.class).nodeChanged(changedNode);
+		condition.checkedNodeCounter.set(0);
+
+		final List<NodeModel> incrementalResults = visibleNodesAfterCalculation(condition);
+
+		assertThat(condition.checkedNodeCounter.get()).isEqualTo(2);
+		assertThat(incrementalResults).contains(changedNode)
+		    .containsExactlyElementsOf(visibleNodesAfterCalculation(new TextEndsWithCondition("7", false, false)));
+	}
+
+	@Test
+	public void checkAllNodesAgainWhenConditionDependsOnOtherNodes() {
+		final TextEndsWithCondition condition = new TextEndsWithCondition("7", false, false);
+		visibleNodesAfterCalculation(condition);
+		condition.checkedNodeCounter.set(0);
+		visibleNodesAfterCalculation(condition);
+		assertThat(condition.checkedNodeCounter.get()).isEqualTo(nodes.size());
+		assertThat(map.getExtension(ConditionResultCache.class)).isNull();
+	}
+}
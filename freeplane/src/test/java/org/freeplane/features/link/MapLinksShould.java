@@ -0,0 +1,67 @@
+package org.freeplane.features.link;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+import org.junit.Test;
+
+public class MapLinksShould {
+	private final MapModel map = new MapModel(null, null);
+	private final NodeModel root = root();
+	private final MapLinks mapLinks = new MapLinks();
+	private final NodeModel source = node("ID_SOURCE");
+	private final NodeModel target = node("ID_TARGET");
+
+	private NodeModel root() {
+		final NodeModel root = new NodeModel("root", map);
+		map.setRoot(root);
+		return root;
+	}
+
+	private NodeModel node(String id) {
+		final NodeModel node = new NodeModel(id, map);
+		root.insert(node);
+		node.setID(id);
+		return node;
+	}
+
+	@Test
+	public void returnLinksToTarget() {
+		final HyperTextLinkModel link = new HyperTextLinkModel(source, target.getID());
+		mapLinks.add(link);
+
+		assertThat(mapLinks.getLinksTo(target)).containsExactly(link);
+		assertThat(mapLinks.getLinksTo(source)).isEmpty();
+	}
+
+	@Test
+	public void returnSameCollectionsForRepeatedLookups() {
+		mapLinks.add(new HyperTextLinkModel(source, target.getID()));
+
+		assertThat(mapLinks.getLinksTo(target)).isSameAs(mapLinks.getLinksTo(target));
+		assertThat(mapLinks.get(target.getID())).isSameAs(mapLinks.get(target.getID()));
+	}
+
+	@Test
+	public void updateLinksToTargetAfterLinkChanges() {
+		final HyperTextLinkModel link = new HyperTextLinkModel(source, target.getID());
+		mapLinks.add(link);
+		mapLinks.getLinksTo(target);
+		final HyperTextLinkModel otherLink = new HyperTextLinkModel(node("ID_OTHER_SOURCE"), target.getID());
+		mapLinks.add(otherLink);
+
+		assertThat(mapLinks.getLinksTo(target)).containsOnly(link, otherLink);
+
+		mapLinks.remove(link);
+		mapLinks.remove(otherLink);
+
+		assertThat(mapLinks.getLinksTo(target)).isEmpty();
+		assertThat(mapLinks.get(target.getID())).isNull();
+	}
+
+	@Test
+	public void returnNoLinksToNodesWithoutID() {
+		assertThat(mapLinks.getLinksTo(new NodeModel("text", map))).isEmpty();
+	}
+}
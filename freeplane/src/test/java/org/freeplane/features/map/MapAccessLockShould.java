@@ -0,0 +1,144 @@
+package org.freeplane.features.map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class MapAccessLockShould {
+	private final MapAccessLock lock = new MapAccessLock();
+
+	@Test
+	public void returnResultOfReader() {
+		assertThat(lock.readConsistently(() -> "result")).isEqualTo("result");
+	}
+
+	@Test
+	public void runReaderOnceAndBlockChangesUntilItIsDone() throws Exception {
+		final AtomicInteger readCount = new AtomicInteger();
+		final CountDownLatch changeStarted = new CountDownLatch(1);
+		final AtomicInteger changeCount = new AtomicInteger();
+		final AtomicInteger changesDuringRead = new AtomicInteger();
+		final Thread[] writer = new Thread[1];
+
+		lock.readConsistently(() -> {
+			readCount.incrementAndGet();
+			writer[0] = new Thread(() -> {
+				changeStarted.countDown();
+				lock.changeExclusively(changeCount::incrementAndGet);
+			});
+			writer[0].start();
+			try {
+				changeStarted.await();
+				writer[0].join(100);
+			}
+			catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+			changesDuringRead.set(changeCount.get());
+			return null;
+		});
+		writer[0].join();
+
+		assertThat(readCount.get()).isEqualTo(1);
+		assertThat(changesDuringRead.get()).isZero();
+		assertThat(changeCount.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void releaseLockIfReaderFails() throws Exception {
+		try {
+			lock.readConsistently(() -> {
+				throw new AssertionError();
+			});
+		}
+		catch (AssertionError e) {
+		}
+		final Thread writer = new Thread(() -> lock.changeExclusively(() -> {}));
+		writer.start();
+		writer.join(10000);
+
+		assertThat(writer.isAlive()).isFalse();
+	}
+
+	@Test
+	public void runNestedChangesAndReadsOfWriterDirectly() {
+		final AtomicInteger changeCount = new AtomicInteger();
+
+		lock.changeExclusively(() -> {
+			lock.changeExclusively(changeCount::incrementAndGet);
+			lock.readConsistently(changeCount::incrementAndGet);
+		});
+
+		assertThat(changeCount.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void letOnlyReaderChangeAndContinueReading() throws Exception {
+		final AtomicInteger changeCount = new AtomicInteger();
+
+		lock.readConsistently(() -> {
+			lock.changeExclusively(changeCount::incrementAndGet);
+			assertThat(lock.isReadByCurrentThread()).isTrue();
+			return null;
+		});
+
+		assertThat(lock.isReadByCurrentThread()).isFalse();
+		final Thread writer = new Thread(() -> lock.changeExclusively(changeCount::incrementAndGet));
+		writer.start();
+		writer.join(10000);
+		assertThat(changeCount.get()).isEqualTo(2);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void rejectChangesByReaderWhileOtherThreadsRead() throws Exception {
+		final CountDownLatch otherReaderStarted = new CountDownLatch(1);
+		final CountDownLatch readerDone = new CountDownLatch(1);
+		final Thread otherReader = new Thread(() -> lock.readConsistently(() -> {
+			otherReaderStarted.countDown();
+			try {
+				readerDone.await();
+			}
+			catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+			return null;
+		}));
+		otherReader.start();
+		otherReaderStarted.await();
+		try {
+			lock.readConsistently(() -> {
+				lock.changeExclusively(() -> {});
+				return null;
+			});
+		}
+		finally {
+			readerDone.countDown();
+			otherReader.join();
+		}
+	}
+
+	@Test
+	public void runActionsOnceBeforeNextChange() {
+		final StringBuilder events = new StringBuilder();
+		lock.beforeNextChange("key", () -> events.append("action "));
+
+		lock.changeExclusively(() -> events.append("change "));
+		lock.changeExclusively(() -> events.append("change"));
+
+		assertThat(events.toString()).isEqualTo("action change change");
+	}
+
+	@Test
+	public void replaceActionRegisteredWithSameKey() {
+		final StringBuilder events = new StringBuilder();
+		lock.beforeNextChange("key", () -> events.append("first "));
+		lock.beforeNextChange("key", () -> events.append("second "));
+
+		lock.changeExclusively(() -> events.append("change"));
+
+		assertThat(events.toString()).isEqualTo("second change");
+	}
+}
@@ -0,0 +1,44 @@
+package org.freeplane.features.map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class MapModelShould {
+	@Test
+	public void createOneRegisteredIdPerNodeConcurrently() throws Exception {
+		final MapModel map = new MapModel(null, null);
+		final List<NodeModel> nodes = new ArrayList<>();
+		for (int i = 0; i < 1000; i++)
+			nodes.add(new NodeModel("node", map));
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<List<String>>> results = new ArrayList<>();
+			for (int thread = 0; thread < 4; thread++) {
+				results.add(executor.submit(() -> {
+					final List<String> ids = new ArrayList<>();
+					for (NodeModel node : nodes)
+						ids.add(node.createID());
+					return ids;
+				}));
+			}
+			final List<String> firstIds = results.get(0).get();
+			for (Future<List<String>> result : results)
+				assertThat(result.get()).isEqualTo(firstIds);
+			assertThat(firstIds).doesNotHaveDuplicates();
+			for (int i = 0; i < nodes.size(); i++)
+				assertThat(map.getNodeForID(firstIds.get(i))).isSameAs(nodes.get(i));
+		}
+		finally {
+			executor.shutdown();
+			executor.awaitTermination(1, TimeUnit.SECONDS);
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package org.freeplane.features.map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.StringReader;
+
+import org.freeplane.core.io.ReadManager;
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.features.map.MapWriter.Mode;
+import org.freeplane.features.mode.MockControllerRule;
+import org.freeplane.features.ui.ViewController;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class MapReaderShould {
+	private static final String MAP = "<map version=\"freeplane 1.7.0\">"
+	        + "<node TEXT=\"root\" ID=\"ID_1\">"
+	        + "<node TEXT=\"folded\" FOLDED=\"true\" ID=\"ID_2\">"
+	        + "<font BOLD=\"true\"/>"
+	        + "<node TEXT=\"child\" ID=\"ID_3\">"
+	        + "<node TEXT=\"folded grandchild\" FOLDED=\"true\" ID=\"ID_4\"><node TEXT=\"leaf\" ID=\"ID_5\"/></node>"
+	        + "</node>"
+	        + "<node TEXT=\"second child\" ID=\"ID_6\"/>"
+	        + "</node>"
+	        + "<node TEXT=\"unfolded\" ID=\"ID_7\"><node TEXT=\"visible\" ID=\"ID_8\"/></node>"
+	        + "</node></map>";
+	@Rule
+	public final MockControllerRule controllerRule = new MockControllerRule();
+	private final ResourceController resourceController = controllerRule.getResourceController();
+	private MapReader mapReader;
+	private MapModel map;
+
+	@Before
+	public void setup() {
+		when(resourceController.getProperty("load_folding")).thenReturn("load_folding_from_map_default_fold_all");
+		when(resourceController.getBooleanProperty(MapReader.LOAD_FOLDED_SUBTREES_LAZILY_PROPERTY)).thenReturn(true);
+		final ReadManager readManager = new ReadManager();
+		mapReader = new MapReader(readManager);
+		readManager.addElementHandler("map", mapReader);
+		map = new MapModel(null, null);
+	}
+
+	private NodeModel load(String xml) throws Exception {
+		return mapReader.createNodeTreeFromXml(map, new StringReader(xml), Mode.FILE);
+	}
+
+	@Test
+	public void deferChildNodesOfFoldedNodes() throws Exception {
+		final NodeModel root = load(MAP);
+		final NodeModel folded = root.getChildAt(0);
+		final NodeModel unfolded = root.getChildAt(1);
+
+		assertThat(folded.getID()).isEqualTo("ID_2");
+		assertThat(DeferredChildren.isPending(folded.getChildrenInternal())).isTrue();
+		assertThat(folded.hasChildren()).isTrue();
+		assertThat(DeferredChildren.isPending(unfolded.getChildrenInternal())).isFalse();
+		assertThat(unfolded.getChildAt(0).getID()).isEqualTo("ID_8");
+	}
+
+	@Test
+	public void createDeferredChildNodesOnFirstAccess() throws Exception {
+		final NodeModel folded = load(MAP).getChildAt(0);
+
+		assertThat(folded.getChildCount()).isEqualTo(2);
+		final NodeModel child = folded.getChildAt(0);
+		assertThat(child.getID()).isEqualTo("ID_3");
+		assertThat(child.getParentNode()).isSameAs(folded);
+		assertThat(folded.getChildAt(1).getID()).isEqualTo("ID_6");
+		final NodeModel foldedGrandchild = child.getChildAt(0);
+		assertThat(foldedGrandchild.isFolded()).isTrue();
+		assertThat(DeferredChildren.isPending(foldedGrandchild.getChildrenInternal())).isTrue();
+		assertThat(foldedGrandchild.getChildAt(0).getID()).isEqualTo("ID_5");
+	}
+
+	@Test
+	public void measureDeferredChildNodesWithoutLoadingThem() throws Exception {
+		final NodeModel folded = load(MAP).getChildAt(0);
+
+		assertThat(folded.getLoadedChildren()).isEmpty();
+		assertThat(folded.getPendingChildrenTextLength()).isGreaterThan(0);
+		assertThat(DeferredChildren.isPending(folded.getChildrenInternal())).isTrue();
+	}
+
+	@Test
+	public void createDeferredChildNodesOnLookupById() throws Exception {
+		load(MAP);
+
+		final NodeModel leaf = map.getNodeForID("ID_5");
+
+		assertThat(leaf).isNotNull();
+		assertThat(leaf.getParentNode().getParentNode().getParentNode()).isSameAs(map.getNodeForID("ID_2"));
+		assertThat(map.getNodeForID("ID_UNKNOWN")).isNull();
+	}
+
+	@Test
+	public void notCreateDeferredChildNodesOnOtherThreads() throws Exception {
+		final NodeModel folded = load(MAP).getChildAt(0);
+		final ViewController viewController = mock(ViewController.class);
+		when(controllerRule.getController().getViewController()).thenReturn(viewController);
+
+		assertThat(folded.getChildCount()).isZero();
+		assertThat(map.getNodeForID("ID_5")).isNull();
+		assertThat(DeferredChildren.isPending(folded.getChildrenInternal())).isTrue();
+	}
+
+	@Test
+	public void reserveIdsOfDeferredChildNodes() throws Exception {
+		load(MAP);
+		final ViewController viewController = mock(ViewController.class);
+		when(controllerRule.getController().getViewController()).thenReturn(viewController);
+
+		assertThat(map.generateNodeID("ID_5")).isNotEqualTo("ID_5");
+		assertThat(map.generateNodeID("ID_NEW")).isEqualTo("ID_NEW");
+	}
+
+	@Test
+	public void loadAllNodesIfDisabled() throws Exception {
+		when(resourceController.getBooleanProperty(MapReader.LOAD_FOLDED_SUBTREES_LAZILY_PROPERTY)).thenReturn(false);
+
+		final NodeModel folded = load(MAP).getChildAt(0);
+
+		assertThat(DeferredChildren.isPending(folded.getChildrenInternal())).isFalse();
+		assertThat(folded.getChildCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void keepBranchesWithConnectors() throws Exception {
+		final String mapWithConnector = MAP.replace("<node TEXT=\"second child\" ID=\"ID_6\"/>",
+		    "<node TEXT=\"second child\" ID=\"ID_6\"><arrowlink DESTINATION=\"ID_8\"/></node>");
+
+		final NodeModel folded = load(mapWithConnector).getChildAt(0);
+
+		assertThat(DeferredChildren.isPending(folded.getChildrenInternal())).isFalse();
+		final NodeModel foldedGrandchild = folded.getChildAt(0).getChildAt(0);
+		assertThat(DeferredChildren.isPending(foldedGrandchild.getChildrenInternal())).isTrue();
+	}
+}
@@ -0,0 +1,152 @@
+package org.freeplane.features.map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.freeplane.core.io.WriteManager;
+import org.freeplane.core.io.xml.StreamingTreeXmlWriter;
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.features.link.LinkBuilder;
+import org.freeplane.features.map.MapWriter.Hint;
+import org.freeplane.features.map.MapWriter.Mode;
+import org.freeplane.features.mode.MockControllerRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class SubtreeTextCacheShould {
+	private final MapModel map = new MapModel(null, null);
+	private final WriteManager writeManager = new WriteManager();
+	private final SubtreeTextCache.ChangeListener changeListener = new SubtreeTextCache.ChangeListener();
+	private NodeModel root;
+	@Rule
+	public final MockControllerRule controllerRule = new MockControllerRule();
+
+	@Before
+	public void setup() {
+		final ResourceController resourceController = controllerRule.getResourceController();
+		when(resourceController.getBooleanProperty(SubtreeTextCache.SAVE_INCREMENTALLY_PROPERTY)).thenReturn(true);
+		when(resourceController.getBooleanProperty(MapWriter.RESOURCES_SAVE_WITH_STREAMING_WRITER)).thenReturn(true);
+		when(resourceController.getProperty(NodeBuilder.RESOURCES_SAVE_FOLDING))
+		    .thenReturn(NodeBuilder.RESOURCES_NEVER_SAVE_FOLDING);
+		writeManager.addAttributeWriter(NodeBuilder.XML_NODE,
+		    (writer, node, tag) -> writer.addAttribute("TEXT", ((NodeModel) node).getText()));
+		root = new NodeModel("root", map);
+		map.setRoot(root);
+		changeListener.onCreate(map);
+	}
+
+	private NodeModel addNode(NodeModel parent, String text) {
+		final NodeModel node = new NodeModel(text, map);
+		parent.insert(node);
+		return node;
+	}
+
+	private void change(NodeModel node, String text) {
+		node.setUserObject(text);
+		changeListener.nodeChanged(new NodeChangeEvent(node, NodeModel.NODE_TEXT, null, text, true, true));
+	}
+
+	private String save() throws IOException {
+		final StringWriter out = new StringWriter();
+		final SubtreeTextCache.Recording recording = SubtreeTextCache.startRecording(map, out);
+		final StreamingTreeXmlWriter writer = new StreamingTreeXmlWriter(writeManager, recording, false);
+		writer.setHint(Hint.MODE, Mode.FILE);
+		writer.setHint(SubtreeTextCache.Recording.class, recording);
+		final NodeWriter nodeWriter = new NodeWriter(mock(MapController.class), new LinkBuilder(null),
+		    NodeBuilder.XML_NODE, true, true);
+		nodeWriter.registerBy(writeManager);
+		writer.addElement(root, NodeBuilder.XML_NODE);
+		nodeWriter.unregisterFrom(writeManager);
+		recording.finish();
+		return out.toString();
+	}
+
+	private String saveWithoutCache() throws IOException {
+		map.removeExtension(SubtreeTextCache.class);
+		changeListener.onCreate(map);
+		return save();
+	}
+
+	@Test
+	public void notAddCacheWhenSaving() throws Exception {
+		map.removeExtension(SubtreeTextCache.class);
+
+		assertThat(SubtreeTextCache.startRecording(map, new StringWriter())).isNull();
+		assertThat(map.getExtension(SubtreeTextCache.class)).isNull();
+	}
+
+	@Test
+	public void copyTextOfUnchangedSubtrees() throws Exception {
+		final NodeModel unchanged = addNode(root, "unchanged");
+		final NodeModel changed = addNode(root, "changed");
+		save();
+
+		unchanged.setUserObject("modified without notification");
+		change(changed, "new text");
+		final String text = save();
+
+		assertThat(text).contains("TEXT=\"unchanged\"", "TEXT=\"new text\"");
+	}
+
+	@Test
+	public void writeSameTextAsFullSave() throws Exception {
+		final NodeModel first = addNode(root, "first");
+		addNode(first, "first child");
+		final NodeModel second = addNode(root, "second");
+		final NodeModel secondChild = addNode(second, "second child");
+		save();
+
+		change(secondChild, "changed second child");
+		final String text = save();
+
+		assertThat(text).isEqualTo(saveWithoutCache());
+	}
+
+	@Test
+	public void copyDescendantsOfPreviouslyCopiedSubtrees() throws Exception {
+		final NodeModel first = addNode(root, "first");
+		final NodeModel firstChild = addNode(first, "first child");
+		final NodeModel secondChild = addNode(first, "second child");
+		final NodeModel second = addNode(root, "second");
+		save();
+		change(second, "changed second");
+		save();
+
+		change(firstChild, "changed first child");
+		secondChild.setUserObject("modified without notification");
+		final String text = save();
+
+		secondChild.setUserObject("second child");
+		assertThat(text).isEqualTo(saveWithoutCache());
+	}
+
+	@Test
+	public void writeInsertedNodes() throws Exception {
+		final NodeModel parent = addNode(root, "parent");
+		addNode(root, "sibling");
+		save();
+
+		final NodeModel inserted = addNode(parent, "inserted");
+		changeListener.onNodeInserted(parent, inserted, 0);
+		final String text = save();
+
+		assertThat(text).contains("TEXT=\"inserted\"").isEqualTo(saveWithoutCache());
+	}
+
+	@Test
+	public void writeAllNodesAfterMapChange() throws Exception {
+		final NodeModel node = addNode(root, "node");
+		save();
+
+		node.setUserObject("modified without notification");
+		changeListener.mapChanged(new MapChangeEvent(this, map, "property", null, null));
+		final String text = save();
+
+		assertThat(text).contains("TEXT=\"modified without notification\"");
+	}
+}
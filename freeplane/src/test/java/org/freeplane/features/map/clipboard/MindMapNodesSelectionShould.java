@@ -0,0 +1,122 @@
+package org.freeplane.features.map.clipboard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.datatransfer.DataFlavor;
+import java.awt.datatransfer.UnsupportedFlavorException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.freeplane.features.map.MapModel;
+import org.junit.Test;
+
+public class MindMapNodesSelectionShould {
+	private final AtomicInteger createdContents = new AtomicInteger();
+
+	private Supplier<String> content(String content) {
+		return () -> {
+			createdContents.incrementAndGet();
+			return content;
+		};
+	}
+
+	@Test
+	public void createContentOnlyWhenRequested() throws Exception {
+		final MindMapNodesSelection selection = new MindMapNodesSelection(Arrays.asList("<node/>"), content("text"),
+		    content("rtf"), content("html"));
+
+		assertThat(createdContents.get()).isZero();
+		assertThat(selection.getTransferData(DataFlavor.stringFlavor)).isEqualTo("text");
+		assertThat(createdContents.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void createContentOnce() throws Exception {
+		final MindMapNodesSelection selection = new MindMapNodesSelection(Arrays.asList("<node/>"), content("text"),
+		    content("rtf"), content("html"));
+
+		selection.getTransferData(MindMapNodesSelection.htmlFlavor);
+		selection.getTransferData(MindMapNodesSelection.htmlFlavor);
+
+		assertThat(createdContents.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void createAllContents() {
+		final MindMapNodesSelection selection = new MindMapNodesSelection(Arrays.asList("<node/>"), content("text"),
+		    content("rtf"), content("html"));
+
+		selection.createContents();
+
+		assertThat(createdContents.get()).isEqualTo(3);
+	}
+
+	@Test
+	public void joinNodeContentsWithSeparator() throws Exception {
+		final MindMapNodesSelection selection = new MindMapNodesSelection(Arrays.asList("<node ID=\"1\"/>",
+		    "<node ID=\"2\"/>"), content("text"), content("rtf"), content("html"));
+
+		assertThat(selection.getTransferData(MindMapNodesSelection.mindMapNodesFlavor))
+		    .isEqualTo("<node ID=\"1\"/>" + MapClipboardController.NODESEPARATOR + "<node ID=\"2\"/>");
+		assertThat(selection.getNodeContents()).containsExactly("<node ID=\"1\"/>", "<node ID=\"2\"/>");
+	}
+
+	@Test(expected = UnsupportedFlavorException.class)
+	public void rejectHtmlFlavorWithoutContent() throws Exception {
+		final MindMapNodesSelection selection = new MindMapNodesSelection(Arrays.asList("<node/>"), content("text"),
+		    content("rtf"), content(null));
+
+		selection.getTransferData(MindMapNodesSelection.htmlFlavor);
+	}
+
+	@Test
+	public void supportOnlyFlavorsWithContent() {
+		final MindMapNodesSelection selection = new MindMapNodesSelection("<node/>");
+
+		assertThat(selection.isDataFlavorSupported(MindMapNodesSelection.mindMapNodesFlavor)).isTrue();
+		assertThat(selection.isDataFlavorSupported(DataFlavor.stringFlavor)).isFalse();
+		assertThat(selection.getNodeContents()).isNull();
+	}
+
+	@Test
+	public void createContentsBeforeNextChangeOfCopiedNodes() {
+		final MapModel map = new MapModel(null, null);
+		final MindMapNodesSelection selection = new MindMapNodesSelection(map, Arrays.asList("<node/>"), content("text"),
+		    content("rtf"), content("html"));
+
+		selection.createContentsBeforeNextChange();
+
+		assertThat(createdContents.get()).isZero();
+		map.changeExclusively(() -> {});
+		assertThat(createdContents.get()).isEqualTo(3);
+	}
+
+	@Test
+	public void notCreateContentsBeforeNextChangeAfterCancellation() {
+		final MapModel map = new MapModel(null, null);
+		final MindMapNodesSelection selection = new MindMapNodesSelection(map, Arrays.asList("<node/>"), content("text"),
+		    content("rtf"), content("html"));
+
+		selection.createContentsBeforeNextChange();
+		selection.cancelContentCreation();
+
+		map.changeExclusively(() -> {});
+		assertThat(createdContents.get()).isZero();
+	}
+
+	@Test
+	public void createContentsOnlyForLastSelectionCopiedFromMap() {
+		final MapModel map = new MapModel(null, null);
+		final MindMapNodesSelection first = new MindMapNodesSelection(map, Arrays.asList("<node/>"), content("text"),
+		    content("rtf"), content("html"));
+		final MindMapNodesSelection second = new MindMapNodesSelection(map, Arrays.asList("<node/>"), content("text"),
+		    content("rtf"), content("html"));
+
+		first.createContentsBeforeNextChange();
+		second.createContentsBeforeNextChange();
+
+		map.changeExclusively(() -> {});
+		assertThat(createdContents.get()).isEqualTo(3);
+	}
+}
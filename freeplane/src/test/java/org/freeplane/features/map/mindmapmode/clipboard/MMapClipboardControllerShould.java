@@ -0,0 +1,101 @@
+package org.freeplane.features.map.mindmapmode.clipboard;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.freeplane.core.resources.ResourceBundles;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.MapReader;
+import org.freeplane.features.map.MapReader.NodeTreeCreator;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.map.clipboard.MindMapNodesSelection;
+import org.freeplane.features.map.mindmapmode.MMapController;
+import org.freeplane.features.mode.Controller;
+import org.freeplane.features.mode.MockControllerRule;
+import org.freeplane.features.mode.ModeController;
+import org.freeplane.features.ui.ViewController;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class MMapClipboardControllerShould {
+	@Rule
+	public final MockControllerRule controllerRule = new MockControllerRule();
+	private final ModeController modeController = mock(ModeController.class);
+	private final MMapController mapController = mock(MMapController.class);
+	private final MapModel map = new MapModel(null, null);
+	private final NodeModel root = new NodeModel("root", map);
+	private final NodeModel cutNode = new NodeModel("cut", map);
+	private MMapClipboardController clipboardController;
+
+	@Before
+	public void setup() {
+		final Controller controller = controllerRule.getController();
+		when(controller.getModeController()).thenReturn(modeController);
+		when(controller.getViewController()).thenReturn(mock(ViewController.class));
+		when(controllerRule.getResourceController().getResources()).thenReturn(mock(ResourceBundles.class));
+		when(modeController.getMapController()).thenReturn(mapController);
+		when(mapController.isWriteable(any())).thenReturn(true);
+		map.setRoot(root);
+		clipboardController = new MMapClipboardController();
+	}
+
+	private MindMapNodesSelection cutSelection() {
+		final MindMapNodesSelection selection = new MindMapNodesSelection(map, Arrays.asList("<node TEXT=\"cut\"/>"),
+		    () -> "cut", () -> null, () -> null);
+		selection.setCutNodes(Collections.singletonList(cutNode));
+		return selection;
+	}
+
+	private NodeModel readCopyInto(MapModel targetMap) throws Exception {
+		final MapReader mapReader = mock(MapReader.class);
+		final NodeTreeCreator nodeTreeCreator = mock(NodeTreeCreator.class);
+		final NodeModel copy = new NodeModel("cut", targetMap);
+		when(mapController.getMapReader()).thenReturn(mapReader);
+		when(mapReader.nodeTreeCreator(targetMap)).thenReturn(nodeTreeCreator);
+		when(nodeTreeCreator.create(any(Reader.class))).thenReturn(copy);
+		return copy;
+	}
+
+	@Test
+	public void pasteCutNodesThemselves() {
+		clipboardController.paste(cutSelection(), root, false, false);
+
+		verify(mapController).insertNode(eq(cutNode), eq(root), eq(false), eq(false), anyBoolean());
+		verify(mapController, never()).getMapReader();
+	}
+
+	@Test
+	public void pasteCopiesOfCutNodesInsertedAgain() throws Exception {
+		final MindMapNodesSelection selection = cutSelection();
+		root.insert(cutNode);
+		final NodeModel copy = readCopyInto(map);
+
+		clipboardController.paste(selection, root, false, false);
+
+		verify(mapController).insertNode(eq(copy), eq(root), eq(false), eq(false), anyBoolean());
+		verify(mapController, never()).insertNode(eq(cutNode), any(), anyBoolean(), anyBoolean(), anyBoolean());
+	}
+
+	@Test
+	public void pasteCopiesOfCutNodesIntoOtherMaps() throws Exception {
+		final MapModel otherMap = new MapModel(null, null);
+		final NodeModel otherRoot = new NodeModel("other root", otherMap);
+		otherMap.setRoot(otherRoot);
+		final NodeModel copy = readCopyInto(otherMap);
+
+		clipboardController.paste(cutSelection(), otherRoot, false, false);
+
+		verify(mapController).insertNode(eq(copy), eq(otherRoot), eq(false), eq(false), anyBoolean());
+		verify(mapController, never()).insertNode(eq(cutNode), any(), anyBoolean(), anyBoolean(), anyBoolean());
+	}
+}
@@ -0,0 +1,39 @@
+package org.freeplane.features.mode;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.freeplane.core.resources.ResourceController;
+import org.junit.rules.ExternalResource;
+
+/**
+ * Binds a mock controller returning a mock resource controller to the thread running the test
+ * and restores the previously bound controller after the test.
+ */
+public class MockControllerRule extends ExternalResource {
+	private final Controller controller = mock(Controller.class);
+	private final ResourceController resourceController = mock(ResourceController.class);
+	private Controller previousController;
+
+	public MockControllerRule() {
+		when(controller.getResourceController()).thenReturn(resourceController);
+	}
+
+	public Controller getController() {
+		return controller;
+	}
+
+	public ResourceController getResourceController() {
+		return resourceController;
+	}
+
+	@Override
+	protected void before() {
+		previousController = Controller.setCurrentThreadController(controller);
+	}
+
+	@Override
+	protected void after() {
+		Controller.setCurrentThreadController(previousController);
+	}
+}
@@ -0,0 +1,74 @@
+package org.freeplane.features.nodestyle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.util.Arrays;
+
+import org.freeplane.features.nodestyle.NodeStyleModel.HorizontalTextAlignment;
+import org.junit.Test;
+
+public class ResolvedNodeStyleShould {
+	private static final Font BASE_FONT = new Font("SansSerif", Font.PLAIN, 10);
+
+	private static NodeStyleModel styleModel() {
+		return new NodeStyleModel();
+	}
+
+	@Test
+	public void takeEachPropertyFromFirstStyleDefiningIt() {
+		final NodeStyleModel first = styleModel();
+		first.setBold(true);
+		first.setColor(Color.RED);
+		final NodeStyleModel second = styleModel();
+		second.setBold(false);
+		second.setFontSize(20);
+		second.setColor(Color.BLUE);
+		second.setBackgroundColor(Color.YELLOW);
+		second.setHorizontalTextAlignment(HorizontalTextAlignment.CENTER);
+
+		final ResolvedNodeStyle resolvedStyle = new ResolvedNodeStyle(Arrays.asList(first, second));
+
+		assertThat(resolvedStyle.getFont(BASE_FONT)).isEqualTo(new Font("SansSerif", Font.BOLD, 20));
+		assertThat(resolvedStyle.getTextColor()).isEqualTo(Color.RED);
+		assertThat(resolvedStyle.getBackgroundColor()).isEqualTo(Color.YELLOW);
+		assertThat(resolvedStyle.getHorizontalTextAlignment()).isEqualTo(HorizontalTextAlignment.CENTER);
+		assertThat(resolvedStyle.getShapeConfiguration()).isNull();
+	}
+
+	@Test
+	public void returnBaseFontIfNoStyleDefinesFontProperties() {
+		final ResolvedNodeStyle resolvedStyle = new ResolvedNodeStyle(Arrays.asList(styleModel()));
+
+		assertThat(resolvedStyle.getFont(BASE_FONT)).isSameAs(BASE_FONT);
+	}
+
+	@Test
+	public void resolveFontAgainForOtherBaseFont() {
+		final NodeStyleModel style = styleModel();
+		style.setItalic(true);
+		final ResolvedNodeStyle resolvedStyle = new ResolvedNodeStyle(Arrays.asList(style));
+		resolvedStyle.getFont(BASE_FONT);
+
+		final Font font = resolvedStyle.getFont(new Font("Serif", Font.PLAIN, 12));
+
+		assertThat(font).isEqualTo(new Font("Serif", Font.ITALIC, 12));
+	}
+
+	@Test
+	public void shareFontsAndColorsOfNodesWithEqualStyles() {
+		final NodeStyleModel first = styleModel();
+		first.setFontSize(14);
+		first.setColor(new Color(10, 20, 30));
+		final NodeStyleModel second = styleModel();
+		second.setFontSize(14);
+		second.setColor(new Color(10, 20, 30));
+
+		final ResolvedNodeStyle firstStyle = new ResolvedNodeStyle(Arrays.asList(first));
+		final ResolvedNodeStyle secondStyle = new ResolvedNodeStyle(Arrays.asList(second));
+
+		assertThat(secondStyle.getFont(BASE_FONT)).isSameAs(firstStyle.getFont(BASE_FONT));
+		assertThat(secondStyle.getTextColor()).isSameAs(firstStyle.getTextColor());
+	}
+}
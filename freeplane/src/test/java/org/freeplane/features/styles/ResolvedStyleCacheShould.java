@@ -0,0 +1,96 @@
+package org.freeplane.features.styles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.styles.ResolvedStyleCache.Dependency;
+import org.junit.Test;
+
+public class ResolvedStyleCacheShould {
+	private final MapModel map = new MapModel(null, null);
+	private final NodeModel node = new NodeModel("node", map);
+	private final NodeModel otherNode = new NodeModel("other node", map);
+	private final Collection<IStyle> styles = Collections.singletonList(mock(IStyle.class));
+	private final ResolvedStyleCache cache = new ResolvedStyleCache();
+
+	private void put(NodeModel node, Dependency dependency) {
+		cache.putStyles(node, styles, dependency, cache.getChangeGeneration());
+	}
+
+	@Test
+	public void returnStoredStyles() {
+		put(node, Dependency.NODE_CONTENT);
+
+		assertThat(cache.getStyles(node)).isSameAs(styles);
+	}
+
+	@Test
+	public void forgetStylesOfChangedNodeOnly() {
+		put(node, Dependency.NODE_CONTENT);
+		put(otherNode, Dependency.NODE_CONTENT);
+
+		cache.nodeChanged(node);
+
+		assertThat(cache.getStyles(node)).isNull();
+		assertThat(cache.getStyles(otherNode)).isSameAs(styles);
+	}
+
+	@Test
+	public void keepContentDependentStylesAfterStructureChange() {
+		put(node, Dependency.NODE_CONTENT);
+
+		cache.structureChanged();
+
+		assertThat(cache.getStyles(node)).isSameAs(styles);
+	}
+
+	@Test
+	public void forgetPositionDependentStylesAfterStructureChange() {
+		put(node, Dependency.NODE_POSITION);
+
+		cache.structureChanged();
+
+		assertThat(cache.getStyles(node)).isNull();
+	}
+
+	@Test
+	public void notStoreStylesDependingOnOtherNodes() {
+		put(node, Dependency.OTHER);
+
+		assertThat(cache.getStyles(node)).isNull();
+	}
+
+	@Test
+	public void holdStoredStylesOnly() {
+		put(node, Dependency.NODE_CONTENT);
+		put(otherNode, Dependency.OTHER);
+
+		assertThat(cache.holds(node, styles)).isTrue();
+		assertThat(cache.holds(node, Collections.<IStyle>emptyList())).isFalse();
+		assertThat(cache.holds(otherNode, styles)).isFalse();
+	}
+
+	@Test
+	public void notStoreStylesResolvedWhileNodesChanged() {
+		final int changeGeneration = cache.getChangeGeneration();
+		cache.nodeChanged(otherNode);
+
+		cache.putStyles(node, styles, Dependency.NODE_CONTENT, changeGeneration);
+
+		assertThat(cache.getStyles(node)).isNull();
+	}
+
+	@Test
+	public void forgetAllStylesAfterConditionalStylesChange() {
+		put(node, Dependency.NODE_CONTENT);
+
+		new ConditionalStyleModel().addCondition(true, null, mock(IStyle.class), false);
+
+		assertThat(cache.getStyles(node)).isNull();
+	}
+}
@@ -0,0 +1,104 @@
+package org.freeplane.features.text;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.function.Predicate;
+
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.mode.MockControllerRule;
+import org.freeplane.features.mode.ModeController;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class NodeTextIndexShould {
+	private final MapModel map = new MapModel(null, null);
+	private NodeModel root;
+	@Rule
+	public final MockControllerRule controllerRule = new MockControllerRule();
+
+	@Before
+	public void setup() {
+		final ResourceController resourceController = controllerRule.getResourceController();
+		final ModeController modeController = mock(ModeController.class);
+		final TextController textController = mock(TextController.class);
+		when(controllerRule.getController().getModeController()).thenReturn(modeController);
+		when(modeController.getExtension(TextController.class)).thenReturn(textController);
+		when(textController.getTransformedObjectNoFormattingNoThrow(any(), any(), any()))
+		    .thenAnswer(invocation -> invocation.getArgument(0));
+		when(resourceController.getBooleanProperty(NodeTextIndex.USE_TEXT_INDEX_PROPERTY)).thenReturn(true);
+		when(resourceController.getDoubleProperty("approximate_search_threshold")).thenReturn(0.65);
+		root = new NodeModel("root", map);
+		map.setRoot(root);
+		map.addExtension(new NodeTextIndex(map));
+	}
+
+	private NodeModel addNode(String text) {
+		final NodeModel node = new NodeModel(text, map);
+		root.insert(node);
+		return node;
+	}
+
+	private Predicate<NodeModel> candidates(String searchTerm, boolean matchCase, boolean matchApproximately,
+	                                        boolean ignoreDiacritics) {
+		return new NodeContainsCondition(TextController.FILTER_NODE, searchTerm, matchCase, matchApproximately,
+		    ignoreDiacritics).createCandidateTest(map);
+	}
+
+	@Test
+	public void excludeNodesNotContainingSearchTerm() {
+		final NodeModel hello = addNode("Hello world");
+		final NodeModel worldwide = addNode("<html><body>WORLDWIDE</body></html>");
+		final NodeModel cologne = addNode("Grüße aus Köln");
+		final Predicate<NodeModel> candidates = candidates("world", false, false, false);
+		assertThat(candidates.test(hello)).isTrue();
+		assertThat(candidates.test(worldwide)).isTrue();
+		assertThat(candidates.test(cologne)).isFalse();
+	}
+
+	@Test
+	public void findNodesIgnoringDiacritics() {
+		final NodeModel cologne = addNode("Grüße aus Köln");
+		final NodeModel hello = addNode("Hello world");
+		final Predicate<NodeModel> candidates = candidates("KOLN", false, false, true);
+		assertThat(candidates.test(cologne)).isTrue();
+		assertThat(candidates.test(hello)).isFalse();
+	}
+
+	@Test
+	public void updateIndexAfterNodeChanges() {
+		final NodeModel hello = addNode("Hello world");
+		assertThat(candidates("world", false, false, false).test(hello)).isTrue();
+		final NodeTextIndex index = map.getExtension(NodeTextIndex.class);
+
+		hello.setText("Hello there");
+		index.nodeChanged(hello);
+		final NodeModel newNode = addNode("new world");
+		index.subtreeInserted(newNode);
+
+		final Predicate<NodeModel> candidates = candidates("world", false, false, false);
+		assertThat(candidates.test(hello)).isFalse();
+		assertThat(candidates.test(newNode)).isTrue();
+	}
+
+	@Test
+	public void keepAllApproximateMatchesAsCandidates() {
+		final String[] texts = { "approximate matching", "aproximate mathcing", "approximately", "matching",
+		        "bulky fuzz 42", "a-pro-xi-mate" };
+		for (String text : texts)
+			addNode(text);
+		final NodeContainsCondition condition = new NodeContainsCondition(TextController.FILTER_NODE,
+		    "approximate matching", false, true, false);
+		final Predicate<NodeModel> candidates = condition.createCandidateTest(map);
+		for (NodeModel node : root.getChildren()) {
+			if (condition.checkNode(node))
+				assertThat(candidates.test(node)).as(node.getText()).isTrue();
+		}
+		assertThat(candidates.test(root.getChildren().get(4))).isFalse();
+	}
+}
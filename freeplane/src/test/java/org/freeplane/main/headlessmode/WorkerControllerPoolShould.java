@@ -0,0 +1,104 @@
+package org.freeplane.main.headlessmode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.freeplane.features.mode.Controller;
+import org.junit.After;
+import org.junit.Test;
+
+public class WorkerControllerPoolShould {
+	private WorkerControllerPool pool;
+
+	@After
+	public void closePool() {
+		if (pool != null)
+			pool.close();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectNonPositiveWorkerCount() {
+		pool = new WorkerControllerPool(0, Executors::newSingleThreadExecutor);
+	}
+
+	@Test
+	public void createOneMainThreadPerWorker() {
+		final AtomicInteger createdMainThreads = new AtomicInteger();
+
+		pool = new WorkerControllerPool(3, () -> {
+			createdMainThreads.incrementAndGet();
+			return Executors.newSingleThreadExecutor();
+		});
+
+		assertThat(pool.getWorkerCount()).isEqualTo(3);
+		assertThat(createdMainThreads.get()).isEqualTo(3);
+	}
+
+	@Test
+	public void giveTaskToWorkerWithLeastPendingTasks() throws Exception {
+		pool = new WorkerControllerPool(2, Executors::newSingleThreadExecutor);
+		final CountDownLatch release = new CountDownLatch(1);
+		final Future<Thread> blockedWorker = pool.submit(() -> {
+			release.await();
+			return Thread.currentThread();
+		});
+
+		final Thread otherWorker = pool.submit(Thread::currentThread).get(10, TimeUnit.SECONDS);
+		release.countDown();
+
+		assertThat(blockedWorker.get(10, TimeUnit.SECONDS)).isNotSameAs(otherWorker);
+	}
+
+	@Test
+	public void completeSubmittedTasksOnClose() {
+		pool = new WorkerControllerPool(2, Executors::newSingleThreadExecutor);
+		final AtomicInteger completedTasks = new AtomicInteger();
+		for (int i = 0; i < 10; i++)
+			pool.submit(() -> {
+				Thread.sleep(5);
+				return completedTasks.incrementAndGet();
+			});
+
+		pool.close();
+
+		assertThat(completedTasks.get()).isEqualTo(10);
+	}
+
+	@Test
+	public void executeTasksOfEachWorkerWithItsOwnController() throws Exception {
+		final List<Controller> workerControllers = new ArrayList<>();
+		pool = new WorkerControllerPool(2, () -> {
+			final Controller controller = mock(Controller.class);
+			workerControllers.add(controller);
+			return mainThreadBoundTo(controller);
+		});
+		final CountDownLatch release = new CountDownLatch(1);
+		final Future<Controller> blockedWorkerController = pool.submit(() -> {
+			release.await();
+			return Controller.getCurrentController();
+		});
+
+		final Controller otherWorkerController = pool.submit(Controller::getCurrentController).get(10, TimeUnit.SECONDS);
+		release.countDown();
+
+		assertThat(workerControllers).containsExactlyInAnyOrder(blockedWorkerController.get(10, TimeUnit.SECONDS),
+		    otherWorkerController);
+	}
+
+	/** Creates a main thread bound to the controller like the main thread of a headless worker controller. */
+	private static ExecutorService mainThreadBoundTo(Controller controller) {
+		return Executors.newSingleThreadExecutor(task -> new Thread(() -> {
+			Controller.setCurrentThreadController(controller);
+			task.run();
+		}));
+	}
+}
@@ -0,0 +1,106 @@
+package org.freeplane.view.swing.features.time.mindmapmode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ReminderSchedulerShould {
+	private final ReminderScheduler scheduler = new ReminderScheduler();
+	private final List<String> executedTasks = new CopyOnWriteArrayList<>();
+
+	private static ReminderExtension reminder(long remindUserAt) {
+		final ReminderExtension reminder = new ReminderExtension(null);
+		reminder.setRemindUserAt(remindUserAt);
+		return reminder;
+	}
+
+	private Runnable task(String name, CountDownLatch latch) {
+		return () -> {
+			executedTasks.add(name);
+			latch.countDown();
+		};
+	}
+
+	@Test
+	public void executeTasksInOrderOfTheirExecutionTime() throws Exception {
+		final long now = System.currentTimeMillis();
+		final CountDownLatch latch = new CountDownLatch(3);
+
+		scheduler.schedule(reminder(0), task("second", latch), now + 100, 0);
+		scheduler.schedule(reminder(0), task("third", latch), now + 150, 0);
+		scheduler.schedule(reminder(0), task("first", latch), now + 50, 0);
+
+		assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(executedTasks).containsExactly("first", "second", "third");
+	}
+
+	@Test
+	public void executeOnlyTaskScheduledLast() throws Exception {
+		final long now = System.currentTimeMillis();
+		final CountDownLatch latch = new CountDownLatch(2);
+		final ReminderExtension rescheduledReminder = reminder(0);
+
+		scheduler.schedule(rescheduledReminder, task("replaced", latch), now + 50, 0);
+		scheduler.schedule(rescheduledReminder, task("rescheduled", latch), now + 150, 0);
+		scheduler.schedule(reminder(0), task("other", latch), now + 100, 0);
+
+		assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(executedTasks).containsExactly("other", "rescheduled");
+	}
+
+	@Test
+	public void notExecuteCancelledTask() throws Exception {
+		final long now = System.currentTimeMillis();
+		final CountDownLatch latch = new CountDownLatch(1);
+		final ReminderExtension cancelledReminder = reminder(0);
+
+		scheduler.schedule(cancelledReminder, task("cancelled", latch), now + 50, 0);
+		scheduler.schedule(reminder(0), task("other", latch), now + 150, 0);
+		scheduler.cancel(cancelledReminder);
+
+		assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(executedTasks).containsExactly("other");
+	}
+
+	@Test
+	public void executeTaskRepeatedlyAfterPeriod() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(3);
+
+		scheduler.schedule(reminder(0), task("periodic", latch), System.currentTimeMillis(), 10);
+
+		assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	public void executeRemainingTasksAfterTaskFailedWithError() throws Exception {
+		final long now = System.currentTimeMillis();
+		final CountDownLatch latch = new CountDownLatch(1);
+
+		scheduler.schedule(reminder(0), () -> {throw new AssertionError("failing task");}, now + 50, 0);
+		scheduler.schedule(reminder(0), task("other", latch), now + 150, 0);
+
+		assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(executedTasks).containsExactly("other");
+	}
+
+	@Test
+	public void keepCancelledRemindersUntilTheyAreRemoved() {
+		final long now = System.currentTimeMillis();
+		final ReminderExtension later = reminder(2000);
+		final ReminderExtension earlier = reminder(1000);
+		final ReminderExtension removed = reminder(3000);
+		scheduler.schedule(later, () -> {}, now + 100000, 0);
+		scheduler.schedule(earlier, () -> {}, now + 100000, 0);
+		scheduler.schedule(removed, () -> {}, now + 100000, 0);
+
+		scheduler.cancel(later);
+		scheduler.remove(removed);
+
+		assertThat(scheduler.getReminders(reminder -> true)).containsExactly(earlier, later);
+	}
+}
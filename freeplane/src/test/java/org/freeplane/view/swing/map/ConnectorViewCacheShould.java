@@ -0,0 +1,85 @@
+package org.freeplane.view.swing.map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.Vector;
+
+import org.freeplane.view.swing.map.link.ILinkView;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+public class ConnectorViewCacheShould {
+	private static final String SHOW_CONNECTORS = "true";
+	private static final Rectangle COLLECTED_AREA = new Rectangle(-1000, -1000, 3000, 3000);
+
+	private static ILinkView view(Rectangle bounds) {
+		final ILinkView view = mock(ILinkView.class);
+		when(view.getPaintedBounds()).thenReturn(bounds);
+		return view;
+	}
+
+	private static ConnectorViewCache cache(ILinkView... views) {
+		return new ConnectorViewCache(new Vector<>(Arrays.asList(views)), COLLECTED_AREA, SHOW_CONNECTORS, false,
+		    Color.WHITE);
+	}
+
+	private static Graphics2D graphicsClippedTo(Rectangle clip) {
+		final Graphics2D graphics = mock(Graphics2D.class);
+		when(graphics.getClipBounds()).thenReturn(clip);
+		return graphics;
+	}
+
+	@Test
+	public void paintOnlyViewsIntersectingClip() {
+		final ILinkView visibleView = view(new Rectangle(10, 10, 50, 50));
+		final ILinkView hiddenView = view(new Rectangle(900, 900, 50, 50));
+		final Graphics2D graphics = graphicsClippedTo(new Rectangle(0, 0, 100, 100));
+
+		cache(visibleView, hiddenView).paint(graphics);
+
+		verify(visibleView).paint(graphics);
+		verify(hiddenView, never()).paint(graphics);
+	}
+
+	@Test
+	public void paintViewsInCollectedOrder() {
+		final ILinkView first = view(new Rectangle(600, 10, 50, 50));
+		final ILinkView second = view(new Rectangle(10, 10, 50, 50));
+		final Graphics2D graphics = graphicsClippedTo(new Rectangle(0, 0, 700, 100));
+
+		cache(first, second).paint(graphics);
+
+		final InOrder inOrder = inOrder(first, second);
+		inOrder.verify(first).paint(graphics);
+		inOrder.verify(second).paint(graphics);
+	}
+
+	@Test
+	public void alwaysPaintViewsWithUnknownBounds() {
+		final ILinkView view = view(null);
+		final Graphics2D graphics = graphicsClippedTo(new Rectangle(0, 0, 100, 100));
+
+		cache(view).paint(graphics);
+
+		verify(view).paint(graphics);
+	}
+
+	@Test
+	public void paintOnlyAreasInsideCollectedAreaWithSameSettings() {
+		final ConnectorViewCache cache = cache();
+
+		assertThat(cache.canPaint(new Rectangle(0, 0, 100, 100), SHOW_CONNECTORS, false, Color.WHITE)).isTrue();
+		assertThat(cache.canPaint(new Rectangle(1900, 0, 200, 100), SHOW_CONNECTORS, false, Color.WHITE)).isFalse();
+		assertThat(cache.canPaint(new Rectangle(0, 0, 100, 100), SHOW_CONNECTORS, true, Color.WHITE)).isFalse();
+		assertThat(cache.canPaint(new Rectangle(0, 0, 100, 100), SHOW_CONNECTORS, false, Color.BLACK)).isFalse();
+	}
+}
@@ -0,0 +1,209 @@
+package org.freeplane.view.swing.map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.awt.Dimension;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+
+import org.freeplane.features.cloud.CloudModel;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.mode.MockControllerRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class NodeViewLayoutSummaryShould {
+	private static final int WIDTH = 100;
+
+	private final List<NodeView> laidOutViews = new ArrayList<>();
+	@Rule
+	public final MockControllerRule controllerRule = new MockControllerRule();
+	private final MapModel map = new MapModel(null, null);
+	private MapView mapView;
+
+	/**
+	 * Node view laid out by {@link NodeViewLayout} whose content has a fixed preferred size.
+	 * It records when its layout completes.
+	 */
+	private class TestNodeView extends NodeView {
+		private static final long serialVersionUID = 1L;
+		private final JPanel content = new JPanel();
+
+		TestNodeView(NodeModel model) {
+			super(model, mapView, null);
+			setLayout(NodeViewLayout.getInstance());
+			setContentHeight(10);
+			add(content);
+		}
+
+		TestNodeView addChild() {
+			final NodeModel childModel = new NodeModel("child", map);
+			getModel().insert(childModel);
+			final TestNodeView child = new TestNodeView(childModel);
+			// child views precede the content component
+			add(child, getComponentCount() - 1);
+			return child;
+		}
+
+		void setContentHeight(int height) {
+			content.setPreferredSize(new Dimension(WIDTH, height));
+		}
+
+		@Override
+		void layoutCompleted() {
+			laidOutViews.add(this);
+			super.layoutCompleted();
+		}
+
+		// the edge color cached by node views is not initialized without a mode controller
+		@SuppressWarnings("deprecation")
+		@Override
+		public void setBounds(int x, int y, int width, int height) {
+			reshape(x, y, width, height);
+		}
+
+		@Override
+		public void update() {
+			requestLayout();
+			invalidate();
+		}
+
+		@Override
+		public JComponent getContent() {
+			return content;
+		}
+
+		@Override
+		public NodeView getChildDistanceContainer() {
+			return this;
+		}
+
+		@Override
+		public int getMinimalDistanceBetweenChildren() {
+			return 5;
+		}
+
+		@Override
+		public boolean isContentVisible() {
+			return true;
+		}
+
+		@Override
+		public CloudModel getCloudModel() {
+			return null;
+		}
+
+		@Override
+		public int getShift() {
+			return 0;
+		}
+
+		@Override
+		public int getHGap() {
+			return 0;
+		}
+
+		@Override
+		public boolean isLeft() {
+			return false;
+		}
+
+		@Override
+		public boolean isFree() {
+			return false;
+		}
+
+		@Override
+		public boolean isSummary() {
+			return false;
+		}
+
+		@Override
+		public boolean isFirstGroupNode() {
+			return false;
+		}
+	}
+
+	private TestNodeView root;
+	private TestNodeView child;
+	private TestNodeView sibling;
+	private TestNodeView grandchild;
+	private TestNodeView greatGrandchild;
+
+	@Before
+	public void setup() {
+		when(controllerRule.getResourceController().getProperty("show_connectors")).thenReturn("true");
+		mapView = mock(MapView.class, RETURNS_DEEP_STUBS);
+		root = createRootView();
+		child = root.addChild();
+		sibling = root.addChild();
+		grandchild = child.addChild();
+		greatGrandchild = grandchild.addChild();
+		// components without peers never become valid
+		root.addNotify();
+		validate(root);
+		laidOutViews.clear();
+	}
+
+	private TestNodeView createRootView() {
+		final NodeModel rootModel = new NodeModel("root", map);
+		map.setRoot(rootModel);
+		return new TestNodeView(rootModel);
+	}
+
+	private static void validate(NodeView view) {
+		synchronized (view.getTreeLock()) {
+			view.validateTree();
+		}
+	}
+
+	@Test
+	public void layOutAllViewsInitially() {
+		final TestNodeView view = createRootView();
+		final TestNodeView childView = view.addChild();
+		view.addNotify();
+
+		validate(view);
+
+		assertThat(laidOutViews).containsExactly(childView, view);
+	}
+
+	@Test
+	public void layOutOnlyAncestorsOfChangedDeepNode() {
+		final int rootHeight = root.getHeight();
+		greatGrandchild.setContentHeight(20);
+		greatGrandchild.update();
+
+		validate(root);
+
+		assertThat(laidOutViews).containsExactly(greatGrandchild, grandchild, child, root);
+		assertThat(root.getHeight()).isEqualTo(rootHeight + 10);
+	}
+
+	@Test
+	public void stopAtFirstBranchWithUnchangedSummary() {
+		greatGrandchild.update();
+
+		validate(root);
+
+		assertThat(laidOutViews).containsExactly(greatGrandchild);
+	}
+
+	@Test
+	public void layOutAllViewsAfterAllViewsWereUpdated() {
+		// zoom and filter changes update all node views
+		root.updateAll();
+
+		validate(root);
+
+		assertThat(laidOutViews).containsExactlyInAnyOrder(greatGrandchild, grandchild, child, sibling, root);
+	}
+}
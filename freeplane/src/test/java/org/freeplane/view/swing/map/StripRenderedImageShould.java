@@ -0,0 +1,72 @@
+package org.freeplane.view.swing.map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import org.junit.Test;
+
+public class StripRenderedImageShould {
+	private static final int WIDTH = 40;
+	private static final int HEIGHT = 100;
+	private static final int STRIP_HEIGHT = 16;
+
+	private final AtomicInteger paintedStrips = new AtomicInteger();
+
+	private StripRenderedImage image() {
+		return new StripRenderedImage(WIDTH, HEIGHT, STRIP_HEIGHT, Color.WHITE, this::paint);
+	}
+
+	private void paint(Graphics2D g) {
+		paintedStrips.incrementAndGet();
+		g.setColor(Color.RED);
+		g.fillRect(10, 30, 20, 50);
+	}
+
+	@Test
+	public void renderRequestedPixels() {
+		final Raster data = image().getData(new Rectangle(0, 20, WIDTH, 40));
+
+		assertThat(data.getBounds()).isEqualTo(new Rectangle(0, 20, WIDTH, 40));
+		assertThat(rgb(data, 5, 35)).isEqualTo(Color.WHITE.getRGB() & 0xFFFFFF);
+		assertThat(rgb(data, 15, 29)).isEqualTo(Color.WHITE.getRGB() & 0xFFFFFF);
+		assertThat(rgb(data, 15, 30)).isEqualTo(Color.RED.getRGB() & 0xFFFFFF);
+		assertThat(rgb(data, 29, 59)).isEqualTo(Color.RED.getRGB() & 0xFFFFFF);
+	}
+
+	@Test
+	public void renderOnlyStripsContainingRequestedRows() {
+		image().getData(new Rectangle(0, 20, WIDTH, 40));
+
+		assertThat(paintedStrips.get()).isEqualTo(3);
+	}
+
+	@Test
+	public void renderEachStripOnceWhenWrittenAsPng() throws Exception {
+		final StripRenderedImage image = image();
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		ImageIO.write(image, "png", output);
+
+		assertThat(paintedStrips.get()).isEqualTo(image.getNumYTiles());
+		final BufferedImage writtenImage = ImageIO.read(new ByteArrayInputStream(output.toByteArray()));
+		assertThat(writtenImage.getWidth()).isEqualTo(WIDTH);
+		assertThat(writtenImage.getHeight()).isEqualTo(HEIGHT);
+		assertThat(writtenImage.getRGB(15, 79)).isEqualTo(Color.RED.getRGB());
+		assertThat(writtenImage.getRGB(15, 80)).isEqualTo(Color.WHITE.getRGB());
+	}
+
+	private static int rgb(Raster data, int x, int y) {
+		final int[] pixel = data.getPixel(x, y, (int[]) null);
+		return pixel[0] << 16 | pixel[1] << 8 | pixel[2];
+	}
+}
@@ -0,0 +1,67 @@
+package org.freeplane.api;
+
+/**
+ * Usage counters of the formula result cache of a map, returned by {@link MindMap#getFormulaCacheStatistics()}.
+ *
+ * Hits and misses count cache lookups on formula evaluation, evictions count results removed
+ * because the cache exceeded the memory limit set by preference <code>formula_cache_memory_limit</code>.
+ *
+ * @since 1.8.11
+ */
+public class FormulaCacheStatistics {
+	private final long hits;
+	private final long misses;
+	private final long evictions;
+	private final int cachedResults;
+	private final long estimatedSize;
+
+	public FormulaCacheStatistics(long hits, long misses, long evictions, int cachedResults, long estimatedSize) {
+		super();
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+		this.cachedResults = cachedResults;
+		this.estimatedSize = estimatedSize;
+	}
+
+	/**
+	 * Returns the number of formula evaluations answered from the cache.
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of formula evaluations which had to execute the formula.
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Returns the number of results removed to keep the cache within its memory limit.
+	 */
+	public long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * Returns the number of currently cached formula results.
+	 */
+	public int getCachedResults() {
+		return cachedResults;
+	}
+
+	/**
+	 * Returns the estimated memory used by the cached results in bytes.
+	 */
+	public long getEstimatedSize() {
+		return estimatedSize;
+	}
+
+	@Override
+	public String toString() {
+		return "[hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + ", cachedResults="
+		        + cachedResults + ", estimatedSize=" + estimatedSize + "]";
+	}
+}
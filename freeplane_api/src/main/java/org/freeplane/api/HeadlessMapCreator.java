@@ -66,4 +66,12 @@ public interface HeadlessMapCreator {
 	 */
 	AttributeValueSerializer getAttributeValueSerializer();
 
+	/**
+	 * Creates a pool of workers processing mind maps in parallel, each of them with its own isolated controller.
+	 *
+	 * @throws UnsupportedOperationException if Freeplane does not run headless
+	 * @since 1.8.11
+	 */
+	HeadlessWorkerPool createWorkerPool(int workerCount);
+
 }
\ No newline at end of file
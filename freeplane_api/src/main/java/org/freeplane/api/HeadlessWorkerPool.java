@@ -0,0 +1,58 @@
+package org.freeplane.api;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Pool of headless workers loading, changing, scripting and saving mind maps in parallel.
+ *
+ * Each worker has its own isolated controller. A task receives the {@link HeadlessMapCreator} of the worker executing it,
+ * and the maps it loads belong to this worker, so they should be accessed only by the task.
+ * Tasks should close the maps they load to keep the memory used by the workers bounded.
+ *
+ * <pre>
+ * {@code
+ * try (HeadlessWorkerPool pool = mapCreator.createWorkerPool(4)) {
+ *     pool.processAll(files, (creator, file) -> {
+ *         MindMap map = creator.mapLoader(file).load();
+ *         creator.script("node.map.root.text = node.map.root.text.trim()", "groovy").executeOn(map.getRoot());
+ *         map.save(false);
+ *         return map.close(true, false);
+ *     });
+ * }
+ * }
+ * </pre>
+ *
+ * @since 1.8.11
+ */
+public interface HeadlessWorkerPool extends AutoCloseable {
+	/** @since 1.8.11 */
+	int getWorkerCount();
+
+	/**
+	 * Submits the task to the worker with the least pending tasks.
+	 * @since 1.8.11
+	 */
+	<T> Future<T> submit(Function<HeadlessMapCreator, T> task);
+
+	/**
+	 * Processes all inputs in parallel and waits for the results.
+	 *
+	 * @return results in the order of the inputs
+	 * @throws ExecutionException if processing of any input failed
+	 * @since 1.8.11
+	 */
+	<S, T> List<T> processAll(Collection<S> inputs, BiFunction<HeadlessMapCreator, S, T> task)
+	        throws InterruptedException, ExecutionException;
+
+	/**
+	 * Waits until all submitted tasks complete and stops the workers.
+	 * @since 1.8.11
+	 */
+	@Override
+	void close();
+}
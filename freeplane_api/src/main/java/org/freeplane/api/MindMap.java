@@ -132,7 +132,12 @@ public interface MindMap extends MindMapRO {
 	 * Each formula not having valid result in the cache is evaluated.
 	 *  @since 1.7.2 */
 	void evaluateOutdatedFormulas();
-	
+
+	/**
+	 * Returns hit, miss and eviction counters of the formula result cache of the map.
+	 *  @since 1.8.11 */
+	FormulaCacheStatistics getFormulaCacheStatistics();
+
 	void addListener(NodeChangeListener listener);
 	
 	void removeListener(NodeChangeListener listener);
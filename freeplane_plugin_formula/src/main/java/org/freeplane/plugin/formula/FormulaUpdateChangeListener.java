@@ -1,7 +1,5 @@
 package org.freeplane.plugin.formula;
 
-import java.util.List;
-
 import org.freeplane.features.attribute.NodeAttributeTableModel;
 import org.freeplane.features.explorer.MapExplorerController;
 import org.freeplane.features.map.IMapChangeListener;
@@ -17,10 +15,12 @@ import org.freeplane.features.mode.Controller;
 import org.freeplane.features.mode.ModeController;
 import org.freeplane.features.styles.LogicalStyleModel;
 import org.freeplane.features.text.DetailTextModel;
+import org.freeplane.features.ui.ViewController;
 import org.freeplane.features.url.UrlManager;
 import org.freeplane.plugin.script.FormulaCache;
 import org.freeplane.plugin.script.FormulaDependencies;
 import org.freeplane.plugin.script.FormulaUtils;
+import org.freeplane.plugin.script.dependencies.ChangedDependencies;
 
 /** cares for updating formula nodes on change of other nodes. */
 public class FormulaUpdateChangeListener implements INodeChangeListener, IMapChangeListener, IMapLifeCycleListener{
@@ -64,11 +64,12 @@ public class FormulaUpdateChangeListener implements INodeChangeListener, IMapCha
 	}
 
 	private void globalNodesChanged(MapModel map) {
-		final List<NodeModel> dependencies = FormulaDependencies.manageChangeAndReturnGlobalDependencies(map);
+		final ChangedDependencies dependencies = FormulaDependencies.manageChangeAndReturnGlobalDependencies(map);
 		refresh(dependencies);
 	}
 
-	private void refresh(final List<NodeModel> dependencies) {
+	private void refresh(final ChangedDependencies dependencies) {
+		evaluateAfterChange(dependencies);
 		final ModeController modeController = Controller.getCurrentModeController();
 		for (NodeModel dependentNode : dependencies) {
 			modeController.getMapController().delayedNodeRefresh(dependentNode, FormulaCache.class,
@@ -76,17 +77,25 @@ public class FormulaUpdateChangeListener implements INodeChangeListener, IMapCha
 		}
 	}
 
+	/** Formulas are evaluated after the change has released the map, because their evaluation may read it from other threads.
+	 * Otherwise they are evaluated when they are read. */
+	private void evaluateAfterChange(final ChangedDependencies dependencies) {
+		final ViewController viewController = Controller.getCurrentController().getViewController();
+		if (!dependencies.isEmpty() && viewController.isDispatchThread())
+			viewController.invokeLater(() -> FormulaUtils.evaluateOutdatedFormulas(dependencies));
+	}
+
 	/** in case of insert we look for dependencies of the parent. But the parent is not actually changed in this case.
 	 * So there won't be any updates on the parent, even if it has formula that needs an update due to the
 	 * changed children count. */
 	private void nodeChangedImpl(boolean includeChanged, NodeModel... nodes) {
-		final List<NodeModel> dependencies = FormulaDependencies.manageChangeAndReturnDependencies(includeChanged, nodes);
+		final ChangedDependencies dependencies = FormulaDependencies.manageChangeAndReturnDependencies(includeChanged, nodes);
 		refresh(dependencies);
 	}
 
 	@Override
 	public void onRemove(MapModel map) {
-		final List<NodeModel> dependencies = FormulaDependencies.removeAndReturnMapDependencies(map);
+		final ChangedDependencies dependencies = FormulaDependencies.removeAndReturnMapDependencies(map);
 		refresh(dependencies);
 	}
 
@@ -1,14 +1,39 @@
 package org.freeplane.plugin.script;
 
+import java.util.Collection;
+import java.util.Map;
+
 import org.freeplane.plugin.script.dependencies.RelatedElements;
 
 class CachedResult {
+	private static final int OBJECT_SIZE = 32;
+	private static final long REFERENCE_SIZE = 16;
+	private static final int EXCEPTION_SIZE = 1024;
+
 	final Object returnedValue;
 	final RelatedElements relatedElements;
+	final long estimatedSize;
 
 
 	CachedResult(Object returnedValue, RelatedElements relatedElements) {
 		this.returnedValue = returnedValue;
 		this.relatedElements = relatedElements;
+		this.estimatedSize = OBJECT_SIZE + estimateSize(returnedValue)
+		        + (relatedElements != null ? OBJECT_SIZE + 2 * REFERENCE_SIZE * relatedElements.getElements().size() : 0);
+	}
+
+	/** Roughly estimates the memory used by formula results: only strings and containers are considered
+	 * in more detail, because the other results usually are small values or references to existing objects. */
+	private static long estimateSize(Object value) {
+		if (value instanceof CharSequence)
+			return OBJECT_SIZE + 2L * ((CharSequence) value).length();
+		else if (value instanceof Collection)
+			return OBJECT_SIZE + REFERENCE_SIZE * ((Collection<?>) value).size();
+		else if (value instanceof Map)
+			return OBJECT_SIZE + 2 * REFERENCE_SIZE * ((Map<?, ?>) value).size();
+		else if (value instanceof Throwable)
+			return EXCEPTION_SIZE;
+		else
+			return OBJECT_SIZE;
 	}
 }
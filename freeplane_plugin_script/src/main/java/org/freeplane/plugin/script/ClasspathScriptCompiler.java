@@ -25,7 +25,7 @@ class ClasspathScriptCompiler {
     private static final String JAVA = "java";
 	private static final String COMPILED_SCRIPTS_FILE = ".compiledscripts";
 	private static final String LAST_JAVA_COMPILER_VERSION = "last_java_compiler_version";
-	private static final String COMPILE_ONLY_CHANGED_SCRIPT_FILES = "compile_only_changed_script_files";
+	static final String COMPILE_ONLY_CHANGED_SCRIPT_FILES = "compile_only_changed_script_files";
 
 	private static boolean isCurrentJavaVersionCompatibleWithCachedClassFiles() {
 	    String lastJavaVersion = ResourceController.getResourceController().getProperty(LAST_JAVA_COMPILER_VERSION, null);
@@ -8,13 +8,22 @@ import java.nio.file.FileVisitOption;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.stream.Stream;
 
 import org.apache.commons.io.FileUtils;
+import org.freeplane.core.resources.ResourceController;
 import org.freeplane.core.util.LogUtils;
 
 class CompiledScriptCleaner {
+    static final String COMPILED_SCRIPT_TEXT_CACHE_SIZE = "compiled_script_text_cache_size";
+    private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+
     private long calculateLastDependencyModificationTime() {
         long lastModificationTime = ScriptResources.getClasspath().stream()
             .map(File::new)
@@ -50,8 +59,10 @@ class CompiledScriptCleaner {
             File[] cacheDirectories = compiledScriptsDir.listFiles();
             if(cacheDirectories != null) {
                 long lastDependencyModificationTime = calculateLastDependencyModificationTime();
+                List<File> scriptTextCaches = new ArrayList<>();
                 Stream.of(cacheDirectories)
-                    .forEach(cache -> removeOutdated(cache, lastDependencyModificationTime));
+                    .forEach(cache -> removeOutdated(cache, lastDependencyModificationTime, scriptTextCaches));
+                removeLeastRecentlyUsed(scriptTextCaches, scriptTextCacheSizeLimit());
             }
         } else {
             try {
@@ -62,26 +73,58 @@ class CompiledScriptCleaner {
         }
     }
     
-    private void removeOutdated(File cache, long lastDependencyModificationTime) {
-        File propertyFile = new File(cache, "compiled.properties");
-        if (propertyFile.exists()) {
-            Properties properties = new Properties();
-            try (InputStream in = new FileInputStream(propertyFile)) {
-                properties.load(in);
-                long compileTime = Long.parseLong(properties.getProperty("time"));
-                String source = properties.getProperty("source");
-                File sourceFile = new File(source);
-                if(! sourceFile.canRead() 
-                        || lastDependencyModificationTime >= compileTime
-                        || sourceFile.lastModified() >= compileTime) {
+    private void removeOutdated(File cache, long lastDependencyModificationTime, List<File> scriptTextCaches) {
+        File propertyFile = new File(cache, GroovyShell.COMPILED_PROPERTIES);
+        if (! propertyFile.exists()) {
+            // left by a compilation which has not completed
+            FileUtils.deleteQuietly(cache);
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(propertyFile)) {
+            properties.load(in);
+            long compileTime = Long.parseLong(properties.getProperty("time"));
+            String source = properties.getProperty("source");
+            if(source == null) {
+                if(lastDependencyModificationTime >= compileTime)
                     FileUtils.deleteDirectory(cache);
-                }
-            } catch (IOException|NumberFormatException e) {
-                LogUtils.warn(e);
+                else
+                    scriptTextCaches.add(cache);
+                return;
+            }
+            File sourceFile = new File(source);
+            if(! sourceFile.canRead() 
+                    || lastDependencyModificationTime >= compileTime
+                    || sourceFile.lastModified() >= compileTime) {
+                FileUtils.deleteDirectory(cache);
             }
+        } catch (IOException|NumberFormatException e) {
+            LogUtils.warn(e);
         }
+    }
 
+    private static long scriptTextCacheSizeLimit() {
+        return ResourceController.getResourceController().getLongProperty(COMPILED_SCRIPT_TEXT_CACHE_SIZE, 0) * BYTES_PER_MEGABYTE;
+    }
+
+    /** Classes compiled from formulas and other script texts are kept up to the configured size,
+     * the caches used least recently are removed first. */
+    private void removeLeastRecentlyUsed(List<File> scriptTextCaches, long sizeLimit) {
+        Map<File, Long> lastUsageTimes = new HashMap<>();
+        for (File cache : scriptTextCaches)
+            lastUsageTimes.put(cache, new File(cache, GroovyShell.COMPILED_PROPERTIES).lastModified());
+        scriptTextCaches.sort(Comparator.comparing(lastUsageTimes::get, Comparator.reverseOrder()));
+        long size = 0;
+        for (File cache : scriptTextCaches) {
+            size += FileUtils.sizeOfDirectory(cache);
+            if(size > sizeLimit) {
+                try {
+                    FileUtils.deleteDirectory(cache);
+                } catch (IOException e) {
+                    LogUtils.warn(e);
+                }
+            }
+        }
     }
- 
 
 }
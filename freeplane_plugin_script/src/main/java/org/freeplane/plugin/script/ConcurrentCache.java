@@ -1,49 +1,81 @@
 package org.freeplane.plugin.script;
 
-import java.util.LinkedHashMap;
-import java.util.Map.Entry;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.IntSupplier;
 import java.util.function.Supplier;
 
+/**
+ * Least recently used cache safe for concurrent access without a global lock.
+ *
+ * Lookups of cached values only read the map and record the access time.
+ * Values are computed at most once per key: callers requesting a missing key at the same time
+ * wait for the first one computing the value instead of computing it again.
+ * When the cache grows beyond its maximum size, the entry accessed least recently is evicted.
+ */
 public class ConcurrentCache <K, V> {
 
-	private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+	private static class Entry<V> {
+		private volatile V value;
+		private volatile long lastAccess;
 
-    private final ReentrantReadWriteLock rwl = new ReentrantReadWriteLock();
-    private final ReentrantReadWriteLock.ReadLock readLock = rwl.readLock();
-    private final ReentrantReadWriteLock.WriteLock writeLock = rwl.writeLock();
+		V get(Supplier<? extends V> supplier) {
+			V value = this.value;
+			if (value == null) {
+				synchronized (this) {
+					value = this.value;
+					if (value == null) {
+						value = supplier.get();
+						this.value = value;
+					}
+				}
+			}
+			return value;
+		}
+	}
+
+	private final ConcurrentHashMap<K, Entry<V>> cache;
+	private final IntSupplier maxSize;
+	private final AtomicLong accessCounter = new AtomicLong();
 
-	private final LinkedHashMap<K, V> cache ;
-	@SuppressWarnings("serial")
 	public ConcurrentCache(IntSupplier maxSize) {
 		super();
-		cache = new  LinkedHashMap<K, V>(maxSize.getAsInt() + 1, DEFAULT_LOAD_FACTOR, true){
-			@Override
-			protected boolean removeEldestEntry(Entry<K, V> eldest) {
-				return size() > maxSize.getAsInt();
-			}
-		};
+		this.maxSize = maxSize;
+		this.cache = new ConcurrentHashMap<K, Entry<V>>(maxSize.getAsInt() + 1);
 	}
 
 	public V computeIfAbsent(K key, Supplier<? extends V> supplier) {
-        readLock.lock();
-        try {
-            V value = cache.get(key);
-            if (null != value) {
-                return value;
-            }
-        } finally {
-            readLock.unlock();
-        }
-        V value = supplier.get();
-        writeLock.lock();
-        try {
-            V oldValue = cache.putIfAbsent(key, value);
-            return null != oldValue ? oldValue : value;
-        } finally {
-        	writeLock.unlock();
-        }
+		Entry<V> entry = cache.get(key);
+		if (entry == null) {
+			final Entry<V> newEntry = new Entry<V>();
+			entry = cache.putIfAbsent(key, newEntry);
+			if (entry == null) {
+				entry = newEntry;
+				entry.lastAccess = accessCounter.incrementAndGet();
+				evictLeastRecentlyUsed();
+			}
+		}
+		entry.lastAccess = accessCounter.incrementAndGet();
+		return entry.get(supplier);
 	}
 
+	private void evictLeastRecentlyUsed() {
+		// new entries are added much less often than looked up, mostly after compiling a script,
+		// so that a scan over the entries is cheap compared to the compilation
+		while (cache.size() > maxSize.getAsInt()) {
+			Map.Entry<K, Entry<V>> eldest = null;
+			for (Map.Entry<K, Entry<V>> candidate : cache.entrySet()) {
+				if (eldest == null || candidate.getValue().lastAccess < eldest.getValue().lastAccess)
+					eldest = candidate;
+			}
+			if (eldest == null)
+				return;
+			cache.remove(eldest.getKey(), eldest.getValue());
+		}
+	}
+
+	int size() {
+		return cache.size();
+	}
 }
@@ -1,23 +1,45 @@
 package org.freeplane.plugin.script;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 
+import org.freeplane.api.FormulaCacheStatistics;
 import org.freeplane.core.extension.IExtension;
+import org.freeplane.core.resources.ResourceController;
 import org.freeplane.features.map.MapModel;
 import org.freeplane.features.map.NodeModel;
 import org.freeplane.features.mode.Controller;
 import org.freeplane.plugin.script.dependencies.RelatedElements;
 
+/**
+ * Results of formula evaluations of a map.
+ *
+ * The cache is bounded by the estimated memory given by property formula_cache_memory_limit in megabytes,
+ * 0 meaning no limit. When the limit is exceeded, the results of the least recently used nodes are evicted.
+ * Evicted formulas are evaluated again on their next access.
+ */
 public class FormulaCache implements IExtension{
-	private final HashMap<String, LinkedHashMap<String, CachedResult>> cache = new HashMap<String, LinkedHashMap<String, CachedResult>>();
+	static final String MEMORY_LIMIT_PROPERTY = "formula_cache_memory_limit";
+	private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+
+	private static class NodeEntry {
+		final LinkedHashMap<String, CachedResult> results = new LinkedHashMap<String, CachedResult>(8);
+		long estimatedSize = 0;
+	}
+
+	private final LinkedHashMap<String, NodeEntry> cache = new LinkedHashMap<String, NodeEntry>(16, 0.75f, true);
+	private int cachedResults = 0;
+	private long estimatedSize = 0;
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+
 	// don't let caching use too much memory - but currently there are little means to cope with unavailable
 	// dependency data. It has to be tested but it should "only" lead to some missing updates.
 	static final boolean ENABLE_CACHING = !Controller.getCurrentController().getResourceController()
 	    .getBooleanProperty("formula_disable_caching");
 
-	static void removeFromCache(final ArrayList<NodeModel> dependencies) {
+	static void removeFromCache(final Iterable<NodeModel> dependencies) {
 			if (ENABLE_CACHING) {
 				for (final NodeModel nodeModel : dependencies) {
 					FormulaCache.of(nodeModel.getMap()).remove(nodeModel);
@@ -25,13 +47,14 @@ public class FormulaCache implements IExtension{
 			}
 		}
 
-	Object getOrThrowCachedResult(final NodeScript nodeScript) {
-		final LinkedHashMap<String, CachedResult> cacheEntry = cache.get(nodeScript.node.getID());
-		if (cacheEntry == null)
-			return null;
-		final CachedResult cachedResult = cacheEntry.get(nodeScript.script);
-		if (cachedResult == null)
+	synchronized Object getOrThrowCachedResult(final NodeScript nodeScript) {
+		final NodeEntry cacheEntry = cache.get(nodeScript.node.getID());
+		final CachedResult cachedResult = cacheEntry != null ? cacheEntry.results.get(nodeScript.script) : null;
+		if (cachedResult == null) {
+			misses++;
 			return null;
+		}
+		hits++;
 		return getOrThrowCachedResult(cachedResult.returnedValue);
 	}
 
@@ -42,28 +65,57 @@ public class FormulaCache implements IExtension{
 		return object;
 	}
 
-	void put(final NodeScript nodeScript, final CachedResult result) {
-		getOrAdd(nodeScript.node).put(nodeScript.script, result);
+	synchronized void put(final NodeScript nodeScript, final CachedResult result) {
+		final NodeEntry cacheEntry = getOrAdd(nodeScript.node);
+		final CachedResult replacedResult = cacheEntry.results.put(nodeScript.script, result);
+		if (replacedResult != null)
+			removeSize(cacheEntry, replacedResult.estimatedSize, 1);
+		cacheEntry.estimatedSize += result.estimatedSize;
+		estimatedSize += result.estimatedSize;
+		cachedResults++;
+		evictLeastRecentlyUsed(memoryLimit());
+	}
+
+	private static long memoryLimit() {
+		final long limit = ResourceController.getResourceController().getLongProperty(MEMORY_LIMIT_PROPERTY, 0);
+		return limit > 0 ? limit * BYTES_PER_MEGABYTE : Long.MAX_VALUE;
 	}
 
-	private LinkedHashMap<String, CachedResult> getOrAdd(final NodeModel node) {
-		LinkedHashMap<String, CachedResult> cacheEntry = cache.get(node.getID());
+	private void evictLeastRecentlyUsed(final long memoryLimit) {
+		// the most recently used node is kept even if its results alone exceed the limit
+		final Iterator<NodeEntry> iterator = cache.values().iterator();
+		while (estimatedSize > memoryLimit && cache.size() > 1) {
+			final NodeEntry evictedEntry = iterator.next();
+			iterator.remove();
+			evictions += evictedEntry.results.size();
+			removeSize(evictedEntry, evictedEntry.estimatedSize, evictedEntry.results.size());
+		}
+	}
+
+	private void removeSize(final NodeEntry cacheEntry, final long size, final int resultCount) {
+		cacheEntry.estimatedSize -= size;
+		estimatedSize -= size;
+		cachedResults -= resultCount;
+	}
+
+	private NodeEntry getOrAdd(final NodeModel node) {
+		NodeEntry cacheEntry = cache.get(node.getID());
 		if (cacheEntry == null) {
-			cacheEntry = new LinkedHashMap<String, CachedResult>(8);
+			cacheEntry = new NodeEntry();
 			cache.put(node.getID(), cacheEntry);
 		}
 		return cacheEntry;
 	}
 
-	void remove(final NodeModel node) {
-		final LinkedHashMap<String, CachedResult> entry = cache.get(node.getID());
+	synchronized void remove(final NodeModel node) {
+		final NodeEntry entry = cache.remove(node.getID());
 		if (entry != null) {
 //			System.out.println("clearing cache for " + node);
-			entry.clear();
+			removeSize(entry, entry.estimatedSize, entry.results.size());
 		}
 	}
 
-	static FormulaCache of(final MapModel map) {
+	static synchronized FormulaCache of(final MapModel map) {
 		FormulaCache formulaCache = map.getExtension(FormulaCache.class);
 		if (formulaCache == null) {
 			formulaCache = new FormulaCache();
@@ -75,16 +127,18 @@ public class FormulaCache implements IExtension{
 		map.removeExtension(FormulaCache.class);
 	}
 
-	RelatedElements getAccessedValues(final NodeModel node, final String script) {
+	synchronized RelatedElements getAccessedValues(final NodeModel node, final String script) {
 		if(ENABLE_CACHING) {
-			final LinkedHashMap<String, CachedResult> cacheEntry = cache.get(node.getID());
+			final NodeEntry cacheEntry = cache.get(node.getID());
 			if (cacheEntry == null) return null;
-			final CachedResult cachedResult = cacheEntry.get(script);
+			final CachedResult cachedResult = cacheEntry.results.get(script);
 			if(cachedResult != null)
 				return cachedResult.relatedElements;
 		}
 		return null;
 	}
 
-
+	synchronized FormulaCacheStatistics getStatistics() {
+		return new FormulaCacheStatistics(hits, misses, evictions, cachedResults, estimatedSize);
+	}
 }
@@ -1,18 +1,19 @@
 package org.freeplane.plugin.script;
 
 import java.util.ArrayList;
-import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.function.Consumer;
+import java.util.Map;
+import java.util.function.Function;
 
 import org.freeplane.features.map.MapModel;
 import org.freeplane.features.map.NodeModel;
+import org.freeplane.plugin.script.dependencies.ChangedDependencies;
 import org.freeplane.plugin.script.dependencies.EvaluationDependencies;
 
 public class FormulaDependencies{
-	public static List<NodeModel> manageChangeAndReturnDependencies(boolean includeChanged, final NodeModel... changedNodes) {
-		final ArrayList<NodeModel> dependencies = getAllChangedDependencies(includeChanged, changedNodes);
+	public static ChangedDependencies manageChangeAndReturnDependencies(boolean includeChanged, final NodeModel... changedNodes) {
+		final ChangedDependencies dependencies = getAllChangedDependencies(includeChanged, changedNodes);
 		FormulaCache.removeFromCache(dependencies);
 		return dependencies;
 	}
@@ -23,17 +24,18 @@ public class FormulaDependencies{
 	}
 
 
-	private static ArrayList<NodeModel> getAllChangedDependencies(boolean includeChanged, final NodeModel... changedNodes) {
-		final ArrayList<NodeModel> dependencies = new ArrayList<NodeModel>();
-		for (int i = 0; i < changedNodes.length; i++) {
-			final LinkedHashSet<NodeModel> accessingNodes = new LinkedHashSet<NodeModel>(0);
-			EvaluationDependencies.of(changedNodes[i].getMap()).getChangedDependencies(accessingNodes, changedNodes[i]);
-			if (accessingNodes != null)
-				dependencies.addAll(accessingNodes);
-			if (includeChanged)
-				dependencies.add(changedNodes[i]);
+	private static ChangedDependencies getAllChangedDependencies(boolean includeChanged, final NodeModel... changedNodes) {
+		final Map<MapModel, List<NodeModel>> changedNodesByMap = new LinkedHashMap<>();
+		for (NodeModel changedNode : changedNodes)
+			changedNodesByMap.computeIfAbsent(changedNode.getMap(), map -> new ArrayList<>()).add(changedNode);
+		if (changedNodesByMap.size() == 1) {
+			final Map.Entry<MapModel, List<NodeModel>> entry = changedNodesByMap.entrySet().iterator().next();
+			return EvaluationDependencies.of(entry.getKey()).getChangedDependencies(entry.getValue(), includeChanged);
 		}
-		return dependencies;
+		final List<ChangedDependencies> dependencies = new ArrayList<>();
+		for (Map.Entry<MapModel, List<NodeModel>> entry : changedNodesByMap.entrySet())
+			dependencies.add(EvaluationDependencies.of(entry.getKey()).getChangedDependencies(entry.getValue(), includeChanged));
+		return ChangedDependencies.join(dependencies);
 	}
 
 
@@ -58,20 +60,18 @@ public class FormulaDependencies{
 		return EvaluationDependencies.of(node.getMap()).getPossibleDependencies(node);
 	}
 
-	public static List<NodeModel> manageChangeAndReturnGlobalDependencies(MapModel map) {
-		return manageChangeAndReturnDependencies(EvaluationDependencies.of(map)::getGlobalDependencies);
+	public static ChangedDependencies manageChangeAndReturnGlobalDependencies(MapModel map) {
+		return manageChangeAndReturnDependencies(map, EvaluationDependencies::getGlobalDependencies);
 	}
 
-	public static List<NodeModel> removeAndReturnMapDependencies(MapModel map) {
-		return manageChangeAndReturnDependencies(
-			set -> EvaluationDependencies.of(map).removeAndReturnChangedDependencies(set, map));
+	public static ChangedDependencies removeAndReturnMapDependencies(MapModel map) {
+		return manageChangeAndReturnDependencies(map,
+			dependencies -> dependencies.removeAndReturnChangedDependencies(map));
 	}
 
-	private static List<NodeModel> manageChangeAndReturnDependencies(Consumer<Set<NodeModel>> loader) {
-		final LinkedHashSet<NodeModel> accessingNodes = new LinkedHashSet<NodeModel>(0);
-		loader.accept(accessingNodes);
-		final ArrayList<NodeModel> dependencies = new ArrayList<NodeModel>();
-		dependencies.addAll(accessingNodes);
+	private static ChangedDependencies manageChangeAndReturnDependencies(MapModel map,
+	                                                                     Function<EvaluationDependencies, ChangedDependencies> loader) {
+		final ChangedDependencies dependencies = loader.apply(EvaluationDependencies.of(map));
 		FormulaCache.removeFromCache(dependencies);
 		return dependencies;
 	}
@@ -1,11 +1,14 @@
 package org.freeplane.plugin.script;
 
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.freeplane.api.FormulaCacheStatistics;
 import org.freeplane.core.extension.Configurable;
+import org.freeplane.core.resources.ResourceController;
 import org.freeplane.core.util.HtmlUtils;
 import org.freeplane.core.util.LogUtils;
 import org.freeplane.core.util.TextUtils;
@@ -14,9 +17,12 @@ import org.freeplane.features.link.LinkController;
 import org.freeplane.features.map.MapModel;
 import org.freeplane.features.map.NodeModel;
 import org.freeplane.features.mode.Controller;
+import org.freeplane.plugin.script.dependencies.ChangedDependencies;
+import org.freeplane.plugin.script.dependencies.ChangedDependencies.Cluster;
 import org.freeplane.plugin.script.dependencies.RelatedElements;
 
 public class FormulaUtils {
+	static final String EVALUATE_IN_PARALLEL_PROPERTY = "formula_evaluate_in_parallel";
 
 	/** evaluate text as a script if it starts with '='.
 	 * @return the evaluation result for script and the original text otherwise
@@ -154,8 +160,14 @@ public class FormulaUtils {
 
 	public static RelatedElements getRelatedElements(final NodeModel node, final Object object) {
 		if (FormulaCache.ENABLE_CACHING && FormulaUtils.containsFormula(object)) {
-			final RelatedElements accessedValues = FormulaCache.of(node.getMap()).getAccessedValues(node,
-				scriptOf((String) object));
+			final FormulaCache formulaCache = FormulaCache.of(node.getMap());
+			final String script = scriptOf((String) object);
+			RelatedElements accessedValues = formulaCache.getAccessedValues(node, script);
+			if (accessedValues == null) {
+				// the result could have been evicted from the cache
+				cacheIfFormula(node, object);
+				accessedValues = formulaCache.getAccessedValues(node, script);
+			}
 			if (accessedValues != null)
 				return accessedValues;
 		}
@@ -170,6 +182,10 @@ public class FormulaUtils {
 		FormulaDependencies.clearCache(map);
 	}
 
+	public static FormulaCacheStatistics getCacheStatistics(final MapModel map) {
+		return FormulaCache.of(map).getStatistics();
+	}
+
 	public static void evaluateAllFormulas(MapModel map) {
 		clearCache(map);
 		evaluateOutdatedFormulas(map);
@@ -180,11 +196,58 @@ public class FormulaUtils {
 	}
 
 	static private void cacheAllRecursively(NodeModel node) {
+		cacheFormulas(node);
+		node.getChildren().stream().forEach(FormulaUtils::cacheAllRecursively);
+	}
+
+	static private void cacheFormulas(NodeModel node) {
 		cacheIfFormula(node, node.getUserObject());
 		NodeAttributeTableModel attributeTableModel = node.getExtension(NodeAttributeTableModel.class);
 		if(attributeTableModel != null)
 			attributeTableModel.getAttributes().stream().forEach(a -> cacheIfFormula(node, a.getValue()));
-		node.getChildren().stream().forEach(FormulaUtils::cacheAllRecursively);
+	}
+
+	/** Evaluates the formulas of changed dependencies in topological order, so that dependent formulas
+	 * find the results of the formulas they depend on in the cache.
+	 * Independent clusters are evaluated in parallel if property formula_evaluate_in_parallel is set. */
+	public static void evaluateOutdatedFormulas(ChangedDependencies dependencies) {
+		if (!FormulaCache.ENABLE_CACHING || dependencies.isEmpty())
+			return;
+		final List<Cluster> clusters = dependencies.getClusters();
+		final List<Cluster> sequentialClusters;
+		if (clusters.size() > 1
+		        && ResourceController.getResourceController().getBooleanProperty(EVALUATE_IN_PARALLEL_PROPERTY)) {
+			final List<Cluster> parallelClusters = new ArrayList<>(clusters.size());
+			sequentialClusters = new ArrayList<>();
+			for (Cluster cluster : clusters) {
+				// cycles are reported in the user interface
+				if (cluster.isCyclic())
+					sequentialClusters.add(cluster);
+				else
+					parallelClusters.add(cluster);
+			}
+			// formulas resolve the controller of the thread evaluating them
+			final Controller controller = Controller.getCurrentController();
+			parallelClusters.parallelStream().forEach(cluster -> Controller.runWithCurrentThreadController(controller,
+			    () -> cacheFormulasOf(cluster)));
+		}
+		else
+			sequentialClusters = clusters;
+		sequentialClusters.forEach(FormulaUtils::cacheFormulasOf);
+	}
+
+	private static void cacheFormulasOf(Cluster cluster) {
+		for (NodeModel node : cluster.getNodes()) {
+			if (isAttached(node))
+				cacheFormulas(node);
+		}
+	}
+
+	private static boolean isAttached(NodeModel node) {
+		NodeModel root = node;
+		while (root.getParentNode() != null)
+			root = root.getParentNode();
+		return root == node.getMap().getRootNode();
 	}
 
 	public static void cacheIfFormula(NodeModel node, Object maybeFormula) {
@@ -103,6 +103,7 @@ public abstract class FreeplaneScriptBaseClass extends Script {
 	private Map<Object, Object> boundVariables;
 	private NodeRO node;
 	private ControllerRO controller;
+	private boolean isBound;
 
 
     public FreeplaneScriptBaseClass() {
@@ -129,7 +130,7 @@ public abstract class FreeplaneScriptBaseClass extends Script {
 		try {
 			binding.setVariable("c", controllerProxy);
 			binding.setVariable("node", nodeProxy);
-			FreeplaneScriptBaseClass instance = boundVariables != null ? getClass().newInstance() : this;
+			FreeplaneScriptBaseClass instance = unboundInstance();
 			instance.script = script;
 			instance.node = nodeProxy;
 			instance.controller = controllerProxy;
@@ -142,6 +143,20 @@ public abstract class FreeplaneScriptBaseClass extends Script {
 		}
 	}
 
+	/** The first binding uses this script, each later one a new instance,
+	 * so that scripts evaluated by several threads at once do not share their bindings. */
+	private FreeplaneScriptBaseClass unboundInstance() throws InstantiationException, IllegalAccessException {
+		synchronized (this) {
+			if (!isBound) {
+				isBound = true;
+				return this;
+			}
+		}
+		final FreeplaneScriptBaseClass instance = getClass().newInstance();
+		instance.isBound = true;
+		return instance;
+	}
+
     /* <ul>
 	 * <li> translate raw node ids to nodes.
 	 * <li> "imports" node's methods into the script's namespace
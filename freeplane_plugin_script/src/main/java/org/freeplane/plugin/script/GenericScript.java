@@ -89,9 +89,9 @@ public class GenericScript implements IScript {
 
 	private ScriptingPermissions specificPermissions;
 
-    private CompiledScript compiledScript;
+    private volatile CompiledScript compiledScript;
 
-    private Throwable errorsInScript;
+    private volatile Throwable errorsInScript;
 
 	private ScriptEngine engine;
 
@@ -184,7 +184,7 @@ public class GenericScript implements IScript {
             if (errorsInScript != null && compileTimeStrategy.canUseOldCompiledScript()) {
                 throw new ExecuteScriptException(errorsInScript.getMessage(), errorsInScript);
             }
-            final PrintStream oldOut = System.out;
+            final PrintStream oldOut = ScriptOutput.getThreadOut();
 			ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
             try {
 				AccessController.doPrivileged(new PrivilegedAction<Void>() {
@@ -200,14 +200,14 @@ public class GenericScript implements IScript {
                 final SimpleScriptContext context = createScriptContext(node, scriptContext, outStream);
                 if (compilationEnabled && engine instanceof Compilable) {
                     compileAndCache((Compilable) engine);
-                    System.setOut(outStream);
+                    ScriptOutput.setThreadOut(outStream);
 					return compiledScript.eval(context);
                 } else {
-                    System.setOut(outStream);
+                    ScriptOutput.setThreadOut(outStream);
 					return engine.eval(scriptSource.getScript(), context);
                 }
             } finally {
-                System.setOut(oldOut);
+                ScriptOutput.setThreadOut(oldOut);
 				Thread.currentThread().setContextClassLoader(contextClassLoader);
             }
         } catch (final ScriptException e) {
@@ -266,7 +266,7 @@ public class GenericScript implements IScript {
 	}
 
 
-    private void compileAndCache(Compilable engine) throws Throwable {
+    private synchronized void compileAndCache(Compilable engine) throws Throwable {
         if (compileTimeStrategy.canUseOldCompiledScript()) {
             return;
         }
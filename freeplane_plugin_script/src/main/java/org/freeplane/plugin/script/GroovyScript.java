@@ -52,9 +52,9 @@ public class GroovyScript implements IScript {
 
     private final ScriptingPermissions specificPermissions;
 
-    private FreeplaneScriptBaseClass compiledScript;
+    private volatile FreeplaneScriptBaseClass compiledScript;
 
-    private Throwable errorsInScript;
+    private volatile Throwable errorsInScript;
 
     private CompileTimeStrategy compileTimeStrategy;
 
@@ -101,7 +101,7 @@ public class GroovyScript implements IScript {
             if (errorsInScript != null && compileTimeStrategy.canUseOldCompiledScript()) {
                 throw new ExecuteScriptException(errorsInScript.getMessage(), errorsInScript);
             }
-            final PrintStream oldOut = System.out;
+            final PrintStream oldOut = ScriptOutput.getThreadOut();
             ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
             try {
                 trustedCompileAndCache(outStream);
@@ -112,11 +112,11 @@ public class GroovyScript implements IScript {
 						return compiledScript.withBinding(node, scriptContext);
 					}
 				}); 
-                System.setOut(outStream);
+                ScriptOutput.setThreadOut(outStream);
 				final Object result = scriptWithBinding.run();
 				return result;
             } finally {
-                System.setOut(oldOut);
+                ScriptOutput.setThreadOut(oldOut);
                 Thread.currentThread().setContextClassLoader(contextClassLoader);
             }
         } catch (final GroovyRuntimeException e) {
@@ -166,7 +166,7 @@ public class GroovyScript implements IScript {
 	}
 
     private static boolean accessPermissionCheckerChecked = false;
-    private Script compileAndCache(final ScriptingSecurityManager scriptingSecurityManager) throws Throwable {
+    private synchronized Script compileAndCache(final ScriptingSecurityManager scriptingSecurityManager) throws Throwable {
     	checkAccessPermissionCheckerExists();
     	if (compileTimeStrategy.canUseOldCompiledScript()) {
 			scriptClassLoader.setSecurityManager(scriptingSecurityManager);
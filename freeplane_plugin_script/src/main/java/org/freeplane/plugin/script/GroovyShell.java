@@ -28,6 +28,7 @@ import java.security.NoSuchAlgorithmException;
 import java.security.PermissionCollection;
 import java.security.Permissions;
 import java.security.PrivilegedAction;
+import java.util.List;
 import java.util.Properties;
 
 import org.apache.commons.io.FileUtils;
@@ -39,6 +40,7 @@ import org.codehaus.groovy.runtime.DefaultGroovyMethods;
 import org.codehaus.groovy.runtime.EncodingGroovyMethods;
 import org.codehaus.groovy.runtime.InvokerHelper;
 import org.freeplane.core.resources.ResourceController;
+import org.freeplane.core.util.FreeplaneVersion;
 import org.freeplane.core.util.LogUtils;
 
 import groovy.lang.Binding;
@@ -62,11 +64,21 @@ class GroovyShell extends GroovyObjectSupport {
     }
 
     private static final String DEFAULT_CODE_BASE = "/groovy/shell";
+    private static final String TEXT_KEY_PREFIX = "text:";
+    static final String COMPILED_PROPERTIES = "compiled.properties";
+    private static final Object[] cacheLocks = createCacheLocks(64);
     private final Binding binding;
     private int counter;
     private final CompilerConfiguration config;
     private final ClassLoader parentLoader;
 
+    private static Object[] createCacheLocks(int count) {
+        final Object[] locks = new Object[count];
+        for (int i = 0; i < count; i++)
+            locks[i] = new Object();
+        return locks;
+    }
+
     GroovyShell(final ClassLoader parent, final Binding binding, final CompilerConfiguration config) {
         if (binding == null) {
             throw new IllegalArgumentException("Binding must not be null.");
@@ -111,7 +123,7 @@ class GroovyShell extends GroovyObjectSupport {
     /**
      * Parses the groovy code contained in codeSource and returns a java class.
      */
-    private Class loadClass(final GroovyCodeSource codeSource) throws CompilationFailedException {
+    private Class<?> loadClass(final GroovyCodeSource codeSource) throws CompilationFailedException {
         if(ClasspathScriptCompiler.compilesOnlyChangedScriptFiles()) {
             return parseAndCache(codeSource);
         }
@@ -120,35 +132,43 @@ class GroovyShell extends GroovyObjectSupport {
     }
 
 
-    private Class parseClass(final GroovyCodeSource codeSource) {
+    private Class<?> parseClass(final GroovyCodeSource codeSource) {
         GroovyClassLoader loader = createClassLoader();
-        Class parsedClass = loader.parseClass(codeSource, false);
+        Class<?> parsedClass = loader.parseClass(codeSource, false);
         return parsedClass;
     }
 
 
-    private Class parseAndCache(final GroovyCodeSource codeSource) {
+    private Class<?> parseAndCache(final GroovyCodeSource codeSource) {
+        final File sourceFile = codeSource.getFile();
         String md5;
         try {
-            md5 = EncodingGroovyMethods.md5(codeSource.getName());
+            // script texts are cached by their content, script files by their path
+            md5 = EncodingGroovyMethods.md5(sourceFile != null ? codeSource.getName() : TEXT_KEY_PREFIX + codeSource.getScriptText());
         } catch (NoSuchAlgorithmException e) {
             throw new RuntimeException(e);
         }
-        File cache = new File(ScriptResources.getCompiledScriptsDir(), md5);
-        File propertyFile = new File(cache, "compiled.properties");
+        // caches are locked by stripes, so that the number of locks does not grow with the number of scripts
+        synchronized (cacheLocks[Math.floorMod(md5.hashCode(), cacheLocks.length)]) {
+            return parseAndCache(codeSource, sourceFile, new File(ScriptResources.getCompiledScriptsDir(), md5));
+        }
+    }
+
+    private Class<?> parseAndCache(final GroovyCodeSource codeSource, final File sourceFile, File cache) {
+        File propertyFile = new File(cache, COMPILED_PROPERTIES);
         File classes = new File(cache, "classes");
         if (propertyFile.exists() && classes.exists()) {
             try (InputStream in = new FileInputStream(propertyFile)) {
                 Properties properties = new Properties();
                 properties.load(in);
-                long compileTime = Long.parseLong(properties.getProperty("time"));
-                String source = properties.getProperty("source");
-                File sourceFile = new File(source);
-                if(sourceFile.canRead() && sourceFile.lastModified()< compileTime) {
+                if(isUpToDate(properties, sourceFile)) {
                     String className = properties.getProperty("class");
                     GroovyClassLoader loader = createClassLoader();
                     loader.addURL(ScriptClassLoader.pathToUrl(classes));
-                    return loader.loadClass(className);
+                    final Class<?> cachedClass = loader.loadClass(className);
+                    if(sourceFile == null)
+                        propertyFile.setLastModified(System.currentTimeMillis());
+                    return cachedClass;
                 }
             } catch (IOException | ClassNotFoundException|NumberFormatException e) {
             }
@@ -160,26 +180,50 @@ class GroovyShell extends GroovyObjectSupport {
                 LogUtils.warn(e);
             }
         }
-        File sourceFile = codeSource.getFile();
-        if(sourceFile != null) {
-            classes.mkdirs();
-            config.setTargetDirectory(classes);
-            long time = System.currentTimeMillis();
-            GroovyClassLoader loader = createClassLoader();
-            Class parsedClass = loader.parseClass(codeSource, false);
-            try (FileOutputStream out = new FileOutputStream(propertyFile)){
-                Properties properties = new Properties();
-                properties.setProperty("class", parsedClass.getName());
-                properties.setProperty("time", Long.toString(time));
+        classes.mkdirs();
+        config.setTargetDirectory(classes);
+        long time = System.currentTimeMillis();
+        GroovyClassLoader loader = createClassLoader();
+        final Class<?> parsedClass;
+        try {
+            parsedClass = loader.parseClass(codeSource, false);
+        }
+        catch (RuntimeException | Error e) {
+            FileUtils.deleteQuietly(cache);
+            throw e;
+        }
+        try (FileOutputStream out = new FileOutputStream(propertyFile)){
+            Properties properties = new Properties();
+            properties.setProperty("class", parsedClass.getName());
+            properties.setProperty("time", Long.toString(time));
+            if(sourceFile != null)
                 properties.setProperty("source", sourceFile.getAbsolutePath());
-                properties.store(out, "");
-            } catch (IOException e) {
-                LogUtils.warn(e);
-            }
-            return parsedClass;
+            else
+                properties.setProperty("classpath", classpathDescription());
+            properties.store(out, "");
+        } catch (IOException e) {
+            LogUtils.warn(e);
+            FileUtils.deleteQuietly(cache);
+        }
+        return parsedClass;
+    }
+
+    private boolean isUpToDate(Properties properties, File sourceFile) {
+        if(sourceFile != null) {
+            long compileTime = Long.parseLong(properties.getProperty("time"));
+            String source = properties.getProperty("source");
+            File compiledSourceFile = new File(source);
+            return compiledSourceFile.canRead() && compiledSourceFile.lastModified() < compileTime;
         }
         else
-            return parseClass(codeSource);
+            return classpathDescription().equals(properties.getProperty("classpath"));
+    }
+
+    /** Classes compiled from script texts depend on the script classpath and on the freeplane classes,
+     * changes of their files are checked by {@link CompiledScriptCleaner} on startup. */
+    private static String classpathDescription() {
+        final List<String> classpath = ScriptResources.getClasspath();
+        return FreeplaneVersion.getVersion() + File.pathSeparator + (classpath != null ? String.join(File.pathSeparator, classpath) : "");
     }
 
 
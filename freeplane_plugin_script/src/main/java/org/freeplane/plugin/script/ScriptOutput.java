@@ -0,0 +1,63 @@
+package org.freeplane.plugin.script;
+
+import java.io.PrintStream;
+
+/**
+ * Standard output passing everything written to it to the output stream of the script executed by the current thread.
+ *
+ * It is installed as {@link System#out} once, so that scripts executed concurrently,
+ * for instance formulas evaluated in parallel, do not replace the output stream of each other.
+ */
+class ScriptOutput extends PrintStream {
+	private static ScriptOutput installedOutput;
+
+	private final PrintStream standardOut;
+	private final ThreadLocal<PrintStream> threadOut = new ThreadLocal<>();
+
+	private ScriptOutput(PrintStream standardOut) {
+		super(standardOut, true);
+		this.standardOut = standardOut;
+	}
+
+	private static synchronized ScriptOutput install() {
+		if (installedOutput == null) {
+			installedOutput = new ScriptOutput(System.out);
+			System.setOut(installedOutput);
+		}
+		return installedOutput;
+	}
+
+	/** @return the stream the standard output of the current thread is redirected to, or null */
+	static PrintStream getThreadOut() {
+		return install().threadOut.get();
+	}
+
+	/** Redirects the standard output of the current thread, null ends the redirection. */
+	static void setThreadOut(PrintStream out) {
+		final ScriptOutput output = install();
+		if (out == null)
+			output.threadOut.remove();
+		else if (out != output)
+			output.threadOut.set(out);
+	}
+
+	private PrintStream out() {
+		final PrintStream out = threadOut.get();
+		return out != null ? out : standardOut;
+	}
+
+	@Override
+	public void write(int b) {
+		out().write(b);
+	}
+
+	@Override
+	public void write(byte[] buf, int off, int len) {
+		out().write(buf, off, len);
+	}
+
+	@Override
+	public void flush() {
+		out().flush();
+	}
+}
@@ -20,6 +20,8 @@ package org.freeplane.plugin.script;
 
 import java.io.File;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
@@ -39,7 +41,7 @@ public class ScriptingEngine {
 	// need a File for caching! Scripts from String have to be cached elsewhere
     private static Map<File, IScript> fileScripts = new ConcurrentHashMap<File, IScript>();
     private static ConcurrentCache<ScriptSpecification, IScript> scripts
-    	= new ConcurrentCache(ScriptingEngine::getCompiledScriptCacheSize);
+    	= new ConcurrentCache<>(ScriptingEngine::getCompiledScriptCacheSize);
     private static int getCompiledScriptCacheSize() {
 		return ResourceController.getResourceController().getIntProperty("compiled_script_cache_size");
 	}
@@ -131,11 +133,26 @@ public class ScriptingEngine {
             .execute(node);
     }
 
+	/**
+	 * Executes the scripts of the subtree children first. The nodes are collected before,
+	 * so that scripts changing the tree do not affect which nodes are processed.
+	 */
 	static void performScriptOperationRecursive(final NodeModel node) {
+		final List<NodeModel> nodes = node.getMap().readConsistently(() -> {
+			final List<NodeModel> subtree = new ArrayList<NodeModel>();
+			addSubtreeChildrenFirst(node, subtree);
+			return subtree;
+		});
+		for (final NodeModel subtreeNode : nodes) {
+			performScriptOperation(subtreeNode);
+		}
+	}
+
+	private static void addSubtreeChildrenFirst(final NodeModel node, final List<NodeModel> subtree) {
 		for (final NodeModel child : node.getChildren()) {
-			performScriptOperationRecursive(child);
+			addSubtreeChildrenFirst(child, subtree);
 		}
-		performScriptOperation(node);
+		subtree.add(node);
 	}
 
 	static void performScriptOperation(final NodeModel node) {
@@ -0,0 +1,150 @@
+package org.freeplane.plugin.script.dependencies;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.freeplane.features.map.NodeModel;
+
+/**
+ * Nodes whose formulas have to be evaluated again after other nodes were changed.
+ *
+ * The nodes are ordered topologically, so that each node follows the nodes it depends on, as far as they are not cyclic.
+ * They are split into clusters not depending on each other, which can be evaluated independently.
+ * If some of the nodes may depend on any node of the map, all nodes form a single cluster.
+ */
+public class ChangedDependencies implements Iterable<NodeModel> {
+	public static final ChangedDependencies EMPTY = new ChangedDependencies(Collections.<NodeModel, List<NodeModel>>emptyMap(),
+	    false);
+
+	public static class Cluster {
+		private final List<NodeModel> nodes = new ArrayList<>();
+		private boolean cyclic = false;
+
+		/** Returns the nodes in topological order. */
+		public List<NodeModel> getNodes() {
+			return nodes;
+		}
+
+		/** Returns true if the nodes contain a dependency cycle. */
+		public boolean isCyclic() {
+			return cyclic;
+		}
+	}
+
+	private final List<NodeModel> nodes;
+	private final List<Cluster> clusters;
+
+	/**
+	 * @param dependents the nodes to be evaluated again mapped to the nodes directly depending on them, in discovery order
+	 * @param dependOnAnyNode true if some of the nodes may depend on any node
+	 */
+	ChangedDependencies(Map<NodeModel, List<NodeModel>> dependents, boolean dependOnAnyNode) {
+		final Map<NodeModel, NodeModel> clusterRoots = new HashMap<>();
+		NodeModel firstNode = null;
+		for (NodeModel node : dependents.keySet()) {
+			if (firstNode == null || !dependOnAnyNode)
+				firstNode = node;
+			clusterRoots.put(node, firstNode);
+		}
+		final Map<NodeModel, Integer> precedentCounts = new HashMap<>();
+		for (Map.Entry<NodeModel, List<NodeModel>> entry : dependents.entrySet()) {
+			for (NodeModel dependent : entry.getValue()) {
+				if (dependent != entry.getKey() && clusterRoots.containsKey(dependent)) {
+					precedentCounts.merge(dependent, 1, Integer::sum);
+					join(clusterRoots, entry.getKey(), dependent);
+				}
+			}
+		}
+		this.nodes = new ArrayList<>(dependents.size());
+		final Map<NodeModel, Cluster> clustersByRoot = new LinkedHashMap<>();
+		final List<NodeModel> ready = new ArrayList<>();
+		for (NodeModel node : dependents.keySet()) {
+			if (!precedentCounts.containsKey(node))
+				ready.add(node);
+		}
+		for (int i = 0; i < ready.size(); i++) {
+			final NodeModel node = ready.get(i);
+			addToCluster(clustersByRoot, clusterRoots, node);
+			for (NodeModel dependent : dependents.get(node)) {
+				if (dependent != node && clusterRoots.containsKey(dependent)
+				        && precedentCounts.merge(dependent, -1, Integer::sum) == 0)
+					ready.add(dependent);
+			}
+		}
+		if (ready.size() < dependents.size()) {
+			for (NodeModel node : dependents.keySet()) {
+				final Integer precedentCount = precedentCounts.get(node);
+				if (precedentCount != null && precedentCount > 0)
+					addToCluster(clustersByRoot, clusterRoots, node).cyclic = true;
+			}
+		}
+		this.clusters = new ArrayList<>(clustersByRoot.values());
+		for (Cluster cluster : clusters)
+			this.nodes.addAll(cluster.nodes);
+	}
+
+	private ChangedDependencies(List<NodeModel> nodes, List<Cluster> clusters) {
+		this.nodes = nodes;
+		this.clusters = clusters;
+	}
+
+	/** Returns the dependencies of changes in different maps, which can be evaluated independently. */
+	public static ChangedDependencies join(List<ChangedDependencies> dependencies) {
+		final List<NodeModel> nodes = new ArrayList<>();
+		final List<Cluster> clusters = new ArrayList<>();
+		for (ChangedDependencies mapDependencies : dependencies) {
+			nodes.addAll(mapDependencies.nodes);
+			clusters.addAll(mapDependencies.clusters);
+		}
+		return new ChangedDependencies(nodes, clusters);
+	}
+
+	private Cluster addToCluster(Map<NodeModel, Cluster> clustersByRoot, Map<NodeModel, NodeModel> clusterRoots,
+	                             NodeModel node) {
+		final Cluster cluster = clustersByRoot.computeIfAbsent(root(clusterRoots, node), root -> new Cluster());
+		cluster.nodes.add(node);
+		return cluster;
+	}
+
+	private static void join(Map<NodeModel, NodeModel> clusterRoots, NodeModel first, NodeModel second) {
+		final NodeModel firstRoot = root(clusterRoots, first);
+		final NodeModel secondRoot = root(clusterRoots, second);
+		if (firstRoot != secondRoot)
+			clusterRoots.put(secondRoot, firstRoot);
+	}
+
+	private static NodeModel root(Map<NodeModel, NodeModel> clusterRoots, NodeModel node) {
+		NodeModel root = node;
+		for (NodeModel parent = clusterRoots.get(root); parent != root; parent = clusterRoots.get(root))
+			root = parent;
+		for (NodeModel next = node; next != root;) {
+			final NodeModel parent = clusterRoots.get(next);
+			clusterRoots.put(next, root);
+			next = parent;
+		}
+		return root;
+	}
+
+	/** Returns the nodes of all clusters. */
+	public List<NodeModel> getNodes() {
+		return nodes;
+	}
+
+	public List<Cluster> getClusters() {
+		return clusters;
+	}
+
+	public boolean isEmpty() {
+		return nodes.isEmpty();
+	}
+
+	@Override
+	public Iterator<NodeModel> iterator() {
+		return nodes.iterator();
+	}
+}
@@ -1,16 +1,27 @@
 package org.freeplane.plugin.script.dependencies;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
 import java.util.WeakHashMap;
 
 import org.freeplane.core.extension.IExtension;
 import org.freeplane.features.map.MapModel;
 import org.freeplane.features.map.NodeModel;
 
+/**
+ * Dependency graph of formulas, recorded while the formulas are evaluated.
+ *
+ * Dependencies on branches are looked up for the ancestors of a changed node,
+ * so that the cost of finding the dependencies of a change does not grow with the number of branch dependencies.
+ * Methods are synchronized because formulas can be evaluated in parallel.
+ */
 public class EvaluationDependencies implements IExtension{
 
 	static class DependentNodeReferences implements Iterable<NodeModel>{
@@ -19,6 +30,10 @@ public class EvaluationDependencies implements IExtension{
 			references.put(node, null);
 		}
 
+		void addTo(Collection<NodeModel> nodes) {
+			nodes.addAll(references.keySet());
+		}
+
 		@Override
 		public Iterator<NodeModel> iterator() {
 			return references.keySet().iterator();
@@ -30,7 +45,7 @@ public class EvaluationDependencies implements IExtension{
 	}
 
 
-	public static EvaluationDependencies of(MapModel map) {
+	public static synchronized EvaluationDependencies of(MapModel map) {
 		EvaluationDependencies dependencies = map.getExtension(EvaluationDependencies.class);
 		if (dependencies == null) {
 			dependencies = new EvaluationDependencies();
@@ -42,49 +57,94 @@ public class EvaluationDependencies implements IExtension{
 	private final WeakHashMap<MapModel, DependentNodeReferences> onMapDependencies = new WeakHashMap<>();
 
 	private final WeakHashMap<NodeModel, DependentNodeReferences> onNodeDependencies = new WeakHashMap<>();
-	// FIXME: organize node and branch dependencies in a tree?
 	private final WeakHashMap<NodeModel, DependentNodeReferences> onBranchDependencies = new WeakHashMap<>();
 	private final WeakHashMap<NodeModel, Void> onAnyNodeDependencies = new WeakHashMap<>();
 	private final WeakHashMap<NodeModel, Void> onGlobalNodeDependencies = new WeakHashMap<>();
 
-	public void getChangedDependencies(Set<NodeModel> accessingNodes, final NodeModel accessedNode) {
-		final Iterable<NodeModel> onNode = onNodeDependencies.get(accessedNode);
-		if (onNode != null)
-			getRecursively(accessingNodes, onNode);
-		ArrayList<Entry<NodeModel, DependentNodeReferences>> onBranchDependencyList = new ArrayList<>(onBranchDependencies.entrySet());
-		for (Entry<NodeModel, DependentNodeReferences> entry : onBranchDependencyList) {
-			final NodeModel branchNode = entry.getKey();
-			if (accessedNode.isDescendantOf(branchNode)) {
-				onBranchDependencies.get(branchNode);
-				getRecursively(accessingNodes, entry.getValue());
+	/**
+	 * Returns the nodes depending on the changed nodes directly or indirectly.
+	 * Nodes depending on any node are returned once and forgotten until they are evaluated again.
+	 * @param includeChanged if true the changed nodes are returned too
+	 */
+	public synchronized ChangedDependencies getChangedDependencies(Collection<NodeModel> changedNodes, boolean includeChanged) {
+		final Map<NodeModel, List<NodeModel>> dependents = new LinkedHashMap<>();
+		final ArrayDeque<NodeModel> uncheckedNodes = new ArrayDeque<>();
+		for (NodeModel changedNode : changedNodes) {
+			if (includeChanged)
+				add(dependents, uncheckedNodes, changedNode);
+			else {
+				final List<NodeModel> directDependents = new ArrayList<>();
+				addDirectDependents(directDependents, changedNode);
+				for (NodeModel dependent : directDependents)
+					add(dependents, uncheckedNodes, dependent);
 			}
 		}
-		getRecursively(accessingNodes, onAnyNodeDependencies.keySet());
-		onAnyNodeDependencies.clear();
-//		System.out.println("dependencies on(" + node + "): " + accessingNodes);
+		return collectDependents(dependents, uncheckedNodes, true);
+	}
+
+	public synchronized ChangedDependencies getGlobalDependencies() {
+		final Map<NodeModel, List<NodeModel>> dependents = new LinkedHashMap<>();
+		final ArrayDeque<NodeModel> uncheckedNodes = new ArrayDeque<>();
+		for (NodeModel node : onGlobalNodeDependencies.keySet())
+			add(dependents, uncheckedNodes, node);
+		return collectDependents(dependents, uncheckedNodes, !dependents.isEmpty());
 	}
 
-	public void getGlobalDependencies(Set<NodeModel> accessingNodes) {
-		getRecursively(accessingNodes, onGlobalNodeDependencies.keySet());
-//		System.out.println("dependencies on(" + node + "): " + accessingNodes);
+	public synchronized ChangedDependencies removeAndReturnChangedDependencies(final MapModel accessedMap) {
+		final Map<NodeModel, List<NodeModel>> dependents = new LinkedHashMap<>();
+		final ArrayDeque<NodeModel> uncheckedNodes = new ArrayDeque<>();
+		final DependentNodeReferences onMap = onMapDependencies.remove(accessedMap);
+		if (onMap != null) {
+			for (NodeModel node : onMap)
+				add(dependents, uncheckedNodes, node);
+		}
+		return collectDependents(dependents, uncheckedNodes, !dependents.isEmpty());
 	}
 
-	public void removeAndReturnChangedDependencies(Set<NodeModel> accessingNodes, final MapModel accessedMap) {
-		final Iterable<NodeModel> onMap = onMapDependencies.remove(accessedMap);
-		if (onMap != null)
-			getRecursively(accessingNodes, onMap);
+	private ChangedDependencies collectDependents(Map<NodeModel, List<NodeModel>> dependents,
+	                                              ArrayDeque<NodeModel> uncheckedNodes, boolean includeNodesDependingOnAnyNode) {
+		final boolean dependOnAnyNode = includeNodesDependingOnAnyNode && !onAnyNodeDependencies.isEmpty();
+		if (dependOnAnyNode) {
+			for (NodeModel node : onAnyNodeDependencies.keySet())
+				add(dependents, uncheckedNodes, node);
+			onAnyNodeDependencies.clear();
+		}
+		addDependentsRecursively(dependents, uncheckedNodes);
+		return new ChangedDependencies(dependents, dependOnAnyNode);
 	}
-	private void getRecursively(Set<NodeModel> accessingNodes, final Iterable<NodeModel> changedAccessedNodes) {
-		for (NodeModel node : changedAccessedNodes) {
-			// avoid loops
-			if (accessingNodes.add(node)) {
-				getChangedDependencies(accessingNodes, node);
-			}
+
+	private void add(Map<NodeModel, List<NodeModel>> dependents, ArrayDeque<NodeModel> uncheckedNodes, NodeModel node) {
+		if (!dependents.containsKey(node)) {
+			dependents.put(node, new ArrayList<>());
+			uncheckedNodes.add(node);
+		}
+	}
+
+	private void addDependentsRecursively(Map<NodeModel, List<NodeModel>> dependents, ArrayDeque<NodeModel> uncheckedNodes) {
+		while (!uncheckedNodes.isEmpty()) {
+			final NodeModel node = uncheckedNodes.poll();
+			final List<NodeModel> directDependents = dependents.get(node);
+			addDirectDependents(directDependents, node);
+			for (NodeModel dependent : directDependents)
+				add(dependents, uncheckedNodes, dependent);
+		}
+	}
+
+	private void addDirectDependents(List<NodeModel> directDependents, NodeModel accessedNode) {
+		final DependentNodeReferences onNode = onNodeDependencies.get(accessedNode);
+		if (onNode != null)
+			onNode.addTo(directDependents);
+		if (onBranchDependencies.isEmpty())
+			return;
+		for (NodeModel ancestor = accessedNode.getParentNode(); ancestor != null; ancestor = ancestor.getParentNode()) {
+			final DependentNodeReferences onBranch = onBranchDependencies.get(ancestor);
+			if (onBranch != null)
+				onBranch.addTo(directDependents);
 		}
 	}
 
 	/** accessedNode was accessed when accessingNode was evaluated. */
-	public void accessNode(NodeModel accessingNode, NodeModel accessedNode) {
+	public synchronized void accessNode(NodeModel accessingNode, NodeModel accessedNode) {
 		// FIXME: check if accessedNode is already covered by other accessModes
 		provideDependencySet(accessedNode, onNodeDependencies).add(accessingNode);
 		addAccessedMap(accessingNode, accessedNode);
@@ -92,7 +152,7 @@ public class EvaluationDependencies implements IExtension{
 	}
 
 	/** accessedNode.children was accessed when accessingNode was evaluated. */
-	public void accessBranch(NodeModel accessingNode, NodeModel accessedNode) {
+	public synchronized void accessBranch(NodeModel accessingNode, NodeModel accessedNode) {
 		// FIXME: check if accessedNode is already covered by other accessModes
 		provideDependencySet(accessedNode, onBranchDependencies).add(accessingNode);
 		addAccessedMap(accessingNode, accessedNode);
@@ -106,13 +166,13 @@ public class EvaluationDependencies implements IExtension{
 	}
 
 	/** a method was used on the accessingNode that may use any node in the map. */
-	public void accessAll(NodeModel accessingNode) {
+	public synchronized void accessAll(NodeModel accessingNode) {
 		// FIXME: check if accessedNode is already covered by other accessModes
 		onAnyNodeDependencies.put(accessingNode, null);
 //		System.out.println(accessingNode + " accesses all nodes. current dependencies:\n" + this);
 	}
 
-	public void accessGlobalNode(NodeModel accessingNode) {
+	public synchronized void accessGlobalNode(NodeModel accessingNode) {
 		onGlobalNodeDependencies.put(accessingNode, null);
 	}
 
@@ -126,13 +186,17 @@ public class EvaluationDependencies implements IExtension{
 		return set;
 	}
 
-	public Iterable<NodeModel> getPossibleDependencies(NodeModel node) {
-		Iterable<NodeModel> dependencies = onNodeDependencies.get(node);
-		return dependencies != null ? dependencies : Collections.<NodeModel>emptyList();
+	public synchronized Iterable<NodeModel> getPossibleDependencies(NodeModel node) {
+		final DependentNodeReferences dependencies = onNodeDependencies.get(node);
+		if (dependencies == null)
+			return Collections.<NodeModel>emptyList();
+		final List<NodeModel> nodes = new ArrayList<>();
+		dependencies.addTo(nodes);
+		return nodes;
 	}
 
 	@Override
-	public String toString() {
+	public synchronized String toString() {
 		StringBuilder builder = new StringBuilder();
 		for (Entry<NodeModel, DependentNodeReferences> entry : onNodeDependencies.entrySet()) {
 			builder.append("onNode (" + entry.getKey().getText() + "):\n");
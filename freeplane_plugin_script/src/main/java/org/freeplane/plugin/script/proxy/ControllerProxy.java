@@ -19,6 +19,7 @@ import javax.swing.Icon;
 import javax.swing.filechooser.FileFilter;
 
 import org.freeplane.api.AttributeValueSerializer;
+import org.freeplane.api.HeadlessWorkerPool;
 import org.freeplane.api.MindMap;
 import org.freeplane.api.Node;
 import org.freeplane.api.NodeCondition;
@@ -42,6 +43,7 @@ import org.freeplane.features.text.TextController;
 import org.freeplane.features.text.mindmapmode.MTextController;
 import org.freeplane.features.ui.IMapViewManager;
 import org.freeplane.features.ui.ViewController;
+import org.freeplane.main.headlessmode.WorkerControllerPoolFactory;
 import org.freeplane.plugin.script.ScriptContext;
 
 import groovy.lang.Closure;
@@ -369,6 +371,15 @@ class ControllerProxy implements Proxy.Controller {
 		return StaticAttributeValueSerializer.INSTANCE;
 	}
 
+	@Override
+	public HeadlessWorkerPool createWorkerPool(int workerCount) {
+		final WorkerControllerPoolFactory poolFactory = Controller.getCurrentController()
+		    .getExtension(WorkerControllerPoolFactory.class);
+		if (poolFactory == null)
+			throw new UnsupportedOperationException("Worker pools are only available in headless mode");
+		return new HeadlessWorkerPoolProxy(poolFactory.createPool(workerCount));
+	}
+
 	@Override
 	public ExecutorService getMainThreadExecutorService() {
 		return Controller.getCurrentController().getMainThreadExecutorService();
@@ -0,0 +1,56 @@
+package org.freeplane.plugin.script.proxy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.freeplane.api.HeadlessMapCreator;
+import org.freeplane.api.HeadlessWorkerPool;
+import org.freeplane.main.headlessmode.WorkerControllerPool;
+
+/**
+ * Each task gets its own map creator without script context,
+ * so that tasks neither share the context of the submitting script nor record dependencies in it.
+ */
+class HeadlessWorkerPoolProxy implements HeadlessWorkerPool {
+	private final WorkerControllerPool pool;
+
+	HeadlessWorkerPoolProxy(WorkerControllerPool pool) {
+		this.pool = pool;
+	}
+
+	private static HeadlessMapCreator createMapCreator() {
+		return new ControllerProxy(null);
+	}
+
+	@Override
+	public int getWorkerCount() {
+		return pool.getWorkerCount();
+	}
+
+	@Override
+	public <T> Future<T> submit(Function<HeadlessMapCreator, T> task) {
+		return pool.submit(() -> task.apply(createMapCreator()));
+	}
+
+	@Override
+	public <S, T> List<T> processAll(Collection<S> inputs, BiFunction<HeadlessMapCreator, S, T> task)
+	        throws InterruptedException, ExecutionException {
+		final List<Future<T>> futures = new ArrayList<>(inputs.size());
+		for (S input : inputs)
+			futures.add(pool.submit(() -> task.apply(createMapCreator(), input)));
+		final List<T> results = new ArrayList<>(futures.size());
+		for (Future<T> future : futures)
+			results.add(future.get());
+		return results;
+	}
+
+	@Override
+	public void close() {
+		pool.close();
+	}
+}
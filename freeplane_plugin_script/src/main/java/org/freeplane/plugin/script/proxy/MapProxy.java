@@ -1,6 +1,7 @@
 package org.freeplane.plugin.script.proxy;
 
 import groovy.lang.Closure;
+import org.freeplane.api.FormulaCacheStatistics;
 import org.freeplane.api.NodeChangeListener;
 import org.freeplane.api.NodeCondition;
 import org.freeplane.core.resources.ResourceController;
@@ -278,6 +279,11 @@ public class MapProxy extends AbstractProxy<MapModel> implements MindMap, Map {
 		FormulaUtils.evaluateOutdatedFormulas(getDelegate());
 	}
 
+	@Override
+	public FormulaCacheStatistics getFormulaCacheStatistics() {
+		return FormulaUtils.getCacheStatistics(getDelegate());
+	}
+
 	@Override
 	public void addListener(NodeChangeListener listener) {
 		NodeChangeListeners.of(Controller.getCurrentModeController(), getDelegate()).add(getScriptContext(), listener);
@@ -0,0 +1,174 @@
+package org.freeplane.plugin.script;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Properties;
+
+import org.apache.commons.io.FileUtils;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.features.mode.MockControllerRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import groovy.lang.Binding;
+
+public class CompiledScriptCacheShould {
+	private static final String SCRIPT = "1 + 1";
+	private static final long KILOBYTE = 1024;
+	@Rule
+	public final MockControllerRule controllerRule = new MockControllerRule();
+	@Rule
+	public final TemporaryFolder userDirectory = new TemporaryFolder();
+
+	@Before
+	public void setup() {
+		final ResourceController resourceController = controllerRule.getResourceController();
+		when(resourceController.getProperty(anyString(), anyString()))
+		    .thenAnswer(invocation -> invocation.getArgument(1));
+		when(resourceController.getFreeplaneUserDirectory()).thenReturn(userDirectory.getRoot().getPath());
+		when(resourceController.getBooleanProperty(ClasspathScriptCompiler.COMPILE_ONLY_CHANGED_SCRIPT_FILES))
+		    .thenReturn(true);
+		when(resourceController.getLongProperty(CompiledScriptCleaner.COMPILED_SCRIPT_TEXT_CACHE_SIZE, 0))
+		    .thenReturn(1L);
+		if (ScriptResources.getClasspath() == null)
+			ScriptResources.setClasspath(Collections.<String> emptyList());
+	}
+
+	private Object run(String script) {
+		return shell().parse(script).run();
+	}
+
+	private GroovyShell shell() {
+		return new GroovyShell(null, new Binding(), new CompilerConfiguration());
+	}
+
+	private File[] caches() {
+		final File[] caches = ScriptResources.getCompiledScriptsDir().listFiles();
+		return caches != null ? caches : new File[0];
+	}
+
+	private File onlyCache() {
+		final File[] caches = caches();
+		assertThat(caches).hasSize(1);
+		return caches[0];
+	}
+
+	private static Properties load(File cache) throws IOException {
+		final Properties properties = new Properties();
+		try (InputStream in = new FileInputStream(new File(cache, GroovyShell.COMPILED_PROPERTIES))) {
+			properties.load(in);
+		}
+		return properties;
+	}
+
+	private static void store(File cache, Properties properties) throws IOException {
+		try (OutputStream out = new FileOutputStream(new File(cache, GroovyShell.COMPILED_PROPERTIES))) {
+			properties.store(out, "");
+		}
+	}
+
+	private static void markCompileTime(File cache, String time) throws IOException {
+		final Properties properties = load(cache);
+		properties.setProperty("time", time);
+		store(cache, properties);
+	}
+
+	private File createScriptTextCache(String name, long size, long lastUsageTime) throws IOException {
+		final File cache = new File(ScriptResources.getCompiledScriptsDir(), name);
+		final File classes = new File(cache, "classes");
+		classes.mkdirs();
+		try (OutputStream out = new FileOutputStream(new File(classes, "Script.class"))) {
+			out.write(new byte[(int) size]);
+		}
+		final Properties properties = new Properties();
+		properties.setProperty("class", "Script");
+		properties.setProperty("time", Long.toString(System.currentTimeMillis()));
+		properties.setProperty("classpath", "");
+		store(cache, properties);
+		new File(cache, GroovyShell.COMPILED_PROPERTIES).setLastModified(lastUsageTime);
+		return cache;
+	}
+
+	@Test
+	public void loadClassesCompiledFromSameScriptText() throws Exception {
+		assertThat(run(SCRIPT)).isEqualTo(2);
+		final File cache = onlyCache();
+		markCompileTime(cache, "1");
+
+		assertThat(run(SCRIPT)).isEqualTo(2);
+
+		assertThat(onlyCache()).isEqualTo(cache);
+		assertThat(load(cache).getProperty("time")).isEqualTo("1");
+	}
+
+	@Test
+	public void compileScriptTextAgainAfterClasspathChange() throws Exception {
+		run(SCRIPT);
+		final File cache = onlyCache();
+		final Properties properties = load(cache);
+		properties.setProperty("time", "1");
+		properties.setProperty("classpath", "other classpath");
+		store(cache, properties);
+
+		assertThat(run(SCRIPT)).isEqualTo(2);
+
+		assertThat(load(cache).getProperty("time")).isNotEqualTo("1");
+	}
+
+	@Test
+	public void compileScriptFileAgainAfterItChanged() throws Exception {
+		final File script = userDirectory.newFile("script.groovy");
+		FileUtils.writeStringToFile(script, SCRIPT, "UTF-8");
+		script.setLastModified(System.currentTimeMillis() - 10000);
+		assertThat(shell().parse(script).run()).isEqualTo(2);
+		final File cache = onlyCache();
+		markCompileTime(cache, Long.toString(System.currentTimeMillis() - 5000));
+
+		FileUtils.writeStringToFile(script, "2 + 2", "UTF-8");
+
+		assertThat(shell().parse(script).run()).isEqualTo(4);
+	}
+
+	@Test
+	public void notKeepCacheOfScriptFailingToCompile() throws Exception {
+		assertThatThrownBy(() -> run("1 +")).isInstanceOf(CompilationFailedException.class);
+
+		assertThat(caches()).isEmpty();
+	}
+
+	@Test
+	public void removeLeastRecentlyUsedScriptTextCachesExceedingSizeLimit() throws Exception {
+		final long now = System.currentTimeMillis();
+		final File older = createScriptTextCache("older", 600 * KILOBYTE, now - 2000);
+		final File newer = createScriptTextCache("newer", 600 * KILOBYTE, now - 1000);
+
+		new CompiledScriptCleaner().removeOutdatedCompiledScripts(true);
+
+		assertThat(newer).exists();
+		assertThat(older).doesNotExist();
+	}
+
+	@Test
+	public void removeCachesWithoutProperties() throws Exception {
+		final File incomplete = new File(new File(ScriptResources.getCompiledScriptsDir(), "incomplete"), "classes");
+		incomplete.mkdirs();
+
+		new CompiledScriptCleaner().removeOutdatedCompiledScripts(true);
+
+		assertThat(caches()).isEmpty();
+	}
+}
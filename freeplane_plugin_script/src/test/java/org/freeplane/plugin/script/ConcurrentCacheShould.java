@@ -0,0 +1,90 @@
+package org.freeplane.plugin.script;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class ConcurrentCacheShould {
+	private final ConcurrentCache<String, Object> cache = new ConcurrentCache<>(() -> 2);
+
+	@Test
+	public void returnCachedValue() {
+		final Object value = new Object();
+		cache.computeIfAbsent("key", () -> value);
+
+		assertThat(cache.computeIfAbsent("key", Object::new)).isSameAs(value);
+	}
+
+	@Test
+	public void evictLeastRecentlyUsedValue() {
+		final Object first = cache.computeIfAbsent("first", Object::new);
+		final Object second = cache.computeIfAbsent("second", Object::new);
+		cache.computeIfAbsent("first", Object::new);
+
+		cache.computeIfAbsent("third", Object::new);
+
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.computeIfAbsent("first", Object::new)).isSameAs(first);
+		assertThat(cache.computeIfAbsent("second", Object::new)).isNotSameAs(second);
+	}
+
+	@Test
+	public void computeValueAgainAfterFailure() {
+		try {
+			cache.computeIfAbsent("key", () -> {throw new IllegalStateException();});
+		}
+		catch (IllegalStateException e) {
+		}
+		final Object value = new Object();
+
+		assertThat(cache.computeIfAbsent("key", () -> value)).isSameAs(value);
+	}
+
+	@Test
+	public void computeValueOnceForConcurrentCallers() throws Exception {
+		final int callerCount = 8;
+		final AtomicInteger computations = new AtomicInteger();
+		final CountDownLatch start = new CountDownLatch(1);
+		final ExecutorService executor = Executors.newFixedThreadPool(callerCount);
+		try {
+			final List<Future<Object>> results = new ArrayList<>();
+			for (int i = 0; i < callerCount; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return cache.computeIfAbsent("key", () -> {
+						computations.incrementAndGet();
+						sleep();
+						return new Object();
+					});
+				}));
+			}
+			start.countDown();
+			final Object value = results.get(0).get(10, TimeUnit.SECONDS);
+			for (Future<Object> result : results)
+				assertThat(result.get(10, TimeUnit.SECONDS)).isSameAs(value);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(computations.get()).isEqualTo(1);
+	}
+
+	private static void sleep() {
+		try {
+			Thread.sleep(50);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
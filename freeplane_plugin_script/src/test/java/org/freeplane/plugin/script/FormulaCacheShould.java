@@ -0,0 +1,111 @@
+package org.freeplane.plugin.script;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import org.freeplane.api.FormulaCacheStatistics;
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.mode.MockControllerRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class FormulaCacheShould {
+	private static final String SCRIPT = "1 + 1";
+	private static final long MEGABYTE = 1024 * 1024;
+	private final MapModel map = new MapModel(null, null);
+	@Rule
+	public final MockControllerRule controllerRule = new MockControllerRule();
+	private final ResourceController resourceController = controllerRule.getResourceController();
+	private FormulaCache cache;
+
+	@Before
+	public void setup() {
+		cache = new FormulaCache();
+	}
+
+	private void setMemoryLimitInMegabytes(long limit) {
+		when(resourceController.getLongProperty(FormulaCache.MEMORY_LIMIT_PROPERTY, 0)).thenReturn(limit);
+	}
+
+	private NodeScript nodeScript(String id) {
+		final NodeModel node = new NodeModel(id, map);
+		node.setID(id);
+		return new NodeScript(node, SCRIPT);
+	}
+
+	private static CachedResult result(Object value) {
+		return new CachedResult(value, null);
+	}
+
+	@Test
+	public void countHitsAndMisses() {
+		final NodeScript nodeScript = nodeScript("ID_1");
+
+		assertThat(cache.getOrThrowCachedResult(nodeScript)).isNull();
+		cache.put(nodeScript, result(2));
+		assertThat(cache.getOrThrowCachedResult(nodeScript)).isEqualTo(2);
+
+		final FormulaCacheStatistics statistics = cache.getStatistics();
+		assertThat(statistics.getHits()).isEqualTo(1);
+		assertThat(statistics.getMisses()).isEqualTo(1);
+		assertThat(statistics.getCachedResults()).isEqualTo(1);
+	}
+
+	@Test
+	public void keepAllResultsWithoutMemoryLimit() {
+		setMemoryLimitInMegabytes(0);
+		final NodeScript first = nodeScript("ID_1");
+		final NodeScript second = nodeScript("ID_2");
+
+		cache.put(first, result(new String(new char[(int) MEGABYTE])));
+		cache.put(second, result(new String(new char[(int) MEGABYTE])));
+
+		assertThat(cache.getStatistics().getEvictions()).isZero();
+		assertThat(cache.getStatistics().getCachedResults()).isEqualTo(2);
+	}
+
+	@Test
+	public void evictLeastRecentlyUsedResultsExceedingMemoryLimit() {
+		setMemoryLimitInMegabytes(1);
+		final NodeScript first = nodeScript("ID_1");
+		final NodeScript second = nodeScript("ID_2");
+		final NodeScript third = nodeScript("ID_3");
+		final String halfMegabyteText = new String(new char[(int) MEGABYTE / 4 - 100]);
+		cache.put(first, result(halfMegabyteText));
+		cache.put(second, result(halfMegabyteText));
+		cache.getOrThrowCachedResult(first);
+
+		cache.put(third, result(halfMegabyteText));
+
+		assertThat(cache.getOrThrowCachedResult(second)).isNull();
+		assertThat(cache.getOrThrowCachedResult(first)).isSameAs(halfMegabyteText);
+		assertThat(cache.getOrThrowCachedResult(third)).isSameAs(halfMegabyteText);
+		assertThat(cache.getStatistics().getEvictions()).isEqualTo(1);
+	}
+
+	@Test
+	public void keepMostRecentResultExceedingMemoryLimit() {
+		setMemoryLimitInMegabytes(1);
+		final NodeScript nodeScript = nodeScript("ID_1");
+		final String text = new String(new char[(int) MEGABYTE]);
+
+		cache.put(nodeScript, result(text));
+
+		assertThat(cache.getOrThrowCachedResult(nodeScript)).isSameAs(text);
+	}
+
+	@Test
+	public void releaseEstimatedSizeOfRemovedResults() {
+		final NodeScript nodeScript = nodeScript("ID_1");
+		cache.put(nodeScript, result("text"));
+		cache.put(nodeScript, result("other text"));
+
+		cache.remove(nodeScript.node);
+
+		assertThat(cache.getStatistics().getEstimatedSize()).isZero();
+		assertThat(cache.getStatistics().getCachedResults()).isZero();
+	}
+}
@@ -0,0 +1,62 @@
+package org.freeplane.plugin.script;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ScriptOutputShould {
+	@Test
+	public void passOutputOfConcurrentScriptsToTheirOwnStreams() throws Exception {
+		final int threadCount = 4;
+		final CyclicBarrier barrier = new CyclicBarrier(threadCount);
+		final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		try {
+			final Future<?>[] results = new Future<?>[threadCount];
+			final ByteArrayOutputStream[] outputs = new ByteArrayOutputStream[threadCount];
+			for (int i = 0; i < threadCount; i++) {
+				final String text = "script " + i;
+				final ByteArrayOutputStream output = outputs[i] = new ByteArrayOutputStream();
+				results[i] = executor.submit(() -> {
+					final PrintStream oldOut = ScriptOutput.getThreadOut();
+					ScriptOutput.setThreadOut(new PrintStream(output, true));
+					try {
+						barrier.await();
+						for (int line = 0; line < 100; line++)
+							System.out.println(text);
+					}
+					finally {
+						ScriptOutput.setThreadOut(oldOut);
+					}
+					return null;
+				});
+			}
+			for (int i = 0; i < threadCount; i++) {
+				results[i].get(10, TimeUnit.SECONDS);
+				assertThat(outputs[i].toString().split(System.lineSeparator())).hasSize(100).containsOnly("script " + i);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void endRedirectionOfCurrentThread() {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		ScriptOutput.setThreadOut(new PrintStream(output, true));
+		ScriptOutput.setThreadOut(null);
+
+		System.out.println("not redirected");
+
+		assertThat(ScriptOutput.getThreadOut()).isNull();
+		assertThat(output.size()).isZero();
+	}
+}
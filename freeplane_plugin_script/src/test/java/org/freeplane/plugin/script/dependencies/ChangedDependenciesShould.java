@@ -0,0 +1,93 @@
+package org.freeplane.plugin.script.dependencies;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+import org.junit.Test;
+
+public class ChangedDependenciesShould {
+	private final MapModel map = new MapModel(null, null);
+	private final NodeModel a = new NodeModel("a", map);
+	private final NodeModel b = new NodeModel("b", map);
+	private final NodeModel c = new NodeModel("c", map);
+	private final NodeModel d = new NodeModel("d", map);
+	private final Map<NodeModel, List<NodeModel>> dependents = new LinkedHashMap<>();
+
+	private void dependents(NodeModel node, NodeModel... nodeDependents) {
+		dependents.put(node, Arrays.asList(nodeDependents));
+	}
+
+	@Test
+	public void orderNodesAfterTheirPrecedents() {
+		dependents(c);
+		dependents(a, b, c);
+		dependents(b, c);
+
+		final ChangedDependencies changedDependencies = new ChangedDependencies(dependents, false);
+
+		assertThat(changedDependencies.getNodes()).containsExactly(a, b, c);
+		assertThat(changedDependencies.getClusters()).hasSize(1);
+	}
+
+	@Test
+	public void splitIndependentNodesIntoClusters() {
+		dependents(a, b);
+		dependents(b);
+		dependents(c, d);
+		dependents(d);
+
+		final ChangedDependencies changedDependencies = new ChangedDependencies(dependents, false);
+
+		assertThat(changedDependencies.getClusters()).hasSize(2);
+		assertThat(changedDependencies.getClusters().get(0).getNodes()).containsExactly(a, b);
+		assertThat(changedDependencies.getClusters().get(1).getNodes()).containsExactly(c, d);
+		assertThat(changedDependencies.getClusters().get(0).isCyclic()).isFalse();
+	}
+
+	@Test
+	public void keepAllNodesInOneClusterIfSomeDependOnAnyNode() {
+		dependents(a);
+		dependents(b);
+
+		final ChangedDependencies changedDependencies = new ChangedDependencies(dependents, true);
+
+		assertThat(changedDependencies.getClusters()).hasSize(1);
+		assertThat(changedDependencies.getNodes()).containsExactly(a, b);
+	}
+
+	@Test
+	public void markClustersContainingCyclesAsCyclic() {
+		dependents(a, b);
+		dependents(b, c);
+		dependents(c, b);
+		dependents(d);
+
+		final ChangedDependencies changedDependencies = new ChangedDependencies(dependents, false);
+
+		assertThat(changedDependencies.getNodes()).containsExactlyInAnyOrder(a, b, c, d);
+		assertThat(changedDependencies.getClusters()).hasSize(2);
+		assertThat(changedDependencies.getClusters().get(0).getNodes()).startsWith(a);
+		assertThat(changedDependencies.getClusters().get(0).isCyclic()).isTrue();
+		assertThat(changedDependencies.getClusters().get(1).isCyclic()).isFalse();
+	}
+
+	@Test
+	public void joinClustersOfDifferentMaps() {
+		dependents(a);
+		final ChangedDependencies first = new ChangedDependencies(dependents, false);
+		final ChangedDependencies second = new ChangedDependencies(Collections.singletonMap(b,
+		    Collections.<NodeModel> emptyList()), false);
+
+		final ChangedDependencies joined = ChangedDependencies.join(Arrays.asList(first, second));
+
+		assertThat(joined.getNodes()).containsExactly(a, b);
+		assertThat(joined.getClusters()).hasSize(2);
+	}
+}